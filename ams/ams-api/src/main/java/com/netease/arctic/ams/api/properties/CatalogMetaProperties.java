@@ -56,6 +56,17 @@ public class CatalogMetaProperties {
     public static final String CLIENT_POOL_CACHE_EVICTION_INTERVAL_MS = "client.pool.cache.eviction-interval-ms";
     public static final long CLIENT_POOL_CACHE_EVICTION_INTERVAL_MS_DEFAULT = TimeUnit.MINUTES.toMillis(5);
 
+    // cache contents of manifests and delete files read by table file io
+    public static final String FILE_CACHE_ENABLED = "file-cache.enabled";
+    public static final boolean FILE_CACHE_ENABLED_DEFAULT = false;
+    public static final String FILE_CACHE_MEMORY_CAPACITY = "file-cache.memory.capacity-bytes";
+    public static final long FILE_CACHE_MEMORY_CAPACITY_DEFAULT = 256 * 1024 * 1024L;
+    public static final String FILE_CACHE_DISK_CAPACITY = "file-cache.disk.capacity-bytes";
+    public static final long FILE_CACHE_DISK_CAPACITY_DEFAULT = 4 * 1024 * 1024 * 1024L;
+    public static final String FILE_CACHE_DISK_PATH = "file-cache.disk.path";
+    public static final String FILE_CACHE_MAX_FILE_SIZE = "file-cache.max-file-size-bytes";
+    public static final long FILE_CACHE_MAX_FILE_SIZE_DEFAULT = 32 * 1024 * 1024L;
+
     // only used for engine properties
     public static final String LOAD_AUTH_FROM_AMS = "auth.load-from-ams";
     public static final boolean LOAD_AUTH_FROM_AMS_DEFAULT = true;
@@ -28,6 +28,22 @@ public class OptimizerProperties {
   public static final String OPTIMIZER_GROUP_PROPERTIES = "properties";
   public static final String OPTIMIZER_GROUP_HEART_BEAT_INTERVAL = "heartBeatInterval";
   public static final Long OPTIMIZER_GROUP_HEART_BEAT_INTERVAL_DEFAULT = 60000L;
+  public static final String OPTIMIZER_GROUP_TASK_SLOTS = "taskSlots";
+  public static final String OPTIMIZER_GROUP_POLL_AHEAD = "pollAhead";
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_ENABLED = "autoscale.enabled";
+  public static final boolean OPTIMIZER_GROUP_AUTOSCALE_ENABLED_DEFAULT = false;
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_MIN_PARALLELISM = "autoscale.min-parallelism";
+  public static final int OPTIMIZER_GROUP_AUTOSCALE_MIN_PARALLELISM_DEFAULT = 1;
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_MAX_PARALLELISM = "autoscale.max-parallelism";
+  public static final int OPTIMIZER_GROUP_AUTOSCALE_MAX_PARALLELISM_DEFAULT = 16;
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_TARGET_UTILIZATION = "autoscale.target-utilization";
+  public static final double OPTIMIZER_GROUP_AUTOSCALE_TARGET_UTILIZATION_DEFAULT = 0.8;
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_BYTES_PER_PARALLELISM = "autoscale.bytes-per-parallelism";
+  public static final long OPTIMIZER_GROUP_AUTOSCALE_BYTES_PER_PARALLELISM_DEFAULT = 1024L * 1024 * 1024; // 1 GB
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_SCALE_OUT_COOLDOWN = "autoscale.scale-out.cooldown";
+  public static final long OPTIMIZER_GROUP_AUTOSCALE_SCALE_OUT_COOLDOWN_DEFAULT = 3 * 60 * 1000L; // 3 min
+  public static final String OPTIMIZER_GROUP_AUTOSCALE_SCALE_IN_COOLDOWN = "autoscale.scale-in.cooldown";
+  public static final long OPTIMIZER_GROUP_AUTOSCALE_SCALE_IN_COOLDOWN_DEFAULT = 15 * 60 * 1000L; // 15 min
 
   //ams system properties
   public static final String AMS_SYSTEM_INFO = "systemInfo";
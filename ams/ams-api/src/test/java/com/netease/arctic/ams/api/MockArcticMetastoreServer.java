@@ -33,6 +33,7 @@ import java.net.BindException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -142,6 +143,10 @@ public class MockArcticMetastoreServer implements Runnable {
     return amsHandler;
   }
 
+  public OptimizeManagerHandler optimizeManagerHandler() {
+    return optimizeManagerHandler;
+  }
+
   public int port() {
     return port;
   }
@@ -334,8 +339,26 @@ public class MockArcticMetastoreServer implements Runnable {
   }
 
   public class OptimizeManagerHandler implements OptimizeManager.Iface {
+    private final ConcurrentLinkedQueue<OptimizeTask> tasks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<OptimizeTaskStat> reportedResults = new ConcurrentLinkedQueue<>();
+    private final List<Integer> polledBatchSizes = Collections.synchronizedList(new ArrayList<>());
 
     public void cleanUp() {
+      tasks.clear();
+      reportedResults.clear();
+      polledBatchSizes.clear();
+    }
+
+    public void offerTask(OptimizeTask task) {
+      tasks.offer(task);
+    }
+
+    public List<OptimizeTaskStat> getReportedResults() {
+      return new ArrayList<>(reportedResults);
+    }
+
+    public List<Integer> getPolledBatchSizes() {
+      return new ArrayList<>(polledBatchSizes);
     }
 
     @Override
@@ -346,12 +369,26 @@ public class MockArcticMetastoreServer implements Runnable {
     @Override
     public OptimizeTask pollTask(int queueId, JobId jobId, String attemptId, long waitTime)
         throws NoSuchObjectException, TException {
-      return null;
+      OptimizeTask task = tasks.poll();
+      polledBatchSizes.add(task == null ? 0 : 1);
+      return task;
     }
 
     @Override
-    public void reportOptimizeResult(OptimizeTaskStat optimizeTaskStat) throws TException {
+    public List<OptimizeTask> pollTasks(int queueId, JobId jobId, String attemptId, long waitTime, int maxTasks)
+        throws NoSuchObjectException, TException {
+      List<OptimizeTask> polledTasks = new ArrayList<>();
+      OptimizeTask task;
+      while (polledTasks.size() < maxTasks && (task = tasks.poll()) != null) {
+        polledTasks.add(task);
+      }
+      polledBatchSizes.add(polledTasks.size());
+      return polledTasks;
+    }
 
+    @Override
+    public void reportOptimizeResult(OptimizeTaskStat optimizeTaskStat) throws TException {
+      reportedResults.offer(optimizeTaskStat);
     }
 
     @Override
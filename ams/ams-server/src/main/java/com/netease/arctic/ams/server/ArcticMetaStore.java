@@ -44,6 +44,7 @@ import com.netease.arctic.ams.server.service.impl.DDLTracerService;
 import com.netease.arctic.ams.server.service.impl.DerbyService;
 import com.netease.arctic.ams.server.service.impl.FileInfoCacheService;
 import com.netease.arctic.ams.server.service.impl.OptimizeExecuteService;
+import com.netease.arctic.ams.server.service.impl.OptimizerAutoScaler;
 import com.netease.arctic.ams.server.service.impl.RuntimeDataExpireService;
 import com.netease.arctic.ams.server.utils.AmsUtils;
 import com.netease.arctic.ams.server.utils.SecurityUtils;
@@ -323,6 +324,7 @@ public class ArcticMetaStore {
         startOrphanClean();
         startSupportHiveSync();
         monitorOptimizerStatus();
+        autoScaleOptimizers(conf.getLong(ArcticMetaStoreConf.OPTIMIZER_AUTOSCALE_INTERVAL));
         tableRuntimeDataExpire();
         AmsRestServer.startRestServer(httpPort);
         startSyncDDl();
@@ -418,6 +420,15 @@ public class ArcticMetaStore {
         TimeUnit.MILLISECONDS);
   }
 
+  private static void autoScaleOptimizers(long checkInterval) {
+    OptimizerAutoScaler autoScaler = new OptimizerAutoScaler();
+    ThreadPool.getPool(ThreadPool.Type.OPTIMIZER_MONITOR).scheduleWithFixedDelay(
+        autoScaler::checkOptimizerGroups,
+        3 * 1000L,
+        checkInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
   private static void tableRuntimeDataExpire() {
     RuntimeDataExpireService runtimeDataExpireService = ServiceContainer.getRuntimeDataExpireService();
     ThreadPool.getPool(ThreadPool.Type.TABLE_RUNTIME_DATA_EXPIRE).scheduleWithFixedDelay(
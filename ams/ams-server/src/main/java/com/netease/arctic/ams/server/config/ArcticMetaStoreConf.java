@@ -73,6 +73,11 @@ public class ArcticMetaStoreConf {
           .longType()
           .defaultValue(60000L)
           .withDescription("Optimize status check interval.");
+  public static final ConfigOption<Long> OPTIMIZER_AUTOSCALE_INTERVAL =
+      ConfigOptions.key("arctic.ams.optimizer.autoscale.interval")
+          .longType()
+          .defaultValue(60000L)
+          .withDescription("Interval to check backlog of optimizer groups with autoscale enabled and scale them.");
   public static final ConfigOption<Integer> OPTIMIZE_CHECK_THREAD_POOL_SIZE =
       ConfigOptions.key("arctic.ams.optimize.check.thread.pool-size")
           .intType()
@@ -173,6 +178,22 @@ public class ArcticMetaStoreConf {
           .longType()
           .defaultValue(5 * 60 * 1000L)
           .withDescription("table file info will be sync-cache when there is long time no cache data.");
+  public static final ConfigOption<Integer> FILE_CACHE_INGEST_THREADS =
+      ConfigOptions.key("file.cache.ingest.threads")
+          .intType()
+          .defaultValue(4)
+          .withDescription("Number of threads caching file info of table commits, commits of a table are cached " +
+              "by the same thread in order.");
+  public static final ConfigOption<Integer> FILE_CACHE_INGEST_MAX_PENDING_COMMITS =
+      ConfigOptions.key("file.cache.ingest.max-pending-commits")
+          .intType()
+          .defaultValue(1000)
+          .withDescription("Max table commits pending to cache file info, table commits block when it is reached.");
+  public static final ConfigOption<Long> FILE_CACHE_INGEST_WAIT_TIMEOUT =
+      ConfigOptions.key("file.cache.ingest.wait-timeout")
+          .longType()
+          .defaultValue(60 * 1000L)
+          .withDescription("Max milliseconds reading file cache of a table waits for pending commits of the table.");
   public static final ConfigOption<String> SYSTEM_EXTENSION_PROPERTIES =
       ConfigOptions.key("system.extension.properties")
           .stringType()
@@ -22,14 +22,11 @@ import com.netease.arctic.ams.server.controller.response.ErrorResponse;
 import com.netease.arctic.ams.server.controller.response.OkResponse;
 import com.netease.arctic.ams.server.controller.response.PageResult;
 import com.netease.arctic.ams.server.model.Optimizer;
-import com.netease.arctic.ams.server.model.OptimizerGroupInfo;
 import com.netease.arctic.ams.server.model.OptimizerResourceInfo;
 import com.netease.arctic.ams.server.model.TableOptimizeInfo;
-import com.netease.arctic.ams.server.model.TableTaskStatus;
 import com.netease.arctic.ams.server.optimize.IOptimizeService;
 import com.netease.arctic.ams.server.optimize.TableOptimizeItem;
 import com.netease.arctic.ams.server.service.ServiceContainer;
-import com.netease.arctic.ams.server.service.impl.ContainerMetaService;
 import com.netease.arctic.ams.server.service.impl.OptimizerService;
 import com.netease.arctic.table.TableIdentifier;
 import io.javalin.http.Context;
@@ -224,46 +221,10 @@ public class OptimizerController extends RestBaseController {
     try {
       String currentTime = new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss").format(new Date());
       String optimizerName = "arctic_optimizer_" + currentTime;
-      OptimizerService optimizerService = new OptimizerService();
-      OptimizerGroupInfo optimizerGroupInfo = optimizerService.getOptimizerGroupInfo(optimizerGroup);
-      ContainerMetaService containerMetaService = new ContainerMetaService();
-      String container = optimizerGroupInfo.getContainer();
-      String containerType = containerMetaService.getContainerType(container);
-      if (containerType.equals("local")) {
-        String memory = optimizerGroupInfo.getProperties().get("memory");
-        optimizerService.insertOptimizer(optimizerName, optimizerGroupInfo.getId(), optimizerGroupInfo.getName(),
-            TableTaskStatus.STARTING,
-            new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss").format(new Date()),
-            parallelism, Long.parseLong(memory), parallelism, container);
-      } else if (containerType.equals("flink")) {
-        int tmMemory = Integer.parseInt(optimizerGroupInfo.getProperties().get("taskmanager.memory"));
-        int jmMemory = Integer.parseInt(optimizerGroupInfo.getProperties().get("jobmanager.memory"));
-        long memory = jmMemory + (long) tmMemory * parallelism;
-
-        optimizerService.insertOptimizer(optimizerName,
-            optimizerGroupInfo.getId(),
-            optimizerGroupInfo.getName(),
-            TableTaskStatus.STARTING,
-            new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss").format(new Date()),
-            parallelism + 1, memory, parallelism, container);
-      } else {
-        ctx.json(new ErrorResponse(HttpCode.BAD_REQUEST, containerType + " type container not support scaleout by ams",
-            ""));
-        return;
-      }
-
-      String optimizerId = optimizerService.selectOptimizerIdByOptimizerName(optimizerName);
-
-      try {
-        ServiceContainer.getOptimizeExecuteService().startOptimizer(Long.parseLong(optimizerId));
-      } catch (Exception e) {
-        LOG.error("Failed to scaleOut optimizer", e);
-        optimizerService.deleteOptimizerByName(optimizerName);
-        ctx.json(new ErrorResponse(HttpCode.BAD_REQUEST,
-            "Failed to scaleOut optimizer", ""));
-        return;
-      }
+      ServiceContainer.getOptimizeExecuteService().scaleOutOptimizer(optimizerGroup, optimizerName, parallelism);
       ctx.json(OkResponse.of("success to scaleOut optimizer"));
+    } catch (IllegalArgumentException e) {
+      ctx.json(new ErrorResponse(HttpCode.BAD_REQUEST, e.getMessage(), ""));
     } catch (Exception e) {
       LOG.error("Failed to scaleOut optimizer", e);
       ctx.json(new ErrorResponse(HttpCode.BAD_REQUEST, "Failed to scaleOut optimizer", ""));
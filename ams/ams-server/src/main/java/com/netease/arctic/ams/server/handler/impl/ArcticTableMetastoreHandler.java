@@ -186,7 +186,7 @@ public class ArcticTableMetastoreHandler implements AmsClient, ArcticTableMetast
       ddlTracerService.commit(commit.getTableIdentifier(), commit.getSchemaUpdateMeta());
     }
     try {
-      fileInfoCacheService.commitCacheFileInfo(commit);
+      fileInfoCacheService.commitCacheFileInfoAsync(commit);
     } catch (Exception e) {
       LOG.warn("commit file cache failed", e);
     }
@@ -29,6 +29,8 @@ import com.netease.arctic.ams.api.OptimizerStateReport;
 import com.netease.arctic.ams.server.service.ServiceContainer;
 import org.apache.thrift.TException;
 
+import java.util.List;
+
 public class OptimizeManagerHandler implements OptimizeManager.Iface {
 
   @Override
@@ -42,6 +44,12 @@ public class OptimizeManagerHandler implements OptimizeManager.Iface {
     return ServiceContainer.getOptimizeQueueService().pollTask(queueId, jobId, attemptId, waitTime);
   }
 
+  @Override
+  public List<OptimizeTask> pollTasks(int queueId, JobId jobId, String attemptId, long waitTime, int maxTasks)
+      throws TException {
+    return ServiceContainer.getOptimizeQueueService().pollTasks(queueId, jobId, attemptId, waitTime, maxTasks);
+  }
+
   @Override
   public void reportOptimizeResult(OptimizeTaskStat optimizeTaskStat) throws NoSuchObjectException {
     ServiceContainer.getOptimizeService().handleOptimizeResult(optimizeTaskStat);
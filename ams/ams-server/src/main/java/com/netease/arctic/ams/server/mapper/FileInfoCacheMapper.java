@@ -24,6 +24,7 @@ import com.netease.arctic.ams.server.model.AMSDataFileInfo;
 import com.netease.arctic.ams.server.model.CacheFileInfo;
 import com.netease.arctic.ams.server.model.PartitionBaseInfo;
 import com.netease.arctic.ams.server.model.PartitionFileBaseInfo;
+import com.netease.arctic.ams.server.model.PartitionStatistics;
 import com.netease.arctic.ams.server.mybatis.Long2TsConvertor;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
@@ -123,6 +124,23 @@ public interface FileInfoCacheMapper {
   List<PartitionBaseInfo> getPartitionBaseInfoList(
           @Param("tableIdentifier") TableIdentifier tableIdentifier);
 
+  @Select("select partition_name, count(1) as file_count, sum(file_size) as file_size, sum(case when file_type in " +
+      "('POS_DELETE_FILE', 'ICEBERG_EQ_DELETE_FILE') then 0 else record_count end) as record_count, " +
+      "max(commit_time) as last_commit_time from " + TABLE_NAME + " where table_identifier = #{tableIdentifier, " +
+      "typeHandler=com.netease.arctic.ams.server.mybatis.TableIdentifier2StringConverter} and " +
+      "inner_table = #{innerTable} and delete_snapshot_id is null group by partition_name")
+  @Results({
+      @Result(column = "partition_name", property = "partition"),
+      @Result(column = "file_count", property = "fileCount"),
+      @Result(column = "file_size", property = "fileSize"),
+      @Result(column = "record_count", property = "recordCount"),
+      @Result(column = "last_commit_time", property = "lastCommitTime",
+          typeHandler = Long2TsConvertor.class)
+  })
+  List<PartitionStatistics> getPartitionStatistics(
+      @Param("tableIdentifier") TableIdentifier tableIdentifier,
+      @Param("innerTable") String innerTable);
+
 
   @Select("<script>" +
           "select add_snapshot_id, partition_name, file_path, partition_name, " +
@@ -42,6 +42,7 @@ public interface OptimizerMapper {
   String TABLE_NAME = "optimizer";
 
   @Select("select optimizer_id as jobId," +
+      "optimizer_name as jobName," +
       "queue_name as groupName," +
       "queue_id as queueId," +
       "optimizer_status as jobStatus," +
@@ -71,6 +71,18 @@ public interface TaskHistoryMapper {
       "#{taskHistory.queueId}) ")
   void insertTaskHistory(@Param("taskHistory") TableTaskHistory taskHistory);
 
+  @Select("<script>" +
+      "select task_trace_id, retry from " + TABLE_NAME + " where task_trace_id in " +
+      "<foreach item='taskTraceId' collection='taskTraceIds' open='(' separator=',' close=')'>" +
+      "#{taskTraceId}" +
+      "</foreach>" +
+      "</script>")
+  @Results({
+      @Result(column = "task_trace_id", property = "taskTraceId"),
+      @Result(column = "retry", property = "retry")
+  })
+  List<TableTaskHistory> selectTaskHistoryKeys(@Param("taskTraceIds") List<String> taskTraceIds);
+
   @Update("update " + TABLE_NAME + " set " +
       "start_time = #{taskHistory.startTime, " +
       "typeHandler=com.netease.arctic.ams.server.mybatis.Long2TsConvertor}, " +
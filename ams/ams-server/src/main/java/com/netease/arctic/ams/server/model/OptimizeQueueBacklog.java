@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.ams.server.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class OptimizeQueueBacklog {
+  private int pendingTasks;
+
+  private long pendingFileSize;
+
+  private int executingTasks;
+
+  // optimizer id to count of tasks executing by the optimizer
+  private Map<String, Integer> executingTasksOfOptimizers = Collections.emptyMap();
+
+  public int getPendingTasks() {
+    return pendingTasks;
+  }
+
+  public void setPendingTasks(int pendingTasks) {
+    this.pendingTasks = pendingTasks;
+  }
+
+  public long getPendingFileSize() {
+    return pendingFileSize;
+  }
+
+  public void setPendingFileSize(long pendingFileSize) {
+    this.pendingFileSize = pendingFileSize;
+  }
+
+  public int getExecutingTasks() {
+    return executingTasks;
+  }
+
+  public void setExecutingTasks(int executingTasks) {
+    this.executingTasks = executingTasks;
+  }
+
+  public Map<String, Integer> getExecutingTasksOfOptimizers() {
+    return executingTasksOfOptimizers;
+  }
+
+  public void setExecutingTasksOfOptimizers(Map<String, Integer> executingTasksOfOptimizers) {
+    this.executingTasksOfOptimizers = executingTasksOfOptimizers;
+  }
+
+  public int getExecutingTasks(String optimizerId) {
+    return executingTasksOfOptimizers.getOrDefault(optimizerId, 0);
+  }
+
+  @Override
+  public String toString() {
+    return "OptimizeQueueBacklog{" +
+        "pendingTasks=" + pendingTasks +
+        ", pendingFileSize=" + pendingFileSize +
+        ", executingTasks=" + executingTasks +
+        '}';
+  }
+}
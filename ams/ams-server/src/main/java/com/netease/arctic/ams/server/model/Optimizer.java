@@ -25,6 +25,7 @@ import java.util.Map;
 
 public class Optimizer {
   private int jobId;
+  private String jobName;
   private String groupName;
   private TableTaskStatus jobStatus;
   private int coreNumber;
@@ -53,6 +54,14 @@ public class Optimizer {
     this.groupName = groupName;
   }
 
+  public String getJobName() {
+    return jobName;
+  }
+
+  public void setJobName(String jobName) {
+    this.jobName = jobName;
+  }
+
   public int getJobId() {
     return jobId;
   }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.ams.server.model;
+
+/**
+ * Totals of the live files of a partition in an inner table.
+ */
+public class PartitionStatistics {
+  private String partition;
+  private int fileCount;
+  private long fileSize;
+  private long recordCount;
+  private long lastCommitTime;
+
+  public PartitionStatistics() {
+  }
+
+  public PartitionStatistics(PartitionStatistics partitionStatistics) {
+    this.partition = partitionStatistics.getPartition();
+    this.fileCount = partitionStatistics.getFileCount();
+    this.fileSize = partitionStatistics.getFileSize();
+    this.recordCount = partitionStatistics.getRecordCount();
+    this.lastCommitTime = partitionStatistics.getLastCommitTime();
+  }
+
+  public String getPartition() {
+    return partition;
+  }
+
+  public void setPartition(String partition) {
+    this.partition = partition;
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public void setFileCount(int fileCount) {
+    this.fileCount = fileCount;
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  public void setFileSize(long fileSize) {
+    this.fileSize = fileSize;
+  }
+
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  public void setRecordCount(long recordCount) {
+    this.recordCount = recordCount;
+  }
+
+  public long getLastCommitTime() {
+    return lastCommitTime;
+  }
+
+  public void setLastCommitTime(long lastCommitTime) {
+    this.lastCommitTime = lastCommitTime;
+  }
+
+  @Override
+  public String toString() {
+    return "PartitionStatistics{" +
+        "partition='" + partition + '\'' +
+        ", fileCount=" + fileCount +
+        ", fileSize=" + fileSize +
+        ", recordCount=" + recordCount +
+        ", lastCommitTime=" + lastCommitTime +
+        '}';
+  }
+}
@@ -40,6 +40,9 @@ public class TableOptimizeInfo {
   private long fileSize = 0;
   private double quota = 0.0;
   private double quotaOccupation = 0.0;
+  private long commitLatency = 0;
+  private long commitFileCount = 0;
+  private long commitRetries = 0;
 
   private String groupName = TableProperties.SELF_OPTIMIZING_GROUP_DEFAULT;
 
@@ -111,6 +114,30 @@ public class TableOptimizeInfo {
     this.groupName = groupName;
   }
 
+  public long getCommitLatency() {
+    return commitLatency;
+  }
+
+  public void setCommitLatency(long commitLatency) {
+    this.commitLatency = commitLatency;
+  }
+
+  public long getCommitFileCount() {
+    return commitFileCount;
+  }
+
+  public void setCommitFileCount(long commitFileCount) {
+    this.commitFileCount = commitFileCount;
+  }
+
+  public long getCommitRetries() {
+    return commitRetries;
+  }
+
+  public void setCommitRetries(long commitRetries) {
+    this.commitRetries = commitRetries;
+  }
+
   @Override
   public String toString() {
     return "TableOptimizeInfo{" +
@@ -122,6 +149,9 @@ public class TableOptimizeInfo {
         ", fileSize=" + fileSize +
         ", quota=" + quota +
         ", quotaOccupation=" + quotaOccupation +
+        ", commitLatency=" + commitLatency +
+        ", commitFileCount=" + commitFileCount +
+        ", commitRetries=" + commitRetries +
         ", groupName='" + groupName + '\'' +
         '}';
   }
@@ -58,6 +58,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -66,6 +67,9 @@ public class BaseOptimizeCommit {
   protected final ArcticTable arcticTable;
   protected final Map<String, List<OptimizeTaskItem>> optimizeTasksToCommit;
   protected final Map<String, OptimizeType> partitionOptimizeType = new HashMap<>();
+  protected final Map<String, List<OptimizeTaskItem>> conflictedTasks = new HashMap<>();
+  protected final Set<String> committedPartitions = new HashSet<>();
+  protected int commitRetries = 0;
 
   public BaseOptimizeCommit(ArcticTable arcticTable,
                             Map<String, List<OptimizeTaskItem>> optimizeTasksToCommit) {
@@ -73,15 +77,35 @@ public class BaseOptimizeCommit {
     this.optimizeTasksToCommit = optimizeTasksToCommit;
   }
 
+  /**
+   * Tasks of partitions committed to the table. If the commit failed with an unexpected error, partitions committed
+   * before the error are still returned, they must be recorded as committed.
+   */
   public Map<String, List<OptimizeTaskItem>> getCommittedTasks() {
-    return optimizeTasksToCommit;
+    Map<String, List<OptimizeTaskItem>> committedTasks = new HashMap<>();
+    committedPartitions.forEach(partition -> committedTasks.put(partition, optimizeTasksToCommit.get(partition)));
+    return committedTasks;
+  }
+
+  /**
+   * Tasks of partitions given up for conflicting with concurrent writes, they should be cleared and re-planned.
+   */
+  public Map<String, List<OptimizeTaskItem>> getConflictedTasks() {
+    return conflictedTasks;
+  }
+
+  /**
+   * Count of partition commits retried after the commit of all partitions in one snapshot conflicted.
+   */
+  public int getCommitRetries() {
+    return commitRetries;
   }
 
   public boolean commit(long baseSnapshotId) throws Exception {
     Set<ContentFile<?>> minorAddFiles = new HashSet<>();
     Set<ContentFile<?>> minorDeleteFiles = new HashSet<>();
-    Set<ContentFile<?>> majorAddFiles = new HashSet<>();
-    Set<ContentFile<?>> majorDeleteFiles = new HashSet<>();
+    Map<String, Set<ContentFile<?>>> majorAddFiles = new HashMap<>();
+    Map<String, Set<ContentFile<?>>> majorDeleteFiles = new HashMap<>();
     try {
       if (optimizeTasksToCommit.isEmpty()) {
         LOG.info("{} get no tasks to commit", arcticTable.id());
@@ -130,10 +154,13 @@ public class BaseOptimizeCommit {
             
             partitionOptimizeType.put(entry.getKey(), OptimizeType.Minor);
           } else {
+            Set<ContentFile<?>> partitionAddFiles =
+                majorAddFiles.computeIfAbsent(entry.getKey(), p -> new HashSet<>());
             task.getOptimizeRuntime().getTargetFiles().stream()
                 .map(SerializationUtils::toInternalTableFile)
-                .forEach(majorAddFiles::add);
-            majorDeleteFiles.addAll(selectDeletedFiles(task, new HashSet<>()));
+                .forEach(partitionAddFiles::add);
+            majorDeleteFiles.computeIfAbsent(entry.getKey(), p -> new HashSet<>())
+                .addAll(selectDeletedFiles(task, new HashSet<>()));
             partitionOptimizeType.put(entry.getKey(), task.getOptimizeTask().getTaskId().getType());
           }
         }
@@ -141,43 +168,40 @@ public class BaseOptimizeCommit {
 
       // commit minor optimize content
       minorCommit(arcticTable, minorAddFiles, minorDeleteFiles, maxTransactionIds, minTransactionIds);
+      optimizeTasksToCommit.keySet().stream()
+          .filter(partition -> !majorAddFiles.containsKey(partition) && !majorDeleteFiles.containsKey(partition))
+          .forEach(committedPartitions::add);
 
-      // commit major optimize content
+      // commit major optimize content, partitions conflicting with concurrent writes are given up
       majorCommit(arcticTable, majorAddFiles, majorDeleteFiles, baseSnapshotId);
 
-      return true;
+      return !committedPartitions.isEmpty();
     } catch (ValidationException e) {
-      String missFileMessage = "Missing required files to delete";
-      String foundNewDeleteMessage = "found new delete for replaced data file";
-      if (e.getMessage().contains(missFileMessage) ||
-          e.getMessage().contains(foundNewDeleteMessage)) {
-        UnkeyedTable baseArcticTable;
-        if (arcticTable.isKeyedTable()) {
-          baseArcticTable = arcticTable.asKeyedTable().baseTable();
-        } else {
-          baseArcticTable = arcticTable.asUnkeyedTable();
-        }
+      if (isConflict(e)) {
         LOG.warn("Optimize commit table {} failed, give up commit and clear files in location.", arcticTable.id(), e);
-        // only delete data files are produced by major optimize, because the major optimize maybe support hive
-        // and produce redundant data files in hive location.(don't produce DeleteFile)
-        // minor produced files will be clean by orphan file clean
-        Set<String> committedFilePath = getCommittedDataFilesFromSnapshotId(baseArcticTable, baseSnapshotId);
-        for (ContentFile<?> majorAddFile : majorAddFiles) {
-          String filePath = TableFileUtils.getUriPath(majorAddFile.path().toString());
-          if (!committedFilePath.contains(filePath) && arcticTable.io().exists(filePath)) {
-            arcticTable.io().deleteFile(filePath);
-            LOG.warn("Delete orphan file {} when optimize commit failed", filePath);
+        optimizeTasksToCommit.forEach((partition, tasks) -> {
+          if (!committedPartitions.contains(partition)) {
+            conflictedTasks.put(partition, tasks);
+            clearUncommittedFiles(majorAddFiles.getOrDefault(partition, Collections.emptySet()), baseSnapshotId);
           }
-        }
-        return false;
+        });
+        return !committedPartitions.isEmpty();
       } else {
-        LOG.error("unexpected commit error " + arcticTable.id(), e);
-        throw new Exception("unexpected commit error ", e);
+        throw unexpectedCommitError(e);
       }
     } catch (Throwable t) {
+      throw unexpectedCommitError(t);
+    }
+  }
+
+  protected Exception unexpectedCommitError(Throwable t) {
+    if (committedPartitions.isEmpty()) {
       LOG.error("unexpected commit error " + arcticTable.id(), t);
-      throw new Exception("unexpected commit error ", t);
+    } else {
+      LOG.error("unexpected commit error {}, partitions {} are already committed", arcticTable.id(),
+          committedPartitions, t);
     }
+    return new Exception("unexpected commit error ", t);
   }
 
   public Map<String, OptimizeType> getPartitionOptimizeType() {
@@ -300,10 +324,104 @@ public class BaseOptimizeCommit {
     }
   }
 
+  private static boolean isConflict(ValidationException e) {
+    String missFileMessage = "Missing required files to delete";
+    String foundNewDeleteMessage = "found new delete for replaced data file";
+    return e.getMessage() != null &&
+        (e.getMessage().contains(missFileMessage) || e.getMessage().contains(foundNewDeleteMessage));
+  }
+
+  private void clearUncommittedFiles(Set<ContentFile<?>> majorAddFiles, long baseSnapshotId) {
+    if (majorAddFiles.isEmpty()) {
+      return;
+    }
+    UnkeyedTable baseArcticTable;
+    if (arcticTable.isKeyedTable()) {
+      baseArcticTable = arcticTable.asKeyedTable().baseTable();
+    } else {
+      baseArcticTable = arcticTable.asUnkeyedTable();
+    }
+    // only delete data files are produced by major optimize, because the major optimize maybe support hive
+    // and produce redundant data files in hive location.(don't produce DeleteFile)
+    // minor produced files will be clean by orphan file clean
+    Set<String> committedFilePath = getCommittedDataFilesFromSnapshotId(baseArcticTable, baseSnapshotId);
+    for (ContentFile<?> majorAddFile : majorAddFiles) {
+      String filePath = TableFileUtils.getUriPath(majorAddFile.path().toString());
+      if (!committedFilePath.contains(filePath) && arcticTable.io().exists(filePath)) {
+        arcticTable.io().deleteFile(filePath);
+        LOG.warn("Delete orphan file {} when optimize commit failed", filePath);
+      }
+    }
+  }
+
+  /**
+   * Commit major optimize content of all partitions in one snapshot, if the commit conflicts with concurrent writes,
+   * retry partitions one by one so that only the conflicting partitions are given up.
+   */
   private void majorCommit(ArcticTable arcticTable,
-                           Set<ContentFile<?>> majorAddFiles,
-                           Set<ContentFile<?>> majorDeleteFiles,
+                           Map<String, Set<ContentFile<?>>> majorAddFiles,
+                           Map<String, Set<ContentFile<?>>> majorDeleteFiles,
                            long baseSnapshotId) {
+    Set<String> partitions = new TreeSet<>(majorAddFiles.keySet());
+    partitions.addAll(majorDeleteFiles.keySet());
+    if (partitions.isEmpty()) {
+      LOG.info("{} skip major optimize commit", arcticTable.id());
+      return;
+    }
+
+    try {
+      rewriteMajorFiles(arcticTable,
+          majorAddFiles.values().stream().flatMap(Set::stream).collect(Collectors.toSet()),
+          majorDeleteFiles.values().stream().flatMap(Set::stream).collect(Collectors.toSet()),
+          baseSnapshotId);
+      committedPartitions.addAll(partitions);
+      return;
+    } catch (ValidationException e) {
+      if (!isConflict(e)) {
+        throw e;
+      }
+      if (partitions.size() == 1) {
+        giveUpConflictedPartition(partitions.iterator().next(), majorAddFiles, baseSnapshotId, e);
+        return;
+      }
+      LOG.warn("{} major optimize commit of partitions {} conflicted, retry partitions one by one",
+          arcticTable.id(), partitions, e);
+    }
+
+    for (String partition : partitions) {
+      commitRetries++;
+      try {
+        rewriteMajorFiles(arcticTable,
+            majorAddFiles.getOrDefault(partition, Collections.emptySet()),
+            majorDeleteFiles.getOrDefault(partition, Collections.emptySet()),
+            baseSnapshotId);
+        committedPartitions.add(partition);
+      } catch (ValidationException e) {
+        if (!isConflict(e)) {
+          throw e;
+        }
+        giveUpConflictedPartition(partition, majorAddFiles, baseSnapshotId, e);
+      }
+    }
+  }
+
+  private void giveUpConflictedPartition(String partition,
+                                         Map<String, Set<ContentFile<?>>> majorAddFiles,
+                                         long baseSnapshotId,
+                                         ValidationException e) {
+    LOG.warn("Optimize commit table {} partition {} conflicted, give up commit and clear files in location.",
+        arcticTable.id(), partition, e);
+    conflictedTasks.put(partition, optimizeTasksToCommit.get(partition));
+    clearUncommittedFiles(majorAddFiles.getOrDefault(partition, Collections.emptySet()), baseSnapshotId);
+  }
+
+  /**
+   * Rewrite files of major optimize in one snapshot.
+   */
+  protected void rewriteMajorFiles(ArcticTable arcticTable,
+                                   Set<ContentFile<?>> majorAddFiles,
+                                   Set<ContentFile<?>> majorDeleteFiles,
+                                   long baseSnapshotId) {
     UnkeyedTable baseArcticTable;
     if (arcticTable.isKeyedTable()) {
       baseArcticTable = arcticTable.asKeyedTable().baseTable();
@@ -443,6 +561,10 @@ public class BaseOptimizeCommit {
 
     Set<String> committedFilePath = new HashSet<>();
     for (Snapshot snapshot : SnapshotUtil.ancestorsBetween(currentSnapshotId, snapshotId, table::snapshot)) {
+      // only snapshots committed by optimize may contain files produced by optimize, skip reading manifests of others
+      if (!CommitMetaProducer.OPTIMIZE.name().equals(snapshot.summary().get(SnapshotSummary.SNAPSHOT_PRODUCER))) {
+        continue;
+      }
       for (DataFile dataFile : snapshot.addedFiles()) {
         committedFilePath.add(TableFileUtils.getUriPath(dataFile.path().toString()));
       }
@@ -63,6 +63,13 @@ public interface IOptimizeService {
    */
   void handleOptimizeResult(OptimizeTaskStat optimizeTaskStat) throws NoSuchObjectException;
 
+  /**
+   * Fail tasks executing on a released optimizer, so that they can be polled by other optimizers.
+   *
+   * @param jobId id of the released optimizer
+   */
+  void releaseExecutingTasks(String jobId);
+
   /**
    * Get optimize history of an ArcticTable.
    *
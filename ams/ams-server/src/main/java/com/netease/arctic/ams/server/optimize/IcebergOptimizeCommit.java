@@ -39,11 +39,13 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 public class IcebergOptimizeCommit extends BaseOptimizeCommit {
@@ -66,8 +68,8 @@ public class IcebergOptimizeCommit extends BaseOptimizeCommit {
       // collect files
       Set<ContentFile<?>> minorAddFiles = new HashSet<>();
       Set<ContentFile<?>> minorDeleteFiles = new HashSet<>();
-      Set<ContentFile<?>> majorAddFiles = new HashSet<>();
-      Set<ContentFile<?>> majorDeleteFiles = new HashSet<>();
+      Map<String, Set<ContentFile<?>>> majorAddFiles = new HashMap<>();
+      Map<String, Set<ContentFile<?>>> majorDeleteFiles = new HashMap<>();
       for (Map.Entry<String, List<OptimizeTaskItem>> entry : optimizeTasksToCommit.entrySet()) {
         for (OptimizeTaskItem task : entry.getValue()) {
           if (checkFileCount(task)) {
@@ -83,10 +85,13 @@ public class IcebergOptimizeCommit extends BaseOptimizeCommit {
             minorDeleteFiles.addAll(selectDeletedFiles(task));
             partitionOptimizeType.put(entry.getKey(), OptimizeType.Minor);
           } else {
+            Set<ContentFile<?>> partitionAddFiles =
+                majorAddFiles.computeIfAbsent(entry.getKey(), p -> new HashSet<>());
             task.getOptimizeRuntime().getTargetFiles().stream()
                 .map(SerializationUtils::toInternalTableFile)
-                .forEach(majorAddFiles::add);
-            majorDeleteFiles.addAll(selectDeletedFiles(task));
+                .forEach(partitionAddFiles::add);
+            majorDeleteFiles.computeIfAbsent(entry.getKey(), p -> new HashSet<>())
+                .addAll(selectDeletedFiles(task));
             partitionOptimizeType.put(entry.getKey(), task.getOptimizeTask().getTaskId().getType());
           }
         }
@@ -94,27 +99,28 @@ public class IcebergOptimizeCommit extends BaseOptimizeCommit {
 
       // commit minor optimize content
       minorCommit(arcticTable, minorAddFiles, minorDeleteFiles, baseSnapshotId);
+      optimizeTasksToCommit.keySet().stream()
+          .filter(partition -> !majorAddFiles.containsKey(partition) && !majorDeleteFiles.containsKey(partition))
+          .forEach(committedPartitions::add);
 
-      // commit major optimize content
+      // commit major optimize content, partitions conflicting with concurrent writes are given up
       majorCommit(arcticTable, majorAddFiles, majorDeleteFiles, baseSnapshotId);
 
-      return true;
+      return !committedPartitions.isEmpty();
     } catch (ValidationException e) {
-      String missFileMessage = "Missing required files to delete";
-      String foundNewDeleteMessage = "found new delete for replaced data file";
-      String foundNewPosDeleteMessage = "found new position delete for replaced data file";
-      if (e.getMessage().contains(missFileMessage) ||
-          e.getMessage().contains(foundNewDeleteMessage) ||
-          e.getMessage().contains(foundNewPosDeleteMessage)) {
+      if (isConflict(e)) {
         LOG.warn("Optimize commit table {} failed, give up commit.", arcticTable.id(), e);
-        return false;
+        optimizeTasksToCommit.forEach((partition, tasks) -> {
+          if (!committedPartitions.contains(partition)) {
+            conflictedTasks.put(partition, tasks);
+          }
+        });
+        return !committedPartitions.isEmpty();
       } else {
-        LOG.error("unexpected commit error " + arcticTable.id(), e);
-        throw new Exception("unexpected commit error ", e);
+        throw unexpectedCommitError(e);
       }
     } catch (Throwable t) {
-      LOG.error("unexpected commit error " + arcticTable.id(), t);
-      throw new Exception("unexpected commit error ", t);
+      throw unexpectedCommitError(t);
     }
   }
 
@@ -183,10 +189,78 @@ public class IcebergOptimizeCommit extends BaseOptimizeCommit {
     }
   }
 
+  /**
+   * Commit major optimize content of all partitions in one snapshot, if the commit conflicts with concurrent writes,
+   * retry partitions one by one so that only the conflicting partitions are given up.
+   */
   private void majorCommit(ArcticTable arcticTable,
-                           Set<ContentFile<?>> majorAddFiles,
-                           Set<ContentFile<?>> majorDeleteFiles,
+                           Map<String, Set<ContentFile<?>>> majorAddFiles,
+                           Map<String, Set<ContentFile<?>>> majorDeleteFiles,
                            long baseSnapshotId) {
+    Set<String> partitions = new TreeSet<>(majorAddFiles.keySet());
+    partitions.addAll(majorDeleteFiles.keySet());
+    if (partitions.isEmpty()) {
+      LOG.info("{} skip major optimize commit", arcticTable.id());
+      return;
+    }
+
+    try {
+      rewriteMajorFiles(arcticTable,
+          majorAddFiles.values().stream().flatMap(Set::stream).collect(Collectors.toSet()),
+          majorDeleteFiles.values().stream().flatMap(Set::stream).collect(Collectors.toSet()),
+          baseSnapshotId);
+      committedPartitions.addAll(partitions);
+      return;
+    } catch (ValidationException e) {
+      if (!isConflict(e)) {
+        throw e;
+      }
+      if (partitions.size() == 1) {
+        giveUpConflictedPartition(partitions.iterator().next(), e);
+        return;
+      }
+      LOG.warn("{} major optimize commit of partitions {} conflicted, retry partitions one by one",
+          arcticTable.id(), partitions, e);
+    }
+
+    for (String partition : partitions) {
+      commitRetries++;
+      try {
+        rewriteMajorFiles(arcticTable,
+            majorAddFiles.getOrDefault(partition, Collections.emptySet()),
+            majorDeleteFiles.getOrDefault(partition, Collections.emptySet()),
+            baseSnapshotId);
+        committedPartitions.add(partition);
+      } catch (ValidationException e) {
+        if (!isConflict(e)) {
+          throw e;
+        }
+        giveUpConflictedPartition(partition, e);
+      }
+    }
+  }
+
+  private void giveUpConflictedPartition(String partition, ValidationException e) {
+    // files of given up partitions are not deleted here, they are cleaned as orphan files
+    LOG.warn("Optimize commit table {} partition {} conflicted, give up commit.", arcticTable.id(), partition, e);
+    conflictedTasks.put(partition, optimizeTasksToCommit.get(partition));
+  }
+
+  private static boolean isConflict(ValidationException e) {
+    String missFileMessage = "Missing required files to delete";
+    String foundNewDeleteMessage = "found new delete for replaced data file";
+    String foundNewPosDeleteMessage = "found new position delete for replaced data file";
+    return e.getMessage() != null &&
+        (e.getMessage().contains(missFileMessage) ||
+            e.getMessage().contains(foundNewDeleteMessage) ||
+            e.getMessage().contains(foundNewPosDeleteMessage));
+  }
+
+  @Override
+  protected void rewriteMajorFiles(ArcticTable arcticTable,
+                                   Set<ContentFile<?>> majorAddFiles,
+                                   Set<ContentFile<?>> majorDeleteFiles,
+                                   long baseSnapshotId) {
     UnkeyedTable baseArcticTable = arcticTable.asUnkeyedTable();
 
     if (CollectionUtils.isNotEmpty(majorAddFiles) || CollectionUtils.isNotEmpty(majorDeleteFiles)) {
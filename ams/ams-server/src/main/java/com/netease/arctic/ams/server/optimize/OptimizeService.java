@@ -222,6 +222,11 @@ public class OptimizeService extends IJDBCService implements IOptimizeService {
         .updateOptimizeTaskStat(optimizeTaskStat);
   }
 
+  @Override
+  public void releaseExecutingTasks(String jobId) {
+    cachedTables.values().forEach(tableItem -> tableItem.releaseExecutingTasks(jobId));
+  }
+
   private void loadTables() {
     LOG.info("init load tables");
     // load table when server start, only load table metadata
@@ -237,13 +237,26 @@ public class OptimizeTaskItem extends IJDBCService {
   }
 
   public void setFiles() {
-    List<ByteBuffer> insertFiles = selectOptimizeTaskFiles(DataFileType.INSERT_FILE.name(), 0)
+    try (SqlSession sqlSession = getSqlSession(true)) {
+      setFiles(getMapper(sqlSession, InternalTableFilesMapper.class));
+    }
+  }
+
+  /**
+   * Load files of the task with the given mapper, so that files of several tasks can be loaded in one session.
+   */
+  public void setFiles(InternalTableFilesMapper internalTableFilesMapper) {
+    List<ByteBuffer> insertFiles =
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.INSERT_FILE.name(), 0)
         .stream().map(SerializationUtils::byteArrayToByteBuffer).collect(Collectors.toList());
-    List<ByteBuffer> deleteFiles = selectOptimizeTaskFiles(DataFileType.EQ_DELETE_FILE.name(), 0)
+    List<ByteBuffer> deleteFiles =
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.EQ_DELETE_FILE.name(), 0)
         .stream().map(SerializationUtils::byteArrayToByteBuffer).collect(Collectors.toList());
-    List<ByteBuffer> baseFiles = selectOptimizeTaskFiles(DataFileType.BASE_FILE.name(), 0)
+    List<ByteBuffer> baseFiles =
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.BASE_FILE.name(), 0)
         .stream().map(SerializationUtils::byteArrayToByteBuffer).collect(Collectors.toList());
-    List<ByteBuffer> posDeleteFiles = selectOptimizeTaskFiles(DataFileType.POS_DELETE_FILE.name(), 0)
+    List<ByteBuffer> posDeleteFiles =
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.POS_DELETE_FILE.name(), 0)
         .stream().map(SerializationUtils::byteArrayToByteBuffer).collect(Collectors.toList());
     optimizeTask.setInsertFiles(insertFiles);
     optimizeTask.setDeleteFiles(deleteFiles);
@@ -251,9 +264,9 @@ public class OptimizeTaskItem extends IJDBCService {
     optimizeTask.setPosDeleteFiles(posDeleteFiles);
     // for ams restart, files is not loaded from sysdb, reload here
     List<byte[]> targetFiles =
-        selectOptimizeTaskFiles(DataFileType.BASE_FILE.name(), 1);
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.BASE_FILE.name(), 1);
     targetFiles.addAll(
-        selectOptimizeTaskFiles(DataFileType.POS_DELETE_FILE.name(), 1));
+        selectOptimizeTaskFiles(internalTableFilesMapper, DataFileType.POS_DELETE_FILE.name(), 1));
     optimizeRuntime.setTargetFiles(targetFiles.stream()
         .map(SerializationUtils::byteArrayToByteBuffer).collect(Collectors.toList()));
   }
@@ -271,13 +284,9 @@ public class OptimizeTaskItem extends IJDBCService {
     }
   }
 
-  private List<byte[]> selectOptimizeTaskFiles(String contentType, int isTarget) {
-    try (SqlSession sqlSession = getSqlSession(true)) {
-      InternalTableFilesMapper internalTableFilesMapper =
-          getMapper(sqlSession, InternalTableFilesMapper.class);
-
-      return internalTableFilesMapper.selectOptimizeTaskFiles(getTaskId(), contentType, isTarget);
-    }
+  private List<byte[]> selectOptimizeTaskFiles(InternalTableFilesMapper internalTableFilesMapper,
+                                               String contentType, int isTarget) {
+    return internalTableFilesMapper.selectOptimizeTaskFiles(getTaskId(), contentType, isTarget);
   }
 
   private void persistTaskRuntime(BaseOptimizeTaskRuntime newRuntime, boolean updateTargetFiles) {
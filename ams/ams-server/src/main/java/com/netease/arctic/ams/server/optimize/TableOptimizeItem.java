@@ -89,6 +89,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -109,6 +110,9 @@ public class TableOptimizeItem extends IJDBCService {
   private final Map<OptimizeTaskId, OptimizeTaskItem> optimizeTasks = new LinkedHashMap<>();
 
   private volatile long metaRefreshTime;
+  private volatile long lastCommitLatency;
+  private volatile long lastCommitFileCount;
+  private final AtomicLong commitRetries = new AtomicLong(0);
 
   private final FileInfoCacheService fileInfoCacheService;
   private final IQuotaService quotaService;
@@ -384,6 +388,9 @@ public class TableOptimizeItem extends IJDBCService {
       tableOptimizeInfo.setFileSize(this.optimizeFileInfo.getTotalSize());
     }
     tableOptimizeInfo.setGroupName(groupNameCache);
+    tableOptimizeInfo.setCommitLatency(lastCommitLatency);
+    tableOptimizeInfo.setCommitFileCount(lastCommitFileCount);
+    tableOptimizeInfo.setCommitRetries(commitRetries.get());
     return tableOptimizeInfo;
   }
 
@@ -597,9 +604,8 @@ public class TableOptimizeItem extends IJDBCService {
     }
   }
 
-  private void optimizeTasksClear(BaseOptimizeCommit optimizeCommit) {
+  private void optimizeTasksClear(Map<String, List<OptimizeTaskItem>> tasks) {
     try (SqlSession sqlSession = getSqlSession(false)) {
-      Map<String, List<OptimizeTaskItem>> tasks = optimizeCommit.getCommittedTasks();
 
       OptimizeTasksMapper optimizeTasksMapper =
           getMapper(sqlSession, OptimizeTasksMapper.class);
@@ -852,6 +858,23 @@ public class TableOptimizeItem extends IJDBCService {
         });
   }
 
+  /**
+   * Set tasks executing on a released optimizer to be Failed, so that they are retried without waiting for timeout.
+   *
+   * @param jobId id of the released optimizer
+   */
+  public void releaseExecutingTasks(String jobId) {
+    optimizeTasks.values().stream()
+        .filter(task -> task.getOptimizeStatus() == OptimizeStatus.Executing)
+        .filter(task -> task.getOptimizeRuntime().getJobId() != null &&
+            Objects.equals(jobId, task.getOptimizeRuntime().getJobId().getId()))
+        .forEach(task -> {
+          task.onFailed(new ErrorMessage(System.currentTimeMillis(), "optimizer " + jobId + " released"),
+              System.currentTimeMillis() - task.getOptimizeRuntime().getExecuteTime());
+          LOG.warn("{} executing on released optimizer {}, change to Failed", task.getTaskId(), jobId);
+        });
+  }
+
   /**
    * Get tasks which is ready to commit (only if all tasks in a table is ready).
    *
@@ -912,12 +935,33 @@ public class TableOptimizeItem extends IJDBCService {
           optimizeCommit = new BaseOptimizeCommit(getArcticTable(true), tasksToCommit);
         }
 
-        boolean committed = optimizeCommit.commit(tableOptimizeRuntime.getCurrentSnapshotId());
+        long startTime = System.currentTimeMillis();
+        boolean committed;
+        try {
+          committed = optimizeCommit.commit(tableOptimizeRuntime.getCurrentSnapshotId());
+        } catch (Exception e) {
+          // partitions committed before the error must not be committed again
+          if (MapUtils.isNotEmpty(optimizeCommit.getCommittedTasks())) {
+            LOG.warn("{} commit failed, record committed partitions {}", tableIdentifier,
+                optimizeCommit.getCommittedTasks().keySet());
+            optimizeTasksCommitted(optimizeCommit, System.currentTimeMillis());
+          }
+          throw e;
+        }
+        long commitTime = System.currentTimeMillis();
+        lastCommitLatency = commitTime - startTime;
+        commitRetries.addAndGet(optimizeCommit.getCommitRetries());
         if (committed) {
-          long commitTime = System.currentTimeMillis();
+          lastCommitFileCount = countCommittedFiles(optimizeCommit.getCommittedTasks());
           optimizeTasksCommitted(optimizeCommit, commitTime);
+          if (MapUtils.isNotEmpty(optimizeCommit.getConflictedTasks())) {
+            LOG.info("{} give up commit of conflicted partitions {}", tableIdentifier,
+                optimizeCommit.getConflictedTasks().keySet());
+            optimizeTasksClear(optimizeCommit.getConflictedTasks());
+          }
         } else {
-          optimizeTasksClear(optimizeCommit);
+          lastCommitFileCount = 0;
+          optimizeTasksClear(tasksToCommit);
         }
       } else {
         LOG.info("{} get no tasks to commit", tableIdentifier);
@@ -927,6 +971,15 @@ public class TableOptimizeItem extends IJDBCService {
     }
   }
 
+  private static long countCommittedFiles(Map<String, List<OptimizeTaskItem>> committedTasks) {
+    return committedTasks.values().stream().flatMap(Collection::stream)
+        .mapToLong(task -> {
+          BaseOptimizeTask optimizeTask = task.getOptimizeTask();
+          return optimizeTask.getBaseFileCnt() + optimizeTask.getInsertFileCnt() + optimizeTask.getDeleteFileCnt() +
+              optimizeTask.getPosDeleteFileCnt() + task.getOptimizeRuntime().getNewFileCnt();
+        }).sum();
+  }
+
   /**
    * Get all optimize tasks.
    *
@@ -28,6 +28,8 @@ public interface ITableTaskHistoryService {
 
   void insertTaskHistory(TableTaskHistory taskHistory);
 
+  void insertTaskHistories(List<TableTaskHistory> taskHistories);
+
   List<TableTaskHistory> selectTaskHistoryByTableIdAndTime(TableIdentifier identifier,
                                                            long startTime,
                                                            long endTime);
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.ams.server.service.impl;
+
+import com.netease.arctic.ams.api.TableIdentifier;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingest file cache of table commits asynchronously, out of thrift worker threads.
+ * <p>
+ * Commits of a table are always ingested by the same single-thread worker, so they are ingested in commit order.
+ * Submitting blocks when too many commits are pending, and readers of the file cache wait for pending commits of
+ * the table to read their own writes.
+ */
+class FileInfoCacheIngestor {
+  private static final Logger LOG = LoggerFactory.getLogger(FileInfoCacheIngestor.class);
+
+  private final ExecutorService[] workers;
+  private final Semaphore pendingPermits;
+  private final long waitTimeoutMs;
+  private final Map<TableIdentifier, CompletableFuture<Void>> lastCommits = new ConcurrentHashMap<>();
+  // submit time of pending commits by submit sequence
+  private final ConcurrentSkipListMap<Long, Long> pendingSubmitTimes = new ConcurrentSkipListMap<>();
+  private final AtomicLong submitSequence = new AtomicLong();
+  private final AtomicLong ingestedCommits = new AtomicLong();
+  private volatile long lastIngestLagMs;
+
+  FileInfoCacheIngestor(int threads, int maxPendingCommits, long waitTimeoutMs) {
+    this.workers = new ExecutorService[Math.max(threads, 1)];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("File Info Cache Ingest Worker " + i).build());
+    }
+    this.pendingPermits = new Semaphore(Math.max(maxPendingCommits, 1));
+    this.waitTimeoutMs = waitTimeoutMs;
+  }
+
+  /**
+   * Submit ingestion of a commit, blocking while the max pending commits are reached.
+   */
+  void submit(TableIdentifier identifier, Runnable ingestion) {
+    try {
+      pendingPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for pending file cache commits", e);
+    }
+    long sequence = submitSequence.incrementAndGet();
+    long submitTime = System.currentTimeMillis();
+    pendingSubmitTimes.put(sequence, submitTime);
+    ExecutorService worker = workers[Math.floorMod(identifier.hashCode(), workers.length)];
+    // the worker of a table runs its commits in submit order, so the future of a commit completes after the
+    // futures of all previous commits of the table
+    lastCommits.compute(identifier, (id, last) -> {
+      CompletableFuture<Void> commit = new CompletableFuture<>();
+      try {
+        worker.execute(() -> {
+          try {
+            ingestion.run();
+          } catch (Throwable t) {
+            LOG.error("Failed to ingest file cache of {}", identifier, t);
+          } finally {
+            pendingSubmitTimes.remove(sequence);
+            pendingPermits.release();
+            ingestedCommits.incrementAndGet();
+            lastIngestLagMs = System.currentTimeMillis() - submitTime;
+            commit.complete(null);
+            lastCommits.remove(identifier, commit);
+          }
+        });
+      } catch (RuntimeException e) {
+        pendingSubmitTimes.remove(sequence);
+        pendingPermits.release();
+        throw e;
+      }
+      return commit;
+    });
+  }
+
+  /**
+   * Wait until all submitted commits of the table are ingested, or the wait times out.
+   */
+  void awaitIngested(TableIdentifier identifier) {
+    CompletableFuture<Void> last = lastCommits.get(identifier);
+    if (last == null) {
+      return;
+    }
+    try {
+      last.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (TimeoutException e) {
+      LOG.warn("Timeout waiting {}ms for file cache commits of {}, {} commits are pending",
+          waitTimeoutMs, identifier, getPendingCommits());
+    } catch (ExecutionException e) {
+      // failures are logged by ingestion
+    }
+  }
+
+  int getPendingCommits() {
+    return pendingSubmitTimes.size();
+  }
+
+  /**
+   * @return milliseconds the oldest pending commit has been waiting, 0 if no commit is pending
+   */
+  long getPendingLagMs() {
+    Map.Entry<Long, Long> oldest = pendingSubmitTimes.firstEntry();
+    return oldest == null ? 0 : System.currentTimeMillis() - oldest.getValue();
+  }
+
+  /**
+   * @return milliseconds from submitting to completing ingestion of the last ingested commit
+   */
+  long getLastIngestLagMs() {
+    return lastIngestLagMs;
+  }
+
+  long getIngestedCommits() {
+    return ingestedCommits.get();
+  }
+}
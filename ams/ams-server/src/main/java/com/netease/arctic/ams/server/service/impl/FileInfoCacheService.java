@@ -36,16 +36,20 @@ import com.netease.arctic.ams.server.model.CacheFileInfo;
 import com.netease.arctic.ams.server.model.CacheSnapshotInfo;
 import com.netease.arctic.ams.server.model.PartitionBaseInfo;
 import com.netease.arctic.ams.server.model.PartitionFileBaseInfo;
+import com.netease.arctic.ams.server.model.PartitionStatistics;
+import com.netease.arctic.ams.server.model.TableStatistics;
 import com.netease.arctic.ams.server.model.TableMetadata;
 import com.netease.arctic.ams.server.model.TransactionsOfTable;
 import com.netease.arctic.ams.server.service.IJDBCService;
 import com.netease.arctic.ams.server.service.IMetaService;
 import com.netease.arctic.ams.server.service.ServiceContainer;
 import com.netease.arctic.ams.server.utils.CatalogUtil;
+import com.netease.arctic.ams.server.utils.TableStatCollector;
 import com.netease.arctic.ams.server.utils.TableMetadataUtil;
 import com.netease.arctic.catalog.ArcticCatalog;
 import com.netease.arctic.catalog.CatalogLoader;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.trace.SnapshotSummary;
 import com.netease.arctic.utils.ConvertStructUtil;
 import com.netease.arctic.utils.SnapshotFileUtil;
@@ -71,33 +75,49 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class FileInfoCacheService extends IJDBCService {
 
   private static final Logger LOG = LoggerFactory.getLogger(FileInfoCacheService.class);
+  // statements sent to database in one jdbc batch
+  private static final int BATCH_SIZE = 1000;
+
+  private final FileInfoCacheIngestor ingestor = new FileInfoCacheIngestor(
+      ArcticMetaStore.conf.getInteger(ArcticMetaStoreConf.FILE_CACHE_INGEST_THREADS),
+      ArcticMetaStore.conf.getInteger(ArcticMetaStoreConf.FILE_CACHE_INGEST_MAX_PENDING_COMMITS),
+      ArcticMetaStore.conf.getLong(ArcticMetaStoreConf.FILE_CACHE_INGEST_WAIT_TIMEOUT));
+
+  private final TableStatisticsStore statisticsStore = new TableStatisticsStore(this::getPartitionStatistics);
+
+  /**
+   * Cache file info of the commit asynchronously, commits of a table are cached in order. It blocks if too many
+   * commits are pending.
+   */
+  public void commitCacheFileInfoAsync(TableCommitMeta tableCommitMeta) {
+    ingestor.submit(tableCommitMeta.getTableIdentifier(), () -> commitCacheFileInfo(tableCommitMeta));
+  }
 
   public void commitCacheFileInfo(TableCommitMeta tableCommitMeta) {
     if (needFixCacheFromTable(tableCommitMeta)) {
       LOG.warn("should not cache {}", tableCommitMeta);
+      statisticsStore.invalidate(tableCommitMeta.getTableIdentifier());
       return;
     }
 
     List<CacheFileInfo> fileInfoList = genFileInfo(tableCommitMeta);
     List<CacheSnapshotInfo> cacheSnapInfoList = genSnapInfo(tableCommitMeta);
 
-    try (SqlSession sqlSession = getSqlSession(false)) {
+    try (SqlSession sqlSession = getBatchSqlSession()) {
       try {
-        FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
-        fileInfoList.stream().filter(e -> e.getDeleteSnapshotId() == null)
-            .forEach(fileInfoCacheMapper::insertCache);
+        insertAndUpdateCache(sqlSession, fileInfoList);
         LOG.info("insert {} files into file cache", fileInfoList.stream().filter(e -> e.getDeleteSnapshotId() == null)
             .count());
-
-        fileInfoList.stream().filter(e -> e.getDeleteSnapshotId() != null).forEach(fileInfoCacheMapper::updateCache);
         LOG.info("update {} files in file cache", fileInfoList.stream().filter(e -> e.getDeleteSnapshotId() != null)
             .count());
 
@@ -106,16 +126,94 @@ public class FileInfoCacheService extends IJDBCService {
         LOG.info("insert {} snapshot into snapshot cache", cacheSnapInfoList.size());
 
         sqlSession.commit();
+        statisticsStore.commit(tableCommitMeta);
       } catch (Exception e) {
         sqlSession.rollback();
+        statisticsStore.invalidate(tableCommitMeta.getTableIdentifier());
         LOG.error("insert file cache {} error", JSONObject.toJSONString(tableCommitMeta), e);
       }
     } catch (Exception e) {
+      statisticsStore.invalidate(tableCommitMeta.getTableIdentifier());
       LOG.error("insert file cache {} error", JSONObject.toJSONString(tableCommitMeta), e);
     }
   }
 
+  /**
+   * Insert added files and update deleted files in batches.
+   */
+  private void insertAndUpdateCache(SqlSession batchSqlSession, List<CacheFileInfo> fileInfos) {
+    FileInfoCacheMapper fileInfoCacheMapper = getMapper(batchSqlSession, FileInfoCacheMapper.class);
+    int statements = 0;
+    for (CacheFileInfo fileInfo : fileInfos) {
+      if (fileInfo.getDeleteSnapshotId() == null) {
+        fileInfoCacheMapper.insertCache(fileInfo);
+        if (++statements % BATCH_SIZE == 0) {
+          batchSqlSession.flushStatements();
+        }
+      }
+    }
+    for (CacheFileInfo fileInfo : fileInfos) {
+      if (fileInfo.getDeleteSnapshotId() != null) {
+        fileInfoCacheMapper.updateCache(fileInfo);
+        if (++statements % BATCH_SIZE == 0) {
+          batchSqlSession.flushStatements();
+        }
+      }
+    }
+  }
+
+  /**
+   * Statistics of the inner tables of a table by the inner table type, served from statistics maintained by commits
+   * of the table and loaded again only if the table has been changed by other means.
+   */
+  public Map<String, TableStatistics> getTableStatistics(ArcticTable table) {
+    TableIdentifier identifier = table.id().buildTableIdentifier();
+    Map<String, Table> innerTables = new HashMap<>();
+    try {
+      if (table.isKeyedTable()) {
+        KeyedTable keyedTable = table.asKeyedTable();
+        innerTables.put(Constants.INNER_TABLE_BASE, keyedTable.baseTable());
+        innerTables.put(Constants.INNER_TABLE_CHANGE, keyedTable.changeTable());
+      } else {
+        innerTables.put(Constants.INNER_TABLE_BASE, table.asUnkeyedTable());
+      }
+      ingestor.awaitIngested(identifier);
+      return statisticsStore.getTableStatistics(identifier, innerTables);
+    } catch (Exception e) {
+      LOG.error("failed to get statistics of " + table.id() + ", collect them from the table", e);
+      Map<String, TableStatistics> statistics = new HashMap<>();
+      if (table.isKeyedTable()) {
+        statistics.put(Constants.INNER_TABLE_BASE, TableStatCollector.collectBaseTableInfo(table.asKeyedTable()));
+        statistics.put(Constants.INNER_TABLE_CHANGE, TableStatCollector.collectChangeTableInfo(table.asKeyedTable()));
+      } else {
+        TableStatistics baseStatistics = new TableStatistics();
+        TableStatCollector.fillTableStatistics(baseStatistics, table.asUnkeyedTable(), table, "TABLE");
+        statistics.put(Constants.INNER_TABLE_BASE, baseStatistics);
+      }
+      return statistics;
+    }
+  }
+
+  private List<PartitionStatistics> getPartitionStatistics(TableIdentifier tableIdentifier, String innerTable) {
+    try (SqlSession sqlSession = getSqlSession(true)) {
+      FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
+      return fileInfoCacheMapper.getPartitionStatistics(tableIdentifier, innerTable);
+    }
+  }
+
+  public int getPendingCommits() {
+    return ingestor.getPendingCommits();
+  }
+
+  /**
+   * @return milliseconds the oldest commit pending to be cached has been waiting
+   */
+  public long getPendingCommitLagMs() {
+    return ingestor.getPendingLagMs();
+  }
+
   public List<DataFileInfo> getOptimizeDatafiles(TableIdentifier tableIdentifier, String tableType) {
+    ingestor.awaitIngested(tableIdentifier);
     try (SqlSession sqlSession = getSqlSession(true)) {
       FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
       return fileInfoCacheMapper.getOptimizeDatafiles(tableIdentifier, tableType);
@@ -123,6 +221,7 @@ public class FileInfoCacheService extends IJDBCService {
   }
 
   public List<DataFileInfo> getChangeTableTTLDataFiles(TableIdentifier tableIdentifier, long ttl) {
+    ingestor.awaitIngested(tableIdentifier);
     try (SqlSession sqlSession = getSqlSession(true)) {
       FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
       return fileInfoCacheMapper.getChangeTableTTLDataFiles(tableIdentifier, Constants.INNER_TABLE_CHANGE, ttl);
@@ -130,6 +229,7 @@ public class FileInfoCacheService extends IJDBCService {
   }
 
   public Long getCachedMaxTime(TableIdentifier identifier, String innerTable) {
+    ingestor.awaitIngested(identifier);
     try (SqlSession sqlSession = getSqlSession(true)) {
       SnapInfoCacheMapper snapInfoCacheMapper = getMapper(sqlSession, SnapInfoCacheMapper.class);
       Timestamp maxTime = snapInfoCacheMapper.getCachedMaxTime(identifier, innerTable);
@@ -138,6 +238,11 @@ public class FileInfoCacheService extends IJDBCService {
   }
 
   public Boolean snapshotIsCached(TableIdentifier identifier, String innerTable, Long snapshotId) {
+    ingestor.awaitIngested(identifier);
+    return isSnapshotCached(identifier, innerTable, snapshotId);
+  }
+
+  private boolean isSnapshotCached(TableIdentifier identifier, String innerTable, Long snapshotId) {
     if (snapshotId == -1) {
       return true;
     }
@@ -165,6 +270,7 @@ public class FileInfoCacheService extends IJDBCService {
 
   public void syncTableFileInfo(TableIdentifier identifier, String tableType) {
     LOG.info("start sync table {} file info", identifier);
+    ingestor.awaitIngested(identifier);
     try {
       // load table
       Table table = null;
@@ -204,7 +310,7 @@ public class FileInfoCacheService extends IJDBCService {
       List<Snapshot> snapshots = new ArrayList<>();
       Snapshot curr = table.currentSnapshot();
       while (curr != null) {
-        isCached = snapshotIsCached(identifier, tableType, curr.snapshotId());
+        isCached = isSnapshotCached(identifier, tableType, curr.snapshotId());
         if (isCached) {
           break;
         }
@@ -233,6 +339,8 @@ public class FileInfoCacheService extends IJDBCService {
       }
     } catch (Exception e) {
       LOG.error("sync cache info error " + identifier, e);
+    } finally {
+      statisticsStore.invalidate(identifier);
     }
   }
 
@@ -241,6 +349,7 @@ public class FileInfoCacheService extends IJDBCService {
     tableIdentifier.catalog = identifier.getCatalog();
     tableIdentifier.database = identifier.getDatabase();
     tableIdentifier.tableName = identifier.getTableName();
+    statisticsStore.invalidate(tableIdentifier);
     try (SqlSession sqlSession = getSqlSession(true)) {
       FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
       fileInfoCacheMapper.deleteTableCache(tableIdentifier);
@@ -257,6 +366,7 @@ public class FileInfoCacheService extends IJDBCService {
     tableIdentifier.catalog = identifier.getCatalog();
     tableIdentifier.database = identifier.getDatabase();
     tableIdentifier.tableName = identifier.getTableName();
+    statisticsStore.invalidate(tableIdentifier);
     try (SqlSession sqlSession = getSqlSession(true)) {
       FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
       fileInfoCacheMapper.deleteInnerTableCache(tableIdentifier, innerTable);
@@ -274,9 +384,9 @@ public class FileInfoCacheService extends IJDBCService {
       if (tableChange.getParentSnapshotId() == -1) {
         return false;
       }
-      return !(snapshotIsCached(tableCommitMeta.getTableIdentifier(), tableChange.getInnerTable(),
+      return !(isSnapshotCached(tableCommitMeta.getTableIdentifier(), tableChange.getInnerTable(),
           tableChange.getParentSnapshotId()) &&
-          !snapshotIsCached(tableCommitMeta.getTableIdentifier(), tableChange.getInnerTable(),
+          !isSnapshotCached(tableCommitMeta.getTableIdentifier(), tableChange.getInnerTable(),
               tableChange.getSnapshotId()));
     }
     return true;
@@ -328,11 +438,9 @@ public class FileInfoCacheService extends IJDBCService {
       //remove snapshot to release memory of snapshot, because there is too much cache in BaseSnapshot
       iterator.remove();
 
-      try (SqlSession sqlSession = getSqlSession(false)) {
+      try (SqlSession sqlSession = getBatchSqlSession()) {
         try {
-          FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
-          fileInfos.stream().filter(e -> e.getDeleteSnapshotId() == null).forEach(fileInfoCacheMapper::insertCache);
-          fileInfos.stream().filter(e -> e.getDeleteSnapshotId() != null).forEach(fileInfoCacheMapper::updateCache);
+          insertAndUpdateCache(sqlSession, fileInfos);
 
           SnapInfoCacheMapper snapInfoCacheMapper = getMapper(sqlSession, SnapInfoCacheMapper.class);
           snapInfoCacheMapper.insertCache(snapshotInfo);
@@ -390,10 +498,9 @@ public class FileInfoCacheService extends IJDBCService {
       fileCount++;
     }
     CacheSnapshotInfo snapshotInfo = syncSnapInfo(identifier, tableType, curr, fileSize, fileCount);
-    try (SqlSession sqlSession = getSqlSession(false)) {
+    try (SqlSession sqlSession = getBatchSqlSession()) {
       try {
-        FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
-        cacheFileInfos.forEach(fileInfoCacheMapper::insertCache);
+        insertAndUpdateCache(sqlSession, cacheFileInfos);
 
         SnapInfoCacheMapper snapInfoCacheMapper = getMapper(sqlSession, SnapInfoCacheMapper.class);
         snapInfoCacheMapper.insertCache(snapshotInfo);
@@ -628,6 +735,11 @@ public class FileInfoCacheService extends IJDBCService {
   }
 
   public List<PartitionBaseInfo> getPartitionBaseInfoList(TableIdentifier tableIdentifier) {
+    ingestor.awaitIngested(tableIdentifier);
+    List<PartitionBaseInfo> partitions = statisticsStore.getPartitions(tableIdentifier);
+    if (partitions != null) {
+      return partitions;
+    }
     try (SqlSession sqlSession = getSqlSession(true)) {
       FileInfoCacheMapper fileInfoCacheMapper = getMapper(sqlSession, FileInfoCacheMapper.class);
       return fileInfoCacheMapper.getPartitionBaseInfoList(tableIdentifier);
@@ -641,7 +753,7 @@ public class FileInfoCacheService extends IJDBCService {
     }
   }
 
-  private String partitionToPath(List<PartitionFieldData> partitionFieldDataList) {
+  static String partitionToPath(List<PartitionFieldData> partitionFieldDataList) {
     StringBuilder sb = new StringBuilder();
     for (int i = 0; i < partitionFieldDataList.size(); i++) {
       if (i > 0) {
@@ -666,7 +778,8 @@ public class FileInfoCacheService extends IJDBCService {
     }
 
     public void doTask() {
-      LOG.info("start execute doTask");
+      LOG.info("start execute doTask, {} commits are pending to cache, the oldest has been waiting {}ms",
+          fileInfoCacheService.getPendingCommits(), fileInfoCacheService.getPendingCommitLagMs());
       expiredCache();
       syncCache();
     }
@@ -29,6 +29,8 @@ import com.netease.arctic.ams.server.service.ServiceContainer;
 import com.netease.arctic.optimizer.Optimizer;
 import com.netease.arctic.optimizer.factory.OptimizerFactory;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +85,42 @@ public class OptimizeExecuteService {
     optimizer.start();
   }
 
+  /**
+   * Add an optimizer with the parallelism to the optimizer group and start it, only groups of local and flink
+   * containers are supported.
+   *
+   * @return job id of the started optimizer
+   */
+  public long scaleOutOptimizer(String optimizerGroup, String optimizerName, int parallelism) throws Exception {
+    OptimizerService optimizerService = ServiceContainer.getOptimizerService();
+    OptimizerGroupInfo optimizerGroupInfo = optimizerService.getOptimizerGroupInfo(optimizerGroup);
+    String container = optimizerGroupInfo.getContainer();
+    String containerType = ServiceContainer.getContainerMetaService().getContainerType(container);
+    String startTime = new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss").format(new Date());
+    if ("local".equals(containerType)) {
+      String memory = optimizerGroupInfo.getProperties().get("memory");
+      optimizerService.insertOptimizer(optimizerName, optimizerGroupInfo.getId(), optimizerGroupInfo.getName(),
+          TableTaskStatus.STARTING, startTime, parallelism, Long.parseLong(memory), parallelism, container);
+    } else if ("flink".equals(containerType)) {
+      int tmMemory = Integer.parseInt(optimizerGroupInfo.getProperties().get("taskmanager.memory"));
+      int jmMemory = Integer.parseInt(optimizerGroupInfo.getProperties().get("jobmanager.memory"));
+      long memory = jmMemory + (long) tmMemory * parallelism;
+      optimizerService.insertOptimizer(optimizerName, optimizerGroupInfo.getId(), optimizerGroupInfo.getName(),
+          TableTaskStatus.STARTING, startTime, parallelism + 1, memory, parallelism, container);
+    } else {
+      throw new IllegalArgumentException(containerType + " type container not support scaleout by ams");
+    }
+
+    long optimizerId = Long.parseLong(optimizerService.selectOptimizerIdByOptimizerName(optimizerName));
+    try {
+      startOptimizer(optimizerId);
+    } catch (Exception e) {
+      optimizerService.deleteOptimizerByName(optimizerName);
+      throw e;
+    }
+    return optimizerId;
+  }
+
   public void stopOptimizer(Long jobId) throws Exception {
     com.netease.arctic.ams.server.model.Optimizer optimizerMeta =
             ServiceContainer.getOptimizerService().getOptimizer(jobId);
@@ -95,6 +133,8 @@ public class OptimizeExecuteService {
     OptimizerFactory finalFactory = findOptimizerFactory(type);
     finalFactory.deserialize(optimizerByte).stop();
     ServiceContainer.getOptimizerService().deleteOptimizer(jobId);
+    // tasks polled or prefetched by the stopped optimizer are never reported, retry them now
+    ServiceContainer.getOptimizeService().releaseExecutingTasks(String.valueOf(jobId));
   }
 
   public OptimizerFactory findOptimizerFactory(String type) throws NoSuchObjectException {
@@ -28,9 +28,11 @@ import com.netease.arctic.ams.api.OptimizeTask;
 import com.netease.arctic.ams.api.OptimizeType;
 import com.netease.arctic.ams.api.properties.OptimizeTaskProperties;
 import com.netease.arctic.ams.server.mapper.ContainerMetadataMapper;
+import com.netease.arctic.ams.server.mapper.InternalTableFilesMapper;
 import com.netease.arctic.ams.server.mapper.OptimizeQueueMapper;
 import com.netease.arctic.ams.server.model.BaseOptimizeTask;
 import com.netease.arctic.ams.server.model.Container;
+import com.netease.arctic.ams.server.model.OptimizeQueueBacklog;
 import com.netease.arctic.ams.server.model.OptimizeQueueItem;
 import com.netease.arctic.ams.server.model.OptimizeQueueMeta;
 import com.netease.arctic.ams.server.model.TableOptimizeRuntime;
@@ -247,6 +249,26 @@ public class OptimizeQueueService extends IJDBCService {
     return getQueue(queueName).getTables();
   }
 
+  /**
+   * Get backlog of optimize queue, tasks waiting in the queue and tasks executing by optimizers.
+   * @param queueName queueName
+   * @return backlog of queue
+   * @throws InvalidObjectException when can't find queue
+   */
+  public OptimizeQueueBacklog getBacklog(String queueName) throws InvalidObjectException {
+    return getQueue(queueName).getBacklog();
+  }
+
+  /**
+   * Start planning tasks of optimize queue if it has no pending task and is not planning, so that tables of a queue
+   * without polling optimizers are still planned.
+   * @param queueName queueName
+   * @throws InvalidObjectException when can't find queue
+   */
+  public void triggerPlan(String queueName) throws InvalidObjectException {
+    getQueue(queueName).triggerPlan();
+  }
+
   /**
    * add task
    *
@@ -300,6 +322,27 @@ public class OptimizeQueueService extends IJDBCService {
     }
   }
 
+  public List<OptimizeTask> pollTasks(int queueId, JobId jobId, String attemptId, long waitTime, int maxTasks)
+      throws NoSuchObjectException, TException {
+    try {
+      List<OptimizeTask> tasks = getQueue(queueId).poll(jobId, attemptId, waitTime, maxTasks);
+      if (!tasks.isEmpty()) {
+        LOG.info("{} pollTasks success, {} tasks", jobId, tasks.size());
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("{} polled tasks {}", jobId, tasks);
+        }
+      } else {
+        throw new NoSuchObjectException("no Optimize task in current queue: " + queueId);
+      }
+      return tasks;
+    } catch (Throwable t) {
+      if (!(t instanceof NoSuchObjectException)) {
+        LOG.error("failed to poll tasks", t);
+      }
+      throw t;
+    }
+  }
+
   private void validateRemoveQueue(OptimizeQueueWrapper queue) throws InvalidObjectException {
     if (!queue.isEmpty()) {
       throw new InvalidObjectException(
@@ -471,74 +514,34 @@ public class OptimizeQueueService extends IJDBCService {
     }
 
     public OptimizeTask poll(JobId jobId, final String attemptId, long waitTime) {
+      List<OptimizeTask> polledTasks = poll(jobId, attemptId, waitTime, 1);
+      return polledTasks.isEmpty() ? null : polledTasks.get(0);
+    }
+
+    /**
+     * Poll at most maxTasks tasks, files of the tasks are loaded and task histories are inserted in batch.
+     *
+     * @return - return empty list if got no task before timeout
+     */
+    public List<OptimizeTask> poll(JobId jobId, final String attemptId, long waitTime, int maxTasks) {
       long startTime = System.currentTimeMillis();
       while (true) {
         long duration = System.currentTimeMillis() - startTime;
         if (duration > waitTime) {
           LOG.warn("pool task cost too much time {} ms, return null", duration);
-          return null;
+          return Collections.emptyList();
         }
         OptimizeTaskItem task = tasks.poll();
         if (task == null) {
           try {
-            if (planThreadStarted.compareAndSet(false, true)) {
-              Thread planThread = new Thread(() -> {
-                int retry = 0;
-                boolean isHaveTask = false;
-
-                long threadStartTime = System.currentTimeMillis();
-                try {
-                  LOG.info("this plan started {}, {}", attemptId, jobId);
-                  while (retry <= retryTime) {
-                    LOG.debug("start get plan task retry {}", retry);
-                    retry++;
-                    long planStartTime = System.currentTimeMillis();
-                    List<OptimizeTaskItem> tasks = plan(planStartTime);
-                    if (CollectionUtils.isNotEmpty(tasks)) {
-                      isHaveTask = true;
-                      break;
-                    }
-
-                    try {
-                      Thread.sleep(retryInterval);
-                    } catch (InterruptedException e) {
-                      LOG.error("Internal Thread Interrupted", e);
-                    }
-                  }
-
-                  // no task have planned
-                  if (!isHaveTask) {
-                    LOG.debug("The queue {} has retry {} times, no task have planned",
-                        optimizeQueue.getOptimizeQueueMeta().queueId,
-                        retryTime);
-                  }
-                } catch (Throwable t) {
-                  LOG.error("failed to plan", t);
-                  throw t;
-                } finally {
-                  LOG.info("this plan end {}, cost {} ms, retry {}",
-                      attemptId, System.currentTimeMillis() - threadStartTime, retry);
-                  if (planThreadStarted.compareAndSet(true, false)) {
-                    lock();
-                    try {
-                      planThreadCondition.signalAll();
-                    } finally {
-                      unlock();
-                    }
-                  }
-                }
-              });
-              planThread.setName(
-                  "Optimize Plan Thread Queue-" + optimizeQueue.getOptimizeQueueMeta().getQueueId());
-              planThread.start();
-            } else {
+            if (!startPlanThread(attemptId + ", " + jobId)) {
               lock();
               try {
                 // if timeout, return null
                 if (!planThreadCondition.await(waitTime - (System.currentTimeMillis() - startTime),
                     TimeUnit.MILLISECONDS)) {
                   LOG.debug("The queue {} has no task have planned", optimizeQueue.getOptimizeQueueMeta().getQueueId());
-                  return null;
+                  return Collections.emptyList();
                 }
               } finally {
                 unlock();
@@ -548,37 +551,152 @@ public class OptimizeQueueService extends IJDBCService {
             LOG.error("Failure when starting the plan thread, " + e);
           }
         } else {
-          if (tables.contains(task.getTableIdentifier())) {
+          List<OptimizeTaskItem> polledTasks = new ArrayList<>();
+          while (task != null) {
+            if (tables.contains(task.getTableIdentifier())) {
+              polledTasks.add(task);
+            } else {
+              LOG.warn("get task {} from queue {} but table {} not in this queue",
+                  task.getTaskId(), queueName(), task.getTableIdentifier());
+            }
+            if (polledTasks.size() >= maxTasks) {
+              break;
+            }
+            task = tasks.poll();
+          }
+          List<OptimizeTask> executingTasks = onExecuting(polledTasks, jobId, attemptId);
+          if (!executingTasks.isEmpty()) {
+            return executingTasks;
+          }
+        }
+      }
+    }
+
+    /**
+     * Start a thread to plan tasks of tables in this queue if no plan thread is running.
+     *
+     * @param planner who starts the plan, for logging
+     * @return true if a new plan thread is started
+     */
+    private boolean startPlanThread(String planner) {
+      if (!planThreadStarted.compareAndSet(false, true)) {
+        return false;
+      }
+      Thread planThread = new Thread(() -> {
+        int retry = 0;
+        boolean isHaveTask = false;
+
+        long threadStartTime = System.currentTimeMillis();
+        try {
+          LOG.info("this plan started by {}", planner);
+          while (retry <= retryTime) {
+            LOG.debug("start get plan task retry {}", retry);
+            retry++;
+            long planStartTime = System.currentTimeMillis();
+            List<OptimizeTaskItem> tasks = plan(planStartTime);
+            if (CollectionUtils.isNotEmpty(tasks)) {
+              isHaveTask = true;
+              break;
+            }
+
             try {
-              // load files from sysdb
-              task.setFiles();
-            } catch (Exception e) {
-              task.clearFiles();
-              LOG.error("{} failed to load files from sysdb, try put task back into queue", task.getTaskId(), e);
-              if (!tasks.offer(task)) {
-                task.onFailed(new ErrorMessage(System.currentTimeMillis(), "failed to put task back into queue"), 0);
-              }
+              Thread.sleep(retryInterval);
+            } catch (InterruptedException e) {
+              LOG.error("Internal Thread Interrupted", e);
             }
-            // update max execute time
-            task.setMaxExecuteTime();
-            TableTaskHistory tableTaskHistory = task.onExecuting(jobId, attemptId);
+          }
+
+          // no task have planned
+          if (!isHaveTask) {
+            LOG.debug("The queue {} has retry {} times, no task have planned",
+                optimizeQueue.getOptimizeQueueMeta().queueId,
+                retryTime);
+          }
+        } catch (Throwable t) {
+          LOG.error("failed to plan", t);
+          throw t;
+        } finally {
+          LOG.info("this plan end {}, cost {} ms, retry {}",
+              planner, System.currentTimeMillis() - threadStartTime, retry);
+          if (planThreadStarted.compareAndSet(true, false)) {
+            lock();
             try {
-              insertTableTaskHistory(tableTaskHistory);
-            } catch (Exception e) {
-              LOG.error("failed to insert tableTaskHistory, {} ignore", tableTaskHistory, e);
+              planThreadCondition.signalAll();
+            } finally {
+              unlock();
             }
-            return task.getOptimizeTask();
-          } else {
-            LOG.warn("get task {} from queue {} but table {} not in this queue",
-                task.getTaskId(), queueName(), task.getTableIdentifier());
           }
         }
+      });
+      planThread.setName(
+          "Optimize Plan Thread Queue-" + optimizeQueue.getOptimizeQueueMeta().getQueueId());
+      planThread.start();
+      return true;
+    }
+
+    private List<OptimizeTask> onExecuting(List<OptimizeTaskItem> polledTasks, JobId jobId, String attemptId) {
+      List<OptimizeTask> executingTasks = new ArrayList<>(polledTasks.size());
+      List<TableTaskHistory> tableTaskHistories = new ArrayList<>(polledTasks.size());
+      for (OptimizeTaskItem task : loadFiles(polledTasks)) {
+        // update max execute time
+        task.setMaxExecuteTime();
+        try {
+          tableTaskHistories.add(task.onExecuting(jobId, attemptId));
+          executingTasks.add(task.getOptimizeTask());
+        } catch (Exception e) {
+          LOG.error("{} failed to set task status to Executing, ignore", task.getTaskId(), e);
+        }
+      }
+      if (!tableTaskHistories.isEmpty()) {
+        try {
+          insertTableTaskHistories(tableTaskHistories);
+        } catch (Exception e) {
+          LOG.error("failed to insert {} tableTaskHistory, ignore", tableTaskHistories.size(), e);
+        }
       }
+      return executingTasks;
     }
 
-    private void insertTableTaskHistory(TableTaskHistory tableTaskHistory) {
+    /**
+     * Load files of polled tasks from sysdb in one session, tasks failed to load are put back into queue.
+     */
+    private List<OptimizeTaskItem> loadFiles(List<OptimizeTaskItem> polledTasks) {
+      List<OptimizeTaskItem> loadedTasks = new ArrayList<>(polledTasks.size());
+      if (polledTasks.isEmpty()) {
+        return loadedTasks;
+      }
+      OptimizeQueueService optimizeQueueService = ServiceContainer.getOptimizeQueueService();
+      int loaded = 0;
+      try (SqlSession sqlSession = optimizeQueueService.getSqlSession(true)) {
+        InternalTableFilesMapper internalTableFilesMapper =
+            optimizeQueueService.getMapper(sqlSession, InternalTableFilesMapper.class);
+        for (; loaded < polledTasks.size(); loaded++) {
+          OptimizeTaskItem task = polledTasks.get(loaded);
+          try {
+            task.setFiles(internalTableFilesMapper);
+            loadedTasks.add(task);
+          } catch (Exception e) {
+            LOG.error("{} failed to load files from sysdb, try put task back into queue", task.getTaskId(), e);
+            putBack(task);
+          }
+        }
+      } catch (Exception e) {
+        LOG.error("failed to open session of sysdb, try put {} tasks back into queue", polledTasks.size() - loaded, e);
+        polledTasks.subList(loaded, polledTasks.size()).forEach(this::putBack);
+      }
+      return loadedTasks;
+    }
+
+    private void putBack(OptimizeTaskItem task) {
+      task.clearFiles();
+      if (!tasks.offer(task)) {
+        task.onFailed(new ErrorMessage(System.currentTimeMillis(), "failed to put task back into queue"), 0);
+      }
+    }
+
+    private void insertTableTaskHistories(List<TableTaskHistory> tableTaskHistories) {
       ITableTaskHistoryService tableTaskHistoryService = ServiceContainer.getTableTaskHistoryService();
-      tableTaskHistoryService.insertTaskHistory(tableTaskHistory);
+      tableTaskHistoryService.insertTaskHistories(tableTaskHistories);
     }
 
     private void clearTasks(TableIdentifier tableIdentifier) {
@@ -611,6 +729,47 @@ public class OptimizeQueueService extends IJDBCService {
       return Sets.newHashSet(tables);
     }
 
+    public OptimizeQueueBacklog getBacklog() {
+      int pendingTasks = 0;
+      long pendingFileSize = 0;
+      for (OptimizeTaskItem task : tasks) {
+        BaseOptimizeTask optimizeTask = task.getOptimizeTask();
+        pendingTasks++;
+        pendingFileSize += optimizeTask.getBaseFileSize() + optimizeTask.getInsertFileSize() +
+            optimizeTask.getDeleteFileSize() + optimizeTask.getPosDeleteFileSize();
+      }
+      int executingTasks = 0;
+      Map<String, Integer> executingTasksOfOptimizers = new HashMap<>();
+      for (TableIdentifier tableIdentifier : getTables()) {
+        try {
+          TableOptimizeItem tableItem = ServiceContainer.getOptimizeService().getTableOptimizeItem(tableIdentifier);
+          for (OptimizeTaskItem task : tableItem.getOptimizeTasks()) {
+            if (task.getOptimizeStatus() == OptimizeStatus.Executing) {
+              executingTasks++;
+              JobId jobId = task.getOptimizeRuntime().getJobId();
+              if (jobId != null) {
+                executingTasksOfOptimizers.merge(jobId.getId(), 1, Integer::sum);
+              }
+            }
+          }
+        } catch (NoSuchObjectException e) {
+          LOG.debug("{} is removed, ignore its tasks", tableIdentifier);
+        }
+      }
+      OptimizeQueueBacklog backlog = new OptimizeQueueBacklog();
+      backlog.setPendingTasks(pendingTasks);
+      backlog.setPendingFileSize(pendingFileSize);
+      backlog.setExecutingTasks(executingTasks);
+      backlog.setExecutingTasksOfOptimizers(executingTasksOfOptimizers);
+      return backlog;
+    }
+
+    public void triggerPlan() {
+      if (tasks.isEmpty()) {
+        startPlanThread("autoscale");
+      }
+    }
+
     public OptimizeQueueItem getOptimizeQueueItem() {
       optimizeQueue.setSize(size());
       return optimizeQueue;
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.ams.server.service.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netease.arctic.ams.api.properties.OptimizerProperties;
+import com.netease.arctic.ams.server.model.OptimizeQueueBacklog;
+import com.netease.arctic.ams.server.model.Optimizer;
+import com.netease.arctic.ams.server.model.OptimizerGroupInfo;
+import com.netease.arctic.ams.server.model.TableTaskStatus;
+import com.netease.arctic.ams.server.service.ServiceContainer;
+import org.apache.iceberg.util.PropertyUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scale optimizers of optimizer groups with autoscale enabled by the backlog of their queues.
+ * <p>
+ * The target parallelism of a group is the parallelism executing tasks plus the parallelism to drain pending tasks,
+ * which is estimated by file size of pending tasks, divided by the target utilization. A group is scaled out by
+ * starting a new optimizer, and scaled in by releasing an optimizer started by autoscale, both through the container
+ * of the group, after the cooldown of last scaling and only when no optimizer of the group is starting. Only idle
+ * optimizers without executing tasks are released.
+ * <p>
+ * Tasks are planned only when optimizers poll the queue, so planning is triggered for a queue without pending tasks,
+ * otherwise a group scaled in to no parallelism never sees a backlog to scale out.
+ */
+public class OptimizerAutoScaler {
+  private static final Logger LOG = LoggerFactory.getLogger(OptimizerAutoScaler.class);
+
+  static final String OPTIMIZER_NAME_PREFIX = "arctic_optimizer_autoscale_";
+
+  private final Map<String, Long> lastScaleTimes = new ConcurrentHashMap<>();
+
+  public void checkOptimizerGroups() {
+    long now = System.currentTimeMillis();
+    for (OptimizerGroupInfo group : ServiceContainer.getOptimizerService().getAllOptimizerGroupInfo()) {
+      try {
+        ScaleConfig config = ScaleConfig.of(group.getProperties());
+        if (config.enabled) {
+          scale(group, config, now);
+        }
+      } catch (Throwable t) {
+        LOG.error("failed to autoscale optimizer group {}", group.getName(), t);
+      }
+    }
+  }
+
+  private void scale(OptimizerGroupInfo group, ScaleConfig config, long now) throws Exception {
+    String groupName = group.getName();
+    List<Optimizer> optimizers = ServiceContainer.getOptimizerService().getOptimizers(groupName);
+    if (optimizers.stream().anyMatch(optimizer -> optimizer.getJobStatus() == TableTaskStatus.STARTING)) {
+      LOG.debug("optimizer group {} has starting optimizers, skip autoscale", groupName);
+      return;
+    }
+    int currentParallelism = optimizers.stream().mapToInt(Optimizer::getParallelism).sum();
+    OptimizeQueueBacklog backlog = ServiceContainer.getOptimizeQueueService().getBacklog(groupName);
+    if (backlog.getPendingTasks() == 0) {
+      ServiceContainer.getOptimizeQueueService().triggerPlan(groupName);
+    }
+    int targetParallelism = targetParallelism(backlog, currentParallelism, config);
+    if (targetParallelism == currentParallelism) {
+      return;
+    }
+    Long lastScaleTime = lastScaleTimes.get(groupName);
+    if (targetParallelism > currentParallelism) {
+      if (lastScaleTime != null && now - lastScaleTime < config.scaleOutCooldown) {
+        LOG.debug("optimizer group {} is cooling down, skip scaling out", groupName);
+        return;
+      }
+      int parallelism = targetParallelism - currentParallelism;
+      String optimizerName = OPTIMIZER_NAME_PREFIX + groupName + "_" +
+          new SimpleDateFormat("yyyy-MM-dd-HH:mm:ss").format(new Date(now));
+      LOG.info("scale out optimizer group {} from parallelism {} to {} with {}, {}", groupName,
+          currentParallelism, targetParallelism, optimizerName, backlog);
+      lastScaleTimes.put(groupName, now);
+      ServiceContainer.getOptimizeExecuteService().scaleOutOptimizer(groupName, optimizerName, parallelism);
+    } else {
+      if (lastScaleTime != null && now - lastScaleTime < config.scaleInCooldown) {
+        LOG.debug("optimizer group {} is cooling down, skip scaling in", groupName);
+        return;
+      }
+      Optimizer optimizer = optimizerToRelease(optimizers, currentParallelism - targetParallelism, backlog);
+      if (optimizer == null) {
+        LOG.debug("optimizer group {} has no idle autoscale optimizer to release for parallelism {}", groupName,
+            currentParallelism - targetParallelism);
+        return;
+      }
+      LOG.info("scale in optimizer group {} from parallelism {} to {} by releasing {}, {}", groupName,
+          currentParallelism, currentParallelism - optimizer.getParallelism(), optimizer.getJobName(), backlog);
+      lastScaleTimes.put(groupName, now);
+      ServiceContainer.getOptimizeExecuteService().stopOptimizer((long) optimizer.getJobId());
+    }
+  }
+
+  /**
+   * Target parallelism of the group, between min and max parallelism. Parallelism is never scaled in while tasks
+   * are pending.
+   */
+  @VisibleForTesting
+  static int targetParallelism(OptimizeQueueBacklog backlog, int currentParallelism, ScaleConfig config) {
+    int pendingTasks = backlog.getPendingTasks();
+    int pendingParallelism = 0;
+    if (pendingTasks > 0) {
+      // small tasks are drained by less parallelism than tasks, and a task can not use more than one parallelism
+      long parallelismByCost = (backlog.getPendingFileSize() + config.bytesPerParallelism - 1) /
+          config.bytesPerParallelism;
+      pendingParallelism = (int) Math.max(1, Math.min(pendingTasks, parallelismByCost));
+    }
+    int demand = backlog.getExecutingTasks() + pendingParallelism;
+    int target = (int) Math.ceil(demand / config.targetUtilization);
+    if (target < currentParallelism && pendingTasks > 0) {
+      target = currentParallelism;
+    }
+    return Math.max(config.minParallelism, Math.min(config.maxParallelism, target));
+  }
+
+  /**
+   * The idle optimizer started by autoscale with the largest parallelism not more than the parallelism to release.
+   * Optimizers executing tasks are never released, so that their tasks are not failed by timeout and retried.
+   */
+  @VisibleForTesting
+  static Optimizer optimizerToRelease(
+      List<Optimizer> optimizers, int parallelismToRelease, OptimizeQueueBacklog backlog) {
+    Optimizer toRelease = null;
+    for (Optimizer optimizer : optimizers) {
+      if (optimizer.getJobName() == null || !optimizer.getJobName().startsWith(OPTIMIZER_NAME_PREFIX) ||
+          optimizer.getJobStatus() != TableTaskStatus.RUNNING ||
+          optimizer.getParallelism() > parallelismToRelease ||
+          backlog.getExecutingTasks(String.valueOf(optimizer.getJobId())) > 0) {
+        continue;
+      }
+      if (toRelease == null || optimizer.getParallelism() > toRelease.getParallelism()) {
+        toRelease = optimizer;
+      }
+    }
+    return toRelease;
+  }
+
+  @VisibleForTesting
+  static class ScaleConfig {
+    private final boolean enabled;
+    private final int minParallelism;
+    private final int maxParallelism;
+    private final double targetUtilization;
+    private final long bytesPerParallelism;
+    private final long scaleOutCooldown;
+    private final long scaleInCooldown;
+
+    private ScaleConfig(Map<String, String> properties) {
+      this.enabled = PropertyUtil.propertyAsBoolean(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_ENABLED,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_ENABLED_DEFAULT);
+      this.minParallelism = Math.max(0, PropertyUtil.propertyAsInt(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MIN_PARALLELISM,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MIN_PARALLELISM_DEFAULT));
+      this.maxParallelism = Math.max(minParallelism, PropertyUtil.propertyAsInt(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MAX_PARALLELISM,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MAX_PARALLELISM_DEFAULT));
+      String targetUtilization = properties.get(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_TARGET_UTILIZATION);
+      double utilization = targetUtilization == null ?
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_TARGET_UTILIZATION_DEFAULT :
+          Double.parseDouble(targetUtilization);
+      this.targetUtilization = Math.min(1, Math.max(0.1, utilization));
+      this.bytesPerParallelism = Math.max(1, PropertyUtil.propertyAsLong(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_BYTES_PER_PARALLELISM,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_BYTES_PER_PARALLELISM_DEFAULT));
+      this.scaleOutCooldown = PropertyUtil.propertyAsLong(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_SCALE_OUT_COOLDOWN,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_SCALE_OUT_COOLDOWN_DEFAULT);
+      this.scaleInCooldown = PropertyUtil.propertyAsLong(properties,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_SCALE_IN_COOLDOWN,
+          OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_SCALE_IN_COOLDOWN_DEFAULT);
+    }
+
+    static ScaleConfig of(Map<String, String> properties) {
+      return new ScaleConfig(properties == null ? Collections.emptyMap() : properties);
+    }
+  }
+}
@@ -19,6 +19,7 @@
 package com.netease.arctic.ams.server.service.impl;
 
 import com.netease.arctic.AmsClient;
+import com.netease.arctic.ams.api.Constants;
 import com.netease.arctic.ams.server.model.TableBasicInfo;
 import com.netease.arctic.ams.server.model.TableStatistics;
 import com.netease.arctic.ams.server.service.ITableInfoService;
@@ -27,16 +28,15 @@ import com.netease.arctic.ams.server.utils.TableStatCollector;
 import com.netease.arctic.catalog.ArcticCatalog;
 import com.netease.arctic.catalog.CatalogLoader;
 import com.netease.arctic.table.ArcticTable;
-import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.table.TableIdentifier;
 import com.netease.arctic.table.TableProperties;
-import com.netease.arctic.table.UnkeyedTable;
 import org.apache.iceberg.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.Map;
 
 public class TableBaseInfoService implements ITableInfoService {
   public static final Logger LOG = LoggerFactory.getLogger(TableBaseInfoService.class);
@@ -57,19 +57,15 @@ public class TableBaseInfoService implements ITableInfoService {
 
       ArcticCatalog catalog = CatalogLoader.load(client, tableIdentifier.getCatalog());
       ArcticTable table = catalog.loadTable(tableIdentifier);
-      if (table.isUnkeyedTable()) {
-        UnkeyedTable unkeyedTable = table.asUnkeyedTable();
-        baseInfo = new TableStatistics();
-        TableStatCollector.fillTableStatistics(baseInfo, unkeyedTable, table, "TABLE");
-      } else if (table.isKeyedTable()) {
-        KeyedTable keyedTable = table.asKeyedTable();
-        if (!PrimaryKeySpec.noPrimaryKey().equals(keyedTable.primaryKeySpec())) {
-          changeInfo = TableStatCollector.collectChangeTableInfo(keyedTable);
-        }
-        baseInfo = TableStatCollector.collectBaseTableInfo(keyedTable);
-      } else {
+      if (!table.isUnkeyedTable() && !table.isKeyedTable()) {
         throw new IllegalStateException("unknown type of table");
       }
+      Map<String, TableStatistics> statistics = ServiceContainer.getFileInfoCacheService().getTableStatistics(table);
+      baseInfo = statistics.get(Constants.INNER_TABLE_BASE);
+      if (table.isKeyedTable() &&
+          !PrimaryKeySpec.noPrimaryKey().equals(table.asKeyedTable().primaryKeySpec())) {
+        changeInfo = statistics.get(Constants.INNER_TABLE_CHANGE);
+      }
 
       tableBasicInfo.setChangeStatistics(changeInfo);
       tableBasicInfo.setBaseStatistics(baseInfo);
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.ams.server.service.impl;
+
+import com.netease.arctic.ams.api.DataFile;
+import com.netease.arctic.ams.api.TableChange;
+import com.netease.arctic.ams.api.TableCommitMeta;
+import com.netease.arctic.ams.api.TableIdentifier;
+import com.netease.arctic.ams.server.model.FilesStatistics;
+import com.netease.arctic.ams.server.model.PartitionBaseInfo;
+import com.netease.arctic.ams.server.model.PartitionStatistics;
+import com.netease.arctic.ams.server.model.TableStatistics;
+import com.netease.arctic.ams.server.utils.PropertiesUtil;
+import com.netease.arctic.ams.server.utils.TableStatCollector;
+import com.netease.arctic.data.DataFileType;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.SnapshotSummary;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.util.PropertyUtil;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Statistics of tables kept in memory and maintained incrementally by the commits ingested into the file cache, so
+ * they are served without reading the snapshots or the files of the table.
+ * <p>
+ * Statistics of a table are loaded on the first read, totals from the summary of the current snapshot and totals of
+ * partitions from the file cache. Commits following the loaded snapshot are then applied to them. Statistics are
+ * loaded again once the snapshots of the table differ from the applied ones, e.g. after commits not sent to AMS or
+ * after expiring snapshots.
+ * <p>
+ * Commit times of tables are the times of their snapshots, but times of partitions are commit times of AMS as in the
+ * file cache.
+ */
+class TableStatisticsStore {
+
+  private final Map<TableIdentifier, Map<String, InnerTableStatistics>> tables = new ConcurrentHashMap<>();
+  private final BiFunction<TableIdentifier, String, List<PartitionStatistics>> partitionLoader;
+
+  /**
+   * @param partitionLoader loads totals of partitions of an inner table from the file cache
+   */
+  TableStatisticsStore(BiFunction<TableIdentifier, String, List<PartitionStatistics>> partitionLoader) {
+    this.partitionLoader = partitionLoader;
+  }
+
+  /**
+   * Statistics of inner tables, loading them if they are not at the current snapshots of the tables.
+   *
+   * @param identifier identifier of the table
+   * @param innerTables inner tables by the inner table type
+   * @return statistics by the inner table type
+   */
+  Map<String, TableStatistics> getTableStatistics(TableIdentifier identifier, Map<String, Table> innerTables) {
+    Map<String, InnerTableStatistics> statistics = tables.get(identifier);
+    if (statistics == null || !isCurrent(statistics, innerTables)) {
+      ImmutableMap.Builder<String, InnerTableStatistics> loaded = ImmutableMap.builder();
+      innerTables.forEach((innerTable, table) ->
+          loaded.put(innerTable, load(identifier, innerTable, table)));
+      statistics = loaded.build();
+      tables.put(identifier, statistics);
+    } else {
+      // applied commits carry the commit time of AMS, times of tables are the times of their snapshots
+      for (Map.Entry<String, Table> innerTable : innerTables.entrySet()) {
+        statistics.get(innerTable.getKey()).useSnapshotTime(innerTable.getValue().currentSnapshot());
+      }
+    }
+
+    com.netease.arctic.table.TableIdentifier tableIdentifier = com.netease.arctic.table.TableIdentifier.of(identifier);
+    Map<String, TableStatistics> result = new HashMap<>();
+    statistics.forEach((innerTable, innerStatistics) ->
+        result.put(innerTable, innerStatistics.toTableStatistics(tableIdentifier)));
+    return result;
+  }
+
+  /**
+   * Totals of partitions of all inner tables, ordered by partition name descending.
+   *
+   * @return totals of partitions, or null if statistics of the table are not loaded
+   */
+  List<PartitionBaseInfo> getPartitions(TableIdentifier identifier) {
+    Map<String, InnerTableStatistics> statistics = tables.get(identifier);
+    if (statistics == null) {
+      return null;
+    }
+
+    Map<String, PartitionStatistics> partitions = new TreeMap<>(Comparator.reverseOrder());
+    statistics.values().forEach(innerStatistics -> innerStatistics.mergePartitions(partitions));
+    List<PartitionBaseInfo> result = new ArrayList<>(partitions.size());
+    partitions.values().forEach(partition -> result.add(new PartitionBaseInfo(
+        partition.getPartition(),
+        partition.getFileCount(),
+        partition.getFileSize(),
+        new Timestamp(partition.getLastCommitTime()))));
+    return result;
+  }
+
+  /**
+   * Apply a commit to loaded statistics, statistics not following the commit are dropped.
+   */
+  void commit(TableCommitMeta commit) {
+    Map<String, InnerTableStatistics> statistics = tables.get(commit.getTableIdentifier());
+    if (statistics == null || CollectionUtils.isEmpty(commit.getChanges())) {
+      return;
+    }
+    for (TableChange change : commit.getChanges()) {
+      InnerTableStatistics innerStatistics = statistics.get(change.getInnerTable());
+      if (innerStatistics == null || !innerStatistics.apply(commit, change)) {
+        tables.remove(commit.getTableIdentifier(), statistics);
+        return;
+      }
+    }
+  }
+
+  void invalidate(TableIdentifier identifier) {
+    tables.remove(identifier);
+  }
+
+  private static boolean isCurrent(Map<String, InnerTableStatistics> statistics, Map<String, Table> innerTables) {
+    if (!statistics.keySet().equals(innerTables.keySet())) {
+      return false;
+    }
+    for (Map.Entry<String, Table> innerTable : innerTables.entrySet()) {
+      Snapshot currentSnapshot = innerTable.getValue().currentSnapshot();
+      long snapshotId = currentSnapshot == null ? -1 : currentSnapshot.snapshotId();
+      // snapshots of a table are kept in a list, so counting them is cheap
+      int snapshotCount = Iterables.size(innerTable.getValue().snapshots());
+      if (!statistics.get(innerTable.getKey()).isAt(snapshotId, snapshotCount)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private InnerTableStatistics load(TableIdentifier identifier, String innerTable, Table table) {
+    InnerTableStatistics statistics = new InnerTableStatistics();
+    Snapshot currentSnapshot = table.currentSnapshot();
+    if (currentSnapshot != null) {
+      Map<String, String> summary = currentSnapshot.summary();
+      statistics.snapshotId = currentSnapshot.snapshotId();
+      statistics.totalSize = PropertyUtil.propertyAsLong(summary, SnapshotSummary.TOTAL_FILE_SIZE_PROP, 0);
+      statistics.dataFileCount = PropertyUtil.propertyAsInt(summary, SnapshotSummary.TOTAL_DATA_FILES_PROP, 0);
+      statistics.fileCount = statistics.dataFileCount +
+          PropertyUtil.propertyAsInt(summary, SnapshotSummary.TOTAL_DELETE_FILES_PROP, 0);
+      statistics.recordCount = PropertyUtil.propertyAsLong(summary, SnapshotSummary.TOTAL_RECORDS_PROP, 0);
+      statistics.currentSnapshotSummary = snapshotSummary(currentSnapshot);
+    }
+    for (Snapshot snapshot : table.snapshots()) {
+      if (statistics.snapshotCount++ == 0) {
+        statistics.firstCommitTime = snapshot.timestampMillis();
+      }
+      statistics.lastCommitTime = snapshot.timestampMillis();
+    }
+    for (PartitionStatistics partition : partitionLoader.apply(identifier, innerTable)) {
+      statistics.partitions.put(partition.getPartition(), partition);
+    }
+    return statistics;
+  }
+
+  private static Map<String, String> snapshotSummary(Snapshot snapshot) {
+    Map<String, String> summary = new HashMap<>();
+    TableStatCollector.fillSnapshotSummary(summary, snapshot);
+    return summary;
+  }
+
+  /**
+   * Records of delete files are not counted, as in the totals of iceberg snapshots. Equality delete files of the
+   * change store are data files of iceberg.
+   */
+  private static boolean isDeleteFile(DataFile file) {
+    return DataFileType.POS_DELETE_FILE.name().equals(file.getFileType()) ||
+        DataFileType.ICEBERG_EQ_DELETE_FILE.name().equals(file.getFileType());
+  }
+
+  private static class InnerTableStatistics {
+    private long snapshotId = -1;
+    private int snapshotCount;
+    private long firstCommitTime;
+    private long lastCommitTime;
+    private int fileCount;
+    private int dataFileCount;
+    private long totalSize;
+    private long recordCount;
+    private Map<String, String> currentSnapshotSummary = new HashMap<>();
+    private final Map<String, PartitionStatistics> partitions = new HashMap<>();
+
+    synchronized boolean isAt(long snapshotId, int snapshotCount) {
+      return this.snapshotId == snapshotId && this.snapshotCount == snapshotCount;
+    }
+
+    /**
+     * Replace the commit time of the last applied commit with the time of the snapshot it committed.
+     */
+    synchronized void useSnapshotTime(Snapshot currentSnapshot) {
+      if (currentSnapshot == null || currentSnapshot.snapshotId() != snapshotId) {
+        return;
+      }
+      lastCommitTime = currentSnapshot.timestampMillis();
+      if (snapshotCount == 1) {
+        firstCommitTime = lastCommitTime;
+      }
+    }
+
+    /**
+     * Apply a change, commit times of the table are those of AMS until {@link #useSnapshotTime} is called.
+     *
+     * @return false if the change doesn't follow the applied snapshot
+     */
+    synchronized boolean apply(TableCommitMeta commit, TableChange change) {
+      if (change.getSnapshotId() == snapshotId) {
+        // loaded after the commit
+        return true;
+      }
+      if (change.getParentSnapshotId() != snapshotId) {
+        return false;
+      }
+
+      int addedFiles = 0;
+      long addedFilesSize = 0;
+      long addedRecords = 0;
+      if (change.getAddFiles() != null) {
+        for (DataFile file : change.getAddFiles()) {
+          addedFilesSize += file.getFileSize();
+          long records = isDeleteFile(file) ? 0 : file.getRecordCount();
+          addedRecords += records;
+          addedFiles += isDeleteFile(file) ? 0 : 1;
+          updatePartition(file, 1, file.getFileSize(), records, commit.getCommitTime());
+          fileCount++;
+        }
+      }
+      int removedFiles = 0;
+      long removedFilesSize = 0;
+      long removedRecords = 0;
+      if (change.getDeleteFiles() != null) {
+        for (DataFile file : change.getDeleteFiles()) {
+          removedFilesSize += file.getFileSize();
+          long records = isDeleteFile(file) ? 0 : file.getRecordCount();
+          removedRecords += records;
+          removedFiles += isDeleteFile(file) ? 0 : 1;
+          updatePartition(file, -1, -file.getFileSize(), -records, commit.getCommitTime());
+          fileCount--;
+        }
+      }
+      dataFileCount += addedFiles - removedFiles;
+      totalSize += addedFilesSize - removedFilesSize;
+      recordCount += addedRecords - removedRecords;
+
+      snapshotId = change.getSnapshotId();
+      if (snapshotCount++ == 0) {
+        firstCommitTime = commit.getCommitTime();
+      }
+      lastCommitTime = commit.getCommitTime();
+
+      Map<String, String> summary = new HashMap<>();
+      PropertiesUtil.putNotNullProperties(summary, "operation", commit.getAction());
+      summary.put("addedFiles", String.valueOf(addedFiles));
+      summary.put("addedFilesSize", String.valueOf(addedFilesSize));
+      summary.put("addedRecords", String.valueOf(addedRecords));
+      summary.put("removedFilesSize", String.valueOf(removedFilesSize));
+      summary.put("removedFiles", String.valueOf(removedFiles));
+      summary.put("removedRecords", String.valueOf(removedRecords));
+      summary.put("totalSize", String.valueOf(totalSize));
+      summary.put("snapshotId", String.valueOf(snapshotId));
+      summary.put("totalFiles", String.valueOf(dataFileCount));
+      summary.put("totalRecords", String.valueOf(recordCount));
+      currentSnapshotSummary = summary;
+      return true;
+    }
+
+    private void updatePartition(DataFile file, int files, long size, long records, long commitTime) {
+      String partitionName = FileInfoCacheService.partitionToPath(file.getPartition());
+      PartitionStatistics partition = partitions.computeIfAbsent(partitionName, name -> {
+        PartitionStatistics statistics = new PartitionStatistics();
+        statistics.setPartition(name);
+        return statistics;
+      });
+      partition.setFileCount(partition.getFileCount() + files);
+      partition.setFileSize(partition.getFileSize() + size);
+      partition.setRecordCount(partition.getRecordCount() + records);
+      partition.setLastCommitTime(Math.max(partition.getLastCommitTime(), commitTime));
+      if (partition.getFileCount() <= 0) {
+        partitions.remove(partitionName);
+      }
+    }
+
+    synchronized void mergePartitions(Map<String, PartitionStatistics> merged) {
+      partitions.values().forEach(partition -> merged.merge(
+          partition.getPartition(),
+          new PartitionStatistics(partition),
+          (left, right) -> {
+            left.setFileCount(left.getFileCount() + right.getFileCount());
+            left.setFileSize(left.getFileSize() + right.getFileSize());
+            left.setRecordCount(left.getRecordCount() + right.getRecordCount());
+            left.setLastCommitTime(Math.max(left.getLastCommitTime(), right.getLastCommitTime()));
+            return left;
+          }));
+    }
+
+    synchronized TableStatistics toTableStatistics(com.netease.arctic.table.TableIdentifier tableIdentifier) {
+      TableStatistics tableStatistics = new TableStatistics();
+      tableStatistics.setTableIdentifier(tableIdentifier);
+      tableStatistics.setTotalFilesStat(new FilesStatistics(fileCount, totalSize));
+
+      Map<String, String> summary = new HashMap<>();
+      PropertiesUtil.putNotNullProperties(summary, "snapshotCnt", String.valueOf(snapshotCount));
+      if (snapshotCount != 0) {
+        PropertiesUtil.putNotNullProperties(summary, "visibleTime", String.valueOf(lastCommitTime));
+        PropertiesUtil.putNotNullProperties(summary, "firstSnapshotCommitTime", String.valueOf(firstCommitTime));
+        PropertiesUtil.putNotNullProperties(summary, "averageSnapshotSize",
+            String.valueOf(totalSize / snapshotCount));
+      }
+      summary.putAll(currentSnapshotSummary);
+      tableStatistics.setSummary(summary);
+      return tableStatistics;
+    }
+  }
+}
@@ -26,6 +26,8 @@ import com.netease.arctic.table.TableIdentifier;
 import org.apache.ibatis.session.SqlSession;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class TableTaskHistoryService extends IJDBCService implements ITableTaskHistoryService {
 
@@ -56,6 +58,40 @@ public class TableTaskHistoryService extends IJDBCService implements ITableTaskH
     }
   }
 
+  @Override
+  public void insertTaskHistories(List<TableTaskHistory> taskHistories) {
+    if (taskHistories.isEmpty()) {
+      return;
+    }
+    try (SqlSession sqlSession = getBatchSqlSession()) {
+      try {
+        TaskHistoryMapper taskHistoryMapper =
+            getMapper(sqlSession, TaskHistoryMapper.class);
+        List<String> taskTraceIds = taskHistories.stream()
+            .map(TableTaskHistory::getTaskTraceId)
+            .distinct()
+            .collect(Collectors.toList());
+        // a retried task may already have its history, skip the keys existing in sysdb or repeated in this batch
+        Set<String> insertedKeys = taskHistoryMapper.selectTaskHistoryKeys(taskTraceIds).stream()
+            .map(TableTaskHistoryService::historyKey)
+            .collect(Collectors.toSet());
+        for (TableTaskHistory taskHistory : taskHistories) {
+          if (insertedKeys.add(historyKey(taskHistory))) {
+            taskHistoryMapper.insertTaskHistory(taskHistory);
+          }
+        }
+        sqlSession.commit();
+      } catch (Exception e) {
+        sqlSession.rollback();
+        throw e;
+      }
+    }
+  }
+
+  private static String historyKey(TableTaskHistory taskHistory) {
+    return taskHistory.getTaskTraceId() + "#" + taskHistory.getRetry();
+  }
+
   @Override
   public List<TableTaskHistory> selectTaskHistoryByTableIdAndTime(TableIdentifier identifier,
                                                                   long startTime,
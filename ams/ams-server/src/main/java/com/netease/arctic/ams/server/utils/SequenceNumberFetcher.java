@@ -20,7 +20,7 @@ package com.netease.arctic.ams.server.utils;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
-import com.netease.arctic.IcebergFileEntry;
+import com.netease.arctic.IcebergFilePathEntry;
 import com.netease.arctic.scan.TableEntriesScan;
 import org.apache.iceberg.FileContent;
 import org.apache.iceberg.Table;
@@ -67,9 +67,10 @@ public class SequenceNumberFetcher {
           .withAliveEntry(true)
           .includeFileContent(FileContent.DATA, FileContent.POSITION_DELETES, FileContent.EQUALITY_DELETES)
           .useSnapshot(snapshotId)
+          .withoutColumnStats()
           .build();
-      try (CloseableIterable<IcebergFileEntry> entries = manifestReader.entries()) {
-        entries.forEach(e -> cached.put(e.getFile().path().toString(), e.getSequenceNumber()));
+      try (CloseableIterable<IcebergFilePathEntry> entries = manifestReader.pathEntries()) {
+        entries.forEach(e -> cached.put(e.getPath(), e.getSequenceNumber()));
       } catch (IOException e) {
         throw new UncheckedIOException("Failed to close manifest entry scan of " + table.name(), e);
       }
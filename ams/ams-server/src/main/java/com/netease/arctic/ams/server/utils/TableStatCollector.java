@@ -147,8 +147,13 @@ public class TableStatCollector {
       return;
     }
 
-    Snapshot snapshot = internalTable.currentSnapshot();
-    Map<String, String> summary = tableStatistics.getSummary();
+    fillSnapshotSummary(tableStatistics.getSummary(), internalTable.currentSnapshot());
+  }
+
+  /**
+   * Put the operation, added, removed and total files, sizes and records of the snapshot into the summary.
+   */
+  public static void fillSnapshotSummary(Map<String, String> summary, Snapshot snapshot) {
     PropertiesUtil.putNotNullProperties(summary, "operation", snapshot.summary().getOrDefault("operation", ""));
     PropertiesUtil.putNotNullProperties(summary, "addedFiles", String.valueOf(PropertyUtil
         .propertyAsInt(snapshot.summary(), SnapshotSummary.ADDED_FILES_PROP, 0)));
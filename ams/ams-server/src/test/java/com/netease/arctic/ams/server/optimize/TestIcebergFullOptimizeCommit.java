@@ -5,10 +5,13 @@ import com.netease.arctic.ams.server.model.BaseOptimizeTask;
 import com.netease.arctic.ams.server.model.BaseOptimizeTaskRuntime;
 import com.netease.arctic.ams.server.model.TableOptimizeRuntime;
 import com.netease.arctic.ams.server.utils.JDBCSqlSessionFactoryProvider;
+import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.utils.SerializationUtils;
+import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.exceptions.ValidationException;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.junit.Assert;
@@ -17,6 +20,8 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -169,4 +174,78 @@ public class TestIcebergFullOptimizeCommit extends TestIcebergBase {
     Assert.assertNotEquals(oldDataFilesPath, newDataFilesPath);
     Assert.assertNotEquals(oldDeleteFilesPath, newDeleteFilesPath);
   }
+
+  @Test
+  public void testMajorOptimizePartialConflictCommit() throws Exception {
+    icebergNoPartitionTable.asUnkeyedTable().updateProperties()
+        .set(TableProperties.SELF_OPTIMIZING_FRAGMENT_RATIO,
+            TableProperties.SELF_OPTIMIZING_TARGET_SIZE_DEFAULT / 1000 + "")
+        .set(TableProperties.SELF_OPTIMIZING_MAJOR_TRIGGER_DUPLICATE_RATIO, "0")
+        .commit();
+    List<DataFile> dataFiles = insertDataFiles(icebergNoPartitionTable.asUnkeyedTable(), 10);
+    insertPosDeleteFiles(icebergNoPartitionTable.asUnkeyedTable(), dataFiles);
+
+    // tasks planned for the same files are committed as two partitions, the second one always conflicts
+    Map<String, List<OptimizeTaskItem>> partitionTasks = new HashMap<>();
+    partitionTasks.put("a_committed", planTaskItems(icebergNoPartitionTable));
+    partitionTasks.put("b_conflicted", planTaskItems(icebergNoPartitionTable));
+    Set<String> conflictedFiles = targetFilePaths(partitionTasks.get("b_conflicted"));
+    IcebergOptimizeCommit optimizeCommit = new IcebergOptimizeCommit(icebergNoPartitionTable, partitionTasks) {
+      @Override
+      protected void rewriteMajorFiles(ArcticTable arcticTable, Set<ContentFile<?>> majorAddFiles,
+                                       Set<ContentFile<?>> majorDeleteFiles, long baseSnapshotId) {
+        if (majorAddFiles.stream().anyMatch(file -> conflictedFiles.contains(file.path().toString()))) {
+          throw new ValidationException("Missing required files to delete: %s", conflictedFiles);
+        }
+        super.rewriteMajorFiles(arcticTable, majorAddFiles, majorDeleteFiles, baseSnapshotId);
+      }
+    };
+    Assert.assertTrue(optimizeCommit.commit(
+        icebergNoPartitionTable.asUnkeyedTable().currentSnapshot().snapshotId()));
+    Assert.assertEquals(Collections.singleton("a_committed"), optimizeCommit.getCommittedTasks().keySet());
+    Assert.assertEquals(Collections.singleton("b_conflicted"), optimizeCommit.getConflictedTasks().keySet());
+    Assert.assertEquals(2, optimizeCommit.getCommitRetries());
+
+    Set<String> newDataFilesPath = new HashSet<>();
+    try (CloseableIterable<FileScanTask> fileIterable = icebergNoPartitionTable.asUnkeyedTable().newScan()
+        .planFiles()) {
+      fileIterable.forEach(fileScanTask -> newDataFilesPath.add((String) fileScanTask.file().path()));
+    }
+    Assert.assertTrue(newDataFilesPath.containsAll(targetFilePaths(partitionTasks.get("a_committed"))));
+    Assert.assertTrue(Collections.disjoint(newDataFilesPath, conflictedFiles));
+  }
+
+  private List<OptimizeTaskItem> planTaskItems(ArcticTable table) throws Exception {
+    List<FileScanTask> fileScanTasks;
+    try (CloseableIterable<FileScanTask> filesIterable = table.asUnkeyedTable().newScan().planFiles()) {
+      fileScanTasks = Lists.newArrayList(filesIterable);
+    }
+    IcebergFullOptimizePlan optimizePlan = new IcebergFullOptimizePlan(table,
+        new TableOptimizeRuntime(table.id()), fileScanTasks, new HashMap<>(), 1, System.currentTimeMillis());
+    List<BaseOptimizeTask> tasks = optimizePlan.plan();
+
+    List<OptimizeTaskItem> taskItems = new ArrayList<>();
+    for (BaseOptimizeTask task : tasks) {
+      List<DataFile> resultFiles = insertOptimizeTargetDataFiles(table.asUnkeyedTable(), 10);
+      BaseOptimizeTaskRuntime optimizeRuntime = new BaseOptimizeTaskRuntime(task.getTaskId());
+      optimizeRuntime.setPreparedTime(System.currentTimeMillis());
+      optimizeRuntime.setStatus(OptimizeStatus.Prepared);
+      optimizeRuntime.setReportTime(System.currentTimeMillis());
+      optimizeRuntime.setNewFileSize(resultFiles.get(0).fileSizeInBytes());
+      optimizeRuntime.setTargetFiles(resultFiles.stream().map(SerializationUtils::toByteBuffer)
+          .collect(Collectors.toList()));
+      optimizeRuntime.setNewFileCnt(resultFiles.size());
+      optimizeRuntime.setCostTime(60 * 1000);
+      taskItems.add(new OptimizeTaskItem(task, optimizeRuntime));
+    }
+    return taskItems;
+  }
+
+  private static Set<String> targetFilePaths(List<OptimizeTaskItem> taskItems) {
+    return taskItems.stream()
+        .flatMap(taskItem -> taskItem.getOptimizeRuntime().getTargetFiles().stream())
+        .map(SerializationUtils::toInternalTableFile)
+        .map(file -> file.path().toString())
+        .collect(Collectors.toSet());
+  }
 }
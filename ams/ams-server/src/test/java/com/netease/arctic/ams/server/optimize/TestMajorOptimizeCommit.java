@@ -31,6 +31,7 @@ import com.netease.arctic.data.DefaultKeyedFile;
 import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.utils.SerializationUtils;
+import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.Snapshot;
@@ -42,11 +43,13 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -329,6 +332,146 @@ public class TestMajorOptimizeCommit extends TestBaseOptimizeBase {
     }
   }
 
+  @Test
+  public void testMajorOptimizeAllPartitionsConflictCommit() throws Exception {
+    Pair<List<DataFile>, List<OptimizeTaskItem>> prepared = prepareMajorTasks();
+    DataFile conflictedFile = prepared.first().get(0);
+    Map<String, List<OptimizeTaskItem>> partitionTasks = prepared.second().stream()
+        .collect(Collectors.groupingBy(taskItem -> taskItem.getOptimizeTask().getPartition()));
+
+    testKeyedTable.asKeyedTable().baseTable().newDelete().deleteFile(conflictedFile).commit();
+    BaseOptimizeCommit optimizeCommit = new BaseOptimizeCommit(testKeyedTable, partitionTasks);
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Assert.assertFalse(optimizeCommit.commit(baseSnapshotId));
+    Assert.assertEquals(partitionTasks.keySet(), optimizeCommit.getConflictedTasks().keySet());
+    Assert.assertTrue(optimizeCommit.getCommittedTasks().isEmpty());
+    for (ContentFile<?> targetFile : targetFiles(prepared.second())) {
+      Assert.assertFalse(testKeyedTable.io().exists(targetFile.path().toString()));
+    }
+  }
+
+  @Test
+  public void testMajorOptimizePartialConflictCommit() throws Exception {
+    Pair<List<DataFile>, List<OptimizeTaskItem>> prepared = prepareMajorTasks();
+    DataFile conflictedFile = prepared.first().get(0);
+    List<OptimizeTaskItem> taskItems = prepared.second();
+    Assert.assertTrue(taskItems.size() > 1);
+    // commit tasks of the node of conflicted file and tasks of other nodes as two partitions
+    Map<String, List<OptimizeTaskItem>> partitionTasks = taskItems.stream()
+        .collect(Collectors.groupingBy(taskItem -> deletes(taskItem, conflictedFile) ? "conflicted" : "committed"));
+
+    testKeyedTable.asKeyedTable().baseTable().newDelete().deleteFile(conflictedFile).commit();
+    BaseOptimizeCommit optimizeCommit = new BaseOptimizeCommit(testKeyedTable, partitionTasks);
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Assert.assertTrue(optimizeCommit.commit(baseSnapshotId));
+    Assert.assertEquals(Collections.singleton("conflicted"), optimizeCommit.getConflictedTasks().keySet());
+    Assert.assertEquals(Collections.singleton("committed"), optimizeCommit.getCommittedTasks().keySet());
+    Assert.assertEquals(2, optimizeCommit.getCommitRetries());
+
+    Set<String> baseFiles = new HashSet<>();
+    testKeyedTable.baseTable().newScan().planFiles()
+        .forEach(fileScanTask -> baseFiles.add(fileScanTask.file().path().toString()));
+    for (ContentFile<?> targetFile : targetFiles(partitionTasks.get("committed"))) {
+      Assert.assertTrue(baseFiles.contains(targetFile.path().toString()));
+    }
+    for (ContentFile<?> targetFile : targetFiles(partitionTasks.get("conflicted"))) {
+      Assert.assertFalse(testKeyedTable.io().exists(targetFile.path().toString()));
+    }
+  }
+
+  @Test
+  public void testMajorOptimizeCommitFailedAfterPartitionCommitted() throws Exception {
+    Pair<List<DataFile>, List<OptimizeTaskItem>> prepared = prepareMajorTasks();
+    DataFile conflictedFile = prepared.first().get(0);
+    List<OptimizeTaskItem> otherTasks = prepared.second().stream()
+        .filter(taskItem -> !deletes(taskItem, conflictedFile))
+        .collect(Collectors.toList());
+    Assert.assertTrue(otherTasks.size() > 1);
+    Map<String, List<OptimizeTaskItem>> partitionTasks = new HashMap<>();
+    partitionTasks.put("a_committed", otherTasks.subList(0, 1));
+    partitionTasks.put("b_failed", otherTasks.subList(1, otherTasks.size()));
+    partitionTasks.put("c_conflicted", prepared.second().stream()
+        .filter(taskItem -> deletes(taskItem, conflictedFile))
+        .collect(Collectors.toList()));
+
+    testKeyedTable.asKeyedTable().baseTable().newDelete().deleteFile(conflictedFile).commit();
+    // the commit of all partitions conflicts, then partitions are retried in order and the second one fails
+    AtomicInteger rewrites = new AtomicInteger();
+    BaseOptimizeCommit optimizeCommit = new BaseOptimizeCommit(testKeyedTable, partitionTasks) {
+      @Override
+      protected void rewriteMajorFiles(ArcticTable arcticTable, Set<ContentFile<?>> majorAddFiles,
+                                       Set<ContentFile<?>> majorDeleteFiles, long baseSnapshotId) {
+        if (rewrites.incrementAndGet() == 3) {
+          throw new IllegalStateException("unexpected error");
+        }
+        super.rewriteMajorFiles(arcticTable, majorAddFiles, majorDeleteFiles, baseSnapshotId);
+      }
+    };
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Assert.assertThrows(Exception.class, () -> optimizeCommit.commit(baseSnapshotId));
+    Assert.assertEquals(3, rewrites.get());
+    Assert.assertEquals(Collections.singleton("a_committed"), optimizeCommit.getCommittedTasks().keySet());
+    Assert.assertTrue(optimizeCommit.getConflictedTasks().isEmpty());
+  }
+
+  private Pair<List<DataFile>, List<OptimizeTaskItem>> prepareMajorTasks() throws Exception {
+    Pair<Snapshot, List<DataFile>> insertBaseResult = insertTableBaseDataFiles(testKeyedTable, 1L);
+    List<DataFile> baseDataFiles = insertBaseResult.second();
+    baseDataFilesInfo.addAll(baseDataFiles.stream()
+        .map(dataFile ->
+            DataFileInfoUtils.convertToDatafileInfo(dataFile, insertBaseResult.first(), testKeyedTable))
+        .collect(Collectors.toList()));
+
+    Set<DataTreeNode> targetNodes = baseDataFilesInfo.stream()
+        .map(dataFileInfo -> DataTreeNode.of(dataFileInfo.getMask(), dataFileInfo.getIndex()))
+        .collect(Collectors.toSet());
+    Pair<Snapshot, List<DeleteFile>> deleteResult =
+        insertBasePosDeleteFiles(testKeyedTable, 2L, baseDataFiles, targetNodes);
+    posDeleteFilesInfo.addAll(deleteResult.second().stream()
+        .map(deleteFile -> DataFileInfoUtils.convertToDatafileInfo(deleteFile, deleteResult.first(),
+            testKeyedTable.asKeyedTable()))
+        .collect(Collectors.toList()));
+
+    testKeyedTable.updateProperties().
+        set(TableProperties.SELF_OPTIMIZING_MAJOR_TRIGGER_DUPLICATE_RATIO, "0").commit();
+    TableOptimizeRuntime tableOptimizeRuntime = new TableOptimizeRuntime(testKeyedTable.id());
+    MajorOptimizePlan majorOptimizePlan = new MajorOptimizePlan(testKeyedTable,
+        tableOptimizeRuntime, baseDataFilesInfo, posDeleteFilesInfo,
+        new HashMap<>(), 1, System.currentTimeMillis(), snapshotId -> true);
+    List<BaseOptimizeTask> tasks = majorOptimizePlan.plan();
+
+    Map<TreeNode, List<DataFile>> resultFiles = generateTargetFiles(testKeyedTable);
+    List<OptimizeTaskItem> taskItems = tasks.stream().map(task -> {
+      BaseOptimizeTaskRuntime optimizeRuntime = new BaseOptimizeTaskRuntime(task.getTaskId());
+      List<DataFile> targetFiles = resultFiles.get(task.getSourceNodes().get(0));
+      optimizeRuntime.setPreparedTime(System.currentTimeMillis());
+      optimizeRuntime.setStatus(OptimizeStatus.Prepared);
+      optimizeRuntime.setReportTime(System.currentTimeMillis());
+      optimizeRuntime.setNewFileCnt(targetFiles == null ? 0 : targetFiles.size());
+      if (targetFiles != null) {
+        optimizeRuntime.setNewFileSize(targetFiles.get(0).fileSizeInBytes());
+        optimizeRuntime.setTargetFiles(targetFiles.stream().map(SerializationUtils::toByteBuffer)
+            .collect(Collectors.toList()));
+      }
+      optimizeRuntime.setCostTime(60 * 1000);
+      return new OptimizeTaskItem(task, optimizeRuntime);
+    }).collect(Collectors.toList());
+    return Pair.of(baseDataFiles, taskItems);
+  }
+
+  private static boolean deletes(OptimizeTaskItem taskItem, DataFile dataFile) {
+    return taskItem.getOptimizeTask().getBaseFiles().stream()
+        .map(SerializationUtils::toInternalTableFile)
+        .anyMatch(file -> file.path().toString().equals(dataFile.path().toString()));
+  }
+
+  private static List<ContentFile<?>> targetFiles(List<OptimizeTaskItem> taskItems) {
+    return taskItems.stream()
+        .flatMap(taskItem -> taskItem.getOptimizeRuntime().getTargetFiles().stream())
+        .map(SerializationUtils::toInternalTableFile)
+        .collect(Collectors.toList());
+  }
+
   private Map<TreeNode, List<DataFile>> generateTargetFiles(ArcticTable arcticTable) throws Exception {
     List<DataFile> dataFiles = insertOptimizeTargetDataFiles(arcticTable, OptimizeType.Major, 3);
     return dataFiles.stream().collect(Collectors.groupingBy(dataFile ->  {
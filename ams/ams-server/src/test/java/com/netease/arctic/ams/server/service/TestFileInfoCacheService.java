@@ -97,6 +97,33 @@ public class TestFileInfoCacheService extends TableTestBase {
     Assert.assertEquals(snapshotId, transactionsOfTables.get(1).getTransactionId());
   }
 
+  @Test
+  public void testAsyncAppendCommit() {
+    TableIdentifier asyncTableIdentifier = new TableIdentifier(AMS_TEST_CATALOG_NAME, "test", "test_async_commit");
+    long parentSnapshotId = -1;
+    for (long snapshotId = 1; snapshotId <= 3; snapshotId++) {
+      TableCommitMeta meta = new TableCommitMeta();
+      meta.setAction("append");
+      meta.setCommitTime(System.currentTimeMillis());
+      meta.setCommitMetaProducer(CommitMetaProducer.INGESTION);
+      meta.setTableIdentifier(asyncTableIdentifier);
+      TableChange change = new TableChange();
+      change.setParentSnapshotId(parentSnapshotId);
+      change.setInnerTable("base");
+      change.setAddFiles(Collections.singletonList(genDatafile()));
+      change.setSnapshotId(snapshotId);
+      meta.setChanges(Collections.singletonList(change));
+      ServiceContainer.getFileInfoCacheService().commitCacheFileInfoAsync(meta);
+      parentSnapshotId = snapshotId;
+    }
+
+    // commits are cached in order, and readers wait for pending commits of the table
+    Assert.assertTrue(ServiceContainer.getFileInfoCacheService().snapshotIsCached(asyncTableIdentifier, "base", 3L));
+    Assert.assertEquals(3,
+        ServiceContainer.getFileInfoCacheService().getOptimizeDatafiles(asyncTableIdentifier, "base").size());
+    Assert.assertEquals(0, ServiceContainer.getFileInfoCacheService().getPendingCommits());
+  }
+
   @Test
   public void testNeedFixCacheWhenParentNotCached() throws MetaException {
     TableCommitMeta meta = new TableCommitMeta();
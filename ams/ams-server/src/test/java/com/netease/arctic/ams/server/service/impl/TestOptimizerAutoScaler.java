@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.ams.server.service.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.netease.arctic.ams.api.properties.OptimizerProperties;
+import com.netease.arctic.ams.server.model.OptimizeQueueBacklog;
+import com.netease.arctic.ams.server.model.Optimizer;
+import com.netease.arctic.ams.server.model.TableTaskStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class TestOptimizerAutoScaler {
+  private static final long MB = 1024 * 1024;
+
+  private final OptimizerAutoScaler.ScaleConfig config = scaleConfig();
+
+  @Test
+  public void testScaleOutByBacklog() {
+    // 10 small tasks pending are drained by one parallelism
+    Assert.assertEquals(3, OptimizerAutoScaler.targetParallelism(backlog(10, 10 * MB, 1), 1, config));
+    // 10 large tasks pending need one parallelism each
+    Assert.assertEquals(14, OptimizerAutoScaler.targetParallelism(backlog(10, 10 * 200 * MB, 1), 1, config));
+    // bounded by max parallelism
+    Assert.assertEquals(16, OptimizerAutoScaler.targetParallelism(backlog(100, 100 * 200 * MB, 4), 4, config));
+  }
+
+  @Test
+  public void testScaleInWhenIdle() {
+    Assert.assertEquals(2, OptimizerAutoScaler.targetParallelism(backlog(0, 0, 0), 8, config));
+    Assert.assertEquals(5, OptimizerAutoScaler.targetParallelism(backlog(0, 0, 4), 8, config));
+    // never scale in while tasks are pending
+    Assert.assertEquals(8, OptimizerAutoScaler.targetParallelism(backlog(1, MB, 2), 8, config));
+  }
+
+  @Test
+  public void testOptimizerToRelease() {
+    List<Optimizer> optimizers = Lists.newArrayList(
+        optimizer(1, "arctic_optimizer_2022-12-01-00:00:00", 1, TableTaskStatus.RUNNING),
+        optimizer(2, OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_1", 4, TableTaskStatus.RUNNING),
+        optimizer(3, OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_2", 2, TableTaskStatus.RUNNING),
+        optimizer(4, OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_3", 3, TableTaskStatus.STARTING));
+    OptimizeQueueBacklog idle = backlog(0, 0, 0);
+    Assert.assertEquals(OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_1",
+        OptimizerAutoScaler.optimizerToRelease(optimizers, 5, idle).getJobName());
+    Assert.assertEquals(OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_2",
+        OptimizerAutoScaler.optimizerToRelease(optimizers, 3, idle).getJobName());
+    // optimizers not started by autoscale are never released
+    Assert.assertNull(OptimizerAutoScaler.optimizerToRelease(optimizers, 1, idle));
+  }
+
+  @Test
+  public void testNeverReleaseOptimizerExecutingTasks() {
+    List<Optimizer> optimizers = Lists.newArrayList(
+        optimizer(2, OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_1", 4, TableTaskStatus.RUNNING),
+        optimizer(3, OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_2", 2, TableTaskStatus.RUNNING));
+    OptimizeQueueBacklog backlog = backlog(0, 0, 1);
+    backlog.setExecutingTasksOfOptimizers(ImmutableMap.of("2", 1));
+    Assert.assertEquals(OptimizerAutoScaler.OPTIMIZER_NAME_PREFIX + "g_2",
+        OptimizerAutoScaler.optimizerToRelease(optimizers, 5, backlog).getJobName());
+
+    backlog.setExecutingTasksOfOptimizers(ImmutableMap.of("2", 1, "3", 1));
+    Assert.assertNull(OptimizerAutoScaler.optimizerToRelease(optimizers, 5, backlog));
+  }
+
+  private static OptimizerAutoScaler.ScaleConfig scaleConfig() {
+    Map<String, String> properties = Maps.newHashMap();
+    properties.put(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_ENABLED, "true");
+    properties.put(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MIN_PARALLELISM, "2");
+    properties.put(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_MAX_PARALLELISM, "16");
+    properties.put(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_TARGET_UTILIZATION, "0.8");
+    properties.put(OptimizerProperties.OPTIMIZER_GROUP_AUTOSCALE_BYTES_PER_PARALLELISM, String.valueOf(128 * MB));
+    return OptimizerAutoScaler.ScaleConfig.of(properties);
+  }
+
+  private static OptimizeQueueBacklog backlog(int pendingTasks, long pendingFileSize, int executingTasks) {
+    OptimizeQueueBacklog backlog = new OptimizeQueueBacklog();
+    backlog.setPendingTasks(pendingTasks);
+    backlog.setPendingFileSize(pendingFileSize);
+    backlog.setExecutingTasks(executingTasks);
+    return backlog;
+  }
+
+  private static Optimizer optimizer(int jobId, String name, int parallelism, TableTaskStatus status) {
+    Optimizer optimizer = new Optimizer();
+    optimizer.setJobId(jobId);
+    optimizer.setJobName(name);
+    optimizer.setParallelism(parallelism);
+    optimizer.setJobStatus(status);
+    return optimizer;
+  }
+}
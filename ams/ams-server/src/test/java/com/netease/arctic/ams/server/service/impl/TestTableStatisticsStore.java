@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.ams.server.service.impl;
+package com.netease.arctic.ams.server.service.impl;
+
+import com.netease.arctic.TableTestBase;
+import com.netease.arctic.ams.api.CommitMetaProducer;
+import com.netease.arctic.ams.api.Constants;
+import com.netease.arctic.ams.api.TableChange;
+import com.netease.arctic.ams.api.TableCommitMeta;
+import com.netease.arctic.ams.api.TableIdentifier;
+import com.netease.arctic.ams.server.model.PartitionBaseInfo;
+import com.netease.arctic.ams.server.model.PartitionStatistics;
+import com.netease.arctic.ams.server.model.TableStatistics;
+import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.utils.ConvertStructUtil;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class TestTableStatisticsStore extends TableTestBase {
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final List<PartitionStatistics> loadedPartitions = new ArrayList<>();
+  private final TableStatisticsStore store = new TableStatisticsStore((identifier, innerTable) -> {
+    loads.incrementAndGet();
+    return loadedPartitions;
+  });
+
+  @Test
+  public void testApplyCommits() {
+    TableIdentifier identifier = testTable.id().buildTableIdentifier();
+    testTable.newAppend().appendFile(FILE_A).commit();
+    TableStatistics statistics = baseStatistics(identifier);
+    Assert.assertEquals(1, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals("1", statistics.getSummary().get("snapshotCnt"));
+    Assert.assertEquals(1, loads.get());
+
+    long parentSnapshotId = testTable.currentSnapshot().snapshotId();
+    testTable.newAppend().appendFile(FILE_B).commit();
+    store.commit(commitMeta(identifier, parentSnapshotId, testTable.currentSnapshot().snapshotId(), FILE_B));
+    statistics = baseStatistics(identifier);
+    Assert.assertEquals(2, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals(FILE_A.fileSizeInBytes() + FILE_B.fileSizeInBytes(),
+        statistics.getTotalFilesStat().getTotalSize());
+    Assert.assertEquals("2", statistics.getSummary().get("snapshotCnt"));
+    Assert.assertEquals(String.valueOf(FILE_A.recordCount() + FILE_B.recordCount()),
+        statistics.getSummary().get("totalRecords"));
+    Assert.assertEquals(1, loads.get());
+
+    List<PartitionBaseInfo> partitions = store.getPartitions(identifier);
+    Assert.assertEquals(1, partitions.size());
+    Assert.assertEquals("op_time_day=2022-01-02", partitions.get(0).getPartition());
+    Assert.assertEquals(FILE_B.fileSizeInBytes(), partitions.get(0).getFileSize());
+  }
+
+  @Test
+  public void testReloadAfterCommitsNotApplied() {
+    TableIdentifier identifier = testTable.id().buildTableIdentifier();
+    testTable.newAppend().appendFile(FILE_A).commit();
+    baseStatistics(identifier);
+    Assert.assertEquals(1, loads.get());
+
+    // committed without sending the commit to AMS
+    testTable.newAppend().appendFile(FILE_B).commit();
+    TableStatistics statistics = baseStatistics(identifier);
+    Assert.assertEquals(2, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals(2, loads.get());
+
+    // a commit not following the loaded snapshot drops the statistics
+    store.commit(commitMeta(identifier, -1, 1, FILE_C));
+    Assert.assertNull(store.getPartitions(identifier));
+    statistics = baseStatistics(identifier);
+    Assert.assertEquals(2, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals(3, loads.get());
+  }
+
+  @Test
+  public void testApplyCommitDeletingFiles() {
+    TableIdentifier identifier = testTable.id().buildTableIdentifier();
+    testTable.newAppend().appendFile(FILE_A).appendFile(FILE_B).commit();
+    loadedPartitions.add(partition(FILE_A));
+    loadedPartitions.add(partition(FILE_B));
+    TableStatistics statistics = baseStatistics(identifier);
+    Assert.assertEquals(2, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals(2, store.getPartitions(identifier).size());
+
+    long parentSnapshotId = testTable.currentSnapshot().snapshotId();
+    testTable.newDelete().deleteFile(FILE_A).commit();
+    Snapshot snapshot = testTable.currentSnapshot();
+    TableCommitMeta commit = commitMeta(identifier, parentSnapshotId, snapshot.snapshotId(),
+        Collections.emptyList(), Collections.singletonList(FILE_A));
+    commit.setCommitTime(snapshot.timestampMillis() + 60000);
+    store.commit(commit);
+
+    statistics = baseStatistics(identifier);
+    Assert.assertEquals(1, loads.get());
+    Assert.assertEquals(1, statistics.getTotalFilesStat().getFileCnt());
+    Assert.assertEquals(FILE_B.fileSizeInBytes(), statistics.getTotalFilesStat().getTotalSize());
+    Assert.assertEquals("1", statistics.getSummary().get("removedFiles"));
+    Assert.assertEquals(String.valueOf(FILE_A.recordCount()), statistics.getSummary().get("removedRecords"));
+    Assert.assertEquals(String.valueOf(FILE_B.recordCount()), statistics.getSummary().get("totalRecords"));
+    // times of the table are times of snapshots, not commit times of AMS
+    Assert.assertEquals(String.valueOf(snapshot.timestampMillis()), statistics.getSummary().get("visibleTime"));
+
+    // the partition without files is removed
+    List<PartitionBaseInfo> partitions = store.getPartitions(identifier);
+    Assert.assertEquals(1, partitions.size());
+    Assert.assertEquals("op_time_day=2022-01-02", partitions.get(0).getPartition());
+    Assert.assertEquals(FILE_B.fileSizeInBytes(), partitions.get(0).getFileSize());
+  }
+
+  private TableStatistics baseStatistics(TableIdentifier identifier) {
+    Map<String, Table> innerTables = Collections.singletonMap(Constants.INNER_TABLE_BASE, testTable);
+    return store.getTableStatistics(identifier, innerTables).get(Constants.INNER_TABLE_BASE);
+  }
+
+  private PartitionStatistics partition(DataFile file) {
+    PartitionStatistics partition = new PartitionStatistics();
+    partition.setPartition(FileInfoCacheService.partitionToPath(
+        ConvertStructUtil.partitionFields(SPEC, file.partition())));
+    partition.setFileCount(1);
+    partition.setFileSize(file.fileSizeInBytes());
+    partition.setRecordCount(file.recordCount());
+    partition.setLastCommitTime(testTable.currentSnapshot().timestampMillis());
+    return partition;
+  }
+
+  private TableCommitMeta commitMeta(
+      TableIdentifier identifier, long parentSnapshotId, long snapshotId, DataFile file) {
+    return commitMeta(identifier, parentSnapshotId, snapshotId, Collections.singletonList(file),
+        Collections.emptyList());
+  }
+
+  private TableCommitMeta commitMeta(
+      TableIdentifier identifier, long parentSnapshotId, long snapshotId, List<DataFile> addFiles,
+      List<DataFile> deleteFiles) {
+    TableChange change = new TableChange();
+    change.setInnerTable(Constants.INNER_TABLE_BASE);
+    change.setParentSnapshotId(parentSnapshotId);
+    change.setSnapshotId(snapshotId);
+    change.setAddFiles(addFiles.stream().map(TestTableStatisticsStore::amsFile).collect(Collectors.toList()));
+    change.setDeleteFiles(deleteFiles.stream().map(TestTableStatisticsStore::amsFile).collect(Collectors.toList()));
+
+    TableCommitMeta meta = new TableCommitMeta();
+    meta.setTableIdentifier(identifier);
+    meta.setAction("append");
+    meta.setCommitTime(System.currentTimeMillis());
+    meta.setCommitMetaProducer(CommitMetaProducer.INGESTION);
+    meta.setChanges(Collections.singletonList(change));
+    return meta;
+  }
+
+  private static com.netease.arctic.ams.api.DataFile amsFile(DataFile file) {
+    com.netease.arctic.ams.api.DataFile amsFile = new com.netease.arctic.ams.api.DataFile();
+    amsFile.setPath(file.path().toString());
+    amsFile.setFileType(DataFileType.BASE_FILE.name());
+    amsFile.setFileSize(file.fileSizeInBytes());
+    amsFile.setRecordCount(file.recordCount());
+    amsFile.setPartition(ConvertStructUtil.partitionFields(SPEC, file.partition()));
+    return amsFile;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.benchmark;
+
+import com.netease.arctic.ams.api.MockArcticMetastoreServer;
+import com.netease.arctic.catalog.ArcticCatalog;
+import com.netease.arctic.catalog.CatalogLoader;
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.io.writer.GenericBaseTaskWriter;
+import com.netease.arctic.io.writer.GenericChangeTaskWriter;
+import com.netease.arctic.io.writer.GenericTaskWriters;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.PrimaryKeySpec;
+import com.netease.arctic.table.TableIdentifier;
+import com.netease.arctic.table.TableProperties;
+import org.apache.commons.io.FileUtils;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.WriteResult;
+import org.apache.iceberg.relocated.com.google.common.base.Strings;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.netease.arctic.ams.api.MockArcticMetastoreServer.TEST_CATALOG_NAME;
+import static com.netease.arctic.ams.api.MockArcticMetastoreServer.TEST_DB_NAME;
+
+/**
+ * Keyed tables of benchmarks, stored as local parquet files and managed by a {@link MockArcticMetastoreServer}.
+ */
+public class BenchmarkTables {
+
+  public static final Schema SCHEMA = new Schema(
+      Types.NestedField.required(1, "id", Types.StringType.get()),
+      Types.NestedField.required(2, "name", Types.StringType.get()),
+      Types.NestedField.required(3, "ts", Types.LongType.get())
+  );
+
+  public static final PrimaryKeySpec PRIMARY_KEY_SPEC = PrimaryKeySpec.builderFor(SCHEMA)
+      .addColumn("id").build();
+
+  private static final AtomicInteger TABLE_SEQUENCE = new AtomicInteger();
+
+  private final ArcticCatalog catalog;
+  private final File dir;
+  private final List<TableIdentifier> tables = Lists.newArrayList();
+
+  public BenchmarkTables() {
+    MockArcticMetastoreServer ams = MockArcticMetastoreServer.getInstance();
+    this.catalog = CatalogLoader.load(ams.getUrl());
+    try {
+      this.dir = Files.createTempDirectory("arctic_benchmark").toFile();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create benchmark dir", e);
+    }
+  }
+
+  public KeyedTable createKeyedTable(String name) {
+    TableIdentifier identifier = TableIdentifier.of(TEST_CATALOG_NAME, TEST_DB_NAME,
+        name + "_" + TABLE_SEQUENCE.incrementAndGet());
+    KeyedTable table = catalog.newTableBuilder(identifier, SCHEMA)
+        .withProperty(TableProperties.LOCATION, new File(dir, identifier.getTableName()).getPath())
+        .withPrimaryKeySpec(PRIMARY_KEY_SPEC)
+        .create().asKeyedTable();
+    tables.add(identifier);
+    return table;
+  }
+
+  /**
+   * Records with keys from start to start + count, keys are left padded to the key width.
+   */
+  public static List<Record> records(int start, int count, int keyWidth) {
+    GenericRecord record = GenericRecord.create(SCHEMA);
+    List<Record> records = Lists.newArrayListWithCapacity(count);
+    for (int i = start; i < start + count; i++) {
+      records.add(record.copy(ImmutableMap.of("id", key(i, keyWidth), "name", "name" + i, "ts", (long) i)));
+    }
+    return records;
+  }
+
+  public static String key(int id, int keyWidth) {
+    return Strings.padStart(Integer.toString(id), keyWidth, '0');
+  }
+
+  public static List<DataFile> writeBase(KeyedTable table, long transactionId, List<Record> records) {
+    try (GenericBaseTaskWriter writer = GenericTaskWriters.builderFor(table)
+        .withTransactionId(transactionId).buildBaseWriter()) {
+      for (Record record : records) {
+        writer.write(record);
+      }
+      WriteResult result = writer.complete();
+      AppendFiles append = table.baseTable().newAppend();
+      Arrays.stream(result.dataFiles()).forEach(append::appendFile);
+      append.commit();
+      return Arrays.asList(result.dataFiles());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static List<DataFile> writeChange(
+      KeyedTable table, long transactionId, ChangeAction action, List<Record> records) {
+    try (GenericChangeTaskWriter writer = GenericTaskWriters.builderFor(table)
+        .withChangeAction(action)
+        .withTransactionId(transactionId).buildChangeWriter()) {
+      for (Record record : records) {
+        writer.write(record);
+      }
+      WriteResult result = writer.complete();
+      AppendFiles append = table.changeTable().newAppend();
+      Arrays.stream(result.dataFiles()).forEach(append::appendFile);
+      append.commit();
+      return Arrays.asList(result.dataFiles());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void dropTables() {
+    tables.forEach(identifier -> catalog.dropTable(identifier, true));
+    tables.clear();
+    FileUtils.deleteQuietly(dir);
+  }
+}
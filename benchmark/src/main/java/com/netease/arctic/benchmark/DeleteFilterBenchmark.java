@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.benchmark;
+
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.io.reader.GenericArcticDataReader;
+import com.netease.arctic.scan.CombinedScanTask;
+import com.netease.arctic.scan.KeyedTableScanTask;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.utils.map.StructLikeCollections;
+import org.apache.iceberg.data.IdentityPartitionConverters;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merge-on-read of keyed tables, base records are filtered by equality deletes of the change store with the
+ * {@link com.netease.arctic.io.reader.ArcticDeleteFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class DeleteFilterBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"8", "64"})
+  private int keyWidth;
+
+  /**
+   * Ratio of base records deleted by the change store.
+   */
+  @Param({"0.01", "0.1", "0.5"})
+  private double deleteRatio;
+
+  /**
+   * Max bytes of the delete set in memory before spilling, -1 for a set never spilling.
+   */
+  @Param({"-1", "8388608"})
+  private long spillThreshold;
+
+  private BenchmarkTables tables;
+  private KeyedTable table;
+  private GenericArcticDataReader reader;
+  private final List<KeyedTableScanTask> tasks = Lists.newArrayList();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    tables = new BenchmarkTables();
+    table = tables.createKeyedTable("delete_filter");
+    BenchmarkTables.writeBase(table, 1L, BenchmarkTables.records(0, rows, keyWidth));
+    BenchmarkTables.writeChange(table, 2L, ChangeAction.DELETE,
+        BenchmarkTables.records(0, (int) (rows * deleteRatio), keyWidth));
+
+    StructLikeCollections collections = spillThreshold < 0 ? StructLikeCollections.DEFAULT :
+        new StructLikeCollections(true, spillThreshold);
+    reader = new GenericArcticDataReader(table.io(), table.schema(), table.schema(), table.primaryKeySpec(),
+        null, true, IdentityPartitionConverters::convertConstant, null, false, collections);
+    try (CloseableIterable<CombinedScanTask> combinedTasks = table.newScan().planTasks()) {
+      combinedTasks.forEach(combinedTask -> tasks.addAll(combinedTask.tasks()));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    tables.dropTables();
+  }
+
+  @Benchmark
+  public void readFiltered(Blackhole blackhole) throws IOException {
+    for (KeyedTableScanTask task : tasks) {
+      try (CloseableIterator<Record> records = reader.readData(task)) {
+        while (records.hasNext()) {
+          blackhole.consume(records.next());
+        }
+      }
+    }
+  }
+}
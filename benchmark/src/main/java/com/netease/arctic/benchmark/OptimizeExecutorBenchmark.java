@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.benchmark;
+
+import com.netease.arctic.ams.api.OptimizeTaskId;
+import com.netease.arctic.ams.api.OptimizeType;
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.optimizer.OptimizerConfig;
+import com.netease.arctic.optimizer.operator.executor.Executor;
+import com.netease.arctic.optimizer.operator.executor.MajorExecutor;
+import com.netease.arctic.optimizer.operator.executor.MinorExecutor;
+import com.netease.arctic.optimizer.operator.executor.NodeTask;
+import com.netease.arctic.optimizer.operator.executor.OptimizeTaskResult;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.utils.TableFileUtils;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.data.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Rewriting files of a node task by the {@link MinorExecutor} and the {@link MajorExecutor}, the rewritten files are
+ * not committed.
+ * <p>
+ * Minor optimizing merges upserts of the change store, updating a ratio of the base records, into the base store.
+ * Major optimizing rewrites the base files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class OptimizeExecutorBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"8", "64"})
+  private int keyWidth;
+
+  /**
+   * Ratio of base records updated by the change store.
+   */
+  @Param({"0.01", "0.1", "0.5"})
+  private double deleteRatio;
+
+  @Param({"Minor", "Major"})
+  private OptimizeType optimizeType;
+
+  private BenchmarkTables tables;
+  private KeyedTable table;
+  private OptimizerConfig config;
+  private List<DataFile> baseFiles;
+  private List<DataFile> insertFiles;
+  private List<DataFile> deleteFiles;
+  private OptimizeTaskResult lastResult;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    tables = new BenchmarkTables();
+    table = tables.createKeyedTable("optimize");
+    baseFiles = BenchmarkTables.writeBase(table, 1L, BenchmarkTables.records(0, rows, keyWidth));
+    List<Record> updated = BenchmarkTables.records(0, (int) (rows * deleteRatio), keyWidth);
+    deleteFiles = BenchmarkTables.writeChange(table, 2L, ChangeAction.DELETE, updated);
+    insertFiles = BenchmarkTables.writeChange(table, 3L, ChangeAction.INSERT, updated);
+
+    config = new OptimizerConfig();
+    config.setOptimizerId("benchmark");
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteTargetFiles() {
+    if (lastResult != null) {
+      for (ContentFile<?> file : lastResult.getTargetFiles()) {
+        table.io().deleteFile(file.path().toString());
+      }
+      lastResult = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    tables.dropTables();
+  }
+
+  @Benchmark
+  public OptimizeTaskResult execute() throws Exception {
+    NodeTask nodeTask = nodeTask();
+    Executor executor = optimizeType == OptimizeType.Minor ?
+        new MinorExecutor(nodeTask, table, System.currentTimeMillis(), config) :
+        new MajorExecutor(nodeTask, table, System.currentTimeMillis(), config);
+    lastResult = executor.execute();
+    return lastResult;
+  }
+
+  private NodeTask nodeTask() {
+    NodeTask nodeTask = new NodeTask();
+    nodeTask.setSourceNodes(baseFiles.stream()
+        .map(file -> TableFileUtils.parseFileNodeFromFileName(file.path().toString()))
+        .collect(Collectors.toSet()));
+    nodeTask.setTableIdentifier(table.id());
+    nodeTask.setTaskId(new OptimizeTaskId(optimizeType, UUID.randomUUID().toString()));
+    nodeTask.setAttemptId(0);
+    nodeTask.setPartition(baseFiles.get(0).partition());
+    baseFiles.forEach(file -> nodeTask.addFile(file, DataFileType.BASE_FILE));
+    if (optimizeType == OptimizeType.Minor) {
+      insertFiles.forEach(file -> nodeTask.addFile(file, DataFileType.INSERT_FILE));
+      deleteFiles.forEach(file -> nodeTask.addFile(file, DataFileType.EQ_DELETE_FILE));
+    }
+    return nodeTask;
+  }
+}
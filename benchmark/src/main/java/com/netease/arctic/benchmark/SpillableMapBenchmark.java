@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.benchmark;
+
+import com.netease.arctic.utils.map.StructLikeBaseMap;
+import com.netease.arctic.utils.map.StructLikeCollections;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Put and get of the primary key maps used by delete filters and optimizing, in memory and spilled to rocksdb.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SpillableMapBenchmark {
+
+  private static final Types.StructType KEY_TYPE = BenchmarkTables.SCHEMA.select("id").asStruct();
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"8", "64"})
+  private int keyWidth;
+
+  /**
+   * Max bytes of the map in memory before spilling, -1 for a map never spilling.
+   */
+  @Param({"-1", "8388608", "67108864"})
+  private long spillThreshold;
+
+  private StructLikeCollections collections;
+  private List<StructLike> keys;
+  private StructLikeBaseMap<Long> filledMap;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    collections = spillThreshold < 0 ? StructLikeCollections.DEFAULT :
+        new StructLikeCollections(true, spillThreshold);
+    keys = Lists.newArrayListWithCapacity(rows);
+    GenericRecord key = GenericRecord.create(KEY_TYPE);
+    for (int i = 0; i < rows; i++) {
+      keys.add(key.copy("id", BenchmarkTables.key(i, keyWidth)));
+    }
+    filledMap = collections.createStructLikeMap(KEY_TYPE);
+    fill(filledMap);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    filledMap.close();
+  }
+
+  @Benchmark
+  public void put() throws IOException {
+    StructLikeBaseMap<Long> map = collections.createStructLikeMap(KEY_TYPE);
+    try {
+      fill(map);
+    } finally {
+      map.close();
+    }
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole) {
+    for (StructLike key : keys) {
+      blackhole.consume(filledMap.get(key));
+    }
+  }
+
+  private void fill(StructLikeBaseMap<Long> map) {
+    long value = 0;
+    for (StructLike key : keys) {
+      map.put(key, value++);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.benchmark;
+
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.io.writer.GenericBaseTaskWriter;
+import com.netease.arctic.io.writer.GenericChangeTaskWriter;
+import com.netease.arctic.io.writer.GenericTaskWriters;
+import com.netease.arctic.table.KeyedTable;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.TaskWriter;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing records to parquet files of the base store and the change store with {@link GenericTaskWriters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TaskWriterBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int rows;
+
+  @Param({"8", "64"})
+  private int keyWidth;
+
+  private BenchmarkTables tables;
+  private KeyedTable table;
+  private List<Record> records;
+  private final List<DataFile> writtenFiles = Lists.newArrayList();
+  private long transactionId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    tables = new BenchmarkTables();
+    table = tables.createKeyedTable("writer");
+    records = BenchmarkTables.records(0, rows, keyWidth);
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteWrittenFiles() {
+    writtenFiles.forEach(file -> table.io().deleteFile(file.path().toString()));
+    writtenFiles.clear();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    tables.dropTables();
+  }
+
+  @Benchmark
+  public void writeBase() throws IOException {
+    try (GenericBaseTaskWriter writer = GenericTaskWriters.builderFor(table)
+        .withTransactionId(++transactionId).buildBaseWriter()) {
+      write(writer);
+    }
+  }
+
+  @Benchmark
+  public void writeChange() throws IOException {
+    try (GenericChangeTaskWriter writer = GenericTaskWriters.builderFor(table)
+        .withChangeAction(ChangeAction.INSERT)
+        .withTransactionId(++transactionId).buildChangeWriter()) {
+      write(writer);
+    }
+  }
+
+  private void write(TaskWriter<Record> writer) throws IOException {
+    for (Record record : records) {
+      writer.write(record);
+    }
+    writtenFiles.addAll(Arrays.asList(writer.complete().dataFiles()));
+  }
+}
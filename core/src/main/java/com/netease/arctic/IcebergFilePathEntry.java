@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic;
+
+import org.apache.iceberg.FileContent;
+
+/**
+ * Lightweight entry of Iceberg ContentFile, include only path, size and record count of the file,
+ * together with snapshotId and sequenceNumber of the entry.
+ * The sequenceNumber is inherited from metadata, not the actual value in manifest file.
+ */
+public class IcebergFilePathEntry {
+  private final Long snapshotId;
+  private final long sequenceNumber;
+  private final FileContent content;
+  private final String path;
+  private final long fileSizeInBytes;
+  private final long recordCount;
+
+  public IcebergFilePathEntry(Long snapshotId, long sequenceNumber, FileContent content, String path,
+                              long fileSizeInBytes, long recordCount) {
+    this.snapshotId = snapshotId;
+    this.sequenceNumber = sequenceNumber;
+    this.content = content;
+    this.path = path;
+    this.fileSizeInBytes = fileSizeInBytes;
+    this.recordCount = recordCount;
+  }
+
+  public Long getSnapshotId() {
+    return snapshotId;
+  }
+
+  public long getSequenceNumber() {
+    return sequenceNumber;
+  }
+
+  public FileContent getContent() {
+    return content;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public long getFileSizeInBytes() {
+    return fileSizeInBytes;
+  }
+
+  public long getRecordCount() {
+    return recordCount;
+  }
+}
@@ -76,14 +76,21 @@ public class ChangedLsn implements Comparable<ChangedLsn>, Serializable {
 
   @Override
   public int compareTo(ChangedLsn another) {
-    if (transactionId > another.transactionId()) {
+    return compareTo(another.transactionId, another.fileOffset);
+  }
+
+  /**
+   * Compare with the lsn of the given transaction id and file offset, without creating a {@link ChangedLsn}.
+   */
+  public int compareTo(long anotherTransactionId, long anotherFileOffset) {
+    if (transactionId > anotherTransactionId) {
       return 1;
-    } else if (transactionId < another.transactionId) {
+    } else if (transactionId < anotherTransactionId) {
       return -1;
     } else {
-      if (fileOffset > another.fileOffset()) {
+      if (fileOffset > anotherFileOffset) {
         return 1;
-      } else if (fileOffset < another.fileOffset) {
+      } else if (fileOffset < anotherFileOffset) {
         return -1;
       } else {
         return 0;
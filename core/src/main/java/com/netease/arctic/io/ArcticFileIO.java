@@ -20,6 +20,7 @@ package com.netease.arctic.io;
 
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.iceberg.io.FileIO;
+import org.apache.iceberg.io.InputFile;
 
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -38,6 +39,18 @@ public interface ArcticFileIO extends FileIO {
    */
   <T> T doAs(Callable<T> callable);
 
+  /**
+   * Get a {@link InputFile} instance to read bytes from the file at the given path, whose length is already known,
+   * e.g. from manifests, so that implementations may avoid asking the file system for it.
+   *
+   * @param path the file path
+   * @param length the length of the file
+   * @return an input file
+   */
+  default InputFile newInputFile(String path, long length) {
+    return newInputFile(path);
+  }
+
   /**
    * Check if a path exists.
    *
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io;
+
+import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.table.TableMetaStore;
+import com.netease.arctic.utils.TableFileUtils;
+import org.apache.iceberg.io.InputFile;
+
+/**
+ * {@link ArcticHadoopFileIO} caching contents of files read repeatedly by planning and reading tasks in a
+ * {@link FileContentCache}: manifest lists, manifests and delete files of keyed tables.
+ * Other files are read from the file system directly.
+ */
+public class CachedArcticHadoopFileIO extends ArcticHadoopFileIO {
+  private static final String METADATA_FOLDER = "/metadata/";
+  private static final String AVRO_SUFFIX = ".avro";
+
+  private final FileContentCache cache;
+
+  public CachedArcticHadoopFileIO(TableMetaStore tableMetaStore, FileContentCache cache) {
+    super(tableMetaStore);
+    this.cache = cache;
+  }
+
+  @Override
+  public InputFile newInputFile(String path) {
+    InputFile file = super.newInputFile(path);
+    return cacheable(path) ? new CachedInputFile(file, cache, getTableMetaStore()) : file;
+  }
+
+  @Override
+  public InputFile newInputFile(String path, long length) {
+    InputFile file = super.newInputFile(path);
+    return cacheable(path) ? new CachedInputFile(file, cache, getTableMetaStore(), length) : file;
+  }
+
+  public FileContentCache.Stats cacheStats() {
+    return cache.stats();
+  }
+
+  private static boolean cacheable(String path) {
+    if (path.endsWith(AVRO_SUFFIX) && path.contains(METADATA_FOLDER)) {
+      return true;
+    }
+    DataFileType type = TableFileUtils.parseFileTypeFromFileName(path);
+    return type == DataFileType.EQ_DELETE_FILE || type == DataFileType.POS_DELETE_FILE;
+  }
+}
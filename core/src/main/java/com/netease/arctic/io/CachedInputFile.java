@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io;
+
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link InputFile} whose streams read the content from a {@link FileContentCache}, files too large to cache are
+ * read from the underlying file.
+ * <p>
+ * The length of the file is taken from the caller if known, e.g. from manifests, or from the cache if the file is
+ * cached, so that reading a cached file doesn't call the file system.
+ */
+class CachedInputFile implements InputFile {
+  private final InputFile file;
+  private final FileContentCache cache;
+  private final Object owner;
+  private Long length;
+
+  CachedInputFile(InputFile file, FileContentCache cache, Object owner) {
+    this(file, cache, owner, null);
+  }
+
+  /**
+   * Read a file through the cache on behalf of the file io identified by owner, see {@link FileContentCache}.
+   */
+  CachedInputFile(InputFile file, FileContentCache cache, Object owner, Long length) {
+    this.file = file;
+    this.cache = cache;
+    this.owner = owner;
+    this.length = length;
+  }
+
+  @Override
+  public long getLength() {
+    if (length == null) {
+      length = cache.cachedLength(owner, file.location());
+    }
+    if (length == null) {
+      length = file.getLength();
+    }
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() {
+    long fileLength = getLength();
+    if (!cache.cacheable(fileLength)) {
+      return file.newStream();
+    }
+    try {
+      return new ByteBufferInputStream(cache.get(owner, file, fileLength));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read file: " + file.location(), e);
+    }
+  }
+
+  @Override
+  public String location() {
+    return file.location();
+  }
+
+  @Override
+  public boolean exists() {
+    return file.exists();
+  }
+
+  @Override
+  public String toString() {
+    return file.toString();
+  }
+
+  private static class ByteBufferInputStream extends SeekableInputStream {
+    private final ByteBuffer content;
+
+    private ByteBufferInputStream(ByteBuffer content) {
+      this.content = content;
+    }
+
+    @Override
+    public long getPos() {
+      return content.position();
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      if (newPos < 0 || newPos > content.limit()) {
+        throw new EOFException("Cannot seek to " + newPos + ", length is " + content.limit());
+      }
+      content.position((int) newPos);
+    }
+
+    @Override
+    public int read() {
+      return content.hasRemaining() ? content.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!content.hasRemaining()) {
+        return -1;
+      }
+      int read = Math.min(len, content.remaining());
+      content.get(bytes, off, read);
+      return read;
+    }
+
+    @Override
+    public long skip(long n) {
+      int skipped = (int) Math.max(0, Math.min(n, content.remaining()));
+      content.position(content.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return content.remaining();
+    }
+  }
+}
@@ -0,0 +1,468 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io;
+
+import com.netease.arctic.utils.LocalFileUtils;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.relocated.com.google.common.base.MoreObjects;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of whole contents of immutable files, shared by all file ios of the JVM with the same settings.
+ * <p>
+ * Files are keyed by the identity of the file io reading them, their path and length, as files of tables are never
+ * rewritten. File ios of different catalogs may see different files at the same path, while file ios of equal
+ * {@link com.netease.arctic.table.TableMetaStore} share cached files. Contents are cached in two LRU tiers:
+ * <ul>
+ *   <li>memory: heap buffers bounded by the memory capacity</li>
+ *   <li>disk: files in a local directory bounded by the disk capacity, contents evicted from memory are read
+ *   from disk instead of the remote file system</li>
+ * </ul>
+ * Concurrent reads of the same uncached file are coalesced into one remote read.
+ * <p>
+ * At most {@link #MAX_CACHES} caches of different settings are kept, the least recently used one is closed when
+ * another is created. Files of closed caches are read from the file system directly.
+ */
+public class FileContentCache {
+  private static final Logger LOG = LoggerFactory.getLogger(FileContentCache.class);
+  static final int MAX_CACHES = 4;
+  private static final LinkedHashMap<String, FileContentCache> CACHES = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final long memoryCapacity;
+  private final long diskCapacity;
+  private final long maxFileSize;
+  private final File diskDirectory;
+
+  private final LinkedHashMap<String, ByteBuffer> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+  // lengths of files cached in any tier by path, so that cached files of unknown length are read without a remote call
+  private final Map<String, Long> cachedLengths = new HashMap<>();
+  // ids of file io identities in keys, so that keys and names of files in the disk tier stay short
+  private final Map<Object, Integer> ownerIds = new HashMap<>();
+  private boolean closed;
+  private long memorySize;
+  private long diskSize;
+  private final Map<String, CompletableFuture<ByteBuffer>> loadingEntries = new ConcurrentHashMap<>();
+
+  private final LongAdder memoryHits = new LongAdder();
+  private final LongAdder diskHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder coalescedLoads = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private FileContentCache(long memoryCapacity, long diskCapacity, String diskPath, long maxFileSize) {
+    this.memoryCapacity = memoryCapacity;
+    this.diskCapacity = diskCapacity;
+    this.maxFileSize = maxFileSize;
+    if (diskCapacity > 0) {
+      try {
+        Path basePath = Paths.get(diskPath);
+        Files.createDirectories(basePath);
+        this.diskDirectory = Files.createTempDirectory(basePath, "arctic-file-cache-").toFile();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to create file cache directory in " + diskPath, e);
+      }
+      Runtime.getRuntime().addShutdownHook(new Thread(this::deleteDiskDirectory));
+    } else {
+      this.diskDirectory = null;
+    }
+  }
+
+  /**
+   * Get the cache of the given settings, creating it if absent. Creating a cache may close the least recently used
+   * one if there are more than {@link #MAX_CACHES} caches.
+   *
+   * @param memoryCapacity max bytes of contents cached in memory
+   * @param diskCapacity max bytes of contents cached on local disk, 0 to disable the disk tier
+   * @param diskPath local directory the disk tier is created in
+   * @param maxFileSize max length of files to cache
+   * @return the shared cache
+   */
+  public static FileContentCache getOrCreate(long memoryCapacity, long diskCapacity, String diskPath,
+                                             long maxFileSize) {
+    Preconditions.checkArgument(memoryCapacity >= 0 && diskCapacity >= 0 && maxFileSize >= 0,
+        "File cache capacities must not be negative");
+    String key = memoryCapacity + ":" + diskCapacity + ":" + diskPath + ":" + maxFileSize;
+    synchronized (CACHES) {
+      FileContentCache cache = CACHES.get(key);
+      if (cache == null) {
+        LOG.info("Create file cache, memory capacity {}, disk capacity {} in {}, max file size {}",
+            memoryCapacity, diskCapacity, diskPath, maxFileSize);
+        cache = new FileContentCache(memoryCapacity, diskCapacity, diskPath, maxFileSize);
+        CACHES.put(key, cache);
+        Iterator<Map.Entry<String, FileContentCache>> iterator = CACHES.entrySet().iterator();
+        while (CACHES.size() > MAX_CACHES) {
+          Map.Entry<String, FileContentCache> eldest = iterator.next();
+          LOG.info("Close file cache {} as there are more than {} file caches", eldest.getKey(), MAX_CACHES);
+          eldest.getValue().close();
+          iterator.remove();
+        }
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * Drop all cached contents and delete the disk tier, files are read from the file system directly afterwards.
+   */
+  void close() {
+    synchronized (this) {
+      closed = true;
+      memoryEntries.clear();
+      diskEntries.clear();
+      cachedLengths.clear();
+      memorySize = 0;
+      diskSize = 0;
+    }
+    deleteDiskDirectory();
+  }
+
+  private void deleteDiskDirectory() {
+    if (diskDirectory == null) {
+      return;
+    }
+    try {
+      LocalFileUtils.deleteDirectory(diskDirectory);
+    } catch (IOException e) {
+      LOG.warn("Failed to delete file cache directory {}", diskDirectory, e);
+    }
+  }
+
+  /**
+   * Check if contents of a file with the given length can be cached.
+   */
+  public boolean cacheable(long length) {
+    return !isClosed() && length <= maxFileSize && length <= Integer.MAX_VALUE &&
+        (length <= memoryCapacity || length <= diskCapacity);
+  }
+
+  synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Get the length of a file cached in any tier.
+   *
+   * @param owner identity of the file io reading the file
+   * @param location location of the file
+   * @return the length of the cached file, or null if the file is not cached
+   */
+  public synchronized Long cachedLength(Object owner, String location) {
+    return cachedLengths.get(locationKey(owner, location));
+  }
+
+  private synchronized String locationKey(Object owner, String location) {
+    Integer ownerId = ownerIds.get(owner);
+    if (ownerId == null) {
+      ownerId = ownerIds.size();
+      ownerIds.put(owner, ownerId);
+    }
+    return ownerId + ":" + location;
+  }
+
+  /**
+   * Get the content of a file, reading it from the file if it is not cached.
+   *
+   * @param owner identity of the file io reading the file
+   * @param file the file to read
+   * @param length the length of the file
+   * @return a read-only buffer of the whole file content
+   */
+  public ByteBuffer get(Object owner, InputFile file, long length) throws IOException {
+    String location = locationKey(owner, file.location());
+    String key = location + "#" + length;
+    ByteBuffer content = getFromMemory(key);
+    if (content != null) {
+      memoryHits.increment();
+      return content.duplicate();
+    }
+
+    CompletableFuture<ByteBuffer> loading = new CompletableFuture<>();
+    CompletableFuture<ByteBuffer> existingLoading = loadingEntries.putIfAbsent(key, loading);
+    if (existingLoading != null) {
+      coalescedLoads.increment();
+      return waitLoading(existingLoading).duplicate();
+    }
+
+    try {
+      // another loading may complete just before this one started
+      content = getFromMemory(key);
+      if (content != null) {
+        memoryHits.increment();
+      } else {
+        content = readFromDisk(key, length);
+        if (content != null) {
+          diskHits.increment();
+        } else {
+          misses.increment();
+          content = readFromFile(file, length);
+          writeToDisk(location, key, content);
+        }
+        putInMemory(location, key, content);
+      }
+      loading.complete(content);
+      return content.duplicate();
+    } catch (IOException | RuntimeException e) {
+      loading.completeExceptionally(e);
+      throw e;
+    } finally {
+      loadingEntries.remove(key, loading);
+    }
+  }
+
+  private ByteBuffer waitLoading(CompletableFuture<ByteBuffer> loading) throws IOException {
+    try {
+      return loading.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted waiting for file content", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to load file content", e.getCause());
+    }
+  }
+
+  private synchronized ByteBuffer getFromMemory(String key) {
+    return memoryEntries.get(key);
+  }
+
+  private synchronized void putInMemory(String location, String key, ByteBuffer content) {
+    long length = content.remaining();
+    if (closed || length > memoryCapacity || memoryEntries.containsKey(key)) {
+      return;
+    }
+    memoryEntries.put(key, content);
+    memorySize += length;
+    cachedLengths.put(location, length);
+    Iterator<Map.Entry<String, ByteBuffer>> iterator = memoryEntries.entrySet().iterator();
+    while (memorySize > memoryCapacity && iterator.hasNext()) {
+      Map.Entry<String, ByteBuffer> eldest = iterator.next();
+      memorySize -= eldest.getValue().remaining();
+      iterator.remove();
+      evictions.increment();
+      removeCachedLength(eldest.getKey());
+    }
+  }
+
+  /**
+   * Forget the length of the file of an evicted entry if it is cached in no tier any more.
+   */
+  private void removeCachedLength(String key) {
+    if (!memoryEntries.containsKey(key) && !diskEntries.containsKey(key)) {
+      cachedLengths.remove(key.substring(0, key.lastIndexOf('#')));
+    }
+  }
+
+  private ByteBuffer readFromFile(InputFile file, long length) throws IOException {
+    ByteBuffer content = ByteBuffer.allocate((int) length);
+    try (InputStream in = file.newStream()) {
+      while (content.hasRemaining()) {
+        int read = in.read(content.array(), content.position(), content.remaining());
+        if (read < 0) {
+          throw new EOFException("Reached the end of " + file.location() + " after " + content.position() +
+              " bytes, expected " + length);
+        }
+        content.position(content.position() + read);
+      }
+    }
+    content.flip();
+    return content.asReadOnlyBuffer();
+  }
+
+  private ByteBuffer readFromDisk(String key, long length) {
+    if (diskDirectory == null) {
+      return null;
+    }
+    synchronized (this) {
+      if (diskEntries.get(key) == null) {
+        return null;
+      }
+    }
+    ByteBuffer content = ByteBuffer.allocate((int) length);
+    try (FileChannel channel = FileChannel.open(diskFile(key).toPath(), StandardOpenOption.READ)) {
+      while (content.hasRemaining()) {
+        if (channel.read(content) < 0) {
+          throw new EOFException("Unexpected end of cached file " + diskFile(key));
+        }
+      }
+    } catch (IOException e) {
+      // the file may be evicted after it is checked
+      LOG.debug("Failed to read cached file {}", diskFile(key), e);
+      return null;
+    }
+    content.flip();
+    return content.asReadOnlyBuffer();
+  }
+
+  private void writeToDisk(String location, String key, ByteBuffer content) {
+    long length = content.remaining();
+    if (diskDirectory == null || length > diskCapacity || isClosed()) {
+      return;
+    }
+    File file = diskFile(key);
+    File tempFile = new File(diskDirectory, file.getName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer toWrite = content.duplicate();
+      while (toWrite.hasRemaining()) {
+        channel.write(toWrite);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to cache file content to {}", file, e);
+      tempFile.delete();
+      return;
+    }
+
+    synchronized (this) {
+      if (closed) {
+        tempFile.delete();
+        return;
+      }
+      try {
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        LOG.warn("Failed to cache file content to {}", file, e);
+        tempFile.delete();
+        return;
+      }
+      if (diskEntries.put(key, length) == null) {
+        diskSize += length;
+      }
+      cachedLengths.put(location, length);
+      Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+      while (diskSize > diskCapacity && iterator.hasNext()) {
+        Map.Entry<String, Long> eldest = iterator.next();
+        diskSize -= eldest.getValue();
+        diskFile(eldest.getKey()).delete();
+        iterator.remove();
+        evictions.increment();
+        removeCachedLength(eldest.getKey());
+      }
+    }
+  }
+
+  private File diskFile(String key) {
+    return new File(diskDirectory, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString());
+  }
+
+  public Stats stats() {
+    synchronized (this) {
+      return new Stats(memoryHits.sum(), diskHits.sum(), misses.sum(), coalescedLoads.sum(), evictions.sum(),
+          memorySize, diskSize);
+    }
+  }
+
+  /**
+   * Point-in-time statistics of a {@link FileContentCache}.
+   */
+  public static class Stats {
+    private final long memoryHits;
+    private final long diskHits;
+    private final long misses;
+    private final long coalescedLoads;
+    private final long evictions;
+    private final long memorySize;
+    private final long diskSize;
+
+    private Stats(long memoryHits, long diskHits, long misses, long coalescedLoads, long evictions,
+                  long memorySize, long diskSize) {
+      this.memoryHits = memoryHits;
+      this.diskHits = diskHits;
+      this.misses = misses;
+      this.coalescedLoads = coalescedLoads;
+      this.evictions = evictions;
+      this.memorySize = memorySize;
+      this.diskSize = diskSize;
+    }
+
+    public long memoryHits() {
+      return memoryHits;
+    }
+
+    public long diskHits() {
+      return diskHits;
+    }
+
+    /**
+     * Reads of the remote file system.
+     */
+    public long misses() {
+      return misses;
+    }
+
+    /**
+     * Reads waiting for a concurrent read of the same file instead of reading it again.
+     */
+    public long coalescedLoads() {
+      return coalescedLoads;
+    }
+
+    public long evictions() {
+      return evictions;
+    }
+
+    public long memorySize() {
+      return memorySize;
+    }
+
+    public long diskSize() {
+      return diskSize;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("memoryHits", memoryHits)
+          .add("diskHits", diskHits)
+          .add("misses", misses)
+          .add("coalescedLoads", coalescedLoads)
+          .add("evictions", evictions)
+          .add("memorySize", memorySize)
+          .add("diskSize", diskSize)
+          .toString();
+    }
+  }
+}
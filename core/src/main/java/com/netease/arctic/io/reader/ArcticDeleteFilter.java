@@ -24,6 +24,7 @@ import com.netease.arctic.data.PrimaryKeyedFile;
 import com.netease.arctic.iceberg.optimize.InternalRecordWrapper;
 import com.netease.arctic.iceberg.optimize.StructProjection;
 import com.netease.arctic.io.ArcticFileIO;
+import com.netease.arctic.io.ArcticHadoopFileIO;
 import com.netease.arctic.io.CloseableIterableWrapper;
 import com.netease.arctic.io.CloseablePredicate;
 import com.netease.arctic.scan.ArcticFileScanTask;
@@ -53,7 +54,9 @@ import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.Filter;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -90,6 +93,7 @@ public abstract class ArcticDeleteFilter<T> {
   private final Accessor<StructLike> deleteOffsetAccessor;
   private final Set<Integer> primaryKeyId;
   private final Schema deleteSchema;
+  private final Set<DataTreeNode> sourceNodes;
   private final Filter<Record> deleteNodeFilter;
   private CloseablePredicate<T> eqPredicate;
   private Map<String, Set<Long>> positionMap;
@@ -143,6 +147,7 @@ public abstract class ArcticDeleteFilter<T> {
     deleteIds.add(MetadataColumns.TRANSACTION_ID_FILED.fieldId());
     deleteIds.add(MetadataColumns.FILE_OFFSET_FILED.fieldId());
     this.deleteSchema = TypeUtil.select(requiredSchema, deleteIds);
+    this.sourceNodes = sourceNodes;
     if (sourceNodes != null) {
       this.deleteNodeFilter = new NodeFilter<>(sourceNodes, deleteSchema, primaryKeySpec, record -> record);
     } else {
@@ -168,6 +173,13 @@ public abstract class ArcticDeleteFilter<T> {
 
   protected abstract InputFile getInputFile(String location);
 
+  /**
+   * Get the input file of a delete file whose length is known from its metadata.
+   */
+  protected InputFile getInputFile(String location, long length) {
+    return getInputFile(location);
+  }
+
   protected long pos(T record) {
     return (Long) posAccessor.get(asStructLike(record));
   }
@@ -206,12 +218,6 @@ public abstract class ArcticDeleteFilter<T> {
     return ChangedLsn.of(transactionId, deleteOffset);
   }
 
-  private ChangedLsn dataLSN(StructLike structLike) {
-    Long transactionId = (Long) dataTransactionIdAccessor.get(structLike);
-    Long deleteOffset = (Long) dataOffsetAccessor.get(structLike);
-    return ChangedLsn.of(transactionId, deleteOffset);
-  }
-
   private Predicate<T> applyEqDeletes() {
     if (eqPredicate != null) {
       return eqPredicate;
@@ -226,6 +232,57 @@ public abstract class ArcticDeleteFilter<T> {
     StructProjection deletePKProjectRow = StructProjection.create(deleteSchema, pkSchema);
     StructProjection dataPKProjectRow = StructProjection.create(requiredSchema, pkSchema);
 
+    StructLikeBaseMap<ChangedLsn> structLikeMap;
+    Closeable deleteIndex;
+    if (!structLikeCollections.isSpillable() && EqualityDeleteIndexCache.enabled()) {
+      // in-memory indexes are shared between filters reading the same delete files
+      Set<String> deleteFilePaths = eqDeletes.stream()
+          .map(deleteFile -> deleteFile.path().toString())
+          .collect(Collectors.toSet());
+      EqualityDeleteIndexCache.Handle handle = EqualityDeleteIndexCache.acquire(fileIoIdentity(), deleteFilePaths,
+          sourceNodes, pkSchema.asStruct(), map -> loadEqDeletes(map, deletePKProjectRow));
+      structLikeMap = handle.map();
+      deleteIndex = handle;
+    } else {
+      structLikeMap = structLikeCollections.createStructLikeMap(pkSchema.asStruct());
+      try {
+        loadEqDeletes(structLikeMap, deletePKProjectRow);
+      } catch (RuntimeException e) {
+        try {
+          structLikeMap.close();
+        } catch (IOException closeException) {
+          e.addSuppressed(closeException);
+        }
+        throw e;
+      }
+      deleteIndex = structLikeMap;
+    }
+
+    // the projection is only used to look up the map, so it is reused for every row instead of copied,
+    // and lsn of rows are compared in place, the transaction id is a constant of the data file
+    Predicate<T> isInDeleteSet = record -> {
+      StructLike data = asStructLike(record);
+      ChangedLsn deleteLsn = structLikeMap.get(dataPKProjectRow.wrap(data));
+      dataPKProjectRow.wrap(null);
+      if (deleteLsn == null) {
+        return false;
+      }
+
+      return deleteLsn.compareTo(
+          (Long) dataTransactionIdAccessor.get(data), (Long) dataOffsetAccessor.get(data)) > 0;
+    };
+    CloseablePredicate<T> closeablePredicate = new CloseablePredicate<>(isInDeleteSet, deleteIndex);
+
+    this.eqPredicate = closeablePredicate;
+    return isInDeleteSet;
+  }
+
+  /**
+   * Put the latest delete LSN of every primary key in the equality delete files into the map.
+   *
+   * @return the number of primary keys in the map
+   */
+  private long loadEqDeletes(StructLikeBaseMap<ChangedLsn> structLikeMap, StructProjection deletePKProjectRow) {
     Iterable<CloseableIterable<Record>> deleteRecords = Iterables.transform(
             eqDeletes,
             this::openDeletes);
@@ -237,10 +294,11 @@ public abstract class ArcticDeleteFilter<T> {
       records = deleteNodeFilter.filter(records);
     }
 
+    InternalRecordWrapper deleteWrapper = new InternalRecordWrapper(deleteSchema.asStruct());
     CloseableIterable<StructLike> structLikeIterable = CloseableIterable.transform(
-            records, record -> new InternalRecordWrapper(deleteSchema.asStruct()).wrap(record));
+            records, deleteWrapper::copyFor);
 
-    StructLikeBaseMap<ChangedLsn> structLikeMap = structLikeCollections.createStructLikeMap(pkSchema.asStruct());
+    long primaryKeys = 0;
     //init map
     try (CloseableIterable<StructLike> deletes = structLikeIterable) {
       Iterator<StructLike> it = getArcticFileIo() == null ? deletes.iterator()
@@ -251,29 +309,30 @@ public abstract class ArcticDeleteFilter<T> {
         ChangedLsn deleteLsn = deleteLSN(structLike);
 
         ChangedLsn old = structLikeMap.get(deletePK);
+        if (old == null) {
+          primaryKeys++;
+        }
         if (old == null || old.compareTo(deleteLsn) <= 0) {
           structLikeMap.put(deletePK, deleteLsn);
         }
       }
     } catch (IOException e) {
-      e.printStackTrace();
+      // a partially loaded index would return deleted rows
+      throw new UncheckedIOException("Failed to read equality delete files", e);
     }
+    return primaryKeys;
+  }
 
-    Predicate<T> isInDeleteSet = record -> {
-      StructLike data = asStructLike(record);
-      StructLike dataPk = dataPKProjectRow.copyWrap(data);
-      ChangedLsn dataLSN = dataLSN(data);
-      ChangedLsn deleteLsn = structLikeMap.get(dataPk);
-      if (deleteLsn == null) {
-        return false;
-      }
-
-      return deleteLsn.compareTo(dataLSN) > 0;
-    };
-    CloseablePredicate<T> closeablePredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
-
-    this.eqPredicate = closeablePredicate;
-    return isInDeleteSet;
+  /**
+   * Identity of the file io reading delete files, the table meta store of hadoop file io carries the configuration
+   * and credentials of the catalog.
+   */
+  private Object fileIoIdentity() {
+    ArcticFileIO fileIO = getArcticFileIo();
+    if (fileIO instanceof ArcticHadoopFileIO) {
+      return ((ArcticHadoopFileIO) fileIO).getTableMetaStore();
+    }
+    return fileIO;
   }
 
   private CloseableIterable<T> applyEqDeletes(CloseableIterable<T> records, Predicate<T> predicate) {
@@ -292,7 +351,7 @@ public abstract class ArcticDeleteFilter<T> {
   }
 
   private CloseableIterable<Record> openDeletes(PrimaryKeyedFile deleteFile) {
-    InputFile input = getInputFile(deleteFile.path().toString());
+    InputFile input = getInputFile(deleteFile.path().toString(), deleteFile.fileSizeInBytes());
     Map<Integer, Object> idToConstant = new HashMap<>();
     idToConstant.put(MetadataColumns.TRANSACTION_ID_FILED_ID, deleteFile.transactionId());
     switch (deleteFile.format()) {
@@ -377,7 +436,7 @@ public abstract class ArcticDeleteFilter<T> {
   }
 
   private CloseableIterable<Record> openPositionDeletes(DeleteFile deleteFile, Schema deleteSchema) {
-    InputFile input = getInputFile(deleteFile.path().toString());
+    InputFile input = getInputFile(deleteFile.path().toString(), deleteFile.fileSizeInBytes());
     switch (deleteFile.format()) {
       case AVRO:
         return Avro.read(input)
@@ -214,6 +214,11 @@ public abstract class BaseArcticDataReader<T> {
       return fileIO.newInputFile(location);
     }
 
+    @Override
+    protected InputFile getInputFile(String location, long length) {
+      return fileIO.newInputFile(location, length);
+    }
+
     @Override
     protected ArcticFileIO getArcticFileIo() {
       return fileIO;
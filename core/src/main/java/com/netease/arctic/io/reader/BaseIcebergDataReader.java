@@ -54,7 +54,8 @@ public abstract class BaseIcebergDataReader<T> {
   protected final boolean caseSensitive;
   protected final ArcticFileIO fileIO;
   protected final BiFunction<Type, Object, Object> convertConstant;
-  protected final Filter<T> dataNodeFilter;
+  protected final Set<DataTreeNode> sourceNodes;
+  protected final PrimaryKeySpec primaryKeySpec;
   protected final boolean reuseContainer;
   private StructLikeCollections structLikeCollections = StructLikeCollections.DEFAULT;
 
@@ -86,12 +87,8 @@ public abstract class BaseIcebergDataReader<T> {
     this.fileIO = fileIO;
     this.convertConstant = convertConstant;
     this.reuseContainer = reuseContainer;
-    if (sourceNodes != null) {
-      this.dataNodeFilter = new NodeFilter<>(sourceNodes, projectedSchema, primaryKeySpec,
-          toStructLikeFunction().apply(projectedSchema));
-    } else {
-      this.dataNodeFilter = null;
-    }
+    this.sourceNodes = sourceNodes;
+    this.primaryKeySpec = primaryKeySpec;
   }
 
   public CloseableIterable<T> readData(FileScanTask task) {
@@ -105,7 +102,10 @@ public abstract class BaseIcebergDataReader<T> {
         newIterable(task, deleteFilter.requiredSchema(), idToConstant)
     );
 
-    if (dataNodeFilter != null) {
+    if (sourceNodes != null) {
+      // node filters keep the primary key of the current record, one for each file to read files concurrently
+      Filter<T> dataNodeFilter = new NodeFilter<>(sourceNodes, projectedSchema, primaryKeySpec,
+          toStructLikeFunction().apply(projectedSchema));
       return dataNodeFilter.filter(iterable);
     }
 
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io.reader;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.netease.arctic.data.ChangedLsn;
+import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.utils.map.StructLikeBaseMap;
+import com.netease.arctic.utils.map.StructLikeMemoryMap;
+import org.apache.iceberg.relocated.com.google.common.base.Objects;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableSet;
+import org.apache.iceberg.types.Types;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Process-wide cache of equality delete indexes built by {@link ArcticDeleteFilter}.
+ * <p>
+ * Splits of the same keyed table usually share the equality delete files of the change table, so the index built
+ * from them is shared between concurrent readers instead of being read and hashed again for every split.
+ * An index is keyed by the paths of the delete files, the node filter, the primary key type and the identity of the
+ * file io reading them. Delete files are immutable and their paths contain the table location, so the key also
+ * identifies the table. The file io identity keeps readers with different credentials from sharing an index.
+ * <p>
+ * Indexes are evicted by their estimated size, the bound is set by system property
+ * {@value #MAX_BYTES_PROPERTY} and defaults to a tenth of the max heap, a bound not greater than 0 disables the cache.
+ * An evicted index is only closed after all readers using it have released it.
+ * <p>
+ * Indexes are cached as futures completed by the reader building them, so reading delete files never runs inside
+ * the cache and blocks other keys, readers of the same delete files wait for the future instead.
+ */
+public class EqualityDeleteIndexCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EqualityDeleteIndexCache.class);
+
+  public static final String MAX_BYTES_PROPERTY = "arctic.delete-index-cache.max-bytes";
+
+  private static final long MAX_BYTES = Long.getLong(MAX_BYTES_PROPERTY, Runtime.getRuntime().maxMemory() / 10);
+
+  /**
+   * Estimated bytes of one index entry besides its primary key values: hash map node, key wrapper, copied delete
+   * record and {@link ChangedLsn}.
+   */
+  private static final long ENTRY_OVERHEAD_BYTES = 160L;
+  private static final long FIELD_BYTES = 32L;
+
+  private static final AsyncCache<Key, DeleteIndex> INDEXES = Caffeine.newBuilder()
+      .maximumWeight(Math.max(MAX_BYTES, 0L))
+      .weigher((Key key, DeleteIndex index) -> (int) Math.min(index.sizeInBytes(), Integer.MAX_VALUE))
+      .removalListener((Key key, DeleteIndex index, RemovalCause cause) -> {
+        if (index != null) {
+          index.evict();
+        }
+      })
+      .buildAsync();
+
+  private static final AtomicLong HITS = new AtomicLong();
+  private static final AtomicLong MISSES = new AtomicLong();
+
+  private EqualityDeleteIndexCache() {
+  }
+
+  public static boolean enabled() {
+    return MAX_BYTES > 0;
+  }
+
+  /**
+   * Return the index of the delete files, building it with the loader if it is not cached.
+   * The loader fills an empty in-memory map and returns the number of entries put into it, an index is only
+   * published once the loader returns, a failing loader leaves nothing cached.
+   * The returned handle must be closed to release the index.
+   *
+   * @param fileIoIdentity identity of the file io and credentials reading the delete files, compared by equals
+   */
+  static Handle acquire(
+      Object fileIoIdentity, Collection<String> deleteFilePaths, Set<DataTreeNode> sourceNodes,
+      Types.StructType primaryKeyType, ToLongFunction<StructLikeBaseMap<ChangedLsn>> loader) {
+    Key key = new Key(fileIoIdentity, ImmutableSet.copyOf(deleteFilePaths),
+        sourceNodes == null ? null : ImmutableSet.copyOf(sourceNodes), primaryKeyType);
+    while (true) {
+      CompletableFuture<DeleteIndex> loading = new CompletableFuture<>();
+      CompletableFuture<DeleteIndex> future = INDEXES.asMap().putIfAbsent(key, loading);
+      boolean loaded = future == null;
+      if (loaded) {
+        future = loading;
+        try {
+          loading.complete(load(primaryKeyType, loader));
+        } catch (RuntimeException | Error e) {
+          // a failed future is removed by the cache, readers waiting for it load the index again
+          loading.completeExceptionally(e);
+          throw e;
+        }
+      }
+
+      DeleteIndex index;
+      try {
+        index = future.join();
+      } catch (CompletionException e) {
+        INDEXES.asMap().remove(key, future);
+        continue;
+      }
+      // an index evicted and closed between the lookup and the acquisition is built again
+      if (index.retain()) {
+        if (loaded) {
+          MISSES.incrementAndGet();
+        } else {
+          HITS.incrementAndGet();
+        }
+        return new Handle(index);
+      }
+      INDEXES.asMap().remove(key, future);
+    }
+  }
+
+  private static DeleteIndex load(
+      Types.StructType primaryKeyType, ToLongFunction<StructLikeBaseMap<ChangedLsn>> loader) {
+    StructLikeBaseMap<ChangedLsn> map = StructLikeMemoryMap.create(primaryKeyType);
+    try {
+      long entries = loader.applyAsLong(map);
+      return new DeleteIndex(map, entries, primaryKeyType.fields().size());
+    } catch (RuntimeException | Error e) {
+      try {
+        map.close();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+      throw e;
+    }
+  }
+
+  public static long hitCount() {
+    return HITS.get();
+  }
+
+  public static long missCount() {
+    return MISSES.get();
+  }
+
+  /**
+   * @return estimated bytes of all cached indexes
+   */
+  public static long cachedBytes() {
+    return INDEXES.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+  }
+
+  public static void invalidateAll() {
+    INDEXES.synchronous().invalidateAll();
+    INDEXES.synchronous().cleanUp();
+  }
+
+  /**
+   * A reference of a cached index, closing it releases the reference.
+   */
+  static class Handle implements Closeable {
+
+    private final DeleteIndex index;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private Handle(DeleteIndex index) {
+      this.index = index;
+    }
+
+    StructLikeBaseMap<ChangedLsn> map() {
+      return index.map;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (released.compareAndSet(false, true)) {
+        index.release();
+      }
+    }
+  }
+
+  private static class DeleteIndex {
+
+    private final StructLikeBaseMap<ChangedLsn> map;
+    private final long sizeInBytes;
+    private int references;
+    private boolean evicted;
+    private boolean closed;
+
+    private DeleteIndex(StructLikeBaseMap<ChangedLsn> map, long entries, int primaryKeyFields) {
+      this.map = map;
+      this.sizeInBytes = entries * (ENTRY_OVERHEAD_BYTES + FIELD_BYTES * primaryKeyFields);
+    }
+
+    long sizeInBytes() {
+      return sizeInBytes;
+    }
+
+    synchronized boolean retain() {
+      if (closed) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    synchronized void release() {
+      references--;
+      closeIfUnused();
+    }
+
+    synchronized void evict() {
+      evicted = true;
+      closeIfUnused();
+    }
+
+    private void closeIfUnused() {
+      if (evicted && references <= 0 && !closed) {
+        closed = true;
+        try {
+          map.close();
+        } catch (IOException e) {
+          LOG.warn("Failed to close equality delete index", e);
+        }
+      }
+    }
+  }
+
+  private static class Key {
+
+    private final Object fileIoIdentity;
+    private final Set<String> deleteFilePaths;
+    private final Set<DataTreeNode> sourceNodes;
+    private final Types.StructType primaryKeyType;
+
+    private Key(
+        Object fileIoIdentity, Set<String> deleteFilePaths, Set<DataTreeNode> sourceNodes,
+        Types.StructType primaryKeyType) {
+      this.fileIoIdentity = fileIoIdentity;
+      this.deleteFilePaths = deleteFilePaths;
+      this.sourceNodes = sourceNodes;
+      this.primaryKeyType = primaryKeyType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equal(fileIoIdentity, key.fileIoIdentity) &&
+          Objects.equal(deleteFilePaths, key.deleteFilePaths) &&
+          Objects.equal(sourceNodes, key.sourceNodes) &&
+          Objects.equal(primaryKeyType, key.primaryKeyType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(fileIoIdentity, deleteFilePaths, sourceNodes, primaryKeyType);
+    }
+  }
+}
@@ -55,8 +55,11 @@ public abstract class BaseTaskWriter<T> implements TaskWriter<T> {
 
   private final PartitionKey partitionKey;
   private final PrimaryKeyData primaryKey;
+  private final boolean unpartitioned;
 
-  private final Map<TaskWriterKey, DataWriter<T>> dataWriterMap = Maps.newHashMap();
+  // writers of partitions, looked up by the reused partition key so that writing a row allocates nothing
+  private final Map<StructLike, PartitionWriters<T>> partitionWriters = Maps.newHashMap();
+  private PartitionWriters<T> lastPartitionWriters;
   private final List<DataFile> completedFiles = Lists.newArrayList();
 
   protected BaseTaskWriter(FileFormat format, FileAppenderFactory<T> appenderFactory,
@@ -67,29 +70,31 @@ public abstract class BaseTaskWriter<T> implements TaskWriter<T> {
     this.outputFileFactory = outputFileFactory;
     this.io = io;
     this.targetFileSize = targetFileSize;
-    this.mask = mask;
-    this.partitionKey = new PartitionKey(spec, schema);
     this.primaryKey = primaryKeySpec == null ? null : new PrimaryKeyData(primaryKeySpec, schema);
+    this.mask = primaryKey == null ? 0 : mask;
+    this.partitionKey = new PartitionKey(spec, schema);
+    this.unpartitioned = spec.isUnpartitioned();
   }
 
   @Override
   public void write(T row) throws IOException {
-    TaskWriterKey writerKey = buildWriterKey(row);
-    DataWriter<T> writer;
-    if (!dataWriterMap.containsKey(writerKey)) {
-      TaskWriterKey key = new TaskWriterKey(partitionKey.copy(), writerKey.getTreeNode(), writerKey.getFileType());
+    StructLike structLike = asStructLike(row);
+    PartitionWriters<T> writers = partitionWriters(structLike);
+    int index = treeNodeIndex(structLike);
+    DataFileType fileType = fileType(row);
+    DataWriter<T> writer = writers.get(fileType, index);
+    if (writer == null) {
+      TaskWriterKey writerKey = new TaskWriterKey(writers.partition, DataTreeNode.of(mask, index), fileType);
       writer = io.doAs(() -> appenderFactory.newDataWriter(
-          outputFileFactory.newOutputFile(writerKey), format, key.getPartitionKey()));
-      dataWriterMap.put(key, writer);
-    } else {
-      writer = dataWriterMap.get(writerKey);
+          outputFileFactory.newOutputFile(writerKey), format, writerKey.getPartitionKey()));
+      writers.set(fileType, index, writer);
     }
     write(writer, row);
 
     if (shouldRollToNewFile(writer)) {
       writer.close();
       completedFiles.add(writer.toDataFile());
-      dataWriterMap.remove(writerKey);
+      writers.set(fileType, index, null);
     }
   }
 
@@ -97,17 +102,43 @@ public abstract class BaseTaskWriter<T> implements TaskWriter<T> {
     writer.add(row);
   }
 
-  protected TaskWriterKey buildWriterKey(T row) {
-    StructLike structLike = asStructLike(row);
-    partitionKey.partition(structLike);
-    DataTreeNode node;
-    if (primaryKey != null) {
-      primaryKey.primaryKey(structLike);
-      node = primaryKey.treeNode(mask);
+  /**
+   * Type of the file the row is written to.
+   */
+  protected DataFileType fileType(T row) {
+    return DataFileType.BASE_FILE;
+  }
+
+  private PartitionWriters<T> partitionWriters(StructLike row) {
+    if (lastPartitionWriters != null) {
+      if (unpartitioned) {
+        return lastPartitionWriters;
+      }
+      partitionKey.partition(row);
+      // rows of a task are usually clustered by partition
+      if (lastPartitionWriters.partition.equals(partitionKey)) {
+        return lastPartitionWriters;
+      }
     } else {
-      node = DataTreeNode.ROOT;
+      partitionKey.partition(row);
+    }
+    PartitionWriters<T> writers = partitionWriters.get(partitionKey);
+    if (writers == null) {
+      PartitionKey partition = partitionKey.copy();
+      writers = new PartitionWriters<>(partition, (int) mask + 1);
+      partitionWriters.put(partition, writers);
+    }
+    lastPartitionWriters = writers;
+    return writers;
+  }
+
+  private int treeNodeIndex(StructLike row) {
+    if (primaryKey == null) {
+      return 0;
     }
-    return new TaskWriterKey(partitionKey, node, DataFileType.BASE_FILE);
+    primaryKey.primaryKey(row);
+    // same as the index of PrimaryKeyData#treeNode
+    return (int) (Math.abs(primaryKey.hashCode()) & mask);
   }
 
   private boolean shouldRollToNewFile(DataWriter<T> dataWriter) {
@@ -136,15 +167,54 @@ public abstract class BaseTaskWriter<T> implements TaskWriter<T> {
 
   @Override
   public void close() throws IOException {
-    for (DataWriter<T> dataWriter : dataWriterMap.values()) {
-      dataWriter.close();
-      completedFiles.add(dataWriter.toDataFile());
+    for (PartitionWriters<T> writers : partitionWriters.values()) {
+      for (DataWriter<T>[] nodeWriters : writers.writers) {
+        if (nodeWriters == null) {
+          continue;
+        }
+        for (DataWriter<T> dataWriter : nodeWriters) {
+          if (dataWriter != null) {
+            dataWriter.close();
+            completedFiles.add(dataWriter.toDataFile());
+          }
+        }
+      }
     }
-    dataWriterMap.clear();
+    partitionWriters.clear();
+    lastPartitionWriters = null;
   }
 
   /**
    * Wrap the data as a {@link StructLike}.
    */
   protected abstract StructLike asStructLike(T data);
+
+  /**
+   * Writers of a partition, indexed by file type and index of the tree node.
+   */
+  private static class PartitionWriters<T> {
+    private final PartitionKey partition;
+    private final int nodes;
+    private final DataWriter<T>[][] writers;
+
+    @SuppressWarnings("unchecked")
+    private PartitionWriters(PartitionKey partition, int nodes) {
+      this.partition = partition;
+      this.nodes = nodes;
+      this.writers = new DataWriter[DataFileType.values().length][];
+    }
+
+    private DataWriter<T> get(DataFileType fileType, int index) {
+      DataWriter<T>[] nodeWriters = writers[fileType.ordinal()];
+      return nodeWriters == null ? null : nodeWriters[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(DataFileType fileType, int index, DataWriter<T> writer) {
+      if (writers[fileType.ordinal()] == null) {
+        writers[fileType.ordinal()] = new DataWriter[nodes];
+      }
+      writers[fileType.ordinal()][index] = writer;
+    }
+  }
 }
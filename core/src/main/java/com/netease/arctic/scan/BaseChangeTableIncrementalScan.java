@@ -25,19 +25,28 @@ import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.utils.TableFileUtils;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.FileContent;
+import org.apache.iceberg.ManifestContent;
+import org.apache.iceberg.ManifestFile;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 import org.apache.iceberg.util.StructLikeMap;
 
+import java.util.Set;
+import java.util.function.Predicate;
+
 public class BaseChangeTableIncrementalScan implements ChangeTableIncrementalScan {
 
   private final ChangeTable table;
   private StructLikeMap<Long> fromPartitionTransactionId;
   private StructLikeMap<Long> fromPartitionLegacyTransactionId;
+  private Long fromTransactionId;
+  private Long snapshotId;
   private Expression dataFilter;
+  private Long maxPartitionTransactionId;
 
   public BaseChangeTableIncrementalScan(ChangeTable table) {
     this.table = table;
@@ -56,6 +65,20 @@ public class BaseChangeTableIncrementalScan implements ChangeTableIncrementalSca
   @Override
   public ChangeTableIncrementalScan fromTransaction(StructLikeMap<Long> partitionMaxTransactionId) {
     this.fromPartitionTransactionId = partitionMaxTransactionId;
+    this.maxPartitionTransactionId = null;
+    return this;
+  }
+
+  @Override
+  public ChangeTableIncrementalScan fromTransaction(long transactionId) {
+    this.fromTransactionId = transactionId;
+    this.maxPartitionTransactionId = null;
+    return this;
+  }
+
+  @Override
+  public ChangeTableIncrementalScan useSnapshot(long snapshotId) {
+    this.snapshotId = snapshotId;
     return this;
   }
 
@@ -67,13 +90,20 @@ public class BaseChangeTableIncrementalScan implements ChangeTableIncrementalSca
 
   @Override
   public CloseableIterable<ArcticFileScanTask> planTasks() {
-    return planTasks(this::shouldKeepFile, this::shouldKeepFileWithLegacyTxId);
+    return planTasks(this::shouldKeepFile, this::shouldKeepFileWithLegacyTxId, this::shouldReadManifest);
   }
 
   public CloseableIterable<ArcticFileScanTask> planTasks(PartitionDataFilter shouldKeepFile,
                                                          PartitionDataFilter shouldKeepFileWithLegacyTxId) {
-    Snapshot currentSnapshot = table.currentSnapshot();
+    return planTasks(shouldKeepFile, shouldKeepFileWithLegacyTxId, null);
+  }
+
+  private CloseableIterable<ArcticFileScanTask> planTasks(PartitionDataFilter shouldKeepFile,
+                                                          PartitionDataFilter shouldKeepFileWithLegacyTxId,
+                                                          Predicate<ManifestFile> shouldReadManifest) {
+    Snapshot currentSnapshot = snapshotId == null ? table.currentSnapshot() : table.snapshot(snapshotId);
     if (currentSnapshot == null) {
+      Preconditions.checkArgument(snapshotId == null, "Cannot find snapshot %s of %s", snapshotId, table.id());
       // return no files for table without snapshot
       return CloseableIterable.empty();
     }
@@ -81,6 +111,8 @@ public class BaseChangeTableIncrementalScan implements ChangeTableIncrementalSca
         .withAliveEntry(true)
         .withDataFilter(dataFilter)
         .includeFileContent(FileContent.DATA)
+        .useSnapshot(currentSnapshot.snapshotId())
+        .withManifestFilter(shouldReadManifest)
         .build();
     CloseableIterable<IcebergFileEntry> filteredEntry = CloseableIterable.filter(manifestReader.entries(), entry -> {
       StructLike partition = entry.getFile().partition();
@@ -98,22 +130,71 @@ public class BaseChangeTableIncrementalScan implements ChangeTableIncrementalSca
   }
 
   private Boolean shouldKeepFile(StructLike partition, long txId) {
-    if (fromPartitionTransactionId == null || fromPartitionTransactionId.isEmpty()) {
-      // if fromPartitionTransactionId is not set or is empty, return null to check legacy transactionId
+    Long partitionTransactionId = fromTransactionId(partition);
+    if (partitionTransactionId == null) {
+      // return null to check legacy transactionId
       return null;
     }
+    return txId > partitionTransactionId;
+  }
+
+  /**
+   * Returns the transaction id to read data from of the partition, or null if it is not set.
+   */
+  private Long fromTransactionId(StructLike partition) {
+    if (fromPartitionTransactionId != null && !fromPartitionTransactionId.isEmpty()) {
+      if (table.spec().isUnpartitioned()) {
+        return fromPartitionTransactionId.entrySet().iterator().next().getValue();
+      }
+      Long partitionTransactionId = fromPartitionTransactionId.get(partition);
+      if (partitionTransactionId != null) {
+        return partitionTransactionId;
+      }
+    }
+    return fromTransactionId;
+  }
+
+  /**
+   * A manifest can be skipped if all its files are not newer than the transaction id of their partitions.
+   * The sequence number of the manifest is the upper bound of the sequence numbers of its files.
+   */
+  private boolean shouldReadManifest(ManifestFile manifest) {
+    boolean noFromTransactionId = fromTransactionId == null &&
+        (fromPartitionTransactionId == null || fromPartitionTransactionId.isEmpty());
+    if (noFromTransactionId || manifest.content() != ManifestContent.DATA) {
+      return true;
+    }
+    long maxSequenceNumber = manifest.sequenceNumber();
     if (table.spec().isUnpartitioned()) {
-      Long fromTransactionId = fromPartitionTransactionId.entrySet().iterator().next().getValue();
-      return txId > fromTransactionId;
-    } else {
-      if (!fromPartitionTransactionId.containsKey(partition)) {
-        // return null to check legacy transactionId
-        return null;
-      } else {
-        Long partitionTransactionId = fromPartitionTransactionId.get(partition);
-        return txId > partitionTransactionId;
+      return maxSequenceNumber > fromTransactionId(null);
+    }
+    if (maxSequenceNumber > maxPartitionTransactionId()) {
+      // files added by this manifest are newer than all partitions
+      return true;
+    }
+    Set<StructLike> partitions = ChangeManifestIndex.partitions(table, manifest);
+    if (partitions == null) {
+      return true;
+    }
+    for (StructLike partition : partitions) {
+      Long partitionTransactionId = fromTransactionId(partition);
+      if (partitionTransactionId == null || maxSequenceNumber > partitionTransactionId) {
+        return true;
       }
     }
+    return false;
+  }
+
+  private long maxPartitionTransactionId() {
+    if (maxPartitionTransactionId == null) {
+      long partitionMax = fromPartitionTransactionId == null ? TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT :
+          fromPartitionTransactionId.values().stream()
+              .mapToLong(Long::longValue)
+              .max()
+              .orElse(TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT);
+      maxPartitionTransactionId = fromTransactionId == null ? partitionMax : Math.max(partitionMax, fromTransactionId);
+    }
+    return maxPartitionTransactionId;
   }
 
   private boolean shouldKeepFileWithLegacyTxId(StructLike partition, long legacyTxId) {
@@ -18,35 +18,57 @@
 
 package com.netease.arctic.scan;
 
+import com.netease.arctic.IcebergFileEntry;
+import com.netease.arctic.ams.api.CommitMetaProducer;
 import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.data.DefaultKeyedFile;
 import com.netease.arctic.table.BaseKeyedTable;
+import com.netease.arctic.table.ChangeTable;
+import com.netease.arctic.table.PartitionPropertyIndex;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.table.UnkeyedTable;
+import com.netease.arctic.trace.SnapshotSummary;
 import com.netease.arctic.utils.TablePropertyUtil;
-import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataOperations;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.TableScan;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
-import org.apache.iceberg.relocated.com.google.common.collect.ListMultimap;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
-import org.apache.iceberg.relocated.com.google.common.collect.Multimaps;
 import org.apache.iceberg.util.BinPacking;
 import org.apache.iceberg.util.PropertyUtil;
-import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.SnapshotUtil;
+import org.apache.iceberg.util.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -58,12 +80,16 @@ public class BaseKeyedTableScan implements KeyedTableScan {
   private static final Logger LOG = LoggerFactory.getLogger(BaseKeyedTableScan.class);
 
   private final BaseKeyedTable table;
-  List<NodeFileScanTask> splitTasks = new ArrayList<>();
-  private final Map<StructLike, List<NodeFileScanTask>> fileScanTasks = new HashMap<>();
   private final int lookBack;
   private final long openFileCost;
   private final long splitSize;
   private Expression expression;
+  private static final int PARTITIONS_PLANNED_AHEAD = 2 * ThreadPools.WORKER_THREAD_POOL_SIZE;
+
+  private ExecutorService planExecutor = ThreadPools.getWorkerPool();
+  private Long asOfTime;
+  private Long appendsFromTime;
+  private Long appendsToTime;
 
   public BaseKeyedTableScan(BaseKeyedTable table) {
     this.table = table;
@@ -85,6 +111,75 @@ public class BaseKeyedTableScan implements KeyedTableScan {
     return this;
   }
 
+  @Override
+  public KeyedTableScan planWith(ExecutorService executor) {
+    this.planExecutor = executor;
+    return this;
+  }
+
+  @Override
+  public KeyedTableScan useSnapshot(long snapshotId) {
+    return asOfTime(commitTime(snapshotId));
+  }
+
+  @Override
+  public KeyedTableScan asOfTime(long timestampMillis) {
+    Preconditions.checkState(appendsFromTime == null, "Cannot read as of a time in an incremental scan");
+    Preconditions.checkState(asOfTime == null, "Cannot override the time to read as of, already set to %s", asOfTime);
+    this.asOfTime = timestampMillis;
+    return this;
+  }
+
+  @Override
+  public KeyedTableScan appendsAfter(long fromSnapshotId) {
+    Preconditions.checkState(asOfTime == null, "Cannot read appends in a scan as of a time");
+    Preconditions.checkState(appendsFromTime == null, "Cannot override the range of appends to read");
+    this.appendsFromTime = commitTime(fromSnapshotId);
+    this.appendsToTime = null;
+    return this;
+  }
+
+  @Override
+  public KeyedTableScan appendsBetween(long fromSnapshotId, long toSnapshotId) {
+    Preconditions.checkState(asOfTime == null, "Cannot read appends in a scan as of a time");
+    Preconditions.checkState(appendsFromTime == null, "Cannot override the range of appends to read");
+    long fromTime = commitTime(fromSnapshotId);
+    long toTime = commitTime(toSnapshotId);
+    Preconditions.checkArgument(fromTime <= toTime,
+        "Snapshot %s is committed after snapshot %s", fromSnapshotId, toSnapshotId);
+    this.appendsFromTime = fromTime;
+    this.appendsToTime = toTime;
+    return this;
+  }
+
+  /**
+   * Returns the commit time of a snapshot of the base store or the change store.
+   */
+  private long commitTime(long snapshotId) {
+    Snapshot snapshot = table.baseTable().snapshot(snapshotId);
+    if (snapshot == null) {
+      snapshot = table.changeTable().snapshot(snapshotId);
+    }
+    Preconditions.checkArgument(snapshot != null,
+        "Cannot find snapshot %s in the base store or the change store of %s", snapshotId, table.id());
+    return snapshot.timestampMillis();
+  }
+
+  /**
+   * Returns the latest snapshot of the table committed at or before the time, null if there is no such snapshot.
+   */
+  private static Snapshot snapshotAsOf(UnkeyedTable internalTable, Long timestampMillis) {
+    if (timestampMillis == null) {
+      return internalTable.currentSnapshot();
+    }
+    for (Snapshot snapshot : SnapshotUtil.currentAncestors(internalTable)) {
+      if (snapshot.timestampMillis() <= timestampMillis) {
+        return snapshot;
+      }
+    }
+    return null;
+  }
+
   @Override
   public CloseableIterable<CombinedScanTask> planTasks() {
     // base file
@@ -103,58 +198,237 @@ public class BaseKeyedTableScan implements KeyedTableScan {
     Map<StructLike, Collection<ArcticFileScanTask>> partitionedFiles =
         groupFilesByPartition(changeFileList, baseFileList);
     LOG.info("planning table {} need plan partition size {}", table.id(), partitionedFiles.size());
-    partitionedFiles.forEach(this::partitionPlan);
-    LOG.info("planning table {} partitionPlan end", table.id());
-    // 2.split node task (FileScanTask -> FileScanTask List)
-    split();
-    LOG.info("planning table {} split end", table.id());
+    // 2. plan and split node tasks of partitions (FileScanTask -> FileScanTask List), partitions are planned
+    // concurrently a few ahead of the consumer and emitted in order
+    CloseableIterable<NodeFileScanTask> splitTasks = new PlannedPartitions(partitionedFiles);
     // 3.combine node task (FileScanTask List -> CombinedScanTask)
-    return combineNode(CloseableIterable.withNoopClose(splitTasks),
-        splitSize, lookBack, openFileCost);
+    return combineNode(splitTasks, splitSize, lookBack, openFileCost);
+  }
+
+  /**
+   * Plan a partition into node tasks ordered by tree node, split tasks of the same node keep their order.
+   */
+  private List<NodeFileScanTask> planPartition(Collection<ArcticFileScanTask> files) {
+    List<NodeFileScanTask> nodeTasks = partitionPlan(files);
+    nodeTasks.sort(Comparator.comparingLong((NodeFileScanTask task) -> task.treeNode().mask())
+        .thenComparingLong(task -> task.treeNode().index()));
+    return split(nodeTasks);
+  }
+
+  /**
+   * Node tasks of partitions in order of partition path, so tasks are packed in the same order however planning
+   * threads are scheduled. Only a bounded number of partitions are planned ahead of the consumer, and files of a
+   * partition are released once the partition is planned. Tasks planned by a scan can only be iterated once.
+   */
+  private class PlannedPartitions implements CloseableIterable<NodeFileScanTask> {
+    private final Map<StructLike, Collection<ArcticFileScanTask>> partitionedFiles;
+    private final Deque<Future<List<NodeFileScanTask>>> planning = new ArrayDeque<>();
+    private final AtomicBoolean iterated = new AtomicBoolean(false);
+
+    private PlannedPartitions(Map<StructLike, Collection<ArcticFileScanTask>> partitionedFiles) {
+      this.partitionedFiles = partitionedFiles;
+    }
+
+    @Override
+    public CloseableIterator<NodeFileScanTask> iterator() {
+      Preconditions.checkState(iterated.compareAndSet(false, true), "Planned tasks can only be iterated once");
+      TreeMap<String, StructLike> partitionsByPath = new TreeMap<>();
+      partitionedFiles.keySet().forEach(partition -> partitionsByPath.put(table.spec().partitionToPath(partition),
+          partition));
+      Iterator<StructLike> partitions = partitionsByPath.values().iterator();
+      int plannedAhead = planExecutor == null ? 1 : PARTITIONS_PLANNED_AHEAD;
+
+      return new CloseableIterator<NodeFileScanTask>() {
+        private Iterator<NodeFileScanTask> current = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+          while (!current.hasNext()) {
+            while (planning.size() < plannedAhead && partitions.hasNext()) {
+              Collection<ArcticFileScanTask> files = partitionedFiles.remove(partitions.next());
+              planning.add(planExecutor == null ?
+                  CompletableFuture.completedFuture(planPartition(files)) :
+                  planExecutor.submit(() -> planPartition(files)));
+            }
+            if (planning.isEmpty()) {
+              return false;
+            }
+            current = await(planning.poll()).iterator();
+          }
+          return true;
+        }
+
+        @Override
+        public NodeFileScanTask next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return current.next();
+        }
+
+        @Override
+        public void close() {
+          PlannedPartitions.this.close();
+        }
+      };
+    }
+
+    private List<NodeFileScanTask> await(Future<List<NodeFileScanTask>> future) {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while planning partitions of " + table.id(), e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException("Failed to plan partitions of " + table.id(), e.getCause());
+      }
+    }
+
+    @Override
+    public void close() {
+      planning.forEach(future -> future.cancel(true));
+      planning.clear();
+      partitionedFiles.clear();
+    }
   }
 
   private CloseableIterable<ArcticFileScanTask> planBaseFiles() {
-    return CloseableIterable.transform(planFiles(table.baseTable()), BaseArcticFileScanTask::new);
+    if (appendsFromTime != null) {
+      return planAppendedBaseFiles();
+    }
+    UnkeyedTable baseTable = table.baseTable();
+    TableScan scan = baseTable.newScan();
+    if (asOfTime != null) {
+      Snapshot snapshot = snapshotAsOf(baseTable, asOfTime);
+      if (snapshot == null) {
+        return CloseableIterable.empty();
+      }
+      scan = scan.useSnapshot(snapshot.snapshotId());
+    }
+    if (this.expression != null) {
+      scan = scan.filter(this.expression);
+    }
+    return CloseableIterable.transform(scan.planFiles(), BaseArcticFileScanTask::new);
+  }
+
+  /**
+   * Plan base files added in the range and alive at the end of the range, files added by optimizing are skipped
+   * as they rewrite data committed before.
+   */
+  private CloseableIterable<ArcticFileScanTask> planAppendedBaseFiles() {
+    UnkeyedTable baseTable = table.baseTable();
+    Snapshot toSnapshot = snapshotAsOf(baseTable, appendsToTime);
+    if (toSnapshot == null) {
+      return CloseableIterable.empty();
+    }
+    Set<Long> appendSnapshotIds = new HashSet<>();
+    for (Snapshot snapshot : SnapshotUtil.ancestorsOf(toSnapshot.snapshotId(), baseTable::snapshot)) {
+      if (snapshot.timestampMillis() <= appendsFromTime) {
+        break;
+      }
+      if (!CommitMetaProducer.OPTIMIZE.name().equals(snapshot.summary().get(SnapshotSummary.SNAPSHOT_PRODUCER))) {
+        appendSnapshotIds.add(snapshot.snapshotId());
+      }
+    }
+    if (appendSnapshotIds.isEmpty()) {
+      return CloseableIterable.empty();
+    }
+    TableEntriesScan entriesScan = TableEntriesScan.builder(baseTable)
+        .withAliveEntry(true)
+        .withDataFilter(expression)
+        .includeFileContent(FileContent.DATA)
+        .useSnapshot(toSnapshot.snapshotId())
+        .build();
+    CloseableIterable<IcebergFileEntry> appendedEntries = CloseableIterable.filter(entriesScan.entries(),
+        entry -> appendSnapshotIds.contains(entry.getSnapshotId()));
+    return CloseableIterable.transform(appendedEntries, entry ->
+        new BaseArcticFileScanTask(new DefaultKeyedFile((DataFile) entry.getFile()), null, baseTable.spec()));
   }
 
   private CloseableIterable<ArcticFileScanTask> planChangeFiles() {
-    StructLikeMap<Long> partitionMaxTransactionId = TablePropertyUtil.getPartitionMaxTransactionId(table);
-    StructLikeMap<Long> legacyPartitionMaxTransactionId = TablePropertyUtil.getLegacyPartitionMaxTransactionId(table);
-    ChangeTableIncrementalScan changeTableScan = table.changeTable().newChangeScan()
-        .fromTransaction(partitionMaxTransactionId)
-        .fromLegacyTransaction(legacyPartitionMaxTransactionId);
+    ChangeTable changeTable = table.changeTable();
+    ChangeTableIncrementalScan changeTableScan = changeTable.newChangeScan();
+    if (appendsFromTime != null) {
+      // all change files committed in the range are read, including those optimized into the base store
+      Snapshot fromSnapshot = snapshotAsOf(changeTable, appendsFromTime);
+      Snapshot toSnapshot = snapshotAsOf(changeTable, appendsToTime);
+      if (toSnapshot == null) {
+        return CloseableIterable.empty();
+      }
+      checkChangeFilesRetained(changeTable, toSnapshot);
+      changeTableScan = changeTableScan
+          .useSnapshot(toSnapshot.snapshotId())
+          .fromTransaction(fromSnapshot == null ?
+              TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT :
+              fromSnapshot.sequenceNumber());
+    } else {
+      PartitionPropertyIndex partitionProperty = table.baseTable().partitionPropertyIndex();
+      if (asOfTime != null) {
+        Snapshot snapshot = snapshotAsOf(changeTable, asOfTime);
+        if (snapshot == null) {
+          return CloseableIterable.empty();
+        }
+        changeTableScan = changeTableScan.useSnapshot(snapshot.snapshotId());
+        partitionProperty = snapshotAsOf(table.baseTable(), asOfTime) == null ?
+            PartitionPropertyIndex.of(table.baseTable().spec(), (String) null) :
+            TablePropertyUtil.getPartitionPropertyIndexAsOf(table.baseTable(), asOfTime);
+      }
+      changeTableScan = changeTableScan
+          .fromTransaction(partitionProperty.maxTransactionIds())
+          .fromLegacyTransaction(partitionProperty.legacyMaxTransactionIds());
+    }
     if (expression != null) {
       changeTableScan = changeTableScan.filter(expression);
     }
     return changeTableScan.planTasks();
   }
 
-  private CloseableIterable<FileScanTask> planFiles(UnkeyedTable internalTable) {
-    TableScan scan = internalTable.newScan();
-    if (this.expression != null) {
-      scan = scan.filter(this.expression);
+  /**
+   * Check that change files committed in the range of an incremental scan are still in the change store, otherwise
+   * inserts and deletes of the range would be lost silently. Change files are expired once they are older than the
+   * change data ttl, and can only be removed by change store commits which are not appends.
+   *
+   * @throws IllegalArgumentException if change files committed in the range may be removed
+   */
+  private void checkChangeFilesRetained(ChangeTable changeTable, Snapshot toSnapshot) {
+    long changeDataTtl = Long.parseLong(table.properties().getOrDefault(TableProperties.CHANGE_DATA_TTL,
+        TableProperties.CHANGE_DATA_TTL_DEFAULT)) * 60 * 1000;
+    Preconditions.checkArgument(appendsFromTime >= System.currentTimeMillis() - changeDataTtl,
+        "Cannot read appends of %s after %s, change files older than %s may be expired", table.id(),
+        appendsFromTime, TableProperties.CHANGE_DATA_TTL);
+    for (Snapshot snapshot : SnapshotUtil.ancestorsOf(toSnapshot.snapshotId(), changeTable::snapshot)) {
+      if (snapshot.timestampMillis() <= appendsFromTime) {
+        break;
+      }
+      Preconditions.checkArgument(DataOperations.APPEND.equals(snapshot.operation()),
+          "Cannot read appends of %s, change files are removed by %s snapshot %s in the range", table.id(),
+          snapshot.operation(), snapshot.snapshotId());
     }
-    return scan.planFiles();
   }
 
-  private void split() {
-    fileScanTasks.forEach((structLike, fileScanTasks1) -> {
-      for (NodeFileScanTask task : fileScanTasks1) {
-        if (task.cost() <= splitSize) {
-          splitTasks.add(task);
-          continue;
-        }
-        if (task.dataTasks().size() < 2) {
-          splitTasks.add(task);
-          continue;
-        }
-        CloseableIterable<NodeFileScanTask> tasksIterable = splitNode(CloseableIterable.withNoopClose(task.dataTasks()),
-            task.arcticEquityDeletes(), splitSize, lookBack, openFileCost);
-        List<NodeFileScanTask> tasks =
-            Lists.newArrayList(tasksIterable);
-        splitTasks.addAll(tasks);
+  private List<NodeFileScanTask> split(List<NodeFileScanTask> nodeTasks) {
+    List<NodeFileScanTask> splitTasks = new ArrayList<>();
+    for (NodeFileScanTask task : nodeTasks) {
+      if (task.cost() <= splitSize) {
+        splitTasks.add(task);
+        continue;
       }
-    });
+      if (task.dataTasks().size() < 2) {
+        splitTasks.add(task);
+        continue;
+      }
+      CloseableIterable<NodeFileScanTask> tasksIterable = splitNode(CloseableIterable.withNoopClose(task.dataTasks()),
+          task.arcticEquityDeletes(), splitSize, lookBack, openFileCost);
+      List<NodeFileScanTask> tasks =
+          Lists.newArrayList(tasksIterable);
+      // keep the tree node of split tasks, readers rely on it to report the data distribution
+      tasks.forEach(splitTask -> splitTask.setTreeNode(task.treeNode()));
+      splitTasks.addAll(tasks);
+    }
+    return splitTasks;
   }
 
   public CloseableIterable<NodeFileScanTask> splitNode(
@@ -190,7 +464,7 @@ public class BaseKeyedTableScan implements KeyedTableScan {
    * 1. Put all files into the node they originally belonged to
    * 2. Find all data nodes, traverse, and find the delete that intersects them
    */
-  private void partitionPlan(StructLike partition, Collection<ArcticFileScanTask> keyedTableTasks) {
+  private List<NodeFileScanTask> partitionPlan(Collection<ArcticFileScanTask> keyedTableTasks) {
     Map<DataTreeNode, NodeFileScanTask> nodeFileScanTaskMap = new HashMap<>();
     // planfiles() cannot guarantee the uniqueness of the file,
     // so Set<path> here is used to remove duplicate files
@@ -228,20 +502,20 @@ public class BaseKeyedTableScan implements KeyedTableScan {
       }
       fileScanTaskList.add(nodeFileScanTask);
     });
-
-    fileScanTasks.put(partition, fileScanTaskList);
+    return fileScanTaskList;
   }
 
   public Map<StructLike, Collection<ArcticFileScanTask>> groupFilesByPartition(
       CloseableIterable<ArcticFileScanTask> changeTasks,
       CloseableIterable<ArcticFileScanTask> baseTasks) {
-    ListMultimap<StructLike, ArcticFileScanTask> filesGroupedByPartition
-        = Multimaps.newListMultimap(Maps.newHashMap(), Lists::newArrayList);
+    Map<StructLike, Collection<ArcticFileScanTask>> filesGroupedByPartition = Maps.newHashMap();
 
     try {
-      changeTasks.forEach(task -> filesGroupedByPartition.put(task.file().partition(), task));
-      baseTasks.forEach(task -> filesGroupedByPartition.put(task.file().partition(), task));
-      return filesGroupedByPartition.asMap();
+      changeTasks.forEach(task -> filesGroupedByPartition.computeIfAbsent(task.file().partition(),
+          partition -> Lists.newArrayList()).add(task));
+      baseTasks.forEach(task -> filesGroupedByPartition.computeIfAbsent(task.file().partition(),
+          partition -> Lists.newArrayList()).add(task));
+      return filesGroupedByPartition;
     } finally {
       try {
         changeTasks.close();
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.scan;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index of partitions contained in manifests of change tables, used to skip manifests whose files are all
+ * older than the partition transaction id of the base table.
+ * Manifest files are immutable, so partitions are cached by manifest path and shared between snapshots and scans.
+ */
+class ChangeManifestIndex {
+
+  private static final long MAX_CACHED_PARTITIONS = 1_000_000L;
+  private static final long CACHE_EXPIRE_MINUTES = 60L;
+
+  private static final Cache<String, Set<StructLike>> PARTITIONS_OF_MANIFEST = Caffeine.newBuilder()
+      .maximumWeight(MAX_CACHED_PARTITIONS)
+      .weigher((String path, Set<StructLike> partitions) -> partitions.size() + 1)
+      .expireAfterAccess(CACHE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+      .build();
+
+  private ChangeManifestIndex() {
+  }
+
+  /**
+   * Return all partitions of live files in the manifest.
+   * Partition summaries are used if they show that the manifest contains only one partition, otherwise partitions
+   * are read from the manifest once and cached.
+   *
+   * @return partitions of the manifest, or null if the manifest is not written with the current partition spec
+   */
+  static Set<StructLike> partitions(Table table, ManifestFile manifest) {
+    PartitionSpec spec = table.spec();
+    if (manifest.partitionSpecId() != spec.specId()) {
+      return null;
+    }
+    StructLike singlePartition = singlePartition(spec, manifest);
+    if (singlePartition != null) {
+      StructLikeSet partitions = StructLikeSet.create(spec.partitionType());
+      partitions.add(singlePartition);
+      return partitions;
+    }
+    return PARTITIONS_OF_MANIFEST.get(manifest.path(), path -> readPartitions(table, manifest));
+  }
+
+  private static StructLike singlePartition(PartitionSpec spec, ManifestFile manifest) {
+    List<ManifestFile.PartitionFieldSummary> summaries = manifest.partitions();
+    if (summaries == null || summaries.size() != spec.fields().size()) {
+      return null;
+    }
+    Types.StructType partitionType = spec.partitionType();
+    GenericRecord partition = GenericRecord.create(partitionType);
+    for (int i = 0; i < summaries.size(); i++) {
+      ManifestFile.PartitionFieldSummary summary = summaries.get(i);
+      if (summary.containsNull() || Boolean.TRUE.equals(summary.containsNaN()) ||
+          summary.lowerBound() == null || !summary.lowerBound().equals(summary.upperBound())) {
+        return null;
+      }
+      partition.set(i, Conversions.fromByteBuffer(partitionType.fields().get(i).type(), summary.lowerBound()));
+    }
+    return partition;
+  }
+
+  private static Set<StructLike> readPartitions(Table table, ManifestFile manifest) {
+    StructLikeSet partitions = StructLikeSet.create(table.spec().partitionType());
+    try (ManifestReader<DataFile> reader = ManifestFiles.read(manifest, table.io(), table.specs())
+        .select(ImmutableList.of(DataFile.PARTITION_NAME))) {
+      for (DataFile file : reader) {
+        // manifest reader reuses containers, copy the partition
+        partitions.add(file.copyWithoutStats().partition());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read partitions of manifest " + manifest.path(), e);
+    }
+    return partitions;
+  }
+}
@@ -46,6 +46,21 @@ public interface ChangeTableIncrementalScan {
    */
   ChangeTableIncrementalScan fromTransaction(StructLikeMap<Long> partitionTransactionId);
 
+  /**
+   * Config this scan to read data from {@code transactionId} exclusive for partitions without a TransactionId
+   * set by {@link #fromTransaction(StructLikeMap)}.
+   * @param transactionId from TransactionId for partitions without their own TransactionId
+   * @return this for method chaining
+   */
+  ChangeTableIncrementalScan fromTransaction(long transactionId);
+
+  /**
+   * Config this scan to read data to the snapshot inclusive instead of the current snapshot.
+   * @param snapshotId a snapshot id of the change table
+   * @return this for method chaining
+   */
+  ChangeTableIncrementalScan useSnapshot(long snapshotId);
+
 
   /**
    * Config this scan to read data from legacy {@code partitionTransactionId} exclusive to
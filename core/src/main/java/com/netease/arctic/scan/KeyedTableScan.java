@@ -21,6 +21,8 @@ package com.netease.arctic.scan;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.io.CloseableIterable;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * API for configuring a {@link com.netease.arctic.table.KeyedTable} scan.
  */
@@ -34,6 +36,60 @@ public interface KeyedTableScan {
    */
   KeyedTableScan filter(Expression expr);
 
+  /**
+   * Config this scan to plan partitions concurrently with the executor, the iceberg worker pool by default.
+   *
+   * Scans not supporting concurrent planning ignore the executor.
+   *
+   * @param executor an executor to plan partitions, or null to plan partitions in the calling thread
+   * @return scan based on this with partitions planned by the executor
+   */
+  default KeyedTableScan planWith(ExecutorService executor) {
+    return this;
+  }
+
+  /**
+   * Config this scan to read the table as of a snapshot of the base store or the change store. Both stores are
+   * read as of the commit time of the snapshot, see {@link #asOfTime(long)}.
+   *
+   * @param snapshotId a snapshot id of the base store or the change store
+   * @return scan based on this reading the table as of the snapshot
+   */
+  KeyedTableScan useSnapshot(long snapshotId);
+
+  /**
+   * Config this scan to read the table as of the time. The base store and the change store are read at their
+   * latest snapshots committed at or before the time, change files are filtered by the max transaction ids of
+   * partitions of the base store at the time.
+   *
+   * @param timestampMillis a timestamp in milliseconds
+   * @return scan based on this reading the table as of the time
+   */
+  KeyedTableScan asOfTime(long timestampMillis);
+
+  /**
+   * Config this scan to read only files added after the snapshot exclusive to the current snapshot inclusive,
+   * see {@link #appendsBetween(long, long)}.
+   *
+   * @param fromSnapshotId a snapshot id of the base store or the change store
+   * @return scan based on this reading files added after the snapshot
+   */
+  KeyedTableScan appendsAfter(long fromSnapshotId);
+
+  /**
+   * Config this scan to read only files added between the snapshots, from the commit time of
+   * {@code fromSnapshotId} exclusive to the commit time of {@code toSnapshotId} inclusive. Change files committed in
+   * the range and base files added in the range except by optimizing, which only rewrites existing data, are read
+   * and merged. Rows deleted in the range are not returned.
+   * Planning fails if change files of the range may be lost, that is the range starts before the change data ttl
+   * or a change store commit in the range removes files.
+   *
+   * @param fromSnapshotId a snapshot id of the base store or the change store
+   * @param toSnapshotId a snapshot id of the base store or the change store
+   * @return scan based on this reading files added between the snapshots
+   */
+  KeyedTableScan appendsBetween(long fromSnapshotId, long toSnapshotId);
+
   /**
    * Plan the {@link CombinedScanTask tasks} for this scan.
    *
@@ -19,6 +19,7 @@
 package com.netease.arctic.scan;
 
 import com.netease.arctic.IcebergFileEntry;
+import com.netease.arctic.IcebergFilePathEntry;
 import com.netease.arctic.utils.ManifestEntryFields;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
@@ -29,10 +30,13 @@ import org.apache.iceberg.FileContent;
 import org.apache.iceberg.FileMetadata;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.HasTableOperations;
+import org.apache.iceberg.ManifestFile;
 import org.apache.iceberg.MetadataTableType;
 import org.apache.iceberg.MetadataTableUtils;
 import org.apache.iceberg.Metrics;
+import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableScan;
@@ -41,9 +45,12 @@ import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.relocated.com.google.common.collect.Sets;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.ParallelIterable;
+import org.apache.iceberg.util.StructProjection;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -51,22 +58,38 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 /**
  * API for configuring a scan to get the {@link IcebergFileEntry} of an Iceberg Table.
+ * Manifests are read one by one unless a plan executor is set, then the order of entries is not guaranteed.
  */
 public class TableEntriesScan {
+  private static final List<String> COLUMN_STATS_FIELDS = Lists.newArrayList(
+      DataFile.COLUMN_SIZES.name(),
+      DataFile.VALUE_COUNTS.name(),
+      DataFile.NULL_VALUE_COUNTS.name(),
+      DataFile.NAN_VALUE_COUNTS.name(),
+      DataFile.LOWER_BOUNDS.name(),
+      DataFile.UPPER_BOUNDS.name());
+
   private final Table table;
   private final Long snapshotId;
   private final Expression dataFilter;
   private final boolean aliveEntry;
   private final boolean allFileContent;
   private final Set<FileContent> validFileContent;
+  private final boolean readColumnStats;
+  private final ExecutorService planExecutor;
+  private final Predicate<ManifestFile> manifestFilter;
 
   private Table entriesTable;
   private InclusiveMetricsEvaluator lazyMetricsEvaluator = null;
   private Map<String, Integer> lazyIndexOfDataFileType;
   private Map<String, Integer> lazyIndexOfEntryType;
+  private Types.StructType lazyPartitionType;
 
   public static Builder builder(Table table) {
     return new Builder(table);
@@ -77,6 +100,9 @@ public class TableEntriesScan {
     private Long snapshotId;
     private Expression dataFilter;
     private boolean aliveEntry = true;
+    private boolean includeColumnStats = true;
+    private ExecutorService planExecutor;
+    private Predicate<ManifestFile> manifestFilter;
     private final Set<FileContent> fileContents = Sets.newHashSet();
 
     public Builder(Table table) {
@@ -123,51 +149,185 @@ public class TableEntriesScan {
       return this;
     }
 
+    /**
+     * Skip reading column stats of files, stats are still read if the data filter needs them
+     * @return this for chain
+     */
+    public Builder withoutColumnStats() {
+      this.includeColumnStats = false;
+      return this;
+    }
+
+    /**
+     * Set the executor to read manifests concurrently, the executor must not be the one running the caller,
+     * or reading may starve when all of its threads wait for entries
+     * @param planExecutor default is null to read manifests one by one
+     * @return this for chain
+     */
+    public Builder planWith(ExecutorService planExecutor) {
+      this.planExecutor = planExecutor;
+      return this;
+    }
+
+    /**
+     * Set the filter of manifests, entries of manifests not matching the filter are skipped without reading
+     * @param manifestFilter default is reading all manifests
+     * @return this for chain
+     */
+    public Builder withManifestFilter(Predicate<ManifestFile> manifestFilter) {
+      this.manifestFilter = manifestFilter;
+      return this;
+    }
+
     public TableEntriesScan build() {
-      return new TableEntriesScan(table, snapshotId, dataFilter, aliveEntry, fileContents);
+      return new TableEntriesScan(table, snapshotId, dataFilter, aliveEntry, fileContents,
+          includeColumnStats, planExecutor, manifestFilter);
     }
   }
 
 
   public TableEntriesScan(Table table, Long snapshotId, Expression dataFilter, boolean aliveEntry,
                           Set<FileContent> validFileContent) {
+    this(table, snapshotId, dataFilter, aliveEntry, validFileContent, true, null, null);
+  }
+
+  public TableEntriesScan(Table table, Long snapshotId, Expression dataFilter, boolean aliveEntry,
+                          Set<FileContent> validFileContent, boolean includeColumnStats,
+                          ExecutorService planExecutor, Predicate<ManifestFile> manifestFilter) {
     this.table = table;
     this.dataFilter = dataFilter;
     this.aliveEntry = aliveEntry;
     this.allFileContent = validFileContent.containsAll(Arrays.asList(FileContent.values()));
     this.validFileContent = validFileContent;
     this.snapshotId = snapshotId;
+    this.readColumnStats = includeColumnStats || dataFilter != null;
+    this.planExecutor = planExecutor;
+    this.manifestFilter = manifestFilter;
   }
 
   public CloseableIterable<IcebergFileEntry> entries() {
-    TableScan tableScan = getEntriesTable().newScan();
+    return readEntries((entry, spec) -> {
+      StructLike fileRecord = keptFileRecord(entry);
+      if (fileRecord == null) {
+        return null;
+      }
+      ContentFile<?> contentFile = buildContentFile(fileContent(fileRecord), fileRecord, spec);
+      if (!metricsEvaluator().eval(contentFile)) {
+        return null;
+      }
+      return new IcebergFileEntry(snapshotIdOf(entry), sequenceNumberOf(entry), contentFile);
+    });
+  }
+
+  /**
+   * Return lightweight entries with only path, size and record count of files, no {@link ContentFile} is built
+   * unless the data filter needs to be evaluated.
+   */
+  public CloseableIterable<IcebergFilePathEntry> pathEntries() {
+    return readEntries((entry, spec) -> {
+      StructLike fileRecord = keptFileRecord(entry);
+      if (fileRecord == null) {
+        return null;
+      }
+      FileContent fileContent = fileContent(fileRecord);
+      if (dataFilter != null && !metricsEvaluator().eval(buildContentFile(fileContent, fileRecord, spec))) {
+        return null;
+      }
+      return new IcebergFilePathEntry(snapshotIdOf(entry), sequenceNumberOf(entry), fileContent,
+          fileRecord.get(dataFileFieldIndex(DataFile.FILE_PATH.name()), String.class),
+          fileRecord.get(dataFileFieldIndex(DataFile.FILE_SIZE.name()), Long.class),
+          fileRecord.get(dataFileFieldIndex(DataFile.RECORD_COUNT.name()), Long.class));
+    });
+  }
+
+  private <T> CloseableIterable<T> readEntries(BiFunction<StructLike, PartitionSpec, T> entryConverter) {
+    Snapshot snapshot = snapshotId == null ? table.currentSnapshot() : table.snapshot(snapshotId);
+    Map<String, ManifestFile> manifestsByPath = Maps.newHashMap();
+    if (snapshot != null) {
+      snapshot.allManifests().forEach(manifest -> manifestsByPath.put(manifest.path(), manifest));
+    }
+    // partitions of entries are of the partition type of all specs, only read them if any manifest is partitioned
+    boolean readPartition = snapshot == null ? table.spec().isPartitioned() :
+        manifestsByPath.values().stream().anyMatch(manifest -> specOf(manifest).isPartitioned());
+    TableScan tableScan = getEntriesTable().newScan().select(selectedColumns(readPartition));
     if (snapshotId != null) {
       tableScan = tableScan.useSnapshot(snapshotId);
     }
+    // init lazy fields before manifests are read concurrently
+    initFieldIndex(tableScan.schema());
+    metricsEvaluator();
+
     CloseableIterable<FileScanTask> manifestFileScanTasks = tableScan.planFiles();
+    if (manifestFilter != null) {
+      manifestFileScanTasks = CloseableIterable.filter(manifestFileScanTasks, task -> {
+        ManifestFile manifest = manifestsByPath.get(task.file().path().toString());
+        return manifest == null || manifestFilter.test(manifest);
+      });
+    }
+    // convert entries in the thread reading the manifest, as the manifest reader reuses entry containers
+    Iterable<CloseableIterable<T>> entriesOfManifests = Iterables.transform(manifestFileScanTasks, task -> {
+      ManifestFile manifest = manifestsByPath.get(task.file().path().toString());
+      PartitionSpec spec = manifest == null ? table.spec() : specOf(manifest);
+      return CloseableIterable.filter(
+          CloseableIterable.transform(((DataTask) task).rows(), entry -> entryConverter.apply(entry, spec)),
+          Objects::nonNull);
+    });
+    CloseableIterable<T> allEntries;
+    if (planExecutor != null) {
+      allEntries = new ParallelIterable<>(entriesOfManifests, planExecutor);
+    } else {
+      allEntries = CloseableIterable.concat(entriesOfManifests);
+    }
+    return CloseableIterable.combine(allEntries, manifestFileScanTasks);
+  }
+
+  private PartitionSpec specOf(ManifestFile manifest) {
+    PartitionSpec spec = table.specs().get(manifest.partitionSpecId());
+    return spec == null ? table.spec() : spec;
+  }
+
+  private List<String> selectedColumns(boolean readPartition) {
+    List<String> columns = Lists.newArrayList(
+        ManifestEntryFields.STATUS.name(),
+        ManifestEntryFields.SNAPSHOT_ID.name(),
+        ManifestEntryFields.SEQUENCE_NUMBER.name());
+    List<String> fileFields = Lists.newArrayList(
+        DataFile.CONTENT.name(),
+        DataFile.FILE_PATH.name(),
+        DataFile.FILE_SIZE.name(),
+        DataFile.RECORD_COUNT.name());
+    if (readPartition) {
+      fileFields.add(DataFile.PARTITION_NAME);
+    }
+    if (readColumnStats) {
+      fileFields.addAll(COLUMN_STATS_FIELDS);
+    }
+    fileFields.forEach(field -> columns.add(ManifestEntryFields.DATA_FILE_FIELD_NAME + "." + field));
+    return columns;
+  }
 
-    CloseableIterable<StructLike> entries = CloseableIterable.concat(entriesOfManifest(manifestFileScanTasks));
-
-    CloseableIterable<IcebergFileEntry> allEntries =
-        CloseableIterable.transform(entries, (entry -> {
-          ManifestEntryFields.Status status =
-              ManifestEntryFields.Status.of(
-                  entry.get(entryFieldIndex(ManifestEntryFields.STATUS.name()), Integer.class));
-          long sequence = entry.get(entryFieldIndex(ManifestEntryFields.SEQUENCE_NUMBER.name()), Long.class);
-          Long snapshotId = entry.get(entryFieldIndex(ManifestEntryFields.SNAPSHOT_ID.name()), Long.class);
-          StructLike fileRecord =
-              entry.get(entryFieldIndex(ManifestEntryFields.DATA_FILE_FIELD_NAME), StructLike.class);
-          FileContent fileContent =
-              getFileContent(fileRecord.get(dataFileFieldIndex(DataFile.CONTENT.name()), Integer.class));
-          if (shouldKeep(status, fileContent)) {
-            ContentFile<?> contentFile = buildContentFile(fileContent, fileRecord);
-            if (metricsEvaluator().eval(contentFile)) {
-              return new IcebergFileEntry(snapshotId, sequence, contentFile);
-            }
-          }
-          return null;
-        }));
-    return CloseableIterable.filter(allEntries, Objects::nonNull);
+  /**
+   * Return the file record of the entry if the entry should be kept, else return null
+   */
+  private StructLike keptFileRecord(StructLike entry) {
+    ManifestEntryFields.Status status =
+        ManifestEntryFields.Status.of(
+            entry.get(entryFieldIndex(ManifestEntryFields.STATUS.name()), Integer.class));
+    StructLike fileRecord =
+        entry.get(entryFieldIndex(ManifestEntryFields.DATA_FILE_FIELD_NAME), StructLike.class);
+    return shouldKeep(status, fileContent(fileRecord)) ? fileRecord : null;
+  }
+
+  private FileContent fileContent(StructLike fileRecord) {
+    return getFileContent(fileRecord.get(dataFileFieldIndex(DataFile.CONTENT.name()), Integer.class));
+  }
+
+  private long sequenceNumberOf(StructLike entry) {
+    return entry.get(entryFieldIndex(ManifestEntryFields.SEQUENCE_NUMBER.name()), Long.class);
+  }
+
+  private Long snapshotIdOf(StructLike entry) {
+    return entry.get(entryFieldIndex(ManifestEntryFields.SNAPSHOT_ID.name()), Long.class);
   }
 
   private Table getEntriesTable() {
@@ -198,52 +358,43 @@ public class TableEntriesScan {
     return validFileContent != null && validFileContent.contains(fileContent);
   }
 
-  private Iterable<CloseableIterable<StructLike>> entriesOfManifest(CloseableIterable<FileScanTask> fileScanTasks) {
-    return Iterables.transform(fileScanTasks, task -> {
-      assert task != null;
-      return ((DataTask) task).rows();
-    });
-  }
-
-  private ContentFile<?> buildContentFile(FileContent fileContent, StructLike fileRecord) {
+  private ContentFile<?> buildContentFile(FileContent fileContent, StructLike fileRecord, PartitionSpec spec) {
     ContentFile<?> file;
     if (fileContent == FileContent.DATA) {
-      file = buildDataFile(fileRecord);
+      file = buildDataFile(fileRecord, spec);
     } else {
-      file = buildDeleteFile(fileRecord, fileContent);
+      file = buildDeleteFile(fileRecord, fileContent, spec);
     }
     return file;
   }
 
 
-  private DataFile buildDataFile(StructLike fileRecord) {
+  private DataFile buildDataFile(StructLike fileRecord, PartitionSpec spec) {
     String filePath = fileRecord.get(dataFileFieldIndex(DataFile.FILE_PATH.name()), String.class);
     Long fileSize = fileRecord.get(dataFileFieldIndex(DataFile.FILE_SIZE.name()), Long.class);
     Long recordCount = fileRecord.get(dataFileFieldIndex(DataFile.RECORD_COUNT.name()), Long.class);
-    DataFiles.Builder builder = DataFiles.builder(table.spec())
+    DataFiles.Builder builder = DataFiles.builder(spec)
         .withPath(filePath)
         .withFileSizeInBytes(fileSize)
         .withRecordCount(recordCount)
         .withMetrics(buildMetrics(fileRecord));
-    if (table.spec().isPartitioned()) {
-      StructLike partition = fileRecord.get(dataFileFieldIndex(DataFile.PARTITION_NAME), StructLike.class);
-      builder.withPartition(partition);
+    if (spec.isPartitioned()) {
+      builder.withPartition(partitionOf(fileRecord, spec));
     }
     return builder.build();
   }
 
-  private DeleteFile buildDeleteFile(StructLike fileRecord, FileContent fileContent) {
+  private DeleteFile buildDeleteFile(StructLike fileRecord, FileContent fileContent, PartitionSpec spec) {
     String filePath = fileRecord.get(dataFileFieldIndex(DataFile.FILE_PATH.name()), String.class);
     Long fileSize = fileRecord.get(dataFileFieldIndex(DataFile.FILE_SIZE.name()), Long.class);
     Long recordCount = fileRecord.get(dataFileFieldIndex(DataFile.RECORD_COUNT.name()), Long.class);
-    FileMetadata.Builder builder = FileMetadata.deleteFileBuilder(table.spec())
+    FileMetadata.Builder builder = FileMetadata.deleteFileBuilder(spec)
         .withPath(filePath)
         .withFileSizeInBytes(fileSize)
         .withRecordCount(recordCount)
         .withMetrics(buildMetrics(fileRecord));
-    if (table.spec().isPartitioned()) {
-      StructLike partition = fileRecord.get(dataFileFieldIndex(DataFile.PARTITION_NAME), StructLike.class);
-      builder.withPartition(partition);
+    if (spec.isPartitioned()) {
+      builder.withPartition(partitionOf(fileRecord, spec));
     }
     if (fileContent == FileContent.EQUALITY_DELETES) {
       builder.ofEqualityDeletes();
@@ -253,8 +404,23 @@ public class TableEntriesScan {
     return builder.build();
   }
 
+  /**
+   * Project the partition of the file record, which is of the partition type of all specs, to the spec of the file
+   */
+  private StructLike partitionOf(StructLike fileRecord, PartitionSpec spec) {
+    StructLike partition = fileRecord.get(dataFileFieldIndex(DataFile.PARTITION_NAME), StructLike.class);
+    if (spec.partitionType().equals(lazyPartitionType)) {
+      return partition;
+    }
+    return StructProjection.create(lazyPartitionType, spec.partitionType()).wrap(partition);
+  }
+
   @SuppressWarnings("unchecked")
   private Metrics buildMetrics(StructLike dataFile) {
+    if (!readColumnStats) {
+      return new Metrics(dataFile.get(dataFileFieldIndex(DataFile.RECORD_COUNT.name()), Long.class),
+          null, null, null, null, null, null);
+    }
     return new Metrics(dataFile.get(dataFileFieldIndex(DataFile.RECORD_COUNT.name()), Long.class),
         (Map<Integer, Long>) dataFile.get(dataFileFieldIndex(DataFile.COLUMN_SIZES.name()), Map.class),
         (Map<Integer, Long>) dataFile.get(dataFileFieldIndex(DataFile.VALUE_COUNTS.name()), Map.class),
@@ -264,28 +430,31 @@ public class TableEntriesScan {
         (Map<Integer, ByteBuffer>) dataFile.get(dataFileFieldIndex(DataFile.UPPER_BOUNDS.name()), Map.class));
   }
 
-  private int entryFieldIndex(String fieldName) {
+  private void initFieldIndex(Schema projectedSchema) {
     if (lazyIndexOfEntryType == null) {
-      List<Types.NestedField> fields = getEntriesTable().schema().columns();
-      Map<String, Integer> map = Maps.newHashMap();
-      for (int i = 0; i < fields.size(); i++) {
-        map.put(fields.get(i).name(), i);
-      }
-      lazyIndexOfEntryType = map;
+      lazyIndexOfEntryType = indexOfFields(projectedSchema.columns());
+    }
+    if (lazyIndexOfDataFileType == null) {
+      Types.StructType dataFileType = projectedSchema.findType(ManifestEntryFields.DATA_FILE_FIELD_NAME).asStructType();
+      lazyIndexOfDataFileType = indexOfFields(dataFileType.fields());
+      Types.NestedField partitionField = dataFileType.field(DataFile.PARTITION_NAME);
+      lazyPartitionType = partitionField == null ? null : partitionField.type().asStructType();
     }
+  }
+
+  private static Map<String, Integer> indexOfFields(List<Types.NestedField> fields) {
+    Map<String, Integer> map = Maps.newHashMap();
+    for (int i = 0; i < fields.size(); i++) {
+      map.put(fields.get(i).name(), i);
+    }
+    return map;
+  }
+
+  private int entryFieldIndex(String fieldName) {
     return lazyIndexOfEntryType.get(fieldName);
   }
 
   private int dataFileFieldIndex(String fieldName) {
-    if (lazyIndexOfDataFileType == null) {
-      List<Types.NestedField> fields =
-          getEntriesTable().schema().findType(ManifestEntryFields.DATA_FILE_FIELD_NAME).asStructType().fields();
-      Map<String, Integer> map = Maps.newHashMap();
-      for (int i = 0; i < fields.size(); i++) {
-        map.put(fields.get(i).name(), i);
-      }
-      lazyIndexOfDataFileType = map;
-    }
     return lazyIndexOfDataFileType.get(fieldName);
   }
 
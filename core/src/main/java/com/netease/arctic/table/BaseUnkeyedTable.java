@@ -34,7 +34,6 @@ import com.netease.arctic.trace.TracedRewriteFiles;
 import com.netease.arctic.trace.TracedSchemaUpdate;
 import com.netease.arctic.trace.TracedTransaction;
 import com.netease.arctic.trace.TracedUpdateProperties;
-import com.netease.arctic.utils.TablePropertyUtil;
 import org.apache.iceberg.AppendFiles;
 import org.apache.iceberg.DeleteFiles;
 import org.apache.iceberg.ExpireSnapshots;
@@ -62,6 +61,7 @@ import org.apache.iceberg.UpdateProperties;
 import org.apache.iceberg.UpdateSchema;
 import org.apache.iceberg.encryption.EncryptionManager;
 import org.apache.iceberg.io.LocationProvider;
+import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.util.StructLikeMap;
 
 import java.util.List;
@@ -77,6 +77,7 @@ public class BaseUnkeyedTable implements UnkeyedTable, HasTableOperations {
   protected final ArcticFileIO arcticFileIO;
 
   private final AmsClient client;
+  private volatile PartitionPropertyIndex partitionPropertyIndex;
 
   public BaseUnkeyedTable(
       TableIdentifier tableIdentifier, Table icebergTable, ArcticFileIO arcticFileIO,
@@ -97,6 +98,7 @@ public class BaseUnkeyedTable implements UnkeyedTable, HasTableOperations {
   @Override
   public void refresh() {
     icebergTable.refresh();
+    partitionPropertyIndex = null;
   }
 
   @Override
@@ -312,12 +314,22 @@ public class BaseUnkeyedTable implements UnkeyedTable, HasTableOperations {
 
   @Override
   public StructLikeMap<Map<String, String>> partitionProperty() {
-    String s = icebergTable.properties().get(TableProperties.TABLE_PARTITION_PROPERTIES);
-    if (s != null) {
-      return TablePropertyUtil.decodePartitionProperties(spec(), s);
-    } else {
-      return StructLikeMap.create(spec().partitionType());
+    StructLikeMap<Map<String, String>> partitionProperty = StructLikeMap.create(spec().partitionType());
+    partitionPropertyIndex().properties().forEach((partition, properties) ->
+        partitionProperty.put(partition, Maps.newHashMap(properties)));
+    return partitionProperty;
+  }
+
+  @Override
+  public PartitionPropertyIndex partitionPropertyIndex() {
+    String encodedProperties = icebergTable.properties().get(TableProperties.TABLE_PARTITION_PROPERTIES);
+    PartitionSpec spec = spec();
+    PartitionPropertyIndex index = partitionPropertyIndex;
+    if (index == null || !index.isBuiltFrom(spec, encodedProperties)) {
+      index = PartitionPropertyIndex.of(spec, encodedProperties);
+      partitionPropertyIndex = index;
     }
+    return index;
   }
 
   @Override
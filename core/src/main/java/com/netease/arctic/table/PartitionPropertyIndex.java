@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.table;
+
+import com.netease.arctic.utils.TablePropertyUtil;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.util.StructLikeMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decoded partition properties of an {@link UnkeyedTable}, with transaction ids parsed to longs.
+ * An index is immutable and built only once for the same table metadata, maps returned by it must not be modified.
+ */
+public class PartitionPropertyIndex {
+
+  private final PartitionSpec spec;
+  private final String encodedProperties;
+  private final StructLikeMap<Map<String, String>> properties;
+  private final StructLikeMap<Long> maxTransactionIds;
+  private final StructLikeMap<Long> legacyMaxTransactionIds;
+
+  private PartitionPropertyIndex(
+      PartitionSpec spec, String encodedProperties, StructLikeMap<Map<String, String>> properties) {
+    this.spec = spec;
+    this.encodedProperties = encodedProperties;
+    this.properties = StructLikeMap.create(spec.partitionType());
+    this.maxTransactionIds = StructLikeMap.create(spec.partitionType());
+    this.legacyMaxTransactionIds = StructLikeMap.create(spec.partitionType());
+    properties.forEach((partition, propertyValue) -> {
+      this.properties.put(partition, propertyValue == null ? Collections.emptyMap() :
+          Collections.unmodifiableMap(propertyValue));
+      String maxTxId = propertyValue == null ? null : propertyValue.get(TableProperties.PARTITION_MAX_TRANSACTION_ID);
+      this.maxTransactionIds.put(partition, maxTxId == null ?
+          TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT : Long.parseLong(maxTxId));
+      String legacyMaxTxId = propertyValue == null ? null :
+          propertyValue.get(TableProperties.BASE_TABLE_MAX_TRANSACTION_ID);
+      if (legacyMaxTxId != null) {
+        this.legacyMaxTransactionIds.put(partition, Long.parseLong(legacyMaxTxId));
+      }
+    });
+  }
+
+  /**
+   * Build the index from the encoded value of {@link TableProperties#TABLE_PARTITION_PROPERTIES}.
+   *
+   * @param spec table partition spec
+   * @param encodedProperties encoded partition properties, null if the table has no partition properties
+   * @return the index of partition properties
+   */
+  public static PartitionPropertyIndex of(PartitionSpec spec, String encodedProperties) {
+    StructLikeMap<Map<String, String>> properties = encodedProperties == null ?
+        StructLikeMap.create(spec.partitionType()) :
+        TablePropertyUtil.decodePartitionProperties(spec, encodedProperties);
+    return new PartitionPropertyIndex(spec, encodedProperties, properties);
+  }
+
+  public static PartitionPropertyIndex of(PartitionSpec spec, StructLikeMap<Map<String, String>> properties) {
+    return new PartitionPropertyIndex(spec, null, properties);
+  }
+
+  /**
+   * Returns true if this index is built from the same spec and encoded partition properties.
+   */
+  public boolean isBuiltFrom(PartitionSpec spec, String encodedProperties) {
+    return this.spec.equals(spec) && Objects.equals(this.encodedProperties, encodedProperties);
+  }
+
+  /**
+   * Returns properties of all partitions.
+   */
+  public StructLikeMap<Map<String, String>> properties() {
+    return properties;
+  }
+
+  /**
+   * Returns properties of the partition, empty if the partition has no properties.
+   */
+  public Map<String, String> properties(StructLike partition) {
+    Map<String, String> partitionProperties = properties.get(partition);
+    return partitionProperties == null ? Collections.emptyMap() : partitionProperties;
+  }
+
+  /**
+   * Returns the property of the partition, null if not exists.
+   */
+  public String property(StructLike partition, String key) {
+    return properties(partition).get(key);
+  }
+
+  /**
+   * Returns max transaction id of all partitions with properties.
+   */
+  public StructLikeMap<Long> maxTransactionIds() {
+    return maxTransactionIds;
+  }
+
+  /**
+   * Returns legacy max transaction id of partitions which have it.
+   */
+  public StructLikeMap<Long> legacyMaxTransactionIds() {
+    return legacyMaxTransactionIds;
+  }
+
+  /**
+   * Returns max transaction id of the partition, {@link TableProperties#PARTITION_MAX_TRANSACTION_ID_DEFAULT}
+   * if not exists.
+   */
+  public long maxTransactionId(StructLike partition) {
+    Long maxTransactionId = maxTransactionIds.get(partition);
+    return maxTransactionId == null ? TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT : maxTransactionId;
+  }
+}
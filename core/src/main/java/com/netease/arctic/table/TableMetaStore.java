@@ -33,6 +33,7 @@ import org.apache.iceberg.relocated.com.google.common.base.Strings;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.relocated.com.google.common.hash.Hashing;
 import org.apache.iceberg.relocated.com.google.common.io.ByteStreams;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sun.security.krb5.KrbException;
@@ -45,6 +46,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
 import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -58,6 +60,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stores hadoop config files for {@link ArcticTable}
@@ -95,8 +101,12 @@ public class TableMetaStore implements Serializable {
   private final byte[] krbConf;
   private final String krbPrincipal;
 
-  private transient Configuration configuration;
-  private transient UserGroupInformation ugi;
+  // published to doAs without locking, and only replaced under the lock of this meta store
+  private transient volatile Configuration configuration;
+  private transient volatile UserGroupInformation ugi;
+  // set if the background re-login failed, the next doAs re-login synchronously to surface the error
+  private transient volatile boolean reloginRequired;
+  private transient ReloginTask reloginTask;
   private transient Path confCachePath;
   private transient boolean ugiNotSupportReflect = false;
   private transient boolean disableAuth;
@@ -108,6 +118,13 @@ public class TableMetaStore implements Serializable {
    */
   private static final Object lock = new Object();
 
+  /**
+   * Kerberos TGT of ugi is checked and renewed in background by this interval, instead of in every doAs.
+   */
+  private static final long RELOGIN_INTERVAL_SECONDS = 60;
+  private static final ScheduledExecutorService RELOGIN_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("table-meta-store-relogin-%d").build());
+
   public static final TableMetaStore EMPTY = TableMetaStore.builder()
       .withConfiguration(new Configuration()).buildForTest();
 
@@ -183,14 +200,36 @@ public class TableMetaStore implements Serializable {
     return hadoopUsername;
   }
 
-  public synchronized Configuration getConfiguration() {
-    if (configuration == null) {
-      configuration = buildConfiguration(this);
+  public Configuration getConfiguration() {
+    Configuration current = configuration;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (configuration == null) {
+        configuration = buildConfiguration(this);
+      }
+      return configuration;
     }
-    return configuration;
   }
 
-  public synchronized UserGroupInformation getUGI() {
+  public UserGroupInformation getUGI() {
+    UserGroupInformation current = ugi;
+    if (current != null && !reloginRequired && !kerberosSecurityDisabled()) {
+      return current;
+    }
+    return initOrReloginUGI();
+  }
+
+  /**
+   * Security of {@link UserGroupInformation} is process-wide, meta stores with simple auth disable it when
+   * initializing their ugi, so it is checked on every resolution of a kerberos ugi and enabled again under the lock.
+   */
+  private boolean kerberosSecurityDisabled() {
+    return TableMetaStore.AUTH_METHOD_KERBEROS.equals(authMethod) && !UserGroupInformation.isSecurityEnabled();
+  }
+
+  private synchronized UserGroupInformation initOrReloginUGI() {
     if (ugi == null) {
       String threadName = Thread.currentThread().getName();
       try {
@@ -211,78 +250,149 @@ public class TableMetaStore implements Serializable {
         } else if (TableMetaStore.AUTH_METHOD_KERBEROS.equals(authMethod)) {
           generateKrbConfPath();
           constructUgi();
+          scheduleRelogin();
           LOG.info("{} complete init ugi with {}", threadName, authMethod);
         }
       } catch (IOException | KrbException e) {
         throw new RuntimeException("Fail to init user group information", e);
       }
-    } else {
-      if (TableMetaStore.AUTH_METHOD_KERBEROS.equals(authMethod)) {
-        synchronized (UserGroupInformation.class) {
-          Field keytabPrincipalField = null;
-          Field keytabFileField = null;
-          String oldKeytabPrincipal = null;
-          String oldKeytabFile = null;
+    } else if (reloginRequired || kerberosSecurityDisabled()) {
+      reloginFromKeytab();
+      reloginRequired = false;
+    }
+    return ugi;
+  }
+
+  private void scheduleRelogin() {
+    if (reloginTask == null) {
+      reloginTask = new ReloginTask(this);
+      reloginTask.schedule(RELOGIN_EXECUTOR, RELOGIN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  private void backgroundRelogin() {
+    try {
+      synchronized (this) {
+        reloginFromKeytab();
+      }
+    } catch (Throwable t) {
+      LOG.warn("Failed to re-login from keytab for {} in background", krbPrincipal, t);
+      reloginRequired = true;
+    }
+  }
+
+  @VisibleForTesting
+  void markReloginRequired() {
+    reloginRequired = true;
+  }
+
+  @VisibleForTesting
+  boolean isReloginRequired() {
+    return reloginRequired;
+  }
+
+  /**
+   * Periodic re-login of a meta store. The meta store is only weakly referenced, so deserialized copies that are no
+   * longer used can be collected, and the task is cancelled once its meta store is collected.
+   */
+  @VisibleForTesting
+  static class ReloginTask implements Runnable {
+    private final WeakReference<TableMetaStore> metaStore;
+    private volatile ScheduledFuture<?> future;
+
+    ReloginTask(TableMetaStore metaStore) {
+      this(new WeakReference<>(metaStore));
+    }
+
+    @VisibleForTesting
+    ReloginTask(WeakReference<TableMetaStore> metaStore) {
+      this.metaStore = metaStore;
+    }
+
+    ScheduledFuture<?> schedule(ScheduledExecutorService executor, long interval, TimeUnit unit) {
+      future = executor.scheduleWithFixedDelay(this, interval, interval, unit);
+      return future;
+    }
+
+    @Override
+    public void run() {
+      TableMetaStore current = metaStore.get();
+      if (current == null) {
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+          scheduled.cancel(false);
+        }
+        return;
+      }
+      current.backgroundRelogin();
+    }
+  }
+
+  private void reloginFromKeytab() {
+    if (TableMetaStore.AUTH_METHOD_KERBEROS.equals(authMethod)) {
+      synchronized (UserGroupInformation.class) {
+        Field keytabPrincipalField = null;
+        Field keytabFileField = null;
+        String oldKeytabPrincipal = null;
+        String oldKeytabFile = null;
+        if (!ugiNotSupportReflect) {
+          try {
+            // use reflection to set private static field of UserGroupInformation for re-login
+            // to fix static field reuse bug before hadoop-common version 3.1.0
+            keytabPrincipalField = UserGroupInformation.class.getDeclaredField("keytabPrincipal");
+            keytabPrincipalField.setAccessible(true);
+            keytabFileField = UserGroupInformation.class.getDeclaredField("keytabFile");
+            keytabFileField.setAccessible(true);
+            oldKeytabPrincipal = (String) keytabPrincipalField.get(null);
+            oldKeytabFile = (String) keytabFileField.get(null);
+          } catch (NoSuchFieldException | IllegalAccessException e) {
+            ugiNotSupportReflect = true;
+            LOG.warn("cache reflection exception when get UserGroupInformation and not retry," +
+                " if hadoop-common version is 3.1.0+, ignore this message", e);
+          }
+        }
+
+        try {
+          if (!UserGroupInformation.isSecurityEnabled()) {
+            UserGroupInformation.setConfiguration(getConfiguration());
+            LOG.info(
+                "Reset authentication method to Kerberos. now security env is \n" +
+                    "isSecurityEnabled {}, AuthenticationMethod {}, isKeytab {}",
+                UserGroupInformation.isSecurityEnabled(),
+                ugi.getAuthenticationMethod().toString(),
+                ugi.isFromKeytab());
+          }
           if (!ugiNotSupportReflect) {
-            try {
-              // use reflection to set private static field of UserGroupInformation for re-login
-              // to fix static field reuse bug before hadoop-common version 3.1.0
-              keytabPrincipalField = UserGroupInformation.class.getDeclaredField("keytabPrincipal");
-              keytabPrincipalField.setAccessible(true);
-              keytabFileField = UserGroupInformation.class.getDeclaredField("keytabFile");
-              keytabFileField.setAccessible(true);
-              oldKeytabPrincipal = (String) keytabPrincipalField.get(null);
-              oldKeytabFile = (String) keytabFileField.get(null);
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-              ugiNotSupportReflect = true;
-              LOG.warn("cache reflection exception when get UserGroupInformation and not retry," +
-                  " if hadoop-common version is 3.1.0+, ignore this message", e);
+            if (keytabPrincipalField != null && keytabFileField != null) {
+              keytabPrincipalField.set(null, krbPrincipal);
+              keytabFileField.set(null, getConfPath(confCachePath, KEY_TAB_FILE_NAME));
             }
           }
 
+          if (!ugi.getAuthenticationMethod().toString().equals(authMethod) ||
+              !ugi.getUserName().equals(krbPrincipal)) {
+            LOG.info("current ugi is not equal target ugi need to reconstruct new ugi");
+            constructUgi();
+          }
+
+          ugi.checkTGTAndReloginFromKeytab();
+        } catch (Exception e) {
+          throw new RuntimeException("Re-login from keytab failed", e);
+        } finally {
           try {
-            if (!UserGroupInformation.isSecurityEnabled()) {
-              UserGroupInformation.setConfiguration(getConfiguration());
-              LOG.info(
-                  "Reset authentication method to Kerberos. now security env is \n" +
-                      "isSecurityEnabled {}, AuthenticationMethod {}, isKeytab {}",
-                  UserGroupInformation.isSecurityEnabled(),
-                  ugi.getAuthenticationMethod().toString(),
-                  ugi.isFromKeytab());
+            if (keytabPrincipalField != null) {
+              keytabPrincipalField.set(null, oldKeytabPrincipal);
             }
-            if (!ugiNotSupportReflect) {
-              if (keytabPrincipalField != null && keytabFileField != null) {
-                keytabPrincipalField.set(null, krbPrincipal);
-                keytabFileField.set(null, getConfPath(confCachePath, KEY_TAB_FILE_NAME));
-              }
-            }
-
-            if (!ugi.getAuthenticationMethod().toString().equals(authMethod) ||
-                !ugi.getUserName().equals(krbPrincipal)) {
-              LOG.info("current ugi is not equal target ugi need to reconstruct new ugi");
-              constructUgi();
+            if (keytabFileField != null) {
+              keytabFileField.set(null, oldKeytabFile);
             }
-
-            ugi.checkTGTAndReloginFromKeytab();
           } catch (Exception e) {
-            throw new RuntimeException("Re-login from keytab failed", e);
-          } finally {
-            try {
-              if (keytabPrincipalField != null) {
-                keytabPrincipalField.set(null, oldKeytabPrincipal);
-              }
-              if (keytabFileField != null) {
-                keytabFileField.set(null, oldKeytabFile);
-              }
-            } catch (Exception e) {
-              LOG.warn("failed to set UserGroupInformation static field back to {} {} ",
-                  oldKeytabPrincipal, oldKeytabFile, e);
-            }
+            LOG.warn("failed to set UserGroupInformation static field back to {} {} ",
+                oldKeytabPrincipal, oldKeytabFile, e);
           }
         }
       }
     }
-    return ugi;
   }
 
   private void constructUgi() throws IOException, KrbException {
@@ -302,8 +412,9 @@ public class TableMetaStore implements Serializable {
       LOG.debug("run with process ugi.");
       return doAsUgi(callable);
     }
-    LOG.debug("run with catalog ugi {}.", Objects.requireNonNull(getUGI()));
-    return Objects.requireNonNull(getUGI()).doAs((PrivilegedAction<T>) () -> doAsUgi(callable));
+    UserGroupInformation catalogUgi = Objects.requireNonNull(getUGI());
+    LOG.debug("run with catalog ugi {}.", catalogUgi);
+    return catalogUgi.doAs((PrivilegedAction<T>) () -> doAsUgi(callable));
   }
 
   /**
@@ -317,8 +428,9 @@ public class TableMetaStore implements Serializable {
       return doAsUgi(callable);
     }
     // create proxy user ugi and execute
-    UserGroupInformation proxyUgi = UserGroupInformation.createProxyUser(proxyUser, Objects.requireNonNull(getUGI()));
-    LOG.debug("proxy user {} with catalog ugi {}, and run with ugi {}.", proxyUser, getUGI(), proxyUgi);
+    UserGroupInformation catalogUgi = Objects.requireNonNull(getUGI());
+    UserGroupInformation proxyUgi = UserGroupInformation.createProxyUser(proxyUser, catalogUgi);
+    LOG.debug("proxy user {} with catalog ugi {}, and run with ugi {}.", proxyUser, catalogUgi, proxyUgi);
     return proxyUgi.doAs((PrivilegedAction<T>) () -> doAsUgi(callable));
   }
 
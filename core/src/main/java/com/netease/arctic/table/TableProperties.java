@@ -111,6 +111,20 @@ public class TableProperties {
   
   public static final String SELF_OPTIMIZING_FULL_TRIGGER_INTERVAL = "self-optimizing.full.trigger.interval";
   public static final long SELF_OPTIMIZING_FULL_TRIGGER_INTERVAL_DEFAULT = -1; // not trigger
+
+  /**
+   * columns rows are clustered by in full optimizing, separated by comma, not cluster if not set
+   */
+  public static final String SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS = "self-optimizing.full.cluster.columns";
+
+  /**
+   * how rows are clustered by cluster columns, linear or zorder
+   */
+  public static final String SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY = "self-optimizing.full.cluster.strategy";
+  public static final String SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_LINEAR = "linear";
+  public static final String SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_ZORDER = "zorder";
+  public static final String SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_DEFAULT =
+      SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_LINEAR;
   
   
   /**
@@ -35,6 +35,13 @@ public interface UnkeyedTable extends ArcticTable, Table {
    */
   StructLikeMap<Map<String, String>> partitionProperty();
 
+  /**
+   * Returns the decoded partition properties, which is shared by callers and must not be modified.
+   */
+  default PartitionPropertyIndex partitionPropertyIndex() {
+    return PartitionPropertyIndex.of(spec(), partitionProperty());
+  }
+
   /**
    * Create a new {@link UpdatePartitionProperties} to update partition properties and commit the changes.
    *
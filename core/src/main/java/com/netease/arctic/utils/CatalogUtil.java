@@ -24,6 +24,9 @@ import com.netease.arctic.ams.api.properties.TableFormat;
 import com.netease.arctic.catalog.ArcticCatalog;
 import com.netease.arctic.catalog.BaseIcebergCatalog;
 import com.netease.arctic.io.ArcticFileIO;
+import com.netease.arctic.io.ArcticHadoopFileIO;
+import com.netease.arctic.io.CachedArcticHadoopFileIO;
+import com.netease.arctic.io.FileContentCache;
 import com.netease.arctic.op.ArcticHadoopTableOperations;
 import com.netease.arctic.op.ArcticTableOperations;
 import com.netease.arctic.table.TableMetaStore;
@@ -150,6 +153,27 @@ public class CatalogUtil {
     return builder.build();
   }
 
+  /**
+   * Build {@link ArcticFileIO} to read and write tables of the catalog, contents of manifests and delete files are
+   * cached if {@link CatalogMetaProperties#FILE_CACHE_ENABLED} is set in catalog properties.
+   */
+  public static ArcticFileIO buildFileIO(TableMetaStore tableMetaStore, Map<String, String> catalogProperties) {
+    if (catalogProperties == null || !PropertyUtil.propertyAsBoolean(catalogProperties,
+        CatalogMetaProperties.FILE_CACHE_ENABLED, CatalogMetaProperties.FILE_CACHE_ENABLED_DEFAULT)) {
+      return new ArcticHadoopFileIO(tableMetaStore);
+    }
+    FileContentCache cache = FileContentCache.getOrCreate(
+        PropertyUtil.propertyAsLong(catalogProperties, CatalogMetaProperties.FILE_CACHE_MEMORY_CAPACITY,
+            CatalogMetaProperties.FILE_CACHE_MEMORY_CAPACITY_DEFAULT),
+        PropertyUtil.propertyAsLong(catalogProperties, CatalogMetaProperties.FILE_CACHE_DISK_CAPACITY,
+            CatalogMetaProperties.FILE_CACHE_DISK_CAPACITY_DEFAULT),
+        catalogProperties.getOrDefault(CatalogMetaProperties.FILE_CACHE_DISK_PATH,
+            System.getProperty("java.io.tmpdir")),
+        PropertyUtil.propertyAsLong(catalogProperties, CatalogMetaProperties.FILE_CACHE_MAX_FILE_SIZE,
+            CatalogMetaProperties.FILE_CACHE_MAX_FILE_SIZE_DEFAULT));
+    return new CachedArcticHadoopFileIO(tableMetaStore, cache);
+  }
+
   /**
    * Wrap table operation with arctic authorization logic for {@link Table}.
    */
@@ -23,16 +23,23 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netease.arctic.table.ChangeTable;
 import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.PartitionPropertyIndex;
 import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.table.UnkeyedTable;
+import org.apache.iceberg.HasTableOperations;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StructLike;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
 import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.util.StructLikeMap;
 
 import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -104,35 +111,53 @@ public class TablePropertyUtil {
     return value;
   }
 
+  /**
+   * Returns a copy of max transaction id of each partition, use
+   * {@link com.netease.arctic.table.PartitionPropertyIndex#maxTransactionIds()} if the result is read only.
+   */
   public static StructLikeMap<Long> getPartitionMaxTransactionId(KeyedTable keyedTable) {
     StructLikeMap<Long> baseTableMaxTransactionId = StructLikeMap.create(keyedTable.spec().partitionType());
-
-    StructLikeMap<Map<String, String>> partitionProperty = keyedTable.asKeyedTable().baseTable().partitionProperty();
-    partitionProperty.forEach((partitionKey, propertyValue) -> {
-      Long maxTxId = (propertyValue == null ||
-          propertyValue.get(TableProperties.PARTITION_MAX_TRANSACTION_ID) == null) ?
-          TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT :
-          Long.parseLong(propertyValue.get(TableProperties.PARTITION_MAX_TRANSACTION_ID));
-      baseTableMaxTransactionId.put(partitionKey, maxTxId);
-    });
-
+    baseTableMaxTransactionId.putAll(keyedTable.baseTable().partitionPropertyIndex().maxTransactionIds());
     return baseTableMaxTransactionId;
   }
 
+  /**
+   * Returns a copy of legacy max transaction id of each partition, use
+   * {@link com.netease.arctic.table.PartitionPropertyIndex#legacyMaxTransactionIds()} if the result is read only.
+   */
   public static StructLikeMap<Long> getLegacyPartitionMaxTransactionId(KeyedTable keyedTable) {
     StructLikeMap<Long> baseTableMaxTransactionId = StructLikeMap.create(keyedTable.spec().partitionType());
+    baseTableMaxTransactionId.putAll(keyedTable.baseTable().partitionPropertyIndex().legacyMaxTransactionIds());
+    return baseTableMaxTransactionId;
+  }
 
-    StructLikeMap<Map<String, String>> partitionProperty = keyedTable.asKeyedTable().baseTable().partitionProperty();
-    partitionProperty.forEach((partitionKey, propertyValue) -> {
-      Long maxTxId = (propertyValue == null ||
-          propertyValue.get(TableProperties.BASE_TABLE_MAX_TRANSACTION_ID) == null) ?
-          null : Long.parseLong(propertyValue.get(TableProperties.BASE_TABLE_MAX_TRANSACTION_ID));
-      if (maxTxId != null) {
-        baseTableMaxTransactionId.put(partitionKey, maxTxId);
+  /**
+   * Returns partition properties of the table as of the time, decoded from the metadata file current at the time.
+   *
+   * @param table an unkeyed table
+   * @param timestampMillis a timestamp in milliseconds
+   * @return the index of partition properties as of the time
+   * @throws IllegalArgumentException if the metadata file current at the time is not in the metadata log anymore
+   */
+  public static PartitionPropertyIndex getPartitionPropertyIndexAsOf(UnkeyedTable table, long timestampMillis) {
+    Preconditions.checkArgument(table instanceof HasTableOperations,
+        "Cannot read metadata history of table %s", table.id());
+    TableMetadata current = ((HasTableOperations) table).operations().current();
+    if (current.lastUpdatedMillis() <= timestampMillis) {
+      return table.partitionPropertyIndex();
+    }
+    List<TableMetadata.MetadataLogEntry> previousFiles = current.previousFiles();
+    for (int i = previousFiles.size() - 1; i >= 0; i--) {
+      TableMetadata.MetadataLogEntry entry = previousFiles.get(i);
+      if (entry.timestampMillis() <= timestampMillis) {
+        TableMetadata metadata = TableMetadataParser.read(table.io(), entry.file());
+        return PartitionPropertyIndex.of(metadata.spec(),
+            metadata.properties().get(TableProperties.TABLE_PARTITION_PROPERTIES));
       }
-    });
-
-    return baseTableMaxTransactionId;
+    }
+    throw new IllegalArgumentException(String.format(
+        "Cannot find metadata of table %s as of %s, it is removed from the metadata log", table.id(),
+        timestampMillis));
   }
 
   public static long allocateTransactionId(KeyedTable keyedTable) {
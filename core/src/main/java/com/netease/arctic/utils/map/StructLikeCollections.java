@@ -33,6 +33,10 @@ public class StructLikeCollections {
     }
   }
 
+  public boolean isSpillable() {
+    return maxInMemorySizeInBytes != null;
+  }
+
   public StructLikeBaseMap createStructLikeMap(Types.StructType type) {
     if (maxInMemorySizeInBytes == null) {
       return StructLikeMemoryMap.create(type);
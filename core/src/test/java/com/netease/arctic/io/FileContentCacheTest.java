@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io;
+
+import org.apache.iceberg.Files;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.SeekableInputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class FileContentCacheTest {
+  private static final Object OWNER = "catalog";
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testMemoryAndDiskTiers() throws IOException {
+    // memory holds only one of the files
+    FileContentCache cache = FileContentCache.getOrCreate(15, 1024, temp.newFolder().getPath(), 1024);
+    InputFile file1 = new CachedInputFile(newFile("0123456789"), cache, OWNER);
+    InputFile file2 = new CachedInputFile(newFile("abcdefghij"), cache, OWNER);
+
+    Assert.assertEquals("0123456789", read(file1));
+    Assert.assertEquals("0123456789", read(file1));
+    Assert.assertEquals(1, cache.stats().misses());
+    Assert.assertEquals(1, cache.stats().memoryHits());
+
+    Assert.assertEquals("abcdefghij", read(file2));
+    Assert.assertEquals(1, cache.stats().evictions());
+    Assert.assertEquals("0123456789", read(file1));
+    Assert.assertEquals(2, cache.stats().misses());
+    Assert.assertEquals(1, cache.stats().diskHits());
+    Assert.assertEquals(20, cache.stats().diskSize());
+  }
+
+  @Test
+  public void testSeekCachedFile() throws IOException {
+    FileContentCache cache = FileContentCache.getOrCreate(1024, 0, temp.getRoot().getPath(), 1024);
+    InputFile file = new CachedInputFile(newFile("0123456789"), cache, OWNER);
+    try (SeekableInputStream in = file.newStream()) {
+      in.seek(6);
+      Assert.assertEquals('6', in.read());
+      Assert.assertEquals(7, in.getPos());
+      byte[] bytes = new byte[8];
+      Assert.assertEquals(3, in.read(bytes, 0, bytes.length));
+      Assert.assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  public void testSkipLargeFile() throws IOException {
+    FileContentCache cache = FileContentCache.getOrCreate(1024, 0, temp.getRoot().getPath(), 5);
+    InputFile file = new CachedInputFile(newFile("0123456789"), cache, OWNER);
+    Assert.assertEquals("0123456789", read(file));
+    Assert.assertEquals(0, cache.stats().misses());
+  }
+
+  @Test
+  public void testReadCachedFileWithoutLength() throws IOException {
+    FileContentCache cache = FileContentCache.getOrCreate(1024, 0, temp.getRoot().getPath(), 1024);
+    LengthCountingInputFile file = new LengthCountingInputFile(newFile("0123456789"));
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, OWNER)));
+    Assert.assertEquals(1, file.lengthCalls);
+
+    // lengths of cached files are known by the cache
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, OWNER)));
+    Assert.assertEquals(1, file.lengthCalls);
+    Assert.assertEquals(1, cache.stats().memoryHits());
+
+    // lengths known by callers are used as they are
+    LengthCountingInputFile otherFile = new LengthCountingInputFile(newFile("abcdefghij"));
+    Assert.assertEquals("abcdefghij", read(new CachedInputFile(otherFile, cache, OWNER, 10L)));
+    Assert.assertEquals(0, otherFile.lengthCalls);
+  }
+
+  @Test
+  public void testCloseLeastRecentlyUsedCache() throws IOException {
+    FileContentCache cache = FileContentCache.getOrCreate(1024, 1024, temp.newFolder().getPath(), 1024);
+    InputFile file = newFile("0123456789");
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, OWNER)));
+    Assert.assertEquals(10, cache.stats().diskSize());
+
+    for (int i = 0; i < FileContentCache.MAX_CACHES; i++) {
+      FileContentCache.getOrCreate(1024, 0, temp.newFolder().getPath(), 1024);
+    }
+    Assert.assertTrue(cache.isClosed());
+    Assert.assertEquals(0, cache.stats().memorySize());
+    Assert.assertEquals(0, cache.stats().diskSize());
+    Assert.assertFalse(cache.cacheable(10));
+    // files of a closed cache are read from the file system
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, OWNER)));
+    Assert.assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  public void testCacheFilesByOwner() throws IOException {
+    FileContentCache cache = FileContentCache.getOrCreate(1024, 0, temp.getRoot().getPath(), 1024);
+    InputFile file = newFile("0123456789");
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, "catalog1")));
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, new String("catalog1"))));
+    Assert.assertEquals(1, cache.stats().misses());
+    Assert.assertEquals(1, cache.stats().memoryHits());
+
+    // file ios of another catalog may see another file at the same path
+    Assert.assertNull(cache.cachedLength("catalog2", file.location()));
+    Assert.assertEquals("0123456789", read(new CachedInputFile(file, cache, "catalog2")));
+    Assert.assertEquals(2, cache.stats().misses());
+    Assert.assertEquals(20, cache.stats().memorySize());
+  }
+
+  private InputFile newFile(String content) throws IOException {
+    File file = temp.newFile();
+    java.nio.file.Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return Files.localInput(file);
+  }
+
+  private static String read(InputFile file) throws IOException {
+    byte[] bytes = new byte[(int) file.getLength()];
+    try (SeekableInputStream in = file.newStream()) {
+      int offset = 0;
+      while (offset < bytes.length) {
+        offset += in.read(bytes, offset, bytes.length - offset);
+      }
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static class LengthCountingInputFile implements InputFile {
+    private final InputFile file;
+    private int lengthCalls;
+
+    private LengthCountingInputFile(InputFile file) {
+      this.file = file;
+    }
+
+    @Override
+    public long getLength() {
+      lengthCalls++;
+      return file.getLength();
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+      return file.newStream();
+    }
+
+    @Override
+    public String location() {
+      return file.location();
+    }
+
+    @Override
+    public boolean exists() {
+      return file.exists();
+    }
+  }
+}
@@ -20,6 +20,7 @@ package com.netease.arctic.io;
 
 import com.google.common.collect.Sets;
 import com.netease.arctic.io.reader.BaseIcebergPosDeleteReader;
+import com.netease.arctic.io.reader.EqualityDeleteIndexCache;
 import com.netease.arctic.io.reader.GenericArcticDataReader;
 import com.netease.arctic.io.reader.GenericIcebergDataReader;
 import com.netease.arctic.scan.ArcticFileScanTask;
@@ -261,4 +262,42 @@ public class TaskReaderTest extends TableTestBaseWithInitData {
     Set<Integer> rightIds = Sets.newHashSet(5);
     Assert.assertEquals(rightIds, resultIds);
   }
+
+  @Test
+  public void testReadSharesEqualityDeleteIndex() throws Exception {
+    Schema schema = testKeyedTable.schema();
+    GenericArcticDataReader genericArcticDataReader = new GenericArcticDataReader(
+        testKeyedTable.io(),
+        schema,
+        schema,
+        testKeyedTable.primaryKeySpec(),
+        null,
+        true,
+        IdentityPartitionConverters::convertConstant
+    );
+    EqualityDeleteIndexCache.invalidateAll();
+    long misses = EqualityDeleteIndexCache.missCount();
+    long hits = EqualityDeleteIndexCache.hitCount();
+    int readTimes = 2;
+    int tasksWithEqDeletes = 0;
+    for (int i = 0; i < readTimes; i++) {
+      tasksWithEqDeletes = 0;
+      try (CloseableIterable<CombinedScanTask> combinedScanTasks = testKeyedTable.newScan().planTasks()) {
+        for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+          for (KeyedTableScanTask keyedTableScanTask : combinedScanTask.tasks()) {
+            if (!keyedTableScanTask.arcticEquityDeletes().isEmpty()) {
+              tasksWithEqDeletes++;
+            }
+            try (CloseableIterator<Record> records = genericArcticDataReader.readData(keyedTableScanTask)) {
+              records.forEachRemaining(record -> { });
+            }
+          }
+        }
+      }
+    }
+    Assert.assertTrue(tasksWithEqDeletes > 0);
+    long loads = EqualityDeleteIndexCache.missCount() - misses;
+    Assert.assertTrue(loads <= tasksWithEqDeletes);
+    Assert.assertEquals(tasksWithEqDeletes * readTimes - loads, EqualityDeleteIndexCache.hitCount() - hits);
+  }
 }
@@ -24,6 +24,7 @@ import com.netease.arctic.io.writer.GenericChangeTaskWriter;
 import com.netease.arctic.io.writer.GenericTaskWriters;
 import com.netease.arctic.io.writer.SortedPosDeleteWriter;
 import com.netease.arctic.utils.ManifestEntryFields;
+import com.netease.arctic.utils.TableFileUtils;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.MetadataColumns;
@@ -41,6 +42,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +61,27 @@ public class TaskWriterTest extends TableTestBase {
     Assert.assertEquals(4, result.dataFiles().length);
   }
 
+  @Test
+  public void testBaseWriterInterleavedPartitions() throws IOException {
+    GenericBaseTaskWriter writer = GenericTaskWriters.builderFor(testKeyedTable)
+        .withTransactionId(1L).buildBaseWriter();
+
+    // rows of the same partition and node are written to the same file, even if rows of partitions are interleaved
+    List<Record> records = writeRecords();
+    for (int i = 0; i < 3; i++) {
+      for (Record record : records) {
+        writer.write(record);
+      }
+    }
+    WriteResult result = writer.complete();
+    Assert.assertEquals(4, result.dataFiles().length);
+    Assert.assertEquals(records.size() * 3,
+        Arrays.stream(result.dataFiles()).mapToLong(DataFile::recordCount).sum());
+    Assert.assertEquals(4, Arrays.stream(result.dataFiles())
+        .map(file -> file.partition().toString() + TableFileUtils.parseFileNodeFromFileName(file.path().toString()))
+        .distinct().count());
+  }
+
   @Test
   public void testBasePosDeleteWriter() throws IOException {
     SortedPosDeleteWriter<Record> writer = GenericTaskWriters.builderFor(testKeyedTable)
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.io.reader;
+
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EqualityDeleteIndexCacheTest {
+
+  private static final Types.StructType PRIMARY_KEY_TYPE =
+      Types.StructType.of(Types.NestedField.required(1, "id", Types.IntegerType.get()));
+  private static final String FILE_IO = "file-io";
+
+  @After
+  public void invalidate() {
+    EqualityDeleteIndexCache.invalidateAll();
+  }
+
+  @Test
+  public void testLoadOnceForConcurrentReaders() throws Exception {
+    List<String> paths = deleteFilePaths();
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<EqualityDeleteIndexCache.Handle>> handles = Lists.newArrayList();
+      for (int i = 0; i < 4; i++) {
+        handles.add(executor.submit(() -> {
+          start.await();
+          return EqualityDeleteIndexCache.acquire(FILE_IO, paths, null, PRIMARY_KEY_TYPE, map -> {
+            loads.incrementAndGet();
+            sleep(200);
+            return 0;
+          });
+        }));
+      }
+      start.countDown();
+
+      EqualityDeleteIndexCache.Handle first = handles.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<EqualityDeleteIndexCache.Handle> handle : handles) {
+        try (EqualityDeleteIndexCache.Handle acquired = handle.get(10, TimeUnit.SECONDS)) {
+          Assert.assertSame(first.map(), acquired.map());
+        }
+      }
+      Assert.assertEquals(1, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testAcquireOtherIndexWhileLoading() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch finishLoading = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<EqualityDeleteIndexCache.Handle> slowHandle = executor.submit(() ->
+          EqualityDeleteIndexCache.acquire(FILE_IO, deleteFilePaths(), null, PRIMARY_KEY_TYPE, map -> {
+            loading.countDown();
+            try {
+              finishLoading.await();
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            return 0;
+          }));
+      Assert.assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+      // loading delete files of one index does not block readers of other indexes
+      try (EqualityDeleteIndexCache.Handle handle =
+               EqualityDeleteIndexCache.acquire(FILE_IO, deleteFilePaths(), null, PRIMARY_KEY_TYPE, map -> 0)) {
+        Assert.assertNotNull(handle.map());
+        Assert.assertFalse(slowHandle.isDone());
+      }
+
+      finishLoading.countDown();
+      slowHandle.get(10, TimeUnit.SECONDS).close();
+    } finally {
+      finishLoading.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLoadAgainAfterFailure() throws Exception {
+    List<String> paths = deleteFilePaths();
+    Assert.assertThrows(IllegalStateException.class, () -> EqualityDeleteIndexCache.acquire(
+        FILE_IO, paths, null, PRIMARY_KEY_TYPE, map -> {
+          throw new IllegalStateException("failed to read delete files");
+        }));
+
+    AtomicInteger loads = new AtomicInteger();
+    try (EqualityDeleteIndexCache.Handle handle = EqualityDeleteIndexCache.acquire(
+        FILE_IO, paths, null, PRIMARY_KEY_TYPE, map -> loads.incrementAndGet())) {
+      Assert.assertNotNull(handle.map());
+    }
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testNotShareIndexBetweenFileIos() throws Exception {
+    List<String> paths = deleteFilePaths();
+    AtomicInteger loads = new AtomicInteger();
+    try (EqualityDeleteIndexCache.Handle handle = EqualityDeleteIndexCache.acquire(
+        FILE_IO, paths, null, PRIMARY_KEY_TYPE, map -> loads.incrementAndGet());
+         EqualityDeleteIndexCache.Handle otherHandle = EqualityDeleteIndexCache.acquire(
+             "other-file-io", paths, null, PRIMARY_KEY_TYPE, map -> loads.incrementAndGet())) {
+      Assert.assertNotSame(handle.map(), otherHandle.map());
+    }
+    Assert.assertEquals(2, loads.get());
+  }
+
+  private static List<String> deleteFilePaths() {
+    return ImmutableList.of("/tmp/table/change/" + UUID.randomUUID() + ".parquet");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -19,7 +19,12 @@
 package com.netease.arctic.op;
 
 import com.netease.arctic.TableTestBase;
+import com.netease.arctic.table.PartitionPropertyIndex;
+import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.utils.TablePropertyUtil;
+import org.apache.iceberg.HasTableOperations;
 import org.apache.iceberg.StructLike;
+import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.Transaction;
 import org.apache.iceberg.data.GenericRecord;
 import org.apache.iceberg.util.StructLikeMap;
@@ -57,4 +62,49 @@ public class UpdatePartitionPropertiesTest extends TableTestBase {
     Assert.assertEquals(1, partitionProperties.size());
     Assert.assertEquals("value", partitionProperties.get(p0).get("key"));
   }
+
+  @Test
+  public void testPartitionPropertyIndexReusedUntilPropertiesChange() {
+    PartitionPropertyIndex index = testTable.partitionPropertyIndex();
+    Assert.assertSame(index, testTable.partitionPropertyIndex());
+    StructLike p0 = GenericRecord.create(SPEC.partitionType());
+    p0.set(0, 1200);
+    testTable.updatePartitionProperties(null).set(p0, TableProperties.PARTITION_MAX_TRANSACTION_ID, "5").commit();
+    PartitionPropertyIndex updated = testTable.partitionPropertyIndex();
+    Assert.assertNotSame(index, updated);
+    Assert.assertSame(updated, testTable.partitionPropertyIndex());
+    Assert.assertEquals(5L, updated.maxTransactionId(p0));
+    Assert.assertEquals("5", updated.property(p0, TableProperties.PARTITION_MAX_TRANSACTION_ID));
+
+    // partitionProperty() returns a copy, modifying it does not change the index
+    testTable.partitionProperty().get(p0).put("key", "value");
+    Assert.assertNull(testTable.partitionPropertyIndex().property(p0, "key"));
+  }
+
+  @Test
+  public void testPartitionPropertyIndexAsOf() throws InterruptedException {
+    StructLike p0 = GenericRecord.create(SPEC.partitionType());
+    p0.set(0, 1200);
+    testTable.updatePartitionProperties(null).set(p0, TableProperties.PARTITION_MAX_TRANSACTION_ID, "5").commit();
+    long firstUpdateTime = currentMetadata().lastUpdatedMillis();
+    Thread.sleep(10);
+    testTable.updatePartitionProperties(null).set(p0, TableProperties.PARTITION_MAX_TRANSACTION_ID, "8").commit();
+    long secondUpdateTime = currentMetadata().lastUpdatedMillis();
+
+    Assert.assertEquals(5L, TablePropertyUtil.getPartitionPropertyIndexAsOf(testTable, firstUpdateTime)
+        .maxTransactionId(p0));
+    Assert.assertEquals(5L, TablePropertyUtil.getPartitionPropertyIndexAsOf(testTable, secondUpdateTime - 1)
+        .maxTransactionId(p0));
+    Assert.assertEquals(8L, TablePropertyUtil.getPartitionPropertyIndexAsOf(testTable, secondUpdateTime)
+        .maxTransactionId(p0));
+
+    // the metadata before the table is created is never in the metadata log
+    long createTime = currentMetadata().previousFiles().get(0).timestampMillis();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> TablePropertyUtil.getPartitionPropertyIndexAsOf(testTable, createTime - 1));
+  }
+
+  private TableMetadata currentMetadata() {
+    return ((HasTableOperations) testTable).operations().current();
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netease.arctic.scan;
+
+import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.io.TableTestBaseWithInitData;
+import com.netease.arctic.table.ChangeTable;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.util.StructLikeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class BaseChangeTableIncrementalScanTest extends TableTestBaseWithInitData {
+
+  @Test
+  public void testScanWithoutTransaction() {
+    ChangeTable changeTable = testKeyedTable.changeTable();
+    Assert.assertEquals(3, planFiles(changeTable, StructLikeMap.create(changeTable.spec().partitionType())).size());
+  }
+
+  @Test
+  public void testSkipFilesOlderThanPartitionTransaction() {
+    // change table commit 2 insert files with sequence 1, then commit 1 delete file with sequence 2,
+    // all in partition op_time_day=2022-01-01
+    ChangeTable changeTable = testKeyedTable.changeTable();
+    StructLike partition = planFiles(changeTable, StructLikeMap.create(changeTable.spec().partitionType()))
+        .get(0).file().partition();
+
+    StructLikeMap<Long> fromTransaction = StructLikeMap.create(changeTable.spec().partitionType());
+    fromTransaction.put(partition, 1L);
+    List<ArcticFileScanTask> tasks = planFiles(changeTable, fromTransaction);
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(DataFileType.EQ_DELETE_FILE, tasks.get(0).fileType());
+
+    fromTransaction.put(partition, 2L);
+    Assert.assertEquals(0, planFiles(changeTable, fromTransaction).size());
+  }
+
+  @Test
+  public void testKeepFilesOfPartitionWithoutTransaction() {
+    ChangeTable changeTable = testKeyedTable.changeTable();
+    StructLike partition = planFiles(changeTable, StructLikeMap.create(changeTable.spec().partitionType()))
+        .get(0).file().partition();
+    StructLike otherPartition = dataFileForPositionDelete.partition();
+    Assert.assertNotEquals(partition.get(0, Integer.class), otherPartition.get(0, Integer.class));
+
+    StructLikeMap<Long> fromTransaction = StructLikeMap.create(changeTable.spec().partitionType());
+    fromTransaction.put(otherPartition, 5L);
+    Assert.assertEquals(3, planFiles(changeTable, fromTransaction).size());
+  }
+
+  @Test
+  public void testScanFromTransactionOfAllPartitions() {
+    ChangeTable changeTable = testKeyedTable.changeTable();
+    List<ArcticFileScanTask> tasks = Lists.newArrayList(changeTable.newChangeScan().fromTransaction(1L).planTasks());
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(DataFileType.EQ_DELETE_FILE, tasks.get(0).fileType());
+
+    // transaction id of the partition overrides the transaction id of all partitions
+    StructLikeMap<Long> fromTransaction = StructLikeMap.create(changeTable.spec().partitionType());
+    fromTransaction.put(tasks.get(0).file().partition(), 0L);
+    Assert.assertEquals(3, Lists.newArrayList(changeTable.newChangeScan()
+        .fromTransaction(fromTransaction)
+        .fromTransaction(1L)
+        .planTasks()).size());
+  }
+
+  @Test
+  public void testScanSnapshot() {
+    ChangeTable changeTable = testKeyedTable.changeTable();
+    long firstSnapshotId = changeTable.currentSnapshot().parentId();
+    List<ArcticFileScanTask> tasks = Lists.newArrayList(changeTable.newChangeScan()
+        .useSnapshot(firstSnapshotId)
+        .planTasks());
+    Assert.assertEquals(2, tasks.size());
+    tasks.forEach(task -> Assert.assertEquals(DataFileType.INSERT_FILE, task.fileType()));
+  }
+
+  private List<ArcticFileScanTask> planFiles(ChangeTable changeTable, StructLikeMap<Long> fromTransaction) {
+    return Lists.newArrayList(changeTable.newChangeScan().fromTransaction(fromTransaction).planTasks());
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.scan;
+
+import com.netease.arctic.data.DataFileType;
+import com.netease.arctic.io.TableTestBaseWithInitData;
+import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.utils.TableFileUtils;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BaseKeyedTableScanTest extends TableTestBaseWithInitData {
+
+  @Test
+  public void testPlanInParallel() throws IOException {
+    Set<String> parallelFiles = plannedFiles(testKeyedTable.newScan());
+    Set<String> serialFiles = plannedFiles(testKeyedTable.newScan().planWith(null));
+    Assert.assertEquals(serialFiles, parallelFiles);
+    Assert.assertFalse(serialFiles.isEmpty());
+  }
+
+  @Test
+  public void testPlanInSameOrder() throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<String> serialFiles = plannedDataFilesInOrder(testKeyedTable.newScan().planWith(null));
+      for (int i = 0; i < 3; i++) {
+        Assert.assertEquals(serialFiles, plannedDataFilesInOrder(testKeyedTable.newScan().planWith(executor)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPlannedTasksIteratedOnce() throws IOException {
+    try (CloseableIterable<CombinedScanTask> tasks = testKeyedTable.newScan().planTasks()) {
+      Iterables.size(tasks);
+      Iterables.size(tasks);
+    }
+  }
+
+  @Test
+  public void testScanAsOfChangeSnapshot() throws IOException {
+    // change table commit 2 insert files, then commit 1 delete file
+    long insertSnapshotId = testKeyedTable.changeTable().currentSnapshot().parentId();
+    Set<String> files = plannedFiles(testKeyedTable.newScan().useSnapshot(insertSnapshotId));
+    Assert.assertEquals(0, countFiles(files, DataFileType.EQ_DELETE_FILE));
+    Assert.assertEquals(2, countFiles(files, DataFileType.INSERT_FILE));
+  }
+
+  @Test
+  public void testScanAppendsAfterBaseSnapshot() throws IOException {
+    // base table commit insert files and a pos-delete file before change files are committed
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Set<String> files = plannedFiles(testKeyedTable.newScan().appendsAfter(baseSnapshotId));
+    Assert.assertEquals(0, countFiles(files, DataFileType.BASE_FILE));
+    Assert.assertEquals(0, countFiles(files, DataFileType.POS_DELETE_FILE));
+    Assert.assertEquals(2, countFiles(files, DataFileType.INSERT_FILE));
+  }
+
+  @Test
+  public void testScanAsOfTime() throws IOException {
+    // base table commit insert files, then a pos-delete file, before change files are committed
+    long baseInsertTime = testKeyedTable.baseTable().snapshot(
+        testKeyedTable.baseTable().currentSnapshot().parentId()).timestampMillis();
+    Set<String> files = plannedFiles(testKeyedTable.newScan().asOfTime(baseInsertTime));
+    Assert.assertTrue(countFiles(files, DataFileType.BASE_FILE) > 0);
+    Assert.assertEquals(0, countFiles(files, DataFileType.POS_DELETE_FILE));
+    Assert.assertEquals(0, countFiles(files, DataFileType.INSERT_FILE));
+
+    long changeInsertTime = testKeyedTable.changeTable().snapshot(
+        testKeyedTable.changeTable().currentSnapshot().parentId()).timestampMillis();
+    files = plannedFiles(testKeyedTable.newScan().asOfTime(changeInsertTime));
+    Assert.assertEquals(1, countFiles(files, DataFileType.POS_DELETE_FILE));
+    Assert.assertEquals(2, countFiles(files, DataFileType.INSERT_FILE));
+    Assert.assertEquals(0, countFiles(files, DataFileType.EQ_DELETE_FILE));
+  }
+
+  @Test
+  public void testScanAppendsBetweenSnapshots() throws IOException {
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    long insertSnapshotId = testKeyedTable.changeTable().currentSnapshot().parentId();
+    long deleteSnapshotId = testKeyedTable.changeTable().currentSnapshot().snapshotId();
+
+    Set<String> files = plannedFiles(testKeyedTable.newScan().appendsBetween(baseSnapshotId, insertSnapshotId));
+    Assert.assertEquals(0, countFiles(files, DataFileType.BASE_FILE));
+    Assert.assertEquals(2, countFiles(files, DataFileType.INSERT_FILE));
+    Assert.assertEquals(0, countFiles(files, DataFileType.EQ_DELETE_FILE));
+
+    files = plannedFiles(testKeyedTable.newScan().appendsBetween(insertSnapshotId, deleteSnapshotId));
+    Assert.assertEquals(0, countFiles(files, DataFileType.INSERT_FILE));
+    Assert.assertEquals(1, countFiles(files, DataFileType.EQ_DELETE_FILE));
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> testKeyedTable.newScan().appendsBetween(deleteSnapshotId, insertSnapshotId));
+  }
+
+  @Test
+  public void testScanConflictingSnapshots() {
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Assert.assertThrows(IllegalStateException.class,
+        () -> testKeyedTable.newScan().useSnapshot(baseSnapshotId).asOfTime(System.currentTimeMillis()));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> testKeyedTable.newScan().useSnapshot(baseSnapshotId).appendsAfter(baseSnapshotId));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> testKeyedTable.newScan().appendsAfter(baseSnapshotId).asOfTime(System.currentTimeMillis()));
+  }
+
+  @Test
+  public void testScanAppendsFailsOnRemovedChangeFiles() {
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    Snapshot insertSnapshot = testKeyedTable.changeTable().snapshot(
+        testKeyedTable.changeTable().currentSnapshot().parentId());
+    DataFile insertFile = Iterables.getFirst(insertSnapshot.addedFiles(), null);
+    Assert.assertNotNull(insertFile);
+    testKeyedTable.changeTable().newDelete().deleteFile(insertFile).commit();
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> testKeyedTable.newScan().appendsAfter(baseSnapshotId).planTasks());
+  }
+
+  @Test
+  public void testScanAppendsFailsOnExpiredChangeFiles() throws InterruptedException {
+    long baseSnapshotId = testKeyedTable.baseTable().currentSnapshot().snapshotId();
+    testKeyedTable.updateProperties().set(TableProperties.CHANGE_DATA_TTL, "0").commit();
+    Thread.sleep(10);
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> testKeyedTable.newScan().appendsAfter(baseSnapshotId).planTasks());
+  }
+
+  private static long countFiles(Set<String> files, DataFileType fileType) {
+    return files.stream().filter(file -> TableFileUtils.parseFileTypeFromFileName(file) == fileType).count();
+  }
+
+  private static List<String> plannedDataFilesInOrder(KeyedTableScan scan) throws IOException {
+    List<String> files = Lists.newArrayList();
+    try (CloseableIterable<CombinedScanTask> tasks = scan.planTasks()) {
+      for (CombinedScanTask combinedTask : tasks) {
+        for (KeyedTableScanTask task : combinedTask.tasks()) {
+          task.dataTasks().forEach(file -> files.add(file.file().path().toString()));
+        }
+      }
+    }
+    return files;
+  }
+
+  private static Set<String> plannedFiles(KeyedTableScan scan) throws IOException {
+    Set<String> files = Sets.newHashSet();
+    try (CloseableIterable<CombinedScanTask> tasks = scan.planTasks()) {
+      for (CombinedScanTask combinedTask : tasks) {
+        for (KeyedTableScanTask task : combinedTask.tasks()) {
+          task.dataTasks().forEach(file -> files.add(file.file().path().toString()));
+          task.arcticEquityDeletes().forEach(file -> files.add(file.file().path().toString()));
+          task.dataTasks().forEach(file -> file.deletes().forEach(delete -> files.add(delete.path().toString())));
+        }
+      }
+    }
+    return files;
+  }
+}
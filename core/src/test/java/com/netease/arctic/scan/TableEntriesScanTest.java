@@ -19,15 +19,18 @@
 package com.netease.arctic.scan;
 
 import com.netease.arctic.IcebergFileEntry;
+import com.netease.arctic.IcebergFilePathEntry;
 import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.io.TableTestBaseWithInitData;
 import com.netease.arctic.utils.TableFileUtils;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.FileContent;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.util.ThreadPools;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -123,4 +126,86 @@ public class TableEntriesScanTest extends TableTestBaseWithInitData {
     }
     Assert.assertEquals(2, cnt);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testScanPathEntries() {
+    // change table commit 2 insert files, then commit 1 delete file
+    Table changeTable = testKeyedTable.changeTable();
+    TableEntriesScan dataFileScan = TableEntriesScan.builder(changeTable)
+        .includeFileContent(FileContent.DATA)
+        .planWith(ThreadPools.getWorkerPool())
+        .build();
+    long currentSnapshotId = changeTable.currentSnapshot().snapshotId();
+    int cnt = 0;
+    for (IcebergFilePathEntry entry : dataFileScan.pathEntries()) {
+      cnt++;
+      DataFileType dataFileType = TableFileUtils.parseFileTypeFromFileName(entry.getPath());
+      if (dataFileType == DataFileType.INSERT_FILE) {
+        Assert.assertEquals(1, entry.getSequenceNumber());
+      } else if (dataFileType == DataFileType.EQ_DELETE_FILE) {
+        Assert.assertEquals(2, entry.getSequenceNumber());
+        Assert.assertEquals(currentSnapshotId, (long) entry.getSnapshotId());
+      }
+      Assert.assertEquals(FileContent.DATA, entry.getContent());
+      Assert.assertTrue(entry.getFileSizeInBytes() > 0);
+      Assert.assertTrue(entry.getRecordCount() > 0);
+    }
+    Assert.assertEquals(3, cnt);
+  }
+
+  @Test
+  public void testScanEntriesWithColumnStats() {
+    Table baseTable = testKeyedTable.baseTable();
+    TableEntriesScan dataFileScan = TableEntriesScan.builder(baseTable)
+        .includeFileContent(FileContent.DATA)
+        .build();
+    int cnt = 0;
+    for (IcebergFileEntry entry : dataFileScan.entries()) {
+      cnt++;
+      Assert.assertNotNull(entry.getFile().lowerBounds());
+      Assert.assertNotNull(entry.getFile().upperBounds());
+    }
+    Assert.assertEquals(4, cnt);
+
+    dataFileScan = TableEntriesScan.builder(baseTable)
+        .includeFileContent(FileContent.DATA)
+        .withoutColumnStats()
+        .build();
+    for (IcebergFileEntry entry : dataFileScan.entries()) {
+      Assert.assertNull(entry.getFile().lowerBounds());
+    }
+  }
+
+  @Test
+  public void testScanEntriesOfEvolvedSpec() {
+    testTable.newAppend().appendFile(FILE_A).commit();
+    testTable.updateSpec().addField("name").commit();
+    DataFile newSpecFile = DataFiles.builder(testTable.spec())
+        .withPath("/path/to/data-new-spec.parquet")
+        .withFileSizeInBytes(10)
+        .withPartitionPath("op_time_day=2022-01-01/name=a")
+        .withRecordCount(2)
+        .build();
+    testTable.newAppend().appendFile(newSpecFile).commit();
+
+    TableEntriesScan dataFileScan = TableEntriesScan.builder(testTable)
+        .includeFileContent(FileContent.DATA)
+        .build();
+    int cnt = 0;
+    for (IcebergFileEntry entry : dataFileScan.entries()) {
+      cnt++;
+      ContentFile<?> file = entry.getFile();
+      // files keep the spec and partition they are written with
+      if (file.path().toString().equals(FILE_A.path().toString())) {
+        Assert.assertEquals(FILE_A.specId(), file.specId());
+        Assert.assertEquals(1, file.partition().size());
+        Assert.assertEquals(FILE_A.partition().get(0, Integer.class), file.partition().get(0, Integer.class));
+      } else {
+        Assert.assertEquals(testTable.spec().specId(), file.specId());
+        Assert.assertEquals(2, file.partition().size());
+        Assert.assertEquals("a", file.partition().get(1, String.class));
+      }
+    }
+    Assert.assertEquals(2, cnt);
+  }
+}
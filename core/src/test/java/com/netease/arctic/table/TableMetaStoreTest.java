@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.table;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TableMetaStoreTest {
+
+  @Test
+  public void testResolveUgiAndConfigurationWithoutRelogin() {
+    TableMetaStore metaStore = TableMetaStore.builder().withConfiguration(new Configuration()).buildForTest();
+    UserGroupInformation ugi = metaStore.getUGI();
+    Assert.assertNotNull(ugi);
+    Assert.assertSame(ugi, metaStore.getUGI());
+    Assert.assertSame(metaStore.getConfiguration(), metaStore.getConfiguration());
+    Assert.assertFalse(metaStore.isReloginRequired());
+  }
+
+  @Test
+  public void testReloginAfterBackgroundReloginFailed() {
+    TableMetaStore metaStore = TableMetaStore.builder().withConfiguration(new Configuration()).buildForTest();
+    UserGroupInformation ugi = metaStore.getUGI();
+
+    // a failed background re-login makes the next lock-free resolution re-login under the lock
+    metaStore.markReloginRequired();
+    Assert.assertSame(ugi, metaStore.getUGI());
+    Assert.assertFalse(metaStore.isReloginRequired());
+    Assert.assertEquals(ugi, metaStore.doAs(UserGroupInformation::getCurrentUser));
+  }
+
+  @Test
+  public void testReloginTaskCancelledAfterMetaStoreCollected() {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      TableMetaStore metaStore = TableMetaStore.builder().withConfiguration(new Configuration()).buildForTest();
+      metaStore.getUGI();
+      WeakReference<TableMetaStore> reference = new WeakReference<>(metaStore);
+      TableMetaStore.ReloginTask task = new TableMetaStore.ReloginTask(reference);
+      // runs are triggered by the test only
+      ScheduledFuture<?> future = task.schedule(executor, 1, TimeUnit.HOURS);
+
+      task.run();
+      Assert.assertFalse(future.isCancelled());
+
+      // the referent is cleared like the meta store is collected
+      reference.clear();
+      task.run();
+      Assert.assertTrue(future.isCancelled());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.netease.arctic.flink.read;
+
+import org.apache.flink.formats.parquet.vector.ParquetColumnarRowSplitReader;
+import org.apache.flink.formats.parquet.vector.ParquetSplitReaderUtil;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.utils.TypeConversions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.mapping.NameMapping;
+import org.apache.iceberg.parquet.AdaptHiveParquetSchemaUtil;
+import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.ByteBuffers;
+import org.apache.iceberg.util.DateTimeUtil;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reads parquet files in batches of columns by the flink {@link ParquetColumnarRowSplitReader}, rows are views of
+ * the current batch.
+ * <p>
+ * Columns are resolved like {@link AdaptHiveFlinkParquetReaders} do: by field ids, by the name mapping for hive files
+ * without ids, or else by position. Resolved columns are then read by their names in the file. Timestamps are read
+ * from INT96 written by AdaptHive writers, files with other encodings of the expected types are not supported.
+ */
+public class AdaptHiveFlinkVectorizedReaders {
+  private AdaptHiveFlinkVectorizedReaders() {
+  }
+
+  /**
+   * Open a file of a task in batches of columns, deletes of the task are not applied.
+   *
+   * @param conf hadoop configuration to open the file with
+   * @param task task to read
+   * @param expectedSchema schema of rows to read
+   * @param idToConstant values of constant columns, converted by {@link #convertConstant}
+   * @param nameMapping name mapping of files without field ids, may be null
+   * @param batchSize max rows of a batch
+   * @return an iterator of rows reused by every call of next, or null if the file can't be read in batches
+   */
+  public static CloseableIterator<RowData> open(
+      Configuration conf, FileScanTask task, Schema expectedSchema, Map<Integer, ?> idToConstant,
+      NameMapping nameMapping, int batchSize) throws IOException {
+    Path path = new Path(task.file().path().toString());
+    MessageType fileSchema;
+    try (ParquetFileReader fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf))) {
+      fileSchema = fileReader.getFileMetaData().getSchema();
+    }
+    Map<Integer, org.apache.parquet.schema.Type> fileColumns = fileColumnsById(fileSchema, nameMapping);
+
+    List<Types.NestedField> fields = expectedSchema.columns();
+    String[] fieldNames = new String[fields.size()];
+    DataType[] fieldTypes = new DataType[fields.size()];
+    // constant and missing columns are filled as partition columns of flink
+    Map<String, Object> constants = Maps.newHashMap();
+    Set<String> names = Sets.newHashSet();
+    Set<Boolean> adjustToUTC = Sets.newHashSet();
+    for (int i = 0; i < fields.size(); i++) {
+      Types.NestedField field = fields.get(i);
+      int id = field.fieldId();
+      org.apache.parquet.schema.Type column = fileColumns.get(id);
+      if (!isSupported(field.type()) ||
+          id == MetadataColumns.ROW_POSITION.fieldId() || id == MetadataColumns.IS_DELETED.fieldId()) {
+        return null;
+      }
+
+      if (idToConstant.containsKey(id) || column == null) {
+        if (!isSupportedConstant(field.type())) {
+          return null;
+        }
+        fieldNames[i] = field.name();
+        constants.put(field.name(), idToConstant.get(id));
+      } else {
+        if (!isSupportedColumn(field.type(), column)) {
+          return null;
+        }
+        fieldNames[i] = column.getName();
+        if (field.type().typeId() == Type.TypeID.TIMESTAMP) {
+          adjustToUTC.add(((Types.TimestampType) field.type()).shouldAdjustToUTC());
+        }
+      }
+      if (!names.add(fieldNames[i])) {
+        return null;
+      }
+      fieldTypes[i] = TypeConversions.fromLogicalToDataType(FlinkSchemaUtil.convert(field.type()));
+    }
+    // INT96 timestamps of a batch are all converted in local time or all in UTC
+    if (constants.size() == fields.size() || adjustToUTC.size() > 1) {
+      return null;
+    }
+
+    int[] selectedFields = new int[fields.size()];
+    for (int i = 0; i < selectedFields.length; i++) {
+      selectedFields[i] = i;
+    }
+    ParquetColumnarRowSplitReader reader = ParquetSplitReaderUtil.genPartColumnarRowReader(
+        adjustToUTC.contains(true),
+        true,
+        conf,
+        fieldNames,
+        fieldTypes,
+        constants,
+        selectedFields,
+        batchSize,
+        new org.apache.flink.core.fs.Path(path.toUri()),
+        task.start(),
+        task.length());
+    return new ColumnarRowIterator(reader);
+  }
+
+  /**
+   * Convert an iceberg partition value to the java type of a flink partition value.
+   */
+  public static Object convertConstant(Type type, Object value) {
+    if (value == null) {
+      return null;
+    }
+
+    switch (type.typeId()) {
+      case STRING:
+        return value.toString();
+      case DATE:
+        return Date.valueOf(DateTimeUtil.dateFromDays((Integer) value));
+      case TIMESTAMP:
+        return DateTimeUtil.timestampFromMicros((Long) value);
+      case BINARY:
+        return ByteBuffers.toByteArray((ByteBuffer) value);
+      default:
+        return value;
+    }
+  }
+
+  private static Map<Integer, org.apache.parquet.schema.Type> fileColumnsById(
+      MessageType fileSchema, NameMapping nameMapping) {
+    MessageType typeWithIds;
+    if (AdaptHiveParquetSchemaUtil.hasIds(fileSchema)) {
+      typeWithIds = fileSchema;
+    } else if (nameMapping != null) {
+      typeWithIds = AdaptHiveParquetSchemaUtil.applyNameMapping(fileSchema, nameMapping);
+    } else {
+      typeWithIds = AdaptHiveParquetSchemaUtil.addFallbackIds(fileSchema);
+    }
+
+    Map<Integer, org.apache.parquet.schema.Type> columns = Maps.newHashMap();
+    for (org.apache.parquet.schema.Type column : typeWithIds.getFields()) {
+      if (column.getId() != null) {
+        columns.put(column.getId().intValue(), column);
+      }
+    }
+    return columns;
+  }
+
+  private static boolean isSupported(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+      case INTEGER:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case TIMESTAMP:
+      case STRING:
+      case BINARY:
+      case DECIMAL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isSupportedConstant(Type type) {
+    return type.typeId() != Type.TypeID.TIMESTAMP || !((Types.TimestampType) type).shouldAdjustToUTC();
+  }
+
+  private static boolean isSupportedColumn(Type type, org.apache.parquet.schema.Type column) {
+    if (!column.isPrimitive() || column.isRepetition(org.apache.parquet.schema.Type.Repetition.REPEATED)) {
+      return false;
+    }
+
+    PrimitiveType primitive = column.asPrimitiveType();
+    PrimitiveTypeName typeName = primitive.getPrimitiveTypeName();
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return typeName == PrimitiveTypeName.BOOLEAN;
+      case INTEGER:
+      case DATE:
+        return typeName == PrimitiveTypeName.INT32;
+      case LONG:
+        return typeName == PrimitiveTypeName.INT64;
+      case FLOAT:
+        return typeName == PrimitiveTypeName.FLOAT;
+      case DOUBLE:
+        return typeName == PrimitiveTypeName.DOUBLE;
+      case TIMESTAMP:
+        return typeName == PrimitiveTypeName.INT96;
+      case STRING:
+      case BINARY:
+        return typeName == PrimitiveTypeName.BINARY;
+      case DECIMAL:
+        if (typeName != PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY ||
+            !(primitive.getLogicalTypeAnnotation() instanceof DecimalLogicalTypeAnnotation)) {
+          return false;
+        }
+        Types.DecimalType decimal = (Types.DecimalType) type;
+        DecimalLogicalTypeAnnotation annotation = (DecimalLogicalTypeAnnotation) primitive.getLogicalTypeAnnotation();
+        return annotation.getPrecision() == decimal.precision() && annotation.getScale() == decimal.scale();
+      default:
+        return false;
+    }
+  }
+
+  private static class ColumnarRowIterator implements CloseableIterator<RowData> {
+    private final ParquetColumnarRowSplitReader reader;
+
+    ColumnarRowIterator(ParquetColumnarRowSplitReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        return !reader.reachedEnd();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public RowData next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return reader.nextRecord();
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+}
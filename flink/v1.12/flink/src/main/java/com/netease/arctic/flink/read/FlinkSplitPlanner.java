@@ -52,9 +52,12 @@ public class FlinkSplitPlanner {
   }
 
   public static List<ArcticSplit> planFullTable(KeyedTable keyedTable, AtomicInteger splitCount) {
-    CloseableIterable<CombinedScanTask> combinedScanTasks = keyedTable.newScan().planTasks();
-    BaseAndChangeTask baseAndChangeTask = BaseAndChangeTask.of(combinedScanTasks);
-    return planFullTable(baseAndChangeTask, splitCount);
+    try (CloseableIterable<CombinedScanTask> combinedScanTasks = keyedTable.newScan().planTasks()) {
+      BaseAndChangeTask baseAndChangeTask = BaseAndChangeTask.of(combinedScanTasks);
+      return planFullTable(baseAndChangeTask, splitCount);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   private static List<ArcticSplit> planFullTable(
@@ -73,11 +76,12 @@ public class FlinkSplitPlanner {
   }
 
   public static List<ArcticSplit> planChangeTable(TableScan tableScan, AtomicInteger splitCount) {
-    CloseableIterable<FileScanTask> tasks = tableScan.planFiles();
-
-    BaseAndChangeTask baseAndChangeTask = BaseAndChangeTask.ofIceberg(tasks);
-
-    return planChangeTable(baseAndChangeTask.transactionTasks(), splitCount);
+    try (CloseableIterable<FileScanTask> tasks = tableScan.planFiles()) {
+      BaseAndChangeTask baseAndChangeTask = BaseAndChangeTask.ofIceberg(tasks);
+      return planChangeTable(baseAndChangeTask.transactionTasks(), splitCount);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   private static List<ArcticSplit> planChangeTable(
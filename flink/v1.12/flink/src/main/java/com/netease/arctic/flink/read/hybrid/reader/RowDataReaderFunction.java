@@ -27,7 +27,9 @@ import com.netease.arctic.flink.util.ArcticUtils;
 import com.netease.arctic.io.ArcticFileIO;
 import com.netease.arctic.table.PrimaryKeySpec;
 import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.flink.FlinkSchemaUtil;
 import org.apache.iceberg.flink.data.RowDataUtil;
@@ -36,6 +38,8 @@ import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
 import java.util.Collections;
 
 import static com.netease.arctic.flink.shuffle.RowKindUtil.convertToFlinkRowKind;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SOURCE_READER_FETCH_BATCH_RECORD_COUNT;
+import static com.netease.arctic.flink.table.descriptors.ArcticValidator.SOURCE_READER_VECTORIZED_READ_ENABLED;
 import static com.netease.arctic.utils.SchemaUtil.changeWriteSchema;
 
 /**
@@ -50,6 +54,8 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
   private final ArcticFileIO io;
   private final PrimaryKeySpec primaryKeySpec;
   private final int columnSize;
+  private final RowData.FieldGetter[] fieldGetters;
+  private final int batchSize;
 
   public RowDataReaderFunction(
       ReadableConfig config, Schema tableSchema, Schema projectedSchema, PrimaryKeySpec primaryKeySpec,
@@ -64,6 +70,13 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
     this.io = io;
     // Add file offset column after readSchema. Refer to this#wrapArcticFileOffsetColumnMeta
     this.columnSize = readSchema.columns().size();
+    RowType rowType = FlinkSchemaUtil.convert(readSchema);
+    this.fieldGetters = new RowData.FieldGetter[columnSize];
+    for (int i = 0; i < columnSize; i++) {
+      fieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+    }
+    this.batchSize = config.get(SOURCE_READER_VECTORIZED_READ_ENABLED) ?
+        config.get(SOURCE_READER_FETCH_BATCH_RECORD_COUNT) : 0;
   }
 
   @Override
@@ -73,7 +86,7 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
       FileScanTaskReader<RowData> rowDataReader =
           new FlinkArcticDataReader(
               io, tableSchema, readSchema, primaryKeySpec, nameMapping, caseSensitive, RowDataUtil::convertConstant,
-              Collections.singleton(split.dataTreeNode()), false);
+              Collections.singleton(split.dataTreeNode()), false, batchSize);
       return new DataIterator<>(
           rowDataReader,
           split.asSnapshotSplit().insertTasks(),
@@ -83,7 +96,7 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
           new FlinkArcticDataReader(
               io, wrapArcticFileOffsetColumnMeta(tableSchema), wrapArcticFileOffsetColumnMeta(readSchema),
               primaryKeySpec, nameMapping, caseSensitive, RowDataUtil::convertConstant,
-              Collections.singleton(split.dataTreeNode()), false);
+              Collections.singleton(split.dataTreeNode()), false, batchSize);
       return new ChangeLogDataIterator<>(
           rowDataReader,
           split.asChangelogSplit().insertTasks(),
@@ -109,7 +122,15 @@ public class RowDataReaderFunction extends DataIteratorReaderFunction<RowData> {
    * @param rowData It may have more columns than readSchema. Refer to {@link FlinkArcticDataReader}'s annotation.
    */
   RowData removeArcticMetaColumn(RowData rowData) {
-    return ArcticUtils.removeArcticMetaColumn(rowData, columnSize);
+    if (rowData instanceof GenericRowData) {
+      return ArcticUtils.removeArcticMetaColumn(rowData, columnSize);
+    }
+    // rows read in batches are views of column vectors
+    GenericRowData newRowData = new GenericRowData(rowData.getRowKind(), columnSize);
+    for (int i = 0; i < columnSize; i++) {
+      newRowData.setField(i, fieldGetters[i].getFieldOrNull(rowData));
+    }
+    return newRowData;
   }
 
   RowData transformRowKind(ChangeLogDataIterator.ChangeActionTrans<RowData> trans) {
@@ -16,14 +16,28 @@
  * limitations under the License.
  */
 
+
 package com.netease.arctic.flink.read.source;
 
 import com.netease.arctic.data.ChangeAction;
 import com.netease.arctic.scan.ArcticFileScanTask;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.util.Tasks;
+import org.apache.iceberg.util.ThreadPools;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 import static com.netease.arctic.data.ChangeAction.DELETE;
@@ -33,16 +47,39 @@ import static com.netease.arctic.data.ChangeAction.UPDATE_BEFORE;
 
 /**
  * This is a change log data iterator that replays the change log data appended to arctic change table with ordered.
+ * <p>
+ * Rows of all the insert and delete files are merged by a heap of files, ordered by the transaction id of their files
+ * and their arctic file offsets. A delete and an insert in the same order are replayed as an update. Rows of a file
+ * never precede rows of files of earlier transactions, so files are only opened when the merge reaches their
+ * transaction and only files of one transaction are open at a time. Files of a transaction are opened and read to
+ * their first rows concurrently, the rest of them are read as the merge goes.
+ * <p>
+ * The position of this iterator is the number of inserts and deletes replayed, as record offsets with file offsets of
+ * 0. Positions with other file offsets were checkpointed by older versions reading files one by one, they are restored
+ * only if the rows they replayed are the leading rows of the merge, see {@link #seek(int, int, long, long)}.
  */
 public class ChangeLogDataIterator<T> extends DataIterator<T> {
-  private final DataIterator<T> insertDataIterator;
-  private DataIterator<T> deleteDataIterator = DataIterator.empty();
-
+  private final FileScanTaskReader<T> fileScanTaskReader;
+  private final Function<T, Long> arcticFileOffsetGetter;
   private final Function<T, T> arcticMetaColumnRemover;
   private final Function<ChangeActionTrans<T>, T> changeActionTransformer;
-
-  private final QueueHolder<T> insertHolder = new QueueHolder<>();
-  private final QueueHolder<T> deleteHolder = new QueueHolder<>();
+  private final Collection<ArcticFileScanTask> insertTasks;
+  private final Collection<ArcticFileScanTask> deleteTasks;
+  private final ExecutorService openExecutor;
+
+  private final Comparator<FileCursor> order = Comparator
+      .comparingLong((FileCursor cursor) -> cursor.transactionId)
+      .thenComparingLong(cursor -> cursor.fileOffset)
+      .thenComparing(cursor -> cursor.insert)
+      .thenComparing(cursor -> cursor.path);
+
+  private PriorityQueue<FileCursor> cursors;
+  // cursors of files not opened yet, ordered by transaction id
+  private Deque<FileCursor> pendingCursors;
+  // the cursor of the last replayed row is advanced lazily, the row may be reused by the file reader
+  private FileCursor lastCursor;
+  private long insertRecordOffset;
+  private long deleteRecordOffset;
 
   public ChangeLogDataIterator(
       FileScanTaskReader<T> fileScanTaskReader,
@@ -51,22 +88,68 @@ public class ChangeLogDataIterator<T> extends DataIterator<T> {
       Function<T, Long> arcticFileOffsetGetter,
       Function<T, T> arcticMetaColumnRemover,
       Function<ChangeActionTrans<T>, T> changeActionTransformer) {
+    this(fileScanTaskReader, insertTasks, deleteTasks, arcticFileOffsetGetter, arcticMetaColumnRemover,
+        changeActionTransformer, ThreadPools.getWorkerPool());
+  }
+
+  public ChangeLogDataIterator(
+      FileScanTaskReader<T> fileScanTaskReader,
+      Collection<ArcticFileScanTask> insertTasks,
+      Collection<ArcticFileScanTask> deleteTasks,
+      Function<T, Long> arcticFileOffsetGetter,
+      Function<T, T> arcticMetaColumnRemover,
+      Function<ChangeActionTrans<T>, T> changeActionTransformer,
+      ExecutorService openExecutor) {
     super(fileScanTaskReader, Collections.emptyList(), arcticFileOffsetGetter);
-    this.insertDataIterator = initDataIterator(fileScanTaskReader, arcticFileOffsetGetter, insertTasks);
-    if (deleteTasks != null && !deleteTasks.isEmpty()) {
-      this.deleteDataIterator = initDataIterator(fileScanTaskReader, arcticFileOffsetGetter, deleteTasks);
-    }
+    this.fileScanTaskReader = fileScanTaskReader;
+    this.insertTasks = insertTasks;
+    this.deleteTasks = deleteTasks == null ? Collections.emptyList() : deleteTasks;
+    this.arcticFileOffsetGetter = arcticFileOffsetGetter;
     this.arcticMetaColumnRemover = arcticMetaColumnRemover;
     this.changeActionTransformer = changeActionTransformer;
+    this.openExecutor = openExecutor;
   }
 
+  /**
+   * Skip the inserts and deletes replayed.
+   * <p>
+   * With file offsets of 0, record offsets are the numbers of inserts and deletes replayed in the merge. Other file
+   * offsets are positions of older versions: all the rows of the leading files in the order of the tasks and the
+   * leading rows of the file at the file offset. They are restored as the same rows, which must be the leading rows of
+   * the merge, or an {@link IllegalStateException} is thrown.
+   */
   public void seek(
       int startingInsertFileOffset,
       int startingDeleteFileOffset,
       long startingInsertRecordOffset,
       long startingDeleteRecordOffset) {
-    insertDataIterator.seek(startingInsertFileOffset, startingInsertRecordOffset);
-    deleteDataIterator.seek(startingDeleteFileOffset, startingDeleteRecordOffset);
+    boolean legacy = startingInsertFileOffset != 0 || startingDeleteFileOffset != 0;
+    long insertRecords = replayedRecords(insertTasks, startingInsertFileOffset, startingInsertRecordOffset);
+    long deleteRecords = replayedRecords(deleteTasks, startingDeleteFileOffset, startingDeleteRecordOffset);
+    while (insertRecordOffset < insertRecords || deleteRecordOffset < deleteRecords) {
+      if (!hasNext()) {
+        throw new IllegalStateException(String.format(
+            "Invalid starting record offsets, insert: (%d, %d), delete: (%d, %d), there are only %d inserts and " +
+                "%d deletes.", startingInsertFileOffset, startingInsertRecordOffset, startingDeleteFileOffset,
+            startingDeleteRecordOffset, insertRecordOffset, deleteRecordOffset));
+      }
+      FileCursor cursor = cursors.peek();
+      boolean replayed = cursor.insert ?
+          insertRecordOffset < insertRecords &&
+              (!legacy || cursor.replayedBefore(startingInsertFileOffset, startingInsertRecordOffset)) :
+          deleteRecordOffset < deleteRecords &&
+              (!legacy || cursor.replayedBefore(startingDeleteFileOffset, startingDeleteRecordOffset));
+      if (!replayed) {
+        throw new IllegalStateException(String.format(
+            "Starting record offsets insert: (%d, %d), delete: (%d, %d) can't be restored, the rows they replayed " +
+                "are not the leading rows of the change log ordered by transaction id and file offset. Positions " +
+                "with file offsets were checkpointed by an older version reading files one by one, restart the job " +
+                "without restoring the state of this source.",
+            startingInsertFileOffset, startingInsertRecordOffset, startingDeleteFileOffset,
+            startingDeleteRecordOffset));
+      }
+      poll();
+    }
   }
 
   @Override
@@ -74,130 +157,196 @@ public class ChangeLogDataIterator<T> extends DataIterator<T> {
     throw new UnsupportedOperationException("This operation is not supported in change log data iterator.");
   }
 
-  private void loadQueueHolder(boolean insert) {
-    DataIterator<T> dataIterator = insert ? insertDataIterator : deleteDataIterator;
-    QueueHolder<T> holder = insert ? insertHolder : deleteHolder;
-    if (dataIterator.hasNext() && holder.isEmpty()) {
-      T next = dataIterator.next();
-      long nextOffset = dataIterator.currentArcticFileOffset();
-      ChangeAction changeAction = insert ? INSERT : DELETE;
-      holder.put(next, changeAction, nextOffset);
-    }
-  }
-
   @Override
-
   public boolean hasNext() {
-    loadQueueHolder(false);
-    loadQueueHolder(true);
-
-    return deleteHolder.isNotEmpty() || insertHolder.isNotEmpty();
+    if (cursors == null) {
+      openCursors();
+    }
+    if (lastCursor != null) {
+      if (lastCursor.advance()) {
+        cursors.add(lastCursor);
+      } else {
+        lastCursor.close();
+      }
+      lastCursor = null;
+    }
+    openNextTransaction();
+    return !cursors.isEmpty();
   }
 
+  /**
+   * Files of the change log are merged into one stream of records.
+   */
   @Override
   public boolean currentFileHasNext() {
-    return deleteDataIterator.currentFileHasNext() || insertDataIterator.currentFileHasNext() ||
-        deleteHolder.isNotEmpty() || insertHolder.isNotEmpty();
+    return hasNext();
   }
 
   @Override
   public T next() {
-    T row;
-    if (deleteHolder.isEmpty() && insertHolder.isNotEmpty()) {
-      row = changeActionTransformer.apply(
-          ChangeActionTrans.of(insertHolder.nextRow, insertHolder.changeAction));
-      insertHolder.clean();
-    } else if (deleteHolder.isNotEmpty() && insertHolder.isEmpty()) {
-      row = changeActionTransformer.apply(
-          ChangeActionTrans.of(deleteHolder.nextRow, deleteHolder.changeAction));
-      deleteHolder.clean();
-    } else if (deleteHolder.equalTo(insertHolder)) {
-      row = changeActionTransformer.apply(
-          ChangeActionTrans.of(deleteHolder.nextRow, UPDATE_BEFORE));
-      insertHolder.changeAction = UPDATE_AFTER;
-      deleteHolder.clean();
-    } else if (deleteHolder.lesser(insertHolder)) {
-      row = changeActionTransformer.apply(
-          ChangeActionTrans.of(deleteHolder.nextRow, deleteHolder.changeAction));
-      deleteHolder.clean();
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    FileCursor cursor = poll();
+    T row = changeActionTransformer.apply(ChangeActionTrans.of(cursor.row, cursor.changeAction));
+    return arcticMetaColumnRemover.apply(row);
+  }
+
+  private FileCursor poll() {
+    FileCursor cursor = cursors.poll();
+    FileCursor next = cursors.peek();
+    if (!cursor.insert && next != null && next.insert &&
+        cursor.transactionId == next.transactionId && cursor.fileOffset == next.fileOffset) {
+      cursor.changeAction = UPDATE_BEFORE;
+      next.changeAction = UPDATE_AFTER;
+    }
+
+    if (cursor.insert) {
+      insertRecordOffset += 1;
     } else {
-      row = changeActionTransformer.apply(
-          ChangeActionTrans.of(insertHolder.nextRow, insertHolder.changeAction));
-      insertHolder.clean();
+      deleteRecordOffset += 1;
     }
+    lastCursor = cursor;
+    return cursor;
+  }
 
-    return arcticMetaColumnRemover.apply(row);
+  private void openCursors() {
+    List<FileCursor> pending = Lists.newArrayListWithExpectedSize(insertTasks.size() + deleteTasks.size());
+    for (ArcticFileScanTask task : insertTasks) {
+      pending.add(new FileCursor(task, true, pending.size()));
+    }
+    for (ArcticFileScanTask task : deleteTasks) {
+      pending.add(new FileCursor(task, false, pending.size() - insertTasks.size()));
+    }
+    pending.sort(Comparator.comparingLong(cursor -> cursor.transactionId));
+    this.pendingCursors = new ArrayDeque<>(pending);
+    this.cursors = new PriorityQueue<>(order);
+  }
+
+  /**
+   * Open files of the next transaction once no rows of the merge precede them.
+   */
+  private void openNextTransaction() {
+    while (!pendingCursors.isEmpty() &&
+        (cursors.isEmpty() || cursors.peek().transactionId >= pendingCursors.peek().transactionId)) {
+      long transactionId = pendingCursors.peek().transactionId;
+      List<FileCursor> opening = Lists.newArrayList();
+      while (!pendingCursors.isEmpty() && pendingCursors.peek().transactionId == transactionId) {
+        opening.add(pendingCursors.poll());
+      }
+      List<FileCursor> nonEmpty = Collections.synchronizedList(Lists.newArrayListWithExpectedSize(opening.size()));
+      try {
+        Tasks.foreach(opening)
+            .stopOnFailure()
+            .throwFailureWhenFinished()
+            .executeWith(opening.size() > 1 ? openExecutor : null)
+            .run(cursor -> {
+              if (cursor.advance()) {
+                nonEmpty.add(cursor);
+              } else {
+                cursor.close();
+              }
+            });
+      } catch (RuntimeException e) {
+        opening.forEach(FileCursor::close);
+        throw e;
+      }
+      cursors.addAll(nonEmpty);
+    }
+  }
+
+  private static long replayedRecords(Collection<ArcticFileScanTask> tasks, int fileOffset, long recordOffset) {
+    long records = recordOffset;
+    Iterator<ArcticFileScanTask> iterator = tasks.iterator();
+    for (int i = 0; i < fileOffset && iterator.hasNext(); i++) {
+      records += iterator.next().file().recordCount();
+    }
+    return records;
   }
 
   @Override
   public void close() throws IOException {
-    insertDataIterator.close();
-    deleteDataIterator.close();
+    if (lastCursor != null) {
+      lastCursor.close();
+      lastCursor = null;
+    }
+    if (cursors != null) {
+      cursors.forEach(FileCursor::close);
+      cursors.clear();
+      pendingCursors.clear();
+    }
   }
 
   public int insertFileOffset() {
-    return insertDataIterator.fileOffset();
+    return 0;
   }
 
   public long insertRecordOffset() {
-    return insertDataIterator.recordOffset();
+    return insertRecordOffset;
   }
 
   public int deleteFileOffset() {
-    return deleteDataIterator.fileOffset();
+    return 0;
   }
 
   public long deleteRecordOffset() {
-    return deleteDataIterator.recordOffset();
-  }
-
-  private DataIterator<T> initDataIterator(
-      FileScanTaskReader<T> fileScanTaskReader,
-      Function<T, Long> arcticFileOffsetGetter,
-      Collection<ArcticFileScanTask> tasks) {
-    return new DataIterator<>(
-        fileScanTaskReader,
-        tasks,
-        arcticFileOffsetGetter);
+    return deleteRecordOffset;
   }
 
-  private static class QueueHolder<T> {
-    T nextRow;
-    ChangeAction changeAction;
-    Long nextOffset;
-
-    public QueueHolder() {
-    }
-
-    boolean isEmpty() {
-      return nextRow == null;
-    }
-
-    boolean isNotEmpty() {
-      return nextRow != null;
-    }
-
-    public void put(T nextRow, ChangeAction changeAction, Long nextOffset) {
-      this.nextRow = nextRow;
-      this.changeAction = changeAction;
-      this.nextOffset = nextOffset;
-    }
-
-    public T get() {
-      return nextRow;
+  /**
+   * The current row of a file in the merge.
+   */
+  private class FileCursor {
+    private final ArcticFileScanTask task;
+    private final boolean insert;
+    private final long transactionId;
+    private final String path;
+    private CloseableIterator<T> rows;
+    private final int taskIndex;
+    private T row;
+    // rows read from the file, including the current one
+    private long rowCount;
+    private long fileOffset;
+    private ChangeAction changeAction;
+
+    FileCursor(ArcticFileScanTask task, boolean insert, int taskIndex) {
+      this.task = task;
+      this.insert = insert;
+      this.taskIndex = taskIndex;
+      this.transactionId = task.file().transactionId();
+      this.path = task.file().path().toString();
     }
 
-    boolean lesser(QueueHolder<T> that) {
-      return this.nextOffset.compareTo(that.nextOffset) < 0;
+    boolean advance() {
+      if (rows == null) {
+        rows = fileScanTaskReader.open(task);
+      }
+      if (!rows.hasNext()) {
+        return false;
+      }
+      row = rows.next();
+      rowCount++;
+      fileOffset = arcticFileOffsetGetter.apply(row);
+      changeAction = insert ? INSERT : DELETE;
+      return true;
     }
 
-    boolean equalTo(QueueHolder<T> that) {
-      return this.nextOffset.compareTo(that.nextOffset) == 0;
+    /**
+     * Check if the current row was replayed by a position of files read one by one.
+     */
+    boolean replayedBefore(int startingFileOffset, long startingRecordOffset) {
+      return taskIndex < startingFileOffset || (taskIndex == startingFileOffset && rowCount <= startingRecordOffset);
     }
 
-    void clean() {
-      nextRow = null;
-      nextOffset = null;
+    void close() {
+      if (rows != null) {
+        try {
+          rows.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        rows = null;
+      }
     }
   }
 
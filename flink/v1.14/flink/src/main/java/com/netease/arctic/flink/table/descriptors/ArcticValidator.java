@@ -112,6 +112,13 @@ public class ArcticValidator extends ConnectorDescriptorValidator {
       .defaultValue(2048)
       .withDescription("The target number of records for Iceberg reader fetch batch.");
 
+  public static final ConfigOption<Boolean> SOURCE_READER_VECTORIZED_READ_ENABLED = ConfigOptions
+      .key("table.exec.iceberg.vectorized-read.enabled")
+      .booleanType()
+      .defaultValue(false)
+      .withDescription("Whether to read parquet files without deletes in batches of columns, the size of a batch is " +
+          "the target number of records for reader fetch batch.");
+
   public static final ConfigOption<String> SCAN_STARTUP_MODE = ConfigOptions
       .key("scan.startup.mode")
       .stringType()
@@ -20,12 +20,16 @@ package com.netease.arctic.flink.read.source;
 
 import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.flink.read.AdaptHiveFlinkParquetReaders;
+import com.netease.arctic.flink.read.AdaptHiveFlinkVectorizedReaders;
 import com.netease.arctic.hive.io.reader.AdaptHiveBaseIcebergDataReader;
 import com.netease.arctic.io.ArcticFileIO;
+import com.netease.arctic.io.ArcticHadoopFileIO;
+import com.netease.arctic.io.reader.DataReaderCommon;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.table.PrimaryKeySpec;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.types.logical.RowType;
+import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.StructLike;
@@ -33,10 +37,12 @@ import org.apache.iceberg.flink.FlinkSchemaUtil;
 import org.apache.iceberg.flink.RowDataWrapper;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.mapping.NameMappingParser;
 import org.apache.iceberg.parquet.ParquetValueReader;
 import org.apache.iceberg.types.Type;
 import org.apache.parquet.schema.MessageType;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -48,23 +54,41 @@ import java.util.function.Function;
  * The additional columns are added after the original columns,
  * see {@link com.netease.arctic.iceberg.optimize.DeleteFilter}.
  * It shall be projected before sent to downstream. This can be processed in {@link DataIterator#next()}
+ * <p>
+ * With a positive batch size, parquet files without deletes are read in batches of columns by
+ * {@link AdaptHiveFlinkVectorizedReaders}, the RowData is then reused by the iterator. Files fall back to be read row
+ * by row if deletes apply, if some rows don't belong to the source nodes or if columns can't be read in batches.
  */
 public class FlinkArcticDataReader extends AdaptHiveBaseIcebergDataReader<RowData>
     implements FileScanTaskReader<RowData> {
   private static final long serialVersionUID = -6773693031945244386L;
+  private final int batchSize;
 
   public FlinkArcticDataReader(
       ArcticFileIO fileIO, Schema tableSchema, Schema projectedSchema, String nameMapping, boolean caseSensitive,
       BiFunction<Type, Object, Object> convertConstant, boolean reuseContainer) {
     super(fileIO, tableSchema, projectedSchema, nameMapping, caseSensitive, convertConstant, reuseContainer);
+    this.batchSize = 0;
   }
 
   public FlinkArcticDataReader(
       ArcticFileIO fileIO, Schema tableSchema, Schema projectedSchema, PrimaryKeySpec primaryKeySpec,
       String nameMapping, boolean caseSensitive, BiFunction<Type, Object, Object> convertConstant,
       Set<DataTreeNode> sourceNodes, boolean reuseContainer) {
+    this(fileIO, tableSchema, projectedSchema, primaryKeySpec, nameMapping, caseSensitive, convertConstant,
+        sourceNodes, reuseContainer, 0);
+  }
+
+  /**
+   * @param batchSize max rows of a batch to read parquet files in batches of columns, 0 to read them row by row
+   */
+  public FlinkArcticDataReader(
+      ArcticFileIO fileIO, Schema tableSchema, Schema projectedSchema, PrimaryKeySpec primaryKeySpec,
+      String nameMapping, boolean caseSensitive, BiFunction<Type, Object, Object> convertConstant,
+      Set<DataTreeNode> sourceNodes, boolean reuseContainer, int batchSize) {
     super(fileIO, tableSchema, projectedSchema, primaryKeySpec, nameMapping, caseSensitive, convertConstant,
         sourceNodes, reuseContainer);
+    this.batchSize = batchSize;
   }
 
   @Override
@@ -85,7 +109,32 @@ public class FlinkArcticDataReader extends AdaptHiveBaseIcebergDataReader<RowDat
   @Override
   public CloseableIterator<RowData> open(FileScanTask fileScanTask) {
     ArcticFileScanTask arcticFileScanTask = (ArcticFileScanTask) fileScanTask;
+    if (canReadInBatches(arcticFileScanTask)) {
+      CloseableIterator<RowData> batches = fileIO.doAs(() -> openInBatches(arcticFileScanTask));
+      if (batches != null) {
+        return batches;
+      }
+    }
     CloseableIterable<RowData> rowDataIterable = readData(arcticFileScanTask);
     return fileIO.doAs(rowDataIterable::iterator);
   }
+
+  /**
+   * Rows of a file in nodes of the source nodes don't need to be filtered by nodes.
+   */
+  private boolean canReadInBatches(ArcticFileScanTask task) {
+    if (batchSize <= 0 || !(fileIO instanceof ArcticHadoopFileIO) || task.file().format() != FileFormat.PARQUET ||
+        !task.deletes().isEmpty()) {
+      return false;
+    }
+    return sourceNodes == null || sourceNodes.stream().anyMatch(node -> task.file().node().isSonOf(node));
+  }
+
+  private CloseableIterator<RowData> openInBatches(ArcticFileScanTask task) throws IOException {
+    Map<Integer, ?> idToConstant = DataReaderCommon.getIdToConstant(
+        task, projectedSchema, AdaptHiveFlinkVectorizedReaders::convertConstant);
+    return AdaptHiveFlinkVectorizedReaders.open(
+        ((ArcticHadoopFileIO) fileIO).conf(), task, projectedSchema, idToConstant,
+        nameMapping == null ? null : NameMappingParser.fromJson(nameMapping), batchSize);
+  }
 }
@@ -23,7 +23,10 @@ import com.netease.arctic.flink.read.FlinkSplitPlanner;
 import com.netease.arctic.flink.read.hybrid.enumerator.ContinuousSplitPlannerImplTest;
 import com.netease.arctic.flink.read.hybrid.split.ArcticSplit;
 import com.netease.arctic.flink.read.hybrid.split.ChangelogSplit;
+import com.netease.arctic.flink.read.source.ChangeLogDataIterator;
 import com.netease.arctic.flink.read.source.DataIterator;
+import com.netease.arctic.flink.read.source.FileScanTaskReader;
+import com.netease.arctic.flink.table.descriptors.ArcticValidator;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.BaseArcticFileScanTask;
 import com.netease.arctic.table.KeyedTable;
@@ -34,6 +37,7 @@ import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.data.TimestampData;
 import org.apache.flink.types.RowKind;
 import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.flink.FlinkSchemaUtil;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.TaskWriter;
@@ -44,10 +48,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -121,6 +129,171 @@ public class RowDataReaderFunctionTest extends ContinuousSplitPlannerImplTest {
     assertArrayEquals(excepts2(), actual);
   }
 
+  @Test
+  public void testReadInBatches() {
+    Configuration config = new Configuration();
+    config.set(ArcticValidator.SOURCE_READER_VECTORIZED_READ_ENABLED, true);
+    RowDataReaderFunction rowDataReaderFunction = new RowDataReaderFunction(
+        config,
+        testKeyedTable.schema(),
+        testKeyedTable.schema(),
+        testKeyedTable.primaryKeySpec(),
+        null,
+        true,
+        testKeyedTable.io()
+    );
+    RowDataRecordFactory recordFactory = new RowDataRecordFactory(FlinkSchemaUtil.convert(testKeyedTable.schema()));
+
+    List<RowData> actual = new ArrayList<>();
+    FlinkSplitPlanner.planFullTable(testKeyedTable, new AtomicInteger(0)).forEach(split -> {
+      DataIterator<RowData> dataIterator = rowDataReaderFunction.createDataIterator(split);
+      while (dataIterator.hasNext()) {
+        // rows read in batches are reused, copy them as the batcher does
+        RowData[] copy = recordFactory.createBatch(1);
+        recordFactory.clone(dataIterator.next(), copy, 0);
+        actual.add(copy[0]);
+      }
+    });
+
+    assertArrayEquals(excepts(), actual);
+  }
+
+  @Test
+  public void testSeekChangelog() throws IOException {
+    RowDataReaderFunction rowDataReaderFunction = new RowDataReaderFunction(
+        new Configuration(),
+        testKeyedTable.schema(),
+        testKeyedTable.schema(),
+        testKeyedTable.primaryKeySpec(),
+        null,
+        true,
+        testKeyedTable.io()
+    );
+    writeUpdate();
+
+    List<RowData> expected = new ArrayList<>();
+    List<RowData> actual = new ArrayList<>();
+    testKeyedTable.changeTable().refresh();
+    List<ArcticSplit> splits =
+        FlinkSplitPlanner.planChangeTable(testKeyedTable.changeTable().newScan(), new AtomicInteger(0));
+    for (ArcticSplit split : splits) {
+      try (DataIterator<RowData> dataIterator = rowDataReaderFunction.createDataIterator(split)) {
+        dataIterator.forEachRemaining(expected::add);
+      }
+
+      ChangeLogDataIterator<RowData> changelog =
+          (ChangeLogDataIterator<RowData>) rowDataReaderFunction.createDataIterator(split);
+      actual.add(changelog.next());
+      try (ChangeLogDataIterator<RowData> restored =
+               (ChangeLogDataIterator<RowData>) rowDataReaderFunction.createDataIterator(split)) {
+        restored.seek(changelog.insertFileOffset(), changelog.deleteFileOffset(),
+            changelog.insertRecordOffset(), changelog.deleteRecordOffset());
+        restored.forEachRemaining(actual::add);
+      }
+      changelog.close();
+    }
+
+    Assert.assertFalse(expected.isEmpty());
+    assertArrayEquals(sortRowDataCollection(expected), actual);
+  }
+
+  @Test
+  public void testSeekLegacyChangelogPosition() throws IOException {
+    RowDataReaderFunction rowDataReaderFunction = new RowDataReaderFunction(
+        new Configuration(),
+        testKeyedTable.schema(),
+        testKeyedTable.schema(),
+        testKeyedTable.primaryKeySpec(),
+        null,
+        true,
+        testKeyedTable.io()
+    );
+    writeUpdate();
+
+    testKeyedTable.changeTable().refresh();
+    List<ArcticSplit> splits =
+        FlinkSplitPlanner.planChangeTable(testKeyedTable.changeTable().newScan(), new AtomicInteger(0));
+    Assert.assertFalse(splits.isEmpty());
+    for (ArcticSplit split : splits) {
+      ChangelogSplit changelogSplit = split.asChangelogSplit();
+      int insertFiles = changelogSplit.insertTasks().size();
+      int deleteFiles = changelogSplit.deleteTasks() == null ? 0 : changelogSplit.deleteTasks().size();
+      // positions of files read one by one after all the files replayed all the rows
+      try (ChangeLogDataIterator<RowData> restored =
+               (ChangeLogDataIterator<RowData>) rowDataReaderFunction.createDataIterator(split)) {
+        restored.seek(insertFiles, deleteFiles, 0, 0);
+        Assert.assertFalse(restored.hasNext());
+      }
+
+      try (ChangeLogDataIterator<RowData> restored =
+               (ChangeLogDataIterator<RowData>) rowDataReaderFunction.createDataIterator(split)) {
+        Assert.assertThrows(IllegalStateException.class, () -> restored.seek(insertFiles, deleteFiles, 1, 0));
+      }
+    }
+  }
+
+  @Test
+  public void testReadChangelogOpensFilesOfOneTransaction() throws IOException {
+    writeUpdate();
+
+    testKeyedTable.changeTable().refresh();
+    List<ArcticSplit> splits =
+        FlinkSplitPlanner.planChangeTable(testKeyedTable.changeTable().newScan(), new AtomicInteger(0));
+    boolean mergedTransactions = false;
+    AtomicInteger maxOpenTransactions = new AtomicInteger();
+    for (ArcticSplit split : splits) {
+      ChangelogSplit changelogSplit = split.asChangelogSplit();
+      List<ArcticFileScanTask> tasks = new ArrayList<>(changelogSplit.insertTasks());
+      if (changelogSplit.deleteTasks() != null) {
+        tasks.addAll(changelogSplit.deleteTasks());
+      }
+      mergedTransactions |= tasks.stream().map(task -> task.file().transactionId()).distinct().count() > 1;
+
+      // transaction ids of open files by path, every file has the rows of file offsets 1, 2 and 3
+      Map<String, Long> openFiles = new HashMap<>();
+      FileScanTaskReader<Long> reader = fileScanTask -> {
+        String path = fileScanTask.file().path().toString();
+        synchronized (openFiles) {
+          openFiles.put(path, ((ArcticFileScanTask) fileScanTask).file().transactionId());
+          maxOpenTransactions.accumulateAndGet((int) openFiles.values().stream().distinct().count(), Math::max);
+        }
+        Iterator<Long> offsets = Arrays.asList(1L, 2L, 3L).iterator();
+        return new CloseableIterator<Long>() {
+          @Override
+          public boolean hasNext() {
+            return offsets.hasNext();
+          }
+
+          @Override
+          public Long next() {
+            return offsets.next();
+          }
+
+          @Override
+          public void close() {
+            synchronized (openFiles) {
+              openFiles.remove(path);
+            }
+          }
+        };
+      };
+
+      long rows = 0;
+      try (ChangeLogDataIterator<Long> changelog = new ChangeLogDataIterator<>(reader,
+          changelogSplit.insertTasks(), changelogSplit.deleteTasks(), offset -> offset, offset -> offset,
+          ChangeLogDataIterator.ChangeActionTrans::row)) {
+        while (changelog.hasNext()) {
+          changelog.next();
+          rows++;
+        }
+      }
+      Assert.assertEquals(3L * tasks.size(), rows);
+      Assert.assertTrue(openFiles.isEmpty());
+    }
+    Assert.assertTrue(mergedTransactions);
+    Assert.assertEquals(1, maxOpenTransactions.get());
+  }
+
   protected void assertArrayEquals(RowData[] excepts, List<RowData> actual) {
     Assert.assertArrayEquals(excepts, sortRowDataCollection(actual));
   }
@@ -156,34 +156,61 @@ public class AdaptHiveGenericTaskWriterBuilder implements TaskWriterBuilder<Reco
     long mask = PropertyUtil.propertyAsLong(table.properties(), TableProperties.BASE_FILE_INDEX_HASH_BUCKET,
         TableProperties.BASE_FILE_INDEX_HASH_BUCKET_DEFAULT) - 1;
 
-    String baseLocation;
-    EncryptionManager encryptionManager;
     Schema schema;
     PrimaryKeySpec primaryKeySpec = null;
     if (table.isKeyedTable()) {
       KeyedTable keyedTable = table.asKeyedTable();
-      baseLocation = keyedTable.baseLocation();
-      encryptionManager = keyedTable.baseTable().encryption();
       schema = keyedTable.baseTable().schema();
       primaryKeySpec = keyedTable.primaryKeySpec();
+    } else {
+      schema = table.asUnkeyedTable().schema();
+    }
+
+    OutputFileFactory outputFileFactory = buildBaseOutputFileFactory(locationKind, fileFormat);
+    FileAppenderFactory<Record> appenderFactory = TableTypeUtil.isHive(table) ?
+        new AdaptHiveGenericAppenderFactory(schema, table.spec()) :
+        new GenericAppenderFactory(schema, table.spec());
+    return new GenericBaseTaskWriter(fileFormat, appenderFactory,
+        outputFileFactory,
+        table.io(), fileSizeBytes, mask, schema, table.spec(), primaryKeySpec);
+  }
+
+  /**
+   * Build the factory naming the base files written by the base writer of the operation, for writers producing
+   * files without {@link #buildWriter}.
+   */
+  public OutputFileFactory buildBaseOutputFileFactory(WriteOperationKind writeOperationKind) {
+    LocationKind locationKind = AdaptHiveOperateToTableRelation.INSTANT.getLocationKindsFromOperateKind(
+        table,
+        writeOperationKind);
+    if (locationKind != BaseLocationKind.INSTANT && locationKind != HiveLocationKind.INSTANT) {
+      throw new IllegalArgumentException("Not support Location Kind:" + locationKind);
+    }
+    preconditions();
+    FileFormat fileFormat = FileFormat.valueOf((table.properties().getOrDefault(
+        TableProperties.BASE_FILE_FORMAT,
+        TableProperties.BASE_FILE_FORMAT_DEFAULT).toUpperCase(Locale.ENGLISH)));
+    return buildBaseOutputFileFactory(locationKind, fileFormat);
+  }
+
+  private OutputFileFactory buildBaseOutputFileFactory(LocationKind locationKind, FileFormat fileFormat) {
+    String baseLocation;
+    EncryptionManager encryptionManager;
+    if (table.isKeyedTable()) {
+      KeyedTable keyedTable = table.asKeyedTable();
+      baseLocation = keyedTable.baseLocation();
+      encryptionManager = keyedTable.baseTable().encryption();
     } else {
       UnkeyedTable table = this.table.asUnkeyedTable();
       baseLocation = table.location();
       encryptionManager = table.encryption();
-      schema = table.schema();
     }
 
-    OutputFileFactory outputFileFactory = locationKind == HiveLocationKind.INSTANT ?
+    return locationKind == HiveLocationKind.INSTANT ?
         new AdaptHiveOutputFileFactory(((SupportHive) table).hiveLocation(), table.spec(), fileFormat,
             table.io(), encryptionManager, partitionId, taskId, transactionId, customHiveSubdirectory) :
         new CommonOutputFileFactory(baseLocation, table.spec(), fileFormat, table.io(),
             encryptionManager, partitionId, taskId, transactionId);
-    FileAppenderFactory<Record> appenderFactory = TableTypeUtil.isHive(table) ?
-        new AdaptHiveGenericAppenderFactory(schema, table.spec()) :
-        new GenericAppenderFactory(schema, table.spec());
-    return new GenericBaseTaskWriter(fileFormat, appenderFactory,
-        outputFileFactory,
-        table.io(), fileSizeBytes, mask, schema, table.spec(), primaryKeySpec);
   }
 
   private GenericChangeTaskWriter buildChangeWriter() {
@@ -24,6 +24,7 @@ import com.netease.arctic.hive.op.OverwriteHiveFiles;
 import com.netease.arctic.io.ArcticHadoopFileIO;
 import com.netease.arctic.op.OverwriteBaseFiles;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.PartitionPropertyIndex;
 import com.netease.arctic.table.TableIdentifier;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.table.UnkeyedTable;
@@ -48,7 +49,6 @@ import org.apache.iceberg.relocated.com.google.common.collect.Maps;
 import org.apache.iceberg.relocated.com.google.common.collect.Multimaps;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
-import org.apache.iceberg.util.StructLikeMap;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -142,12 +142,8 @@ public class HiveMetaSynchronizer {
         Table hiveTable =
             hiveClient.run(client -> client.getTable(table.id().getDatabase(), table.id().getTableName()));
         String hiveTransientTime =  hiveTable.getParameters().get("transient_lastDdlTime");
-        StructLikeMap<Map<String, String>> structLikeMap = baseStore.partitionProperty();
-        String arcticTransientTime = null;
-        if (structLikeMap.get(TablePropertyUtil.EMPTY_STRUCT) != null) {
-          arcticTransientTime = structLikeMap.get(TablePropertyUtil.EMPTY_STRUCT)
-              .get(HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME);
-        }
+        String arcticTransientTime = baseStore.partitionPropertyIndex().property(TablePropertyUtil.EMPTY_STRUCT,
+            HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME);
         if (arcticTransientTime == null || !arcticTransientTime.equals(hiveTransientTime)) {
           List<DataFile> hiveDataFiles = listHivePartitionFiles(table, Maps.newHashMap(),
               hiveTable.getSd().getLocation());
@@ -178,13 +174,13 @@ public class HiveMetaSynchronizer {
         List<DataFile> filesToDelete = Lists.newArrayList();
         List<DataFile> filesToAdd = Lists.newArrayList();
         List<StructLike> icebergPartitions = Lists.newArrayList(filesMap.keySet());
+        PartitionPropertyIndex partitionProperty = baseStore.partitionPropertyIndex();
         for (Partition hivePartition : hivePartitions) {
           StructLike partitionData = HivePartitionUtil.buildPartitionData(hivePartition.getValues(), table.spec());
           icebergPartitions.remove(partitionData);
           String hiveTransientTime =  hivePartition.getParameters().get("transient_lastDdlTime");
-          String arcticTransientTime = baseStore.partitionProperty().containsKey(partitionData) ?
-              baseStore.partitionProperty().get(partitionData)
-                  .get(HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME) : null;
+          String arcticTransientTime = partitionProperty.property(partitionData,
+              HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME);
           // compare hive partition parameter transient_lastDdlTime with arctic partition properties to
           // find out if the partition is changed.
           if (arcticTransientTime == null || !arcticTransientTime.equals(hiveTransientTime)) {
@@ -30,7 +30,8 @@ import java.io.Serializable;
 public class OptimizerConfig implements Serializable {
   @Option(name = "-a", aliases = "--ams-url", usage = "The ams url")
   private String amsUrl;
-  @Option(name = "-p", aliases = "--executor-parallel", usage = "Optimize parallel")
+  @Option(name = "-p", aliases = "--executor-parallel",
+      usage = "Optimize parallel, local optimizer starts the same number of executors")
   private int executorParallel;
   @Option(name = "-q", aliases = "--queue-id", usage = "queue")
   private int queueId;
@@ -55,6 +56,23 @@ public class OptimizerConfig implements Serializable {
   @Option(name = "-rp", aliases = "--rock-base-path", usage = "rocks db base path")
   private String rocksDBBasePath;
 
+  @Option(name = "-tp", aliases = "--task-parallel",
+      usage = "max threads shared by executors to optimize tree nodes or file groups of a task in parallel")
+  private int taskParallel = Runtime.getRuntime().availableProcessors();
+
+  @Option(name = "-sb", aliases = "--sort-buffer-size",
+      usage = "max byte size of records buffered in memory to cluster rows of a file group, " +
+          "more records are spilled to disk")
+  private long sortBufferSizeInBytes = 67108864; // 64 M
+
+  @Option(name = "-ts", aliases = "--task-slots",
+      usage = "max tasks executed concurrently by each executor, only for flink optimizer")
+  private int taskSlots = 1;
+
+  @Option(name = "-pa", aliases = "--poll-ahead",
+      usage = "tasks polled ahead by each executor while its task slots are busy, only for flink optimizer")
+  private int pollAhead = 0;
+
   public OptimizerConfig() {
   }
 
@@ -143,11 +161,46 @@ public class OptimizerConfig implements Serializable {
     this.rocksDBBasePath = rocksDBBasePath;
   }
 
+  public int getTaskParallel() {
+    return taskParallel;
+  }
+
+  public void setTaskParallel(int taskParallel) {
+    this.taskParallel = taskParallel;
+  }
+
+  public long getSortBufferSizeInBytes() {
+    return sortBufferSizeInBytes;
+  }
+
+  public void setSortBufferSizeInBytes(long sortBufferSizeInBytes) {
+    this.sortBufferSizeInBytes = sortBufferSizeInBytes;
+  }
+
+  public int getTaskSlots() {
+    return taskSlots;
+  }
+
+  public void setTaskSlots(int taskSlots) {
+    this.taskSlots = taskSlots;
+  }
+
+  public int getPollAhead() {
+    return pollAhead;
+  }
+
+  public void setPollAhead(int pollAhead) {
+    this.pollAhead = pollAhead;
+  }
+
   @Override
   public String toString() {
     return "OptimizerConfig{" +
         "amsUrl='" + amsUrl + '\'' +
         ", executorParallel=" + executorParallel +
+        ", taskParallel=" + taskParallel +
+        ", taskSlots=" + taskSlots +
+        ", pollAhead=" + pollAhead +
         ", queueId=" + queueId +
         ", optimizerId='" + optimizerId + '\'' +
         ", heartBeat=" + heartBeat +
@@ -29,14 +29,25 @@ import org.slf4j.LoggerFactory;
 public class FlinkConsumer extends RichParallelSourceFunction<TaskWrapper> {
   private static final Logger LOG = LoggerFactory.getLogger(FlinkConsumer.class);
 
+  private static final long MIN_RETRY_INTERVAL = 500;
+  private static final long MAX_RETRY_INTERVAL = 10000;
+
   private final BaseTaskConsumer taskConsumer;
+  private final int pollAhead;
+  private volatile boolean running = true;
 
   public FlinkConsumer(OptimizerConfig config) {
-    this.taskConsumer = new BaseTaskConsumer(config);
+    this(new BaseTaskConsumer(config), config);
   }
 
   public FlinkConsumer(BaseTaskConsumer taskConsumer) {
     this.taskConsumer = taskConsumer;
+    this.pollAhead = 0;
+  }
+
+  public FlinkConsumer(BaseTaskConsumer taskConsumer, OptimizerConfig config) {
+    this.taskConsumer = taskConsumer;
+    this.pollAhead = Math.max(config.getPollAhead(), 0);
   }
 
   @Override
@@ -47,32 +58,33 @@ public class FlinkConsumer extends RichParallelSourceFunction<TaskWrapper> {
   @Override
   public void run(SourceContext<TaskWrapper> sourceContext) throws Exception {
     int retry = 0;
-    while (true) {
+    while (running) {
       try {
-        TaskWrapper task = taskConsumer.pollTask();
+        // tasks polled ahead are kept by the consumer, they are collected once the executor has a free slot
+        TaskWrapper task = taskConsumer.pollTask(BaseTaskConsumer.DEFAULT_POLL_WAIT_TIMEOUT, pollAhead);
+        retry = 0;
         if (task != null) {
-          sourceContext.collect(task);
+          synchronized (sourceContext.getCheckpointLock()) {
+            sourceContext.collect(task);
+          }
         } else {
           LOG.info("poll no task");
         }
       } catch (Exception e) {
+        if (!running) {
+          break;
+        }
         // The subscription is abnormal and cannot be restored, and a new consumer can be activated
-        LOG.error("failed to poll task, retry {}", retry, e);
         retry++;
-      } finally {
-        if (retry >= 3) {
-          //stop = true;
-          retry = 0;
-          LOG.error("flink source has tried too many times, and the subscription message is suspended." +
-              " Please check for errors");
-          Thread.sleep(10000);
-        }
+        long retryInterval = Math.min(MIN_RETRY_INTERVAL << Math.min(retry - 1, 16), MAX_RETRY_INTERVAL);
+        LOG.error("failed to poll task, retry {} after {}ms", retry, retryInterval, e);
+        Thread.sleep(retryInterval);
       }
     }
   }
 
   @Override
   public void cancel() {
-
+    running = false;
   }
 }
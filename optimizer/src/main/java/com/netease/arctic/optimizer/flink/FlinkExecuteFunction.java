@@ -24,30 +24,58 @@ import com.netease.arctic.optimizer.TaskWrapper;
 import com.netease.arctic.optimizer.operator.BaseTaskExecutor;
 import com.netease.arctic.optimizer.util.CircularArray;
 import org.apache.flink.api.common.ExecutionConfig;
-import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.Meter;
 import org.apache.flink.metrics.MeterView;
-import org.apache.flink.streaming.api.functions.ProcessFunction;
-import org.apache.flink.util.Collector;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
+import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.relocated.com.google.common.collect.Iterables;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
-public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeTaskStat>
-    implements BaseTaskExecutor.ExecuteListener {
+/**
+ * Execute tasks in task slots of the subtask.
+ * <p>
+ * Tasks are executed by slot threads, so the next task can be received while tasks are running, and receiving blocks
+ * the chained consumer only when all slots are busy. Results are emitted by the operator thread once a task finishes,
+ * so reporting them overlaps with executing the following tasks.
+ */
+public class FlinkExecuteFunction extends AbstractStreamOperator<OptimizeTaskStat>
+    implements OneInputStreamOperator<TaskWrapper, OptimizeTaskStat>, ProcessingTimeCallback,
+    BaseTaskExecutor.ExecuteListener {
   private static final Logger LOG = LoggerFactory.getLogger(FlinkExecuteFunction.class);
   private static final String INFLUXDB_TAG_NAME = "arctic_task_id";
+  private static final long EMIT_INTERVAL = 1000; // 1s
+  private static final long SLOT_WAIT_INTERVAL = 100; // 100ms
 
   private final BaseTaskExecutor executor;
   private final OptimizerConfig config;
+  private final int taskSlots;
 
   private final CircularArray<TaskStat> latestTaskStats = new CircularArray<>(10);
   private final ArrayBlockingQueue<TaskStat> completedTasks = new ArrayBlockingQueue<>(256);
-  private volatile TaskStat currentTaskStat;
+  // stats of running tasks by the slot thread executing them
+  private final Map<Thread, TaskStat> runningTaskStats = new ConcurrentHashMap<>();
+
+  private transient ExecutorService slotPool;
+  private transient Semaphore freeSlots;
+  private transient Queue<OptimizeTaskStat> results;
+  private transient volatile Throwable failure;
 
   private Meter inputFlowRateMeter;
   private Meter outputFlowRateMeter;
@@ -59,50 +87,139 @@ public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeT
   FlinkExecuteFunction(OptimizerConfig config) {
     this.config = config;
     this.executor = new BaseTaskExecutor(config, this);
+    this.taskSlots = Math.max(config.getTaskSlots(), 1);
+    // chain with the consumer, so the consumer polls the next task only when a slot is free
+    setChainingStrategy(ChainingStrategy.ALWAYS);
   }
 
   public FlinkExecuteFunction(BaseTaskExecutor executor,
                               OptimizerConfig config) {
     this.executor = executor;
     this.config = config;
+    this.taskSlots = Math.max(config.getTaskSlots(), 1);
+    setChainingStrategy(ChainingStrategy.ALWAYS);
+  }
+
+  @Override
+  public void processElement(StreamRecord<TaskWrapper> element) throws Exception {
+    TaskWrapper task = element.getValue();
+    // do not start the task if a running task has failed the subtask
+    emitResults();
+    // wait for a free slot, keep emitting results of finished tasks meanwhile
+    while (!freeSlots.tryAcquire(SLOT_WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+      emitResults();
+    }
+    try {
+      slotPool.execute(() -> {
+        try {
+          results.add(executor.execute(task));
+        } catch (Throwable t) {
+          LOG.error("failed to execute task {}", task.getTask().getTaskId(), t);
+          if (failure == null) {
+            failure = t;
+          }
+        } finally {
+          freeSlots.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      freeSlots.release();
+      throw e;
+    }
+    emitResults();
+  }
+
+  @Override
+  public void onProcessingTime(long timestamp) throws Exception {
+    emitResults();
+    registerEmitTimer();
   }
 
   @Override
-  public void processElement(TaskWrapper compactTaskTaskWrapper,
-                             ProcessFunction<TaskWrapper, OptimizeTaskStat>.Context context,
-                             Collector<OptimizeTaskStat> collector) throws Exception {
-    OptimizeTaskStat result = executor.execute(compactTaskTaskWrapper);
-    collector.collect(result);
+  public void close() throws Exception {
+    // wait for running tasks and emit their results
+    if (freeSlots != null) {
+      while (!freeSlots.tryAcquire(taskSlots, SLOT_WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+        drainResults();
+      }
+      freeSlots.release(taskSlots);
+      emitResults();
+    }
+    super.close();
+  }
+
+  @Override
+  public void dispose() throws Exception {
+    if (slotPool != null) {
+      slotPool.shutdownNow();
+    }
+    super.dispose();
+  }
+
+  private void registerEmitTimer() {
+    long now = getProcessingTimeService().getCurrentProcessingTime();
+    getProcessingTimeService().registerTimer(now + EMIT_INTERVAL, this);
+  }
+
+  private void emitResults() throws InterruptedException {
+    drainResults();
+    // fail the subtask like executing in the operator thread
+    Throwable t = failure;
+    if (t != null) {
+      // tasks running in other slots are not lost, wait for them and emit their results before failing
+      freeSlots.acquire(taskSlots);
+      try {
+        drainResults();
+      } finally {
+        freeSlots.release(taskSlots);
+      }
+      throw new IllegalStateException("failed to execute task", t);
+    }
+  }
+
+  private void drainResults() {
+    OptimizeTaskStat result;
+    while ((result = results.poll()) != null) {
+      output.collect(new StreamRecord<>(result));
+    }
   }
 
   @Override
   public void onTaskStart(Iterable<ContentFile<?>> inputFiles) {
-    this.currentTaskStat = new TaskStat();
-    this.currentTaskStat.recordInputFiles(inputFiles);
+    TaskStat taskStat = new TaskStat();
+    taskStat.recordInputFiles(inputFiles);
+    this.runningTaskStats.put(Thread.currentThread(), taskStat);
     int size = Iterables.size(inputFiles);
     long sum = 0;
     for (ContentFile<?> inputFile : inputFiles) {
       sum += inputFile.fileSizeInBytes();
     }
-    // file cnt rate /min
-    this.inputFileCntMeter.markEvent(size * 60L);
-    this.inputFlowRateMeter.markEvent(sum);
+    synchronized (this) {
+      // file cnt rate /min
+      this.inputFileCntMeter.markEvent(size * 60L);
+      this.inputFlowRateMeter.markEvent(sum);
+    }
     LOG.info("record metrics inputFlowRate={}, InputFileCnt={}", sum, size);
   }
 
   @Override
   public void onTaskFinish(Iterable<ContentFile<?>> outputFiles) {
-    this.currentTaskStat.recordOutFiles(outputFiles);
-    this.currentTaskStat.finish();
-    this.latestTaskStats.add(currentTaskStat);
-    TaskStat taskStat = this.currentTaskStat;
-    this.currentTaskStat = null;
+    TaskStat taskStat = this.runningTaskStats.remove(Thread.currentThread());
+    if (taskStat == null) {
+      LOG.warn("finished task is not started in slot {}", Thread.currentThread().getName());
+      return;
+    }
+    taskStat.recordOutFiles(outputFiles);
+    taskStat.finish();
+    synchronized (latestTaskStats) {
+      this.latestTaskStats.add(taskStat);
+    }
     try {
       this.completedTasks.add(taskStat);
     } catch (IllegalStateException e) {
       LOG.warn("completed queue may be full, poll the first one and retry add", e);
       this.completedTasks.poll();
-      this.completedTasks.add(taskStat);
+      this.completedTasks.offer(taskStat);
     }
 
     int size = 0;
@@ -113,15 +230,28 @@ public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeT
         sum += outputFile.fileSizeInBytes();
       }
     }
-    // file cnt rate /min
-    this.outputFileCntMeter.markEvent(size * 60L);
-    this.outputFlowRateMeter.markEvent(sum);
+    synchronized (this) {
+      // file cnt rate /min
+      this.outputFileCntMeter.markEvent(size * 60L);
+      this.outputFlowRateMeter.markEvent(sum);
+    }
     LOG.info("record metrics outputFlowRate={}, outputFileCnt={}", sum, size);
   }
 
   @Override
-  public void open(Configuration parameters) throws Exception {
-    super.open(parameters);
+  public void onTaskFailed(Throwable t) {
+    this.runningTaskStats.remove(Thread.currentThread());
+  }
+
+  @Override
+  public void open() throws Exception {
+    super.open();
+    this.slotPool = Executors.newFixedThreadPool(taskSlots, new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("optimizer-executor-" + getRuntimeContext().getIndexOfThisSubtask() + "-slot-%d").build());
+    this.freeSlots = new Semaphore(taskSlots);
+    this.results = new ConcurrentLinkedQueue<>();
+    registerEmitTimer();
+
     ExecutionConfig.GlobalJobParameters globalJobParameters =
         getRuntimeContext().getExecutionConfig().getGlobalJobParameters();
 
@@ -203,20 +333,22 @@ public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeT
     int cnt = 0;
     int fileCnt = 0;
     long totalFileSize = 0;
-    for (TaskStat taskStat : latestTaskStats) {
-      if (taskStat == null) {
-        break;
-      }
-      if (input) {
-        fileCnt += taskStat.getInputFileCnt();
-        totalFileSize += taskStat.getInputTotalSize();
-      } else {
-        fileCnt += taskStat.getOutputFileCnt();
-        totalFileSize += taskStat.getOutputTotalSize();
-      }
-      cnt++;
-      if (cnt == n) {
-        break;
+    synchronized (latestTaskStats) {
+      for (TaskStat taskStat : latestTaskStats) {
+        if (taskStat == null) {
+          break;
+        }
+        if (input) {
+          fileCnt += taskStat.getInputFileCnt();
+          totalFileSize += taskStat.getInputTotalSize();
+        } else {
+          fileCnt += taskStat.getOutputFileCnt();
+          totalFileSize += taskStat.getOutputTotalSize();
+        }
+        cnt++;
+        if (cnt == n) {
+          break;
+        }
       }
     }
     return fileCnt == 0 ? 0 : totalFileSize / fileCnt;
@@ -229,15 +361,17 @@ public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeT
     int cnt = 0;
     int taskCnt = 0;
     long totalTime = 0;
-    for (TaskStat taskStat : latestTaskStats) {
-      if (taskStat == null) {
-        break;
-      }
-      totalTime += taskStat.getDuration();
-      taskCnt++;
-      cnt++;
-      if (cnt == n) {
-        break;
+    synchronized (latestTaskStats) {
+      for (TaskStat taskStat : latestTaskStats) {
+        if (taskStat == null) {
+          break;
+        }
+        totalTime += taskStat.getDuration();
+        taskCnt++;
+        cnt++;
+        if (cnt == n) {
+          break;
+        }
       }
     }
     return taskCnt == 0 ? 0 : totalTime / taskCnt;
@@ -277,17 +411,17 @@ public class FlinkExecuteFunction extends ProcessFunction<TaskWrapper, OptimizeT
       }
       duration += taskDuration;
     }
-    // get current task execute duration
-    TaskStat current = this.currentTaskStat;
+    // get running tasks execute duration
     long now = System.currentTimeMillis();
-    if (current != null) {
+    for (TaskStat current : runningTaskStats.values()) {
       if (current.getStartTime() < lastUsageCheckTime) {
         duration += (now - lastUsageCheckTime);
       } else {
         duration += (now - current.getStartTime());
       }
     }
-    long totalDuration = now - lastUsageCheckTime;
+    // all slots busy is full usage
+    long totalDuration = (now - lastUsageCheckTime) * taskSlots;
     this.lastUsageCheckTime = now;
     double usage;
     if (duration > totalDuration) {
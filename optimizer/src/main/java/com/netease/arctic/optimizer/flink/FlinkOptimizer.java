@@ -19,12 +19,14 @@
 package com.netease.arctic.optimizer.flink;
 
 import com.alibaba.fastjson.JSONObject;
+import com.netease.arctic.ams.api.OptimizeTaskStat;
 import com.netease.arctic.ams.api.properties.OptimizerProperties;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import com.netease.arctic.optimizer.StatefulOptimizer;
 import com.netease.arctic.optimizer.operator.BaseToucher;
 import com.netease.arctic.optimizer.util.OptimizerUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeinfo.Types;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
@@ -105,6 +107,12 @@ public class FlinkOptimizer implements StatefulOptimizer {
     cmd +=
         " -a " + amsUrl + " -q " + groupInfo.get("id") + " -p " + parallelism + " --heart-beat " + heartBeatInterval +
             " -id " + jobInfo.get(OptimizerProperties.OPTIMIZER_JOB_ID);
+    if (groupProperties.containsKey(OptimizerProperties.OPTIMIZER_GROUP_TASK_SLOTS)) {
+      cmd += " --task-slots " + groupProperties.getInteger(OptimizerProperties.OPTIMIZER_GROUP_TASK_SLOTS);
+    }
+    if (groupProperties.containsKey(OptimizerProperties.OPTIMIZER_GROUP_POLL_AHEAD)) {
+      cmd += " --poll-ahead " + groupProperties.getInteger(OptimizerProperties.OPTIMIZER_GROUP_POLL_AHEAD);
+    }
 
     String envCmd = "";
     if (containerProperties.containsKey(HADOOP_CONF_DIR)) {
@@ -233,9 +241,9 @@ public class FlinkOptimizer implements StatefulOptimizer {
 
     env.addSource(new FlinkConsumer(optimizerConfig))
         .setParallelism(optimizerConfig.getExecutorParallel())
-        .process(new FlinkExecuteFunction(optimizerConfig))
+        .transform(FlinkExecuteFunction.class.getName(), TypeInformation.of(OptimizeTaskStat.class),
+            new FlinkExecuteFunction(optimizerConfig))
         .setParallelism(optimizerConfig.getExecutorParallel())
-        .name(FlinkExecuteFunction.class.getName())
         .transform(FlinkReporter.class.getName(), Types.VOID, new FlinkReporter(optimizerConfig))
         .setParallelism(1)
         .addSink(new DiscardingSink<>())
@@ -26,37 +26,57 @@ import org.apache.flink.streaming.api.operators.AbstractStreamOperator;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class FlinkReporter extends AbstractStreamOperator<Void>
     implements OneInputStreamOperator<OptimizeTaskStat, Void> {
   private static final Logger LOG = LoggerFactory.getLogger(FlinkReporter.class);
   public static final String STATE_JOB_ID = "flink-job-id";
+  private static final int MAX_REPORT_THREADS = 8;
 
   private final BaseTaskReporter taskReporter;
   private final BaseToucher toucher;
   private final long heartBeatInterval;
+  private final int reportThreads;
   private volatile boolean stopped = false;
   private Thread thread;
+  private transient ExecutorService reportPool;
 
   public FlinkReporter(BaseTaskReporter taskReporter, BaseToucher toucher, OptimizerConfig optimizerConfig) {
     this.taskReporter = taskReporter;
     this.toucher = toucher;
     this.heartBeatInterval = optimizerConfig.getHeartBeat();
+    this.reportThreads = reportThreads(optimizerConfig);
   }
 
   public FlinkReporter(OptimizerConfig config) {
     this.taskReporter = new BaseTaskReporter(config);
     this.toucher = new BaseToucher(config);
     this.heartBeatInterval = config.getHeartBeat();
+    this.reportThreads = reportThreads(config);
+  }
+
+  /**
+   * Results of all executors are reported by the single reporter, report them concurrently up to the task slots
+   * of all executors.
+   */
+  private static int reportThreads(OptimizerConfig config) {
+    int slots = Math.max(config.getExecutorParallel(), 1) * Math.max(config.getTaskSlots(), 1);
+    return Math.min(slots, MAX_REPORT_THREADS);
   }
 
   @Override
   public void open() throws Exception {
     super.open();
+    this.reportPool = Executors.newFixedThreadPool(reportThreads, new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("optimizer-reporter-%d").build());
     this.thread = new Thread(() -> {
       while (!stopped) {
         try {
@@ -82,6 +102,13 @@ public class FlinkReporter extends AbstractStreamOperator<Void>
 
   @Override
   public void close() throws Exception {
+    // finish reporting received results
+    if (reportPool != null) {
+      reportPool.shutdown();
+      while (!reportPool.awaitTermination(heartBeatInterval, TimeUnit.MILLISECONDS)) {
+        LOG.warn("reporting results not finished in {}ms, keep waiting", heartBeatInterval);
+      }
+    }
     super.close();
     stopped = true;
     if (thread != null) {
@@ -89,13 +116,43 @@ public class FlinkReporter extends AbstractStreamOperator<Void>
     }
   }
 
+  @Override
+  public void dispose() throws Exception {
+    if (reportPool != null) {
+      // on failure keep reporting the received results for a heartbeat interval before abandoning them
+      reportPool.shutdown();
+      if (!reportPool.awaitTermination(heartBeatInterval, TimeUnit.MILLISECONDS)) {
+        LOG.warn("reporting results not finished in {}ms, abandon the rest", heartBeatInterval);
+        reportPool.shutdownNow();
+      }
+    }
+    stopped = true;
+    if (thread != null) {
+      thread.interrupt();
+    }
+    super.dispose();
+  }
+
   @Override
   public void processElement(StreamRecord<OptimizeTaskStat> element) throws Exception {
-    if (element.getValue() != null) {
-      taskReporter.report(element.getValue());
-      LOG.info("report success {}", element.getValue() == null ? null : element.getValue().getTaskId());
+    OptimizeTaskStat taskStat = element.getValue();
+    if (taskStat != null) {
+      reportPool.execute(() -> report(taskStat));
     } else {
       LOG.warn("get empty task stat");
     }
   }
+
+  private void report(OptimizeTaskStat taskStat) {
+    try {
+      if (taskReporter.report(taskStat)) {
+        LOG.info("report success {}", taskStat.getTaskId());
+      } else {
+        LOG.warn("report failed {}", taskStat.getTaskId());
+      }
+    } catch (InterruptedException e) {
+      LOG.warn("reporting interrupted {}", taskStat.getTaskId());
+      Thread.currentThread().interrupt();
+    }
+  }
 }
@@ -45,9 +45,12 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An optimizer running locally.
+ * It starts {@link OptimizerConfig#getExecutorParallel()} executors, they poll tasks one at a time and idle executor
+ * slots are filled with tasks prefetched in the same poll.
  */
 public class LocalOptimizer implements StatefulOptimizer {
   private static final Logger LOG = LoggerFactory.getLogger(LocalOptimizer.class);
@@ -57,6 +60,8 @@ public class LocalOptimizer implements StatefulOptimizer {
 
   private Semaphore pollTaskSemaphore;
 
+  private AtomicInteger busyExecutors;
+
   private Consumer consumer;
 
   private Map<String, String> properties;
@@ -165,6 +170,7 @@ public class LocalOptimizer implements StatefulOptimizer {
     this.config = config;
     this.consumer = new Consumer();
     this.pollTaskSemaphore = new Semaphore(1);
+    this.busyExecutors = new AtomicInteger(0);
 
     ThreadFactory executorFactory = new ThreadFactoryBuilder().setDaemon(false)
         .setNameFormat("Executor %d").build();
@@ -176,11 +182,16 @@ public class LocalOptimizer implements StatefulOptimizer {
         Executors.newScheduledThreadPool(config.getExecutorParallel(), toucherFactory);
 
     toucherService.scheduleAtFixedRate(new Toucher(), 3000, config.getHeartBeat(), TimeUnit.MILLISECONDS);
-    executeThreadPool.execute(new Executor());
+    for (int i = 0; i < Math.max(config.getExecutorParallel(), 1); i++) {
+      executeThreadPool.execute(new Executor());
+    }
   }
 
   public void release() {
     this.stopped = true;
+    if (consumer != null) {
+      consumer.releasePrefetchedTasks();
+    }
     if (executeThreadPool != null) {
       executeThreadPool.shutdownNow();
     }
@@ -211,7 +222,9 @@ public class LocalOptimizer implements StatefulOptimizer {
       int retry = 0;
       while (!stopped) {
         try {
-          TaskWrapper task = baseTaskConsumer.pollTask();
+          // prefetch tasks for other idle executors
+          int prefetch = config.getExecutorParallel() - busyExecutors.get() - 1;
+          TaskWrapper task = baseTaskConsumer.pollTask(BaseTaskConsumer.DEFAULT_POLL_WAIT_TIMEOUT, prefetch);
           if (task != null) {
             LOG.info("poll task {}", task);
             return task;
@@ -242,6 +255,18 @@ public class LocalOptimizer implements StatefulOptimizer {
       }
       return null;
     }
+
+    public void releasePrefetchedTasks() {
+      BaseTaskReporter baseTaskReporter = new BaseTaskReporter(config);
+      for (OptimizeTaskStat releasedTask : baseTaskConsumer.releasePrefetchedTasks()) {
+        try {
+          baseTaskReporter.report(releasedTask);
+          LOG.info("release prefetched task {}", releasedTask.getTaskId());
+        } catch (Throwable t) {
+          LOG.warn("failed to release prefetched task {}, wait for execute timeout", releasedTask.getTaskId(), t);
+        }
+      }
+    }
   }
 
   private class Executor implements Runnable {
@@ -269,11 +294,16 @@ public class LocalOptimizer implements StatefulOptimizer {
           } finally {
             pollTaskSemaphore.release();
           }
-          LOG.info("get task to execute {}", task.getTask().getTaskId());
-          OptimizeTaskStat result = baseTaskExecutor.execute(task);
-          LOG.info("execute {} {}", result.getStatus(), task.getTask().getTaskId());
-          baseTaskReporter.report(result, 20, 10000);
-          LOG.info("report success {}", result.getTaskId());
+          busyExecutors.incrementAndGet();
+          try {
+            LOG.info("get task to execute {}", task.getTask().getTaskId());
+            OptimizeTaskStat result = baseTaskExecutor.execute(task);
+            LOG.info("execute {} {}", result.getStatus(), task.getTask().getTaskId());
+            baseTaskReporter.report(result, 20, 10000);
+            LOG.info("report success {}", result.getTaskId());
+          } finally {
+            busyExecutors.decrementAndGet();
+          }
         } catch (InterruptedException e) {
           LOG.warn("execute interrupted");
           break;
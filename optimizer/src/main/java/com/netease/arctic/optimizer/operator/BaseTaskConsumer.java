@@ -18,20 +18,30 @@
 
 package com.netease.arctic.optimizer.operator;
 
+import com.netease.arctic.ams.api.ErrorMessage;
 import com.netease.arctic.ams.api.JobId;
 import com.netease.arctic.ams.api.JobType;
 import com.netease.arctic.ams.api.NoSuchObjectException;
 import com.netease.arctic.ams.api.OptimizeManager;
+import com.netease.arctic.ams.api.OptimizeStatus;
 import com.netease.arctic.ams.api.OptimizeTask;
+import com.netease.arctic.ams.api.OptimizeTaskStat;
 import com.netease.arctic.ams.api.client.OptimizeManagerClientPools;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import com.netease.arctic.optimizer.TaskWrapper;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * Consume task from Ams.
@@ -39,10 +49,12 @@ import java.util.concurrent.ThreadLocalRandom;
 public class BaseTaskConsumer implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(BaseTaskConsumer.class);
 
-  private static final long DEFAULT_POLL_WAIT_TIMEOUT = 10000; // 10s
+  public static final long DEFAULT_POLL_WAIT_TIMEOUT = 10000; // 10s
 
   private final OptimizerConfig config;
   private final JobId jobId;
+  private transient Queue<TaskWrapper> prefetchedTasks;
+  private volatile boolean batchPollSupported = true;
 
   public BaseTaskConsumer(OptimizerConfig config) {
     this.config = config;
@@ -66,9 +78,88 @@ public class BaseTaskConsumer implements Serializable {
    * @return - return null if got no task
    */
   public TaskWrapper pollTask(long timeout) throws TException {
+    return pollTask(timeout, 0);
+  }
+
+  /**
+   * poll task from Ams with timeout, prefetch at most {@code prefetch} more tasks in the same call and keep them
+   * locally for the following polls.
+   * Prefetched tasks are already executing in Ams, so prefetch should not exceed the idle executor slots.
+   *
+   * @return - return null if got no task
+   */
+  public synchronized TaskWrapper pollTask(long timeout, int prefetch) throws TException {
+    TaskWrapper prefetchedTask = prefetchedTasks().poll();
+    if (prefetchedTask != null) {
+      return prefetchedTask;
+    }
+    if (prefetch <= 0 || !batchPollSupported) {
+      int attemptId = Math.abs(ThreadLocalRandom.current().nextInt());
+      OptimizeTask task = pollTask(attemptId, timeout);
+      return task == null ? null : new TaskWrapper(task, attemptId);
+    }
+    List<TaskWrapper> tasks = pollTasks(timeout, prefetch + 1);
+    if (tasks.isEmpty()) {
+      return null;
+    }
+    prefetchedTasks().addAll(tasks.subList(1, tasks.size()));
+    return tasks.get(0);
+  }
+
+  /**
+   * poll at most maxTasks tasks from Ams with timeout in one call.
+   *
+   * @return - return empty list if got no task
+   */
+  public List<TaskWrapper> pollTasks(long timeout, int maxTasks) throws TException {
     int attemptId = Math.abs(ThreadLocalRandom.current().nextInt());
-    OptimizeTask task = pollTask(attemptId, timeout);
-    return task == null ? null : new TaskWrapper(task, attemptId);
+    try {
+      OptimizeManager.Iface optimizeManager = OptimizeManagerClientPools.getClient(config.getAmsUrl());
+      return optimizeManager.pollTasks(config.getQueueId(), jobId, attemptId + "", timeout, maxTasks).stream()
+          .map(task -> new TaskWrapper(task, attemptId))
+          .collect(Collectors.toList());
+    } catch (NoSuchObjectException e) {
+      return Collections.emptyList();
+    } catch (TApplicationException e) {
+      if (e.getType() != TApplicationException.UNKNOWN_METHOD) {
+        throw e;
+      }
+      // Ams of old version, poll tasks one by one
+      LOG.warn("Ams does not support polling tasks in batch, poll one task at a time");
+      batchPollSupported = false;
+      OptimizeTask task = pollTask(attemptId, timeout);
+      return task == null ? Collections.emptyList() : Collections.singletonList(new TaskWrapper(task, attemptId));
+    }
+  }
+
+  /**
+   * Remove the prefetched tasks not executed yet, and build Failed results for them, so that Ams can retry them
+   * at once instead of waiting for execute timeout.
+   *
+   * @return - Failed results of released tasks to report
+   */
+  public synchronized List<OptimizeTaskStat> releasePrefetchedTasks() {
+    List<OptimizeTaskStat> releasedTasks = new ArrayList<>();
+    TaskWrapper task;
+    while ((task = prefetchedTasks().poll()) != null) {
+      OptimizeTaskStat optimizeTaskStat = new OptimizeTaskStat();
+      optimizeTaskStat.setJobId(jobId);
+      optimizeTaskStat.setStatus(OptimizeStatus.Failed);
+      optimizeTaskStat.setTableIdentifier(task.getTask().getTableIdentifier());
+      optimizeTaskStat.setAttemptId(task.getAttemptId() + "");
+      optimizeTaskStat.setTaskId(task.getTask().getTaskId());
+      optimizeTaskStat.setErrorMessage(new ErrorMessage(System.currentTimeMillis(),
+          "optimizer released before executing prefetched task"));
+      releasedTasks.add(optimizeTaskStat);
+    }
+    return releasedTasks;
+  }
+
+  private Queue<TaskWrapper> prefetchedTasks() {
+    if (prefetchedTasks == null) {
+      prefetchedTasks = new ArrayDeque<>();
+    }
+    return prefetchedTasks;
   }
 
   private OptimizeTask pollTask(int attemptId, long timeout) throws TException {
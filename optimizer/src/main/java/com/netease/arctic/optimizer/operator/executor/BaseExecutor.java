@@ -31,20 +31,45 @@ import com.netease.arctic.utils.SerializationUtils;
 import com.netease.arctic.utils.TableFileUtils;
 import com.netease.arctic.utils.map.StructLikeCollections;
 import org.apache.commons.beanutils.BeanUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.MetricsConfig;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.hadoop.HadoopFileIO;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 public abstract class BaseExecutor implements Executor {
@@ -59,6 +84,9 @@ public abstract class BaseExecutor implements Executor {
 
   protected final StructLikeCollections structLikeCollections;
 
+  // subtask thread pools by task parallelism, each sized by its parallelism
+  private static final Map<Integer, ExecutorService> SUBTASK_POOLS = new ConcurrentHashMap<>();
+
   public BaseExecutor(NodeTask task, ArcticTable table, long startTime, OptimizerConfig config) {
     this.task = task;
     this.table = table;
@@ -78,6 +106,132 @@ public abstract class BaseExecutor implements Executor {
         TableFileUtils.parseFileNodeFromFileName(deleteFile.path().toString()))));
   }
 
+  /**
+   * Split files into groups to be rewritten in parallel. Files are only split if they exceed the target size in total,
+   * each group is filled up to a multiple of the target size, and files left over that don't make a target size file
+   * are merged into the last group, so splitting doesn't add small files.
+   */
+  protected <F> List<List<F>> splitFilesBySize(List<F> files, ToLongFunction<F> fileSize) {
+    long targetFileSize = Math.max(PropertyUtil.propertyAsLong(table.properties(),
+        TableProperties.SELF_OPTIMIZING_TARGET_SIZE,
+        TableProperties.SELF_OPTIMIZING_TARGET_SIZE_DEFAULT), 1);
+    long totalSize = files.stream().mapToLong(fileSize).sum();
+    int groupCount = (int) Math.max(1, Math.min(Math.min(config.getTaskParallel(), files.size()),
+        totalSize / targetFileSize));
+    if (groupCount <= 1) {
+      return Collections.singletonList(files);
+    }
+
+    long groupSize = totalSize / groupCount / targetFileSize * targetFileSize;
+    List<List<F>> groups = new ArrayList<>(groupCount);
+    List<F> group = new ArrayList<>();
+    long size = 0;
+    for (F file : files) {
+      group.add(file);
+      size += fileSize.applyAsLong(file);
+      if (size >= groupSize && groups.size() < groupCount - 1) {
+        groups.add(group);
+        group = new ArrayList<>();
+        size = 0;
+      }
+    }
+    if (!group.isEmpty()) {
+      if (size < targetFileSize && !groups.isEmpty()) {
+        groups.get(groups.size() - 1).addAll(group);
+      } else {
+        groups.add(group);
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Run subtasks of the task in parallel on the thread pool shared by executors of the optimizer with the same task
+   * parallelism, each subtask runs as the table user and writes files. If any subtask fails, the others are cancelled,
+   * files written by finished subtasks are deleted and its failure is thrown. Reading, delete filtering and writing
+   * of a subtask still run one after another on its own thread, they are not split into pipeline stages.
+   *
+   * @return files written by subtasks in order
+   */
+  protected <F extends ContentFile<?>> List<List<F>> runSubtasks(List<Callable<List<F>>> subtasks) throws Exception {
+    List<List<F>> results = new ArrayList<>(subtasks.size());
+    if (subtasks.size() <= 1 || config.getTaskParallel() <= 1) {
+      try {
+        for (Callable<List<F>> subtask : subtasks) {
+          results.add(table.io().doAs(subtask));
+        }
+        return results;
+      } catch (Exception e) {
+        deleteSubtaskFiles(results);
+        throw e;
+      }
+    }
+
+    ExecutorService pool = subtaskPool(config.getTaskParallel());
+    // files of subtasks finished after a failure are deleted by the subtasks themselves
+    List<List<F>> finishedFiles = new ArrayList<>(subtasks.size());
+    AtomicBoolean failed = new AtomicBoolean(false);
+    List<Future<List<F>>> futures = new ArrayList<>(subtasks.size());
+    try {
+      for (Callable<List<F>> subtask : subtasks) {
+        futures.add(pool.submit(() -> table.io().doAs(() -> {
+          List<F> files = subtask.call();
+          synchronized (finishedFiles) {
+            if (failed.get()) {
+              deleteFiles(files);
+            } else {
+              finishedFiles.add(files);
+            }
+          }
+          return files;
+        })));
+      }
+      for (Future<List<F>> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (Exception e) {
+      futures.forEach(future -> future.cancel(true));
+      synchronized (finishedFiles) {
+        failed.set(true);
+        deleteSubtaskFiles(finishedFiles);
+      }
+      if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private <F extends ContentFile<?>> void deleteSubtaskFiles(List<List<F>> subtaskFiles) {
+    try {
+      table.io().doAs(() -> {
+        subtaskFiles.forEach(this::deleteFiles);
+        return null;
+      });
+    } catch (Exception e) {
+      LOG.warn("task {} failed to delete files written by finished subtasks", task.getTaskId(), e);
+    }
+  }
+
+  private void deleteFiles(List<? extends ContentFile<?>> files) {
+    for (ContentFile<?> file : files) {
+      try {
+        table.io().deleteFile(file.path().toString());
+      } catch (Exception e) {
+        LOG.warn("task {} failed to delete file {} written by subtask", task.getTaskId(), file.path(), e);
+      }
+    }
+  }
+
+  private static ExecutorService subtaskPool(int threads) {
+    return SUBTASK_POOLS.computeIfAbsent(threads, parallelism -> {
+      ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("optimize-subtask-" + parallelism + "-%d").build();
+      return Executors.newFixedThreadPool(parallelism, threadFactory);
+    });
+  }
+
   protected long getMaxTransactionId(List<DataFile> dataFiles) {
     OptionalLong maxTransactionId = dataFiles.stream()
         .mapToLong(file -> TableFileUtils.parseFileTidFromFileName(file.path().toString())).max();
@@ -88,6 +242,49 @@ public abstract class BaseExecutor implements Executor {
     return 0;
   }
 
+  /**
+   * Rewrite data files without deletes by copying their parquet row groups, see {@link ParquetFileStitcher}.
+   *
+   * @param fileGroups files to rewrite, files of different groups are never stitched into one file
+   * @param locations function returning the location of a new file from the first file stitched into it
+   * @return new files, or null if files can't be stitched and must be rewritten record by record
+   */
+  protected List<DataFile> stitchDataFiles(Collection<List<DataFile>> fileGroups, Schema schema,
+                                           PartitionSpec spec, Function<DataFile, String> locations)
+      throws Exception {
+    if (fileGroups.isEmpty() || !(table.io() instanceof HadoopFileIO)) {
+      return null;
+    }
+    Configuration conf = ((HadoopFileIO) table.io()).conf();
+    CompressionCodecName codec = CompressionCodecName.valueOf(table.properties().getOrDefault(
+        org.apache.iceberg.TableProperties.PARQUET_COMPRESSION,
+        org.apache.iceberg.TableProperties.PARQUET_COMPRESSION_DEFAULT).toUpperCase(Locale.ENGLISH));
+    List<DataFile> dataFiles = fileGroups.stream().flatMap(List::stream).collect(Collectors.toList());
+    List<ParquetMetadata> footers = ParquetFileStitcher.readFooters(conf, dataFiles, schema, codec);
+    if (footers == null) {
+      return null;
+    }
+
+    long targetFileSize = PropertyUtil.propertyAsLong(table.properties(),
+        TableProperties.SELF_OPTIMIZING_TARGET_SIZE,
+        TableProperties.SELF_OPTIMIZING_TARGET_SIZE_DEFAULT);
+    try (ParquetFileStitcher stitcher = new ParquetFileStitcher(conf, spec,
+        MetricsConfig.fromProperties(table.properties()), targetFileSize, locations)) {
+      int fileIndex = 0;
+      for (List<DataFile> fileGroup : fileGroups) {
+        for (DataFile dataFile : fileGroup) {
+          checkIfTimeout(stitcher);
+          stitcher.append(dataFile, footers.get(fileIndex++));
+        }
+        stitcher.roll();
+      }
+      List<DataFile> stitchedFiles = stitcher.complete();
+      LOG.info("task {} stitched {} parquet files into {} files", task.getTaskId(), dataFiles.size(),
+          stitchedFiles.size());
+      return stitchedFiles;
+    }
+  }
+
   protected OptimizeTaskResult buildOptimizeResult(Iterable<? extends ContentFile<?>> targetFiles)
       throws InvocationTargetException, IllegalAccessException {
     long totalFileSize = 0;
@@ -131,4 +328,25 @@ public abstract class BaseExecutor implements Executor {
           actualExecuteTime, task.getMaxExecuteTime(), factor));
     }
   }
+
+  /**
+   * Sort all records of the iterator by the clustering, records exceeding the sort buffer are spilled to local disk.
+   */
+  protected CloseableIterator<Record> sortRecords(CloseableIterator<Record> recordIterator,
+                                                  RecordClustering clustering) throws Exception {
+    String spillBasePath = config.getRocksDBBasePath() != null ?
+        config.getRocksDBBasePath() : System.getProperty("java.io.tmpdir");
+    ExternalRecordSorter sorter =
+        new ExternalRecordSorter(clustering, config.getSortBufferSizeInBytes(), Paths.get(spillBasePath));
+    try (CloseableIterator<Record> records = recordIterator) {
+      while (records.hasNext()) {
+        checkIfTimeout(sorter);
+        sorter.add(records.next());
+      }
+      return sorter.sortedRecords();
+    } catch (Exception e) {
+      sorter.close();
+      throw e;
+    }
+  }
 }
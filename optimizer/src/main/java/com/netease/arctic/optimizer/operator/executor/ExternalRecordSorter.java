@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator.executor;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.iceberg.Files;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.avro.Avro;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.avro.DataReader;
+import org.apache.iceberg.data.avro.DataWriter;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.io.FileAppender;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sort records by {@link RecordClustering}, records exceeding the buffer are sorted and spilled to local avro files,
+ * which are merged when iterating sorted records. Size of the buffer is estimated by sampling records.
+ */
+class ExternalRecordSorter implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ExternalRecordSorter.class);
+  private static final int RECORDS_TO_SKIP_FOR_ESTIMATING = 200;
+
+  private final RecordClustering clustering;
+  private final long maxBufferedBytes;
+  private final Path spillBasePath;
+  private final List<SortEntry> buffer = new ArrayList<>();
+  private final List<File> spillFiles = new ArrayList<>();
+  private final List<CloseableIterable<Record>> openedSpillFiles = new ArrayList<>();
+
+  private Schema schema;
+  private File spillDirectory;
+  private long estimatedEntrySize = 0;
+  private long addCount = 0;
+
+  ExternalRecordSorter(RecordClustering clustering, long maxBufferedBytes, Path spillBasePath) {
+    this.clustering = clustering;
+    this.maxBufferedBytes = Math.max(maxBufferedBytes, 1);
+    this.spillBasePath = spillBasePath;
+  }
+
+  void add(Record record) throws IOException {
+    if (schema == null) {
+      schema = new Schema(record.struct().fields());
+    }
+    // readers may reuse records
+    Record copy = record.copy();
+    SortEntry entry = new SortEntry(clustering.sortKey(copy), copy);
+    if (estimatedEntrySize == 0) {
+      estimatedEntrySize = estimateSize(entry);
+    } else if (++addCount % RECORDS_TO_SKIP_FOR_ESTIMATING == 0) {
+      estimatedEntrySize = (long) (estimatedEntrySize * 0.9 + estimateSize(entry) * 0.1);
+    }
+    buffer.add(entry);
+    if (buffer.size() * estimatedEntrySize >= maxBufferedBytes) {
+      spill();
+    }
+  }
+
+  int spilledRuns() {
+    return spillFiles.size();
+  }
+
+  private static long estimateSize(SortEntry entry) {
+    return Math.max(1, GraphLayout.parseInstance(entry).totalSize());
+  }
+
+  /**
+   * Iterate all added records in order, closing the iterator closes the sorter.
+   */
+  CloseableIterator<Record> sortedRecords() throws IOException {
+    if (spillFiles.isEmpty()) {
+      buffer.sort((left, right) -> clustering.compareKeys(left.key, right.key));
+      Iterator<SortEntry> entries = buffer.iterator();
+      return new SortedIterator(new Iterator<Record>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public Record next() {
+          return entries.next().record;
+        }
+      });
+    }
+
+    if (!buffer.isEmpty()) {
+      spill();
+    }
+    PriorityQueue<SpillFileHead> heads = new PriorityQueue<>(spillFiles.size(),
+        (left, right) -> clustering.compareKeys(left.entry.key, right.entry.key));
+    for (File spillFile : spillFiles) {
+      CloseableIterable<Record> records = Avro.read(Files.localInput(spillFile))
+          .project(schema)
+          .createReaderFunc(DataReader::create)
+          .build();
+      openedSpillFiles.add(records);
+      SpillFileHead head = new SpillFileHead(records.iterator());
+      if (head.advance()) {
+        heads.add(head);
+      }
+    }
+    return new SortedIterator(new Iterator<Record>() {
+      @Override
+      public boolean hasNext() {
+        return !heads.isEmpty();
+      }
+
+      @Override
+      public Record next() {
+        SpillFileHead head = heads.poll();
+        if (head == null) {
+          throw new NoSuchElementException();
+        }
+        Record record = head.entry.record;
+        if (head.advance()) {
+          heads.add(head);
+        }
+        return record;
+      }
+    });
+  }
+
+  private void spill() throws IOException {
+    if (spillDirectory == null) {
+      java.nio.file.Files.createDirectories(spillBasePath);
+      spillDirectory = java.nio.file.Files.createTempDirectory(spillBasePath, "arctic-sort-").toFile();
+    }
+    buffer.sort((left, right) -> clustering.compareKeys(left.key, right.key));
+    File spillFile = new File(spillDirectory, "run-" + spillFiles.size() + ".avro");
+    try (FileAppender<Record> appender = Avro.write(Files.localOutput(spillFile))
+        .schema(schema)
+        .createWriterFunc(DataWriter::create)
+        .overwrite()
+        .build()) {
+      for (SortEntry entry : buffer) {
+        appender.add(entry.record);
+      }
+    }
+    LOG.info("spilled {} sorted records to {}", buffer.size(), spillFile);
+    spillFiles.add(spillFile);
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer.clear();
+    for (CloseableIterable<Record> records : openedSpillFiles) {
+      records.close();
+    }
+    openedSpillFiles.clear();
+    if (spillDirectory != null) {
+      FileUtils.deleteDirectory(spillDirectory);
+      spillDirectory = null;
+    }
+  }
+
+  private static class SortEntry {
+    private final Object key;
+    private final Record record;
+
+    private SortEntry(Object key, Record record) {
+      this.key = key;
+      this.record = record;
+    }
+  }
+
+  private class SpillFileHead {
+    private final Iterator<Record> records;
+    private SortEntry entry;
+
+    private SpillFileHead(Iterator<Record> records) {
+      this.records = records;
+    }
+
+    private boolean advance() {
+      if (!records.hasNext()) {
+        return false;
+      }
+      Record record = records.next();
+      entry = new SortEntry(clustering.sortKey(record), record);
+      return true;
+    }
+  }
+
+  private class SortedIterator implements CloseableIterator<Record> {
+    private final Iterator<Record> records;
+
+    private SortedIterator(Iterator<Record> records) {
+      this.records = records;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return records.hasNext();
+    }
+
+    @Override
+    public Record next() {
+      return records.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+      ExternalRecordSorter.this.close();
+    }
+  }
+}
@@ -44,8 +44,11 @@ import org.apache.iceberg.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.apache.iceberg.TableProperties.DEFAULT_FILE_FORMAT;
 import static org.apache.iceberg.TableProperties.DEFAULT_FILE_FORMAT_DEFAULT;
@@ -124,12 +127,61 @@ public class IcebergExecutor extends BaseExecutor {
   }
 
   private CombinedIcebergScanTask buildIcebergScanTask() {
-    return new CombinedIcebergScanTask(task.allIcebergDataFiles().toArray(new IcebergContentFile[]{}),
+    return buildIcebergScanTask(task.allIcebergDataFiles());
+  }
+
+  private CombinedIcebergScanTask buildIcebergScanTask(List<IcebergContentFile> dataFiles) {
+    return new CombinedIcebergScanTask(dataFiles.toArray(new IcebergContentFile[]{}),
         task.allIcebergDeleteFiles().toArray(new IcebergContentFile[]{}),
         table.spec(), task.getPartition());
   }
 
+  /**
+   * Stitch data files without reading their records if there are no deletes.
+   *
+   * @return stitched files, or null if files must be rewritten by {@link #optimizeDataFiles}
+   */
+  private List<DataFile> stitchDataFiles() throws Exception {
+    List<IcebergContentFile> dataFiles = task.allIcebergDataFiles();
+    String formatAsString = table.properties().getOrDefault(DEFAULT_FILE_FORMAT, DEFAULT_FILE_FORMAT_DEFAULT);
+    if (FileFormat.valueOf(formatAsString.toUpperCase()) != FileFormat.PARQUET ||
+        !task.allIcebergDeleteFiles().isEmpty() ||
+        dataFiles.stream().anyMatch(file -> file.getContentFile().specId() != table.spec().specId())) {
+      return null;
+    }
+
+    OutputFileFactory outputFileFactory = OutputFileFactory.builderFor(table.asUnkeyedTable(), table.spec().specId(),
+        task.getAttemptId()).build();
+    return stitchDataFiles(
+        Collections.singletonList(dataFiles.stream().map(IcebergContentFile::asDataFile).collect(Collectors.toList())),
+        table.schema(), table.spec(),
+        file -> outputFileFactory.newOutputFile(task.getPartition()).encryptingOutputFile().location());
+  }
+
   private List<? extends ContentFile<?>> optimizeDataFiles() throws Exception {
+    // rows are clustered only by full optimizing, which rewrites all files of the partition
+    RecordClustering clustering = task.getOptimizeType() == OptimizeType.FullMajor ? RecordClustering.of(table) : null;
+    List<DataFile> stitchedFiles = clustering == null ? stitchDataFiles() : null;
+    if (stitchedFiles != null) {
+      return stitchedFiles;
+    }
+
+    OutputFileFactory outputFileFactory = OutputFileFactory.builderFor(table.asUnkeyedTable(), table.spec().specId(),
+        task.getAttemptId()).build();
+    // file groups are read and written in parallel, each by its own writer, clustered rows are written by one writer
+    // so that output files do not overlap each other on cluster columns
+    List<List<IcebergContentFile>> fileGroups = clustering != null ?
+        Collections.singletonList(task.allIcebergDataFiles()) :
+        splitFilesBySize(task.allIcebergDataFiles(), file -> file.getContentFile().fileSizeInBytes());
+    List<Callable<List<DataFile>>> groupSubtasks = Lists.newArrayList();
+    for (List<IcebergContentFile> fileGroup : fileGroups) {
+      groupSubtasks.add(() -> optimizeDataFiles(fileGroup, outputFileFactory, clustering));
+    }
+    return runSubtasks(groupSubtasks).stream().flatMap(List::stream).collect(Collectors.toList());
+  }
+
+  private List<DataFile> optimizeDataFiles(List<IcebergContentFile> dataFiles, OutputFileFactory outputFileFactory,
+                                           RecordClustering clustering) throws Exception {
     List<DataFile> result = Lists.newArrayList();
     GenericCombinedIcebergDataReader icebergDataReader = new GenericCombinedIcebergDataReader(
         table.io(), table.schema(), table.schema(), table.properties().get(TableProperties.DEFAULT_NAME_MAPPING),
@@ -140,8 +192,6 @@ public class IcebergExecutor extends BaseExecutor {
         com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE,
         com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE_DEFAULT);
 
-    OutputFileFactory outputFileFactory = OutputFileFactory.builderFor(table.asUnkeyedTable(), table.spec().specId(),
-        task.getAttemptId()).build();
     EncryptedOutputFile outputFile = outputFileFactory.newOutputFile(task.getPartition());
 
     GenericAppenderFactory appenderFactory = new GenericAppenderFactory(table.schema(), table.spec());
@@ -150,7 +200,11 @@ public class IcebergExecutor extends BaseExecutor {
         .newDataWriter(outputFile, FileFormat.valueOf(formatAsString.toUpperCase()), task.getPartition());
 
     long insertCount = 0;
-    try (CloseableIterator<Record> records =  icebergDataReader.readData(buildIcebergScanTask()).iterator()) {
+    CloseableIterator<Record> recordIterator = icebergDataReader.readData(buildIcebergScanTask(dataFiles)).iterator();
+    if (clustering != null) {
+      recordIterator = sortRecords(recordIterator, clustering);
+    }
+    try (CloseableIterator<Record> records = recordIterator) {
       while (records.hasNext()) {
         checkIfTimeout(writer);
         if (writer.length() > targetSizeByBytes) {
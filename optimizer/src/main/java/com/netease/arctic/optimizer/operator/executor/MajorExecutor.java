@@ -24,6 +24,8 @@ import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.data.DefaultKeyedFile;
 import com.netease.arctic.hive.io.reader.AdaptHiveGenericArcticDataReader;
 import com.netease.arctic.hive.io.writer.AdaptHiveGenericTaskWriterBuilder;
+import com.netease.arctic.io.writer.OutputFileFactory;
+import com.netease.arctic.io.writer.TaskWriterKey;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.BaseArcticFileScanTask;
@@ -33,23 +35,31 @@ import com.netease.arctic.table.ArcticTable;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.PrimaryKeySpec;
 import com.netease.arctic.table.WriteOperationKind;
+import com.netease.arctic.utils.TableFileUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.data.IdentityPartitionConverters;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.io.CloseableIterator;
 import org.apache.iceberg.io.TaskWriter;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
 import org.apache.iceberg.util.PropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 public class MajorExecutor extends BaseExecutor {
@@ -65,13 +75,31 @@ public class MajorExecutor extends BaseExecutor {
     LOG.info("Start processing arctic table major optimize task: {}", task);
 
     Map<DataTreeNode, List<DeleteFile>> deleteFileMap = groupDeleteFilesByNode(task.posDeleteFiles());
-    List<DataFile> dataFiles = task.dataFiles();
-    dataFiles.addAll(task.deleteFiles());
-    targetFiles = table.io().doAs(() -> {
-      CloseableIterator<Record> recordIterator =
-          openTask(dataFiles, deleteFileMap, table.schema(), task.getSourceNodes());
-      return optimizeTable(recordIterator);
-    });
+    RecordClustering clustering = task.getOptimizeType() == OptimizeType.FullMajor ? RecordClustering.of(table) : null;
+    // stitched files keep the order of rows, so they can't be clustered
+    List<DataFile> stitchedFiles = clustering == null ? table.io().doAs(this::stitchTable) : null;
+    if (stitchedFiles != null) {
+      targetFiles = stitchedFiles;
+    } else {
+      Long transactionId = table.isKeyedTable() ? getMaxTransactionId(task.dataFiles()) : null;
+      List<List<DataFile>> fileGroups = groupDataFiles(clustering != null);
+      // file groups are read and written in parallel, each by its own writer
+      List<Callable<List<DataFile>>> groupSubtasks = new ArrayList<>();
+      for (int i = 0; i < fileGroups.size(); i++) {
+        List<DataFile> dataFiles = Lists.newArrayList(fileGroups.get(i));
+        dataFiles.addAll(task.deleteFiles());
+        int partitionId = i;
+        groupSubtasks.add(() -> {
+          CloseableIterator<Record> recordIterator =
+              openTask(dataFiles, deleteFileMap, table.schema(), task.getSourceNodes());
+          if (clustering != null) {
+            recordIterator = sortRecords(recordIterator, clustering);
+          }
+          return optimizeTable(recordIterator, transactionId, partitionId);
+        });
+      }
+      targetFiles = runSubtasks(groupSubtasks).stream().flatMap(List::stream).collect(Collectors.toList());
+    }
 
     return buildOptimizeResult(targetFiles);
   }
@@ -80,23 +108,18 @@ public class MajorExecutor extends BaseExecutor {
   public void close() {
   }
 
-  private Iterable<DataFile> optimizeTable(CloseableIterator<Record> recordIterator) throws Exception {
-    Long transactionId;
-    if (table.isKeyedTable()) {
-      transactionId = getMaxTransactionId(task.dataFiles());
-    } else {
-      transactionId = null;
-    }
+  private List<DataFile> optimizeTable(CloseableIterator<Record> recordIterator, Long transactionId,
+                                       int partitionId) throws Exception {
     long targetFileSize = PropertyUtil.propertyAsLong(table.properties(),
         com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE,
         com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE_DEFAULT);
     TaskWriter<Record> writer = AdaptHiveGenericTaskWriterBuilder.builderFor(table)
         .withTransactionId(transactionId)
+        .withPartitionId(partitionId)
         .withTaskId(task.getAttemptId())
         .withCustomHiveSubdirectory(task.getCustomHiveSubdirectory())
         .withTargetFileSize(targetFileSize)
-        .buildWriter(task.getOptimizeType() == OptimizeType.Major ?
-            WriteOperationKind.MAJOR_OPTIMIZE : WriteOperationKind.FULL_OPTIMIZE);
+        .buildWriter(writeOperationKind());
     long insertCount = 0;
     try {
       while (recordIterator.hasNext()) {
@@ -119,6 +142,89 @@ public class MajorExecutor extends BaseExecutor {
     return Arrays.asList(writer.complete().dataFiles());
   }
 
+  /**
+   * Group data files to be optimized in parallel. Files of keyed table are grouped by disjoint subtrees of their
+   * nodes, nodes finer than the base bucket mask are merged into their ancestor at that mask. Files of unkeyed table
+   * are grouped by size, or not grouped if rows are clustered, as groups sorted on their own would each cover the
+   * whole range of cluster columns and overlap each other. Rows of different nodes are written to different files,
+   * so groups of keyed table are clustered on their own.
+   */
+  private List<List<DataFile>> groupDataFiles(boolean clustered) {
+    List<DataFile> dataFiles = Lists.newArrayList(task.dataFiles());
+    if (!table.isKeyedTable()) {
+      return clustered ? Collections.singletonList(dataFiles) : splitFilesBySize(dataFiles, DataFile::fileSizeInBytes);
+    }
+
+    long mask = PropertyUtil.propertyAsLong(table.properties(),
+        com.netease.arctic.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET,
+        com.netease.arctic.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET_DEFAULT) - 1;
+    Map<DataTreeNode, List<DataFile>> nodeFiles = new HashMap<>();
+    for (DataFile dataFile : dataFiles) {
+      DataTreeNode node = TableFileUtils.parseFileNodeFromFileName(dataFile.path().toString());
+      while (node.mask() > mask) {
+        node = node.parent();
+      }
+      nodeFiles.computeIfAbsent(node, n -> new ArrayList<>()).add(dataFile);
+    }
+    Map<DataTreeNode, List<DataFile>> subtreeFiles = new HashMap<>();
+    for (Map.Entry<DataTreeNode, List<DataFile>> entry : nodeFiles.entrySet()) {
+      DataTreeNode root = entry.getKey();
+      for (DataTreeNode node : nodeFiles.keySet()) {
+        if (node.mask() < root.mask() && root.isSonOf(node)) {
+          root = node;
+        }
+      }
+      subtreeFiles.computeIfAbsent(root, n -> new ArrayList<>()).addAll(entry.getValue());
+    }
+    return new ArrayList<>(subtreeFiles.values());
+  }
+
+  /**
+   * Stitch base files without reading their records if there are no deletes, files of keyed table are stitched
+   * within their nodes.
+   *
+   * @return stitched files, or null if files must be rewritten by {@link #optimizeTable}
+   */
+  private List<DataFile> stitchTable() throws Exception {
+    String fileFormat = table.properties().getOrDefault(com.netease.arctic.table.TableProperties.BASE_FILE_FORMAT,
+        com.netease.arctic.table.TableProperties.BASE_FILE_FORMAT_DEFAULT);
+    if (FileFormat.valueOf(fileFormat.toUpperCase(Locale.ENGLISH)) != FileFormat.PARQUET ||
+        !task.deleteFiles().isEmpty() || !task.posDeleteFiles().isEmpty() || !task.insertFiles().isEmpty()) {
+      return null;
+    }
+
+    Map<DataTreeNode, List<DataFile>> nodeFiles;
+    if (table.isKeyedTable()) {
+      long mask = PropertyUtil.propertyAsLong(table.properties(),
+          com.netease.arctic.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET,
+          com.netease.arctic.table.TableProperties.BASE_FILE_INDEX_HASH_BUCKET_DEFAULT) - 1;
+      nodeFiles = groupDataFilesByNode(task.baseFiles());
+      // records of files in nodes of other mask must be redistributed by the primary key
+      if (nodeFiles.keySet().stream().anyMatch(node -> node.mask() != mask)) {
+        return null;
+      }
+    } else {
+      nodeFiles = Collections.singletonMap(DataTreeNode.ROOT, task.baseFiles());
+    }
+
+    OutputFileFactory outputFileFactory = AdaptHiveGenericTaskWriterBuilder.builderFor(table)
+        .withTransactionId(table.isKeyedTable() ? getMaxTransactionId(task.dataFiles()) : null)
+        .withTaskId(task.getAttemptId())
+        .withCustomHiveSubdirectory(task.getCustomHiveSubdirectory())
+        .buildBaseOutputFileFactory(writeOperationKind());
+    return stitchDataFiles(nodeFiles.values(), table.schema(), table.spec(), file -> {
+      DataTreeNode node = table.isKeyedTable() ?
+          TableFileUtils.parseFileNodeFromFileName(file.path().toString()) : DataTreeNode.ROOT;
+      TaskWriterKey writerKey = new TaskWriterKey(file.partition(), node, DataFileType.BASE_FILE);
+      return outputFileFactory.newOutputFile(writerKey).encryptingOutputFile().location();
+    });
+  }
+
+  private WriteOperationKind writeOperationKind() {
+    return task.getOptimizeType() == OptimizeType.Major ?
+        WriteOperationKind.MAJOR_OPTIMIZE : WriteOperationKind.FULL_OPTIMIZE;
+  }
+
   private CloseableIterator<Record> openTask(List<DataFile> dataFiles,
                                              Map<DataTreeNode, List<DeleteFile>> deleteFileMap,
                                              Schema requiredSchema, Set<DataTreeNode> sourceNodes) {
@@ -50,6 +50,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -72,66 +73,68 @@ public class MinorExecutor extends BaseExecutor {
     AtomicLong insertCount = new AtomicLong();
     Schema requiredSchema = new Schema(MetadataColumns.FILE_PATH, MetadataColumns.ROW_POSITION);
     Types.StructType recordStruct = requiredSchema.asStruct();
+    // nodes are optimized in parallel, each to its own pos-delete files
+    List<Callable<List<DeleteFile>>> nodeSubtasks = new ArrayList<>();
     for (Map.Entry<DataTreeNode, List<DataFile>> nodeFileEntry : dataFileMap.entrySet()) {
       DataTreeNode treeNode = nodeFileEntry.getKey();
       List<DataFile> dataFiles = nodeFileEntry.getValue();
       dataFiles.addAll(task.deleteFiles());
       List<DeleteFile> posDeleteList = deleteFileMap.get(treeNode);
+      nodeSubtasks.add(() -> optimizeNode(keyedTable, treeNode, dataFiles, posDeleteList, requiredSchema,
+          recordStruct, insertCount));
+    }
+    for (List<DeleteFile> nodeTargetFiles : runSubtasks(nodeSubtasks)) {
+      targetFiles.addAll(nodeTargetFiles);
+    }
+    LOG.info("task {} insert records number {}", task.getTaskId(), insertCount);
 
-      SortedPosDeleteWriter<Record> posDeleteWriter = AdaptHiveGenericTaskWriterBuilder.builderFor(keyedTable)
-          .withTransactionId(getMaxTransactionId(dataFiles))
-          .withTaskId(task.getAttemptId())
-          .buildBasePosDeleteWriter(treeNode.mask(), treeNode.index(), task.getPartition());
-
-      table.io().doAs(() -> {
-
-        try (CloseableIterator<Record> iterator =
-                 openTask(dataFiles, posDeleteList, requiredSchema, task.getSourceNodes())) {
-          while (iterator.hasNext()) {
-            checkIfTimeout(posDeleteWriter);
-
-            Record record = iterator.next();
-            String filePath = (String) record.get(recordStruct.fields()
-                .indexOf(recordStruct.field(MetadataColumns.FILE_PATH.name())));
-            Long rowPosition = (Long) record.get(recordStruct.fields()
-                .indexOf(recordStruct.field(MetadataColumns.ROW_POSITION.name())));
-            posDeleteWriter.delete(filePath, rowPosition);
-            insertCount.incrementAndGet();
-            if (insertCount.get() % SAMPLE_DATA_INTERVAL == 1) {
-              LOG.info("task {} insert records number {} and data sampling path:{}, pos:{}",
-                  task.getTaskId(), insertCount.get(), filePath, rowPosition);
-            }
-          }
-        }
+    return buildOptimizeResult(targetFiles);
+  }
 
-        return null;
-      });
-
-      // rewrite pos-delete content
-      if (CollectionUtils.isNotEmpty(posDeleteList)) {
-        BaseIcebergPosDeleteReader posDeleteReader = new BaseIcebergPosDeleteReader(table.io(), posDeleteList);
-        table.io().doAs(() -> {
-          CloseableIterable<Record> posDeleteIterable = posDeleteReader.readDeletes();
-          try (CloseableIterator<Record> posDeleteIterator = posDeleteIterable.iterator()) {
-            while (posDeleteIterator.hasNext()) {
-              checkIfTimeout(posDeleteWriter);
-
-              Record record = posDeleteIterator.next();
-              String filePath = posDeleteReader.readPath(record);
-              Long rowPosition = posDeleteReader.readPos(record);
-              posDeleteWriter.delete(filePath, rowPosition);
-            }
-          }
-
-          return null;
-        });
+  private List<DeleteFile> optimizeNode(KeyedTable keyedTable, DataTreeNode treeNode, List<DataFile> dataFiles,
+                                        List<DeleteFile> posDeleteList, Schema requiredSchema,
+                                        Types.StructType recordStruct, AtomicLong insertCount) throws Exception {
+    SortedPosDeleteWriter<Record> posDeleteWriter = AdaptHiveGenericTaskWriterBuilder.builderFor(keyedTable)
+        .withTransactionId(getMaxTransactionId(dataFiles))
+        .withTaskId(task.getAttemptId())
+        .buildBasePosDeleteWriter(treeNode.mask(), treeNode.index(), task.getPartition());
+
+    try (CloseableIterator<Record> iterator =
+             openTask(dataFiles, posDeleteList, requiredSchema, task.getSourceNodes())) {
+      while (iterator.hasNext()) {
+        checkIfTimeout(posDeleteWriter);
+
+        Record record = iterator.next();
+        String filePath = (String) record.get(recordStruct.fields()
+            .indexOf(recordStruct.field(MetadataColumns.FILE_PATH.name())));
+        Long rowPosition = (Long) record.get(recordStruct.fields()
+            .indexOf(recordStruct.field(MetadataColumns.ROW_POSITION.name())));
+        posDeleteWriter.delete(filePath, rowPosition);
+        long count = insertCount.incrementAndGet();
+        if (count % SAMPLE_DATA_INTERVAL == 1) {
+          LOG.info("task {} insert records number {} and data sampling path:{}, pos:{}",
+              task.getTaskId(), count, filePath, rowPosition);
+        }
       }
+    }
 
-      targetFiles.addAll(posDeleteWriter.complete());
+    // rewrite pos-delete content
+    if (CollectionUtils.isNotEmpty(posDeleteList)) {
+      BaseIcebergPosDeleteReader posDeleteReader = new BaseIcebergPosDeleteReader(table.io(), posDeleteList);
+      CloseableIterable<Record> posDeleteIterable = posDeleteReader.readDeletes();
+      try (CloseableIterator<Record> posDeleteIterator = posDeleteIterable.iterator()) {
+        while (posDeleteIterator.hasNext()) {
+          checkIfTimeout(posDeleteWriter);
+
+          Record record = posDeleteIterator.next();
+          String filePath = posDeleteReader.readPath(record);
+          Long rowPosition = posDeleteReader.readPos(record);
+          posDeleteWriter.delete(filePath, rowPosition);
+        }
+      }
     }
-    LOG.info("task {} insert records number {}", task.getTaskId(), insertCount);
 
-    return buildOptimizeResult(targetFiles);
+    return posDeleteWriter.complete();
   }
 
   @Override
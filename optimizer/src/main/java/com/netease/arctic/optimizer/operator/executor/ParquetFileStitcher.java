@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator.executor;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.MetricsConfig;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.parquet.ParquetSchemaUtil;
+import org.apache.iceberg.parquet.ParquetUtil;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.TypeUtil;
+import org.apache.iceberg.types.Types;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Rewrite small parquet files to target size files by copying their row groups, values are neither decoded nor
+ * encoded again.
+ * <p>
+ * Only files without deletes can be stitched, and all of them must have the same parquet schema matching the
+ * table schema and be compressed with the codec of the table, see {@link #readFooters}.
+ */
+class ParquetFileStitcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ParquetFileStitcher.class);
+
+  private final Configuration conf;
+  private final PartitionSpec spec;
+  private final MetricsConfig metricsConfig;
+  private final long targetFileSize;
+  private final Function<DataFile, String> locations;
+  private final List<DataFile> completedFiles = Lists.newArrayList();
+
+  private ParquetFileWriter writer;
+  private String location;
+  private StructLike partition;
+  private Map<String, String> keyValueMetadata;
+  private long length;
+
+  ParquetFileStitcher(Configuration conf, PartitionSpec spec, MetricsConfig metricsConfig, long targetFileSize,
+                      Function<DataFile, String> locations) {
+    this.conf = conf;
+    this.spec = spec;
+    this.metricsConfig = metricsConfig;
+    this.targetFileSize = targetFileSize;
+    this.locations = locations;
+  }
+
+  /**
+   * Read the footers of files to stitch.
+   *
+   * @return footers in the order of files, or null if files can not be stitched
+   */
+  static List<ParquetMetadata> readFooters(Configuration conf, List<DataFile> files, Schema schema,
+                                           CompressionCodecName codec) throws IOException {
+    List<ParquetMetadata> footers = Lists.newArrayListWithCapacity(files.size());
+    MessageType fileType = null;
+    for (DataFile file : files) {
+      if (file.format() != FileFormat.PARQUET) {
+        return null;
+      }
+      ParquetMetadata footer;
+      try (ParquetFileReader reader = ParquetFileReader.open(
+          HadoopInputFile.fromPath(new Path(file.path().toString()), conf))) {
+        footer = reader.getFooter();
+      }
+      MessageType type = footer.getFileMetaData().getSchema();
+      if (fileType == null) {
+        if (!sameColumns(type, schema)) {
+          LOG.info("can't stitch file {}, its schema {} doesn't match table schema", file.path(), type);
+          return null;
+        }
+        fileType = type;
+      } else if (!fileType.equals(type)) {
+        LOG.info("can't stitch file {}, its schema {} differs from {}", file.path(), type, fileType);
+        return null;
+      }
+      for (BlockMetaData block : footer.getBlocks()) {
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          if (column.getCodec() != codec) {
+            LOG.info("can't stitch file {}, it is compressed by {} instead of {}", file.path(),
+                column.getCodec(), codec);
+            return null;
+          }
+        }
+      }
+      footers.add(footer);
+    }
+    return footers;
+  }
+
+  private static boolean sameColumns(MessageType type, Schema schema) {
+    if (!ParquetSchemaUtil.hasIds(type)) {
+      return false;
+    }
+    Schema fileSchema;
+    try {
+      fileSchema = ParquetSchemaUtil.convert(type);
+    } catch (RuntimeException e) {
+      return false;
+    }
+    Map<Integer, Types.NestedField> fileFields = TypeUtil.indexById(fileSchema.asStruct());
+    Map<Integer, Types.NestedField> tableFields = TypeUtil.indexById(schema.asStruct());
+    if (!fileFields.keySet().equals(tableFields.keySet())) {
+      return false;
+    }
+    for (Map.Entry<Integer, Types.NestedField> entry : tableFields.entrySet()) {
+      Type tableType = entry.getValue().type();
+      Type fileFieldType = fileFields.get(entry.getKey()).type();
+      boolean sameType = tableType.isPrimitiveType() ?
+          tableType.equals(fileFieldType) : tableType.typeId() == fileFieldType.typeId();
+      if (!sameType) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Append row groups of the file to the current output file, rolling to a new one if target size is exceeded.
+   */
+  void append(DataFile file, ParquetMetadata footer) throws IOException {
+    if (length + file.fileSizeInBytes() > targetFileSize) {
+      roll();
+    }
+    if (writer == null) {
+      openCurrentFile(file, footer.getFileMetaData().getSchema());
+    }
+    try (SeekableInputStream in = HadoopInputFile.fromPath(new Path(file.path().toString()), conf).newStream()) {
+      writer.appendRowGroups(in, footer.getBlocks(), true);
+    }
+    mergeKeyValueMetadata(footer.getFileMetaData().getKeyValueMetaData());
+    length += file.fileSizeInBytes();
+  }
+
+  /**
+   * Complete the current output file, following files are appended to a new one.
+   */
+  void roll() throws IOException {
+    if (writer != null) {
+      closeCurrentFile();
+    }
+  }
+
+  List<DataFile> complete() throws IOException {
+    roll();
+    return completedFiles;
+  }
+
+  private void openCurrentFile(DataFile firstFile, MessageType type) throws IOException {
+    this.location = locations.apply(firstFile);
+    this.partition = firstFile.partition();
+    this.keyValueMetadata = null;
+    this.length = 0;
+    this.writer = new ParquetFileWriter(HadoopOutputFile.fromPath(new Path(location), conf), type,
+        ParquetFileWriter.Mode.CREATE, ParquetWriter.DEFAULT_BLOCK_SIZE, ParquetWriter.MAX_PADDING_SIZE_DEFAULT);
+    writer.start();
+  }
+
+  private void mergeKeyValueMetadata(Map<String, String> fileMetadata) {
+    if (keyValueMetadata == null) {
+      keyValueMetadata = Maps.newHashMap(fileMetadata);
+    } else {
+      // keep only entries all stitched files agree on
+      keyValueMetadata.entrySet().removeIf(e -> !Objects.equals(e.getValue(), fileMetadata.get(e.getKey())));
+    }
+  }
+
+  private void closeCurrentFile() throws IOException {
+    writer.end(keyValueMetadata == null ? Maps.newHashMap() : keyValueMetadata);
+    ParquetMetadata footer = writer.getFooter();
+    writer = null;
+    Path path = new Path(location);
+    long fileSize = path.getFileSystem(conf).getFileStatus(path).getLen();
+
+    Metrics metrics = ParquetUtil.footerMetrics(footer, Stream.empty(), metricsConfig);
+    completedFiles.add(DataFiles.builder(spec)
+        .withPath(location)
+        .withFormat(FileFormat.PARQUET)
+        .withPartition(partition)
+        .withFileSizeInBytes(fileSize)
+        .withMetrics(metrics)
+        .withSplitOffsets(ParquetUtil.getSplitOffsets(footer))
+        .build());
+  }
+
+  /**
+   * Abort the current output file, completed files are kept.
+   */
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.end(Maps.newHashMap());
+      writer = null;
+      Path path = new Path(location);
+      path.getFileSystem(conf).delete(path, false);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator.executor;
+
+import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.TableProperties;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.relocated.com.google.common.annotations.VisibleForTesting;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.base.Splitter;
+import org.apache.iceberg.types.Comparators;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.DateTimeUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Order rows are clustered by in full optimizing, configured by
+ * {@link TableProperties#SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS} and
+ * {@link TableProperties#SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY}.
+ * <ul>
+ *   <li>linear: rows are sorted by cluster columns one after another</li>
+ *   <li>zorder: rows are sorted by the Z-order value interleaving the first 8 order-preserving bytes of each
+ *   cluster column, so that all columns get narrow bounds in files</li>
+ * </ul>
+ * Cluster columns must be top-level columns of primitive types, checked when the clustering is built.
+ */
+class RecordClustering {
+  private static final int ZORDER_COLUMN_BYTES = 8;
+  private static final Set<Type.TypeID> SUPPORTED_TYPES = EnumSet.of(
+      Type.TypeID.BOOLEAN, Type.TypeID.INTEGER, Type.TypeID.LONG, Type.TypeID.FLOAT, Type.TypeID.DOUBLE,
+      Type.TypeID.DATE, Type.TypeID.TIME, Type.TypeID.TIMESTAMP, Type.TypeID.STRING, Type.TypeID.UUID,
+      Type.TypeID.FIXED, Type.TypeID.BINARY, Type.TypeID.DECIMAL);
+
+  private final Strategy strategy;
+  private final List<Types.NestedField> columns;
+  private final int[] positions;
+  private final Type.TypeID[] typeIds;
+  private final Comparator<Object> valueComparator =
+      Comparator.nullsFirst((left, right) -> compareValues(left, right));
+
+  enum Strategy {
+    LINEAR, ZORDER
+  }
+
+  private RecordClustering(Strategy strategy, List<Types.NestedField> columns, int[] positions) {
+    this.strategy = strategy;
+    this.columns = columns;
+    this.positions = positions;
+    this.typeIds = columns.stream().map(column -> column.type().typeId()).toArray(Type.TypeID[]::new);
+  }
+
+  /**
+   * @return clustering of the table, or null if the table doesn't cluster rows
+   * @throws IllegalArgumentException if cluster columns are not top-level columns of supported types
+   */
+  static RecordClustering of(ArcticTable table) {
+    String columnNames = table.properties().get(TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS);
+    if (columnNames == null || columnNames.trim().isEmpty()) {
+      return null;
+    }
+    Strategy strategy = Strategy.valueOf(table.properties().getOrDefault(
+        TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY,
+        TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_DEFAULT).toUpperCase(Locale.ENGLISH));
+    return of(table.schema(), Splitter.on(',').trimResults().omitEmptyStrings().splitToList(columnNames), strategy);
+  }
+
+  /**
+   * Build the clustering of records of the schema by columns, column types are validated here so that a task with
+   * an unsupported cluster column fails before any record is read.
+   */
+  static RecordClustering of(Schema schema, List<String> names, Strategy strategy) {
+    List<Types.NestedField> columns = new ArrayList<>();
+    int[] positions = new int[names.size()];
+    for (int i = 0; i < names.size(); i++) {
+      Types.NestedField column = schema.findField(names.get(i));
+      Preconditions.checkArgument(column != null && schema.columns().contains(column),
+          "Cluster column %s is not a top-level column", names.get(i));
+      Preconditions.checkArgument(SUPPORTED_TYPES.contains(column.type().typeId()),
+          "Cluster column %s of type %s is not supported", names.get(i), column.type());
+      columns.add(column);
+      positions[i] = schema.columns().indexOf(column);
+    }
+    return new RecordClustering(strategy, columns, positions);
+  }
+
+  List<Types.NestedField> columns() {
+    return columns;
+  }
+
+  /**
+   * Return the key of the record rows are sorted by, records must be of the table schema.
+   */
+  Object sortKey(Record record) {
+    if (strategy == Strategy.LINEAR) {
+      Object[] values = new Object[positions.length];
+      for (int i = 0; i < positions.length; i++) {
+        values[i] = record.get(positions[i]);
+      }
+      return values;
+    }
+
+    byte[][] columnBytes = new byte[positions.length][];
+    for (int i = 0; i < positions.length; i++) {
+      columnBytes[i] = orderedBytes(typeIds[i], record.get(positions[i]));
+    }
+    return interleaveBits(columnBytes);
+  }
+
+  int compareKeys(Object leftKey, Object rightKey) {
+    if (strategy == Strategy.LINEAR) {
+      Object[] left = (Object[]) leftKey;
+      Object[] right = (Object[]) rightKey;
+      for (int i = 0; i < left.length; i++) {
+        int cmp = valueComparator.compare(left[i], right[i]);
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+      return 0;
+    }
+
+    return Comparators.unsignedBytes().compare(ByteBuffer.wrap((byte[]) leftKey), ByteBuffer.wrap((byte[]) rightKey));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compareValues(Object left, Object right) {
+    if (left instanceof byte[]) {
+      return Comparators.unsignedBytes().compare(ByteBuffer.wrap((byte[]) left), ByteBuffer.wrap((byte[]) right));
+    } else if (left instanceof CharSequence) {
+      return Comparators.charSequences().compare((CharSequence) left, (CharSequence) right);
+    }
+    return ((Comparable<Object>) left).compareTo(right);
+  }
+
+  /**
+   * Encode a value of the type to bytes whose unsigned lexicographical order is the order of values, nulls first.
+   */
+  @VisibleForTesting
+  static byte[] orderedBytes(Type.TypeID typeId, Object value) {
+    ByteBuffer buffer = ByteBuffer.allocate(ZORDER_COLUMN_BYTES);
+    if (value == null) {
+      return buffer.array();
+    }
+
+    switch (typeId) {
+      case STRING:
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.put(bytes, 0, Math.min(bytes.length, ZORDER_COLUMN_BYTES));
+        break;
+      case FIXED:
+      case BINARY:
+        ByteBuffer binary = value instanceof byte[] ?
+            ByteBuffer.wrap((byte[]) value) : ((ByteBuffer) value).duplicate();
+        binary.limit(binary.position() + Math.min(binary.remaining(), ZORDER_COLUMN_BYTES));
+        buffer.put(binary);
+        break;
+      case FLOAT:
+      case DOUBLE:
+      case DECIMAL:
+        long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+        // negative values have all bits flipped, positive values only the sign bit
+        buffer.putLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+        break;
+      default:
+        buffer.putLong(orderedLong(typeId, value) ^ Long.MIN_VALUE);
+    }
+    return buffer.array();
+  }
+
+  private static long orderedLong(Type.TypeID typeId, Object value) {
+    switch (typeId) {
+      case BOOLEAN:
+        return (Boolean) value ? 1 : 0;
+      case DATE:
+        return ((LocalDate) value).toEpochDay();
+      case TIME:
+        return DateTimeUtil.microsFromTime((LocalTime) value);
+      case TIMESTAMP:
+        return value instanceof OffsetDateTime ?
+            DateTimeUtil.microsFromTimestamptz((OffsetDateTime) value) :
+            DateTimeUtil.microsFromTimestamp((LocalDateTime) value);
+      case UUID:
+        return ((UUID) value).getMostSignificantBits();
+      default:
+        return ((Number) value).longValue();
+    }
+  }
+
+  @VisibleForTesting
+  static byte[] interleaveBits(byte[][] columnBytes) {
+    int columnCount = columnBytes.length;
+    byte[] interleaved = new byte[columnCount * ZORDER_COLUMN_BYTES];
+    int outputBit = 0;
+    for (int bit = 0; bit < ZORDER_COLUMN_BYTES * 8; bit++) {
+      for (byte[] bytes : columnBytes) {
+        if ((bytes[bit >> 3] & (0x80 >>> (bit & 7))) != 0) {
+          interleaved[outputBit >> 3] |= (byte) (0x80 >>> (outputBit & 7));
+        }
+        outputBit++;
+      }
+    }
+    return interleaved;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.flink;
+
+import com.netease.arctic.ams.api.OptimizeStatus;
+import com.netease.arctic.ams.api.OptimizeTask;
+import com.netease.arctic.ams.api.OptimizeTaskId;
+import com.netease.arctic.ams.api.OptimizeTaskStat;
+import com.netease.arctic.ams.api.OptimizeType;
+import com.netease.arctic.optimizer.OptimizerConfig;
+import com.netease.arctic.optimizer.TaskWrapper;
+import com.netease.arctic.optimizer.operator.BaseTaskExecutor;
+import com.netease.arctic.optimizer.operator.BaseTaskReporter;
+import com.netease.arctic.optimizer.operator.FakeBaseToucher;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableSet;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class FlinkExecuteFunctionTest {
+  private static final int TASK_SLOTS = 3;
+
+  private OptimizerConfig config;
+
+  @Before
+  public void initConfig() {
+    config = new OptimizerConfig();
+    config.setOptimizerId("1");
+    config.setExecutorParallel(1);
+    config.setTaskSlots(TASK_SLOTS);
+    config.setHeartBeat(100);
+  }
+
+  @Test
+  public void testReportEachTaskOnceWithMultipleSlots() throws Exception {
+    SlotTaskExecutor executor = new SlotTaskExecutor(config, 200, ImmutableSet.of());
+    Set<String> taskIds = Sets.newHashSet();
+    OneInputStreamOperatorTestHarness<TaskWrapper, OptimizeTaskStat> executeHarness =
+        new OneInputStreamOperatorTestHarness<>(new FlinkExecuteFunction(executor, config));
+    executeHarness.open();
+    for (int i = 0; i < 10; i++) {
+      String taskId = "task-" + i;
+      taskIds.add(taskId);
+      executeHarness.processElement(new StreamRecord<>(task(taskId)));
+    }
+    executeHarness.close();
+
+    List<OptimizeTaskStat> results = executeHarness.extractOutputValues();
+    Assert.assertEquals(TASK_SLOTS, executor.maxRunning.get());
+    Assert.assertEquals(taskIds.size(), results.size());
+    Assert.assertEquals(taskIds, traceIds(results));
+    taskIds.forEach(taskId -> Assert.assertEquals(1, executor.executions.get(taskId).get()));
+
+    CountingReporter reporter = new CountingReporter(config);
+    OneInputStreamOperatorTestHarness<OptimizeTaskStat, Void> reportHarness =
+        new OneInputStreamOperatorTestHarness<>(new FlinkReporter(reporter, new FakeBaseToucher(config), config));
+    reportHarness.open();
+    for (OptimizeTaskStat result : results) {
+      reportHarness.processElement(new StreamRecord<>(result));
+    }
+    reportHarness.close();
+
+    Assert.assertEquals(taskIds, reporter.reports.keySet());
+    taskIds.forEach(taskId -> Assert.assertEquals(1, reporter.reports.get(taskId).get()));
+  }
+
+  @Test
+  public void testEmitResultsOfRunningTasksOnFailure() throws Exception {
+    SlotTaskExecutor executor = new SlotTaskExecutor(config, 500, ImmutableSet.of("failed"));
+    OneInputStreamOperatorTestHarness<TaskWrapper, OptimizeTaskStat> harness =
+        new OneInputStreamOperatorTestHarness<>(new FlinkExecuteFunction(executor, config));
+    harness.open();
+    try {
+      harness.processElement(new StreamRecord<>(task("running")));
+      harness.processElement(new StreamRecord<>(task("failed")));
+      Assert.assertTrue(executor.failed.await(10, TimeUnit.SECONDS));
+      // let the slot thread record the failure
+      Thread.sleep(100);
+
+      // the failure fails the subtask before executing the next task, the running task is finished and emitted
+      Assert.assertThrows(IllegalStateException.class, () -> harness.processElement(new StreamRecord<>(task("next"))));
+      Assert.assertEquals(ImmutableSet.of("running"), traceIds(harness.extractOutputValues()));
+      Assert.assertEquals(ImmutableSet.of("running", "failed"), executor.executions.keySet());
+    } finally {
+      harness.getOperator().dispose();
+    }
+  }
+
+  private static TaskWrapper task(String taskId) {
+    OptimizeTask task = new OptimizeTask();
+    task.setTaskId(new OptimizeTaskId(OptimizeType.Major, taskId));
+    return new TaskWrapper(task, 0);
+  }
+
+  private static Set<String> traceIds(List<OptimizeTaskStat> results) {
+    return results.stream().map(result -> result.getTaskId().getTraceId()).collect(Collectors.toSet());
+  }
+
+  private static class SlotTaskExecutor extends BaseTaskExecutor {
+    private final long executeTime;
+    private final Set<String> failedTasks;
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final CountDownLatch failed = new CountDownLatch(1);
+
+    SlotTaskExecutor(OptimizerConfig config, long executeTime, Set<String> failedTasks) {
+      super(config);
+      this.executeTime = executeTime;
+      this.failedTasks = failedTasks;
+    }
+
+    @Override
+    public OptimizeTaskStat execute(TaskWrapper sourceTask) {
+      OptimizeTaskId taskId = sourceTask.getTask().getTaskId();
+      executions.computeIfAbsent(taskId.getTraceId(), id -> new AtomicInteger()).incrementAndGet();
+      if (failedTasks.contains(taskId.getTraceId())) {
+        failed.countDown();
+        throw new IllegalStateException("failed to execute " + taskId.getTraceId());
+      }
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(executeTime);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } finally {
+        running.decrementAndGet();
+      }
+      OptimizeTaskStat taskStat = new OptimizeTaskStat();
+      taskStat.setTaskId(taskId);
+      taskStat.setStatus(OptimizeStatus.Prepared);
+      return taskStat;
+    }
+  }
+
+  private static class CountingReporter extends BaseTaskReporter {
+    private final Map<String, AtomicInteger> reports = new ConcurrentHashMap<>();
+
+    CountingReporter(OptimizerConfig config) {
+      super(config);
+    }
+
+    @Override
+    public boolean report(OptimizeTaskStat taskStat, int maxRetry, long retryInterval) throws InterruptedException {
+      Thread.sleep(50);
+      reports.computeIfAbsent(taskStat.getTaskId().getTraceId(), id -> new AtomicInteger()).incrementAndGet();
+      return true;
+    }
+  }
+}
@@ -18,11 +18,13 @@
 
 package com.netease.arctic.optimizer.flink;
 
+import com.netease.arctic.ams.api.OptimizeTaskStat;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import com.netease.arctic.optimizer.operator.FakeBaseConsumer;
 import com.netease.arctic.optimizer.operator.FakeBaseExecutor;
 import com.netease.arctic.optimizer.operator.FakeBaseReporter;
 import com.netease.arctic.optimizer.operator.FakeBaseToucher;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeinfo.Types;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
@@ -39,12 +41,11 @@ public class FlinkOptimizerTest {
     StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment(new Configuration());
     OptimizerConfig optimizerConfig = new OptimizerConfig(args);
 
-    env.addSource(new FlinkConsumer(new FakeBaseConsumer(optimizerConfig)))
+    env.addSource(new FlinkConsumer(new FakeBaseConsumer(optimizerConfig), optimizerConfig))
         .setParallelism(optimizerConfig.getExecutorParallel())
-        .process(new FlinkExecuteFunction(new FakeBaseExecutor(optimizerConfig),
-            optimizerConfig))
+        .transform(FlinkExecuteFunction.class.getName(), TypeInformation.of(OptimizeTaskStat.class),
+            new FlinkExecuteFunction(new FakeBaseExecutor(optimizerConfig), optimizerConfig))
         .setParallelism(optimizerConfig.getExecutorParallel())
-        .name(FlinkExecuteFunction.class.getName())
         .transform(FlinkReporter.class.getName(), Types.VOID,
             new FlinkReporter(new FakeBaseReporter(optimizerConfig), new FakeBaseToucher(optimizerConfig), optimizerConfig))
         .setParallelism(1)
@@ -38,7 +38,7 @@ public class FakeBaseConsumer extends BaseTaskConsumer {
   }
 
   @Override
-  public TaskWrapper pollTask(long timeout) throws TException {
+  public TaskWrapper pollTask(long timeout, int prefetch) throws TException {
     try {
       Thread.sleep(1000);
     } catch (InterruptedException e) {
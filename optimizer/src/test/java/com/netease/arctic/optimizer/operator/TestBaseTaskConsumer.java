@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator;
+
+import com.netease.arctic.ams.api.MockArcticMetastoreServer;
+import com.netease.arctic.ams.api.OptimizeStatus;
+import com.netease.arctic.ams.api.OptimizeTask;
+import com.netease.arctic.ams.api.OptimizeTaskId;
+import com.netease.arctic.ams.api.OptimizeTaskStat;
+import com.netease.arctic.ams.api.OptimizeType;
+import com.netease.arctic.ams.api.TableIdentifier;
+import com.netease.arctic.optimizer.OptimizerConfig;
+import com.netease.arctic.optimizer.TaskWrapper;
+import org.apache.thrift.TException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestBaseTaskConsumer {
+  private static final long POLL_TIMEOUT = 1000;
+
+  private MockArcticMetastoreServer.OptimizeManagerHandler optimizeManager;
+  private BaseTaskConsumer consumer;
+
+  @Before
+  public void setUp() {
+    MockArcticMetastoreServer server = MockArcticMetastoreServer.getInstance();
+    optimizeManager = server.optimizeManagerHandler();
+    optimizeManager.cleanUp();
+
+    OptimizerConfig config = new OptimizerConfig();
+    config.setAmsUrl(server.getUrl());
+    config.setQueueId(1);
+    config.setOptimizerId("1");
+    consumer = new BaseTaskConsumer(config);
+  }
+
+  @Test
+  public void testPollTasksInBatch() throws TException {
+    offerTasks("task-0", "task-1", "task-2", "task-3", "task-4");
+
+    Assert.assertEquals(Arrays.asList("task-0", "task-1", "task-2"),
+        traceIds(consumer.pollTasks(POLL_TIMEOUT, 3)));
+    Assert.assertEquals(Arrays.asList("task-3", "task-4"),
+        traceIds(consumer.pollTasks(POLL_TIMEOUT, 3)));
+    Assert.assertTrue(consumer.pollTasks(POLL_TIMEOUT, 3).isEmpty());
+    Assert.assertEquals(Arrays.asList(3, 2, 0), optimizeManager.getPolledBatchSizes());
+  }
+
+  @Test
+  public void testPrefetchTasks() throws TException {
+    offerTasks("task-0", "task-1", "task-2");
+
+    Assert.assertEquals("task-0", traceId(consumer.pollTask(POLL_TIMEOUT, 2)));
+    // the following polls are served by prefetched tasks without calling Ams
+    Assert.assertEquals("task-1", traceId(consumer.pollTask(POLL_TIMEOUT, 2)));
+    Assert.assertEquals("task-2", traceId(consumer.pollTask(POLL_TIMEOUT, 2)));
+    Assert.assertEquals(Arrays.asList(3), optimizeManager.getPolledBatchSizes());
+
+    Assert.assertNull(consumer.pollTask(POLL_TIMEOUT, 2));
+    Assert.assertEquals(Arrays.asList(3, 0), optimizeManager.getPolledBatchSizes());
+  }
+
+  @Test
+  public void testPollTaskWithoutPrefetch() throws TException {
+    offerTasks("task-0", "task-1");
+
+    Assert.assertEquals("task-0", traceId(consumer.pollTask(POLL_TIMEOUT)));
+    Assert.assertEquals("task-1", traceId(consumer.pollTask(POLL_TIMEOUT)));
+    Assert.assertEquals(Arrays.asList(1, 1), optimizeManager.getPolledBatchSizes());
+  }
+
+  @Test
+  public void testReleasePrefetchedTasks() throws TException {
+    offerTasks("task-0", "task-1", "task-2");
+
+    TaskWrapper task = consumer.pollTask(POLL_TIMEOUT, 2);
+    Assert.assertEquals("task-0", traceId(task));
+
+    List<OptimizeTaskStat> releasedTasks = consumer.releasePrefetchedTasks();
+    Assert.assertEquals(Arrays.asList("task-1", "task-2"),
+        releasedTasks.stream().map(stat -> stat.getTaskId().getTraceId()).collect(Collectors.toList()));
+    for (OptimizeTaskStat releasedTask : releasedTasks) {
+      Assert.assertEquals(OptimizeStatus.Failed, releasedTask.getStatus());
+      Assert.assertEquals("1", releasedTask.getJobId().getId());
+      Assert.assertEquals(task.getAttemptId() + "", releasedTask.getAttemptId());
+      Assert.assertNotNull(releasedTask.getErrorMessage());
+    }
+
+    // released tasks are never served again
+    Assert.assertNull(consumer.pollTask(POLL_TIMEOUT, 2));
+    Assert.assertTrue(consumer.releasePrefetchedTasks().isEmpty());
+  }
+
+  private void offerTasks(String... traceIds) {
+    for (String traceId : traceIds) {
+      OptimizeTask task = new OptimizeTask();
+      task.setTaskId(new OptimizeTaskId(OptimizeType.Minor, traceId));
+      task.setTableIdentifier(new TableIdentifier("catalog", "db", "table"));
+      optimizeManager.offerTask(task);
+    }
+  }
+
+  private static List<String> traceIds(List<TaskWrapper> tasks) {
+    return tasks.stream().map(TestBaseTaskConsumer::traceId).collect(Collectors.toList());
+  }
+
+  private static String traceId(TaskWrapper task) {
+    return task.getTask().getTaskId().getTraceId();
+  }
+}
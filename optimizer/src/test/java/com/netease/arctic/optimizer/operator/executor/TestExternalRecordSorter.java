@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator.executor;
+
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterator;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestExternalRecordSorter {
+  private static final Schema SCHEMA = new Schema(
+      Types.NestedField.required(1, "id", Types.IntegerType.get()),
+      Types.NestedField.required(2, "name", Types.StringType.get()));
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testSortInMemory() throws Exception {
+    Assert.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()),
+        sortShuffledIds(1000, 64 * 1024 * 1024, 0));
+  }
+
+  @Test
+  public void testSortSpilledRuns() throws Exception {
+    // every buffered record takes more than 100 bytes, so 1000 records are spilled in several runs
+    Assert.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()),
+        sortShuffledIds(1000, 16 * 1024, 2));
+  }
+
+  private List<Integer> sortShuffledIds(int count, long bufferBytes, int minSpilledRuns) throws Exception {
+    RecordClustering clustering = RecordClustering.of(SCHEMA, ImmutableList.of("id"),
+        RecordClustering.Strategy.LINEAR);
+    List<Integer> ids = IntStream.range(0, count).boxed().collect(Collectors.toList());
+    Collections.shuffle(ids, new Random(count));
+
+    File spillBase = temp.newFolder();
+    List<Integer> sortedIds = Lists.newArrayList();
+    ExternalRecordSorter sorter = new ExternalRecordSorter(clustering, bufferBytes, spillBase.toPath());
+    try {
+      Record record = GenericRecord.create(SCHEMA);
+      for (Integer id : ids) {
+        // the sorter copies added records, so the same record can be reused like readers do
+        record.setField("id", id);
+        record.setField("name", "name-" + id);
+        sorter.add(record);
+      }
+      if (minSpilledRuns == 0) {
+        Assert.assertEquals(0, sorter.spilledRuns());
+      } else {
+        Assert.assertTrue(sorter.spilledRuns() >= minSpilledRuns);
+      }
+      try (CloseableIterator<Record> records = sorter.sortedRecords()) {
+        records.forEachRemaining(sorted -> {
+          Assert.assertEquals("name-" + sorted.getField("id"), sorted.getField("name"));
+          sortedIds.add((Integer) sorted.getField("id"));
+        });
+      }
+    } finally {
+      sorter.close();
+    }
+    Assert.assertEquals(0, spillBase.list().length);
+    return sortedIds;
+  }
+}
@@ -5,11 +5,24 @@ import com.netease.arctic.ams.api.OptimizeType;
 import com.netease.arctic.data.IcebergContentFile;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
 import org.apache.iceberg.FileContent;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.parquet.GenericParquetReaders;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.parquet.Parquet;
 import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 public class TestIcebergExecutor extends TestIcebergExecutorBase {
 
   @Test
@@ -131,4 +144,153 @@ public class TestIcebergExecutor extends TestIcebergExecutorBase {
     Assert.assertEquals(FileContent.DATA, resultFile.content());
     Assert.assertEquals(14, resultFile.recordCount());
   }
+
+  @Test
+  public void testCompactDataFilesInParallel() throws Exception {
+    IcebergContentFile dataFile1 = IcebergContentFile.of(insertDataFiles(10, 0), 0);
+    IcebergContentFile posDeleteFile = IcebergContentFile.of(insertPosDeleteFiles(dataFile1.asDataFile(), 1, 5), 1);
+    IcebergContentFile equDeleteFile = IcebergContentFile.of(insertEqDeleteFiles(2, 6, 12), 1);
+    IcebergContentFile dataFile2 = IcebergContentFile.of(insertDataFiles(8, 10), 1);
+    // a small target size splits data files into 2 groups rewritten in parallel
+    icebergTable.asUnkeyedTable().updateProperties()
+        .set(com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE, "1")
+        .commit();
+    try {
+      NodeTask nodeTask = constructNodeTask(
+          Lists.newArrayList(dataFile1, dataFile2),
+          Lists.newArrayList(),
+          Lists.newArrayList(posDeleteFile),
+          Lists.newArrayList(equDeleteFile),
+          OptimizeType.FullMajor);
+
+      String[] arg = new String[0];
+      OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+      optimizerConfig.setOptimizerId("UnitTest");
+      optimizerConfig.setTaskParallel(2);
+      IcebergExecutor icebergExecutor = new IcebergExecutor(nodeTask, icebergTable,
+          System.currentTimeMillis(), optimizerConfig);
+      OptimizeTaskResult result = icebergExecutor.execute();
+      long recordCount = 0;
+      for (ContentFile<?> resultFile : result.getTargetFiles()) {
+        Assert.assertEquals(FileContent.DATA, resultFile.content());
+        recordCount += resultFile.recordCount();
+      }
+      Assert.assertEquals(14, recordCount);
+    } finally {
+      icebergTable.asUnkeyedTable().updateProperties()
+          .remove(com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_TARGET_SIZE)
+          .commit();
+    }
+  }
+
+  @Test
+  public void testDeleteFilesOfFinishedSubtasksOnFailure() throws Exception {
+    NodeTask nodeTask = constructNodeTask(
+        Lists.newArrayList(),
+        Lists.newArrayList(),
+        Lists.newArrayList(),
+        Lists.newArrayList(),
+        OptimizeType.FullMajor);
+    String[] arg = new String[0];
+    OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+    optimizerConfig.setOptimizerId("UnitTest");
+    optimizerConfig.setTaskParallel(2);
+    IcebergExecutor icebergExecutor = new IcebergExecutor(nodeTask, icebergTable,
+        System.currentTimeMillis(), optimizerConfig);
+
+    CountDownLatch firstFinished = new CountDownLatch(1);
+    List<String> writtenFiles = Lists.newArrayList();
+    List<Callable<List<DataFile>>> subtasks = Lists.newArrayList();
+    subtasks.add(() -> {
+      DataFile dataFile = insertDataFiles(10, 0);
+      writtenFiles.add(dataFile.path().toString());
+      firstFinished.countDown();
+      return Lists.newArrayList(dataFile);
+    });
+    subtasks.add(() -> {
+      firstFinished.await();
+      throw new IllegalStateException("subtask failed");
+    });
+
+    Assert.assertThrows(IllegalStateException.class, () -> icebergExecutor.runSubtasks(subtasks));
+    Assert.assertEquals(1, writtenFiles.size());
+    Assert.assertFalse(icebergTable.io().exists(writtenFiles.get(0)));
+  }
+
+  @Test
+  public void testStitchDataFiles() throws Exception {
+    IcebergContentFile dataFile1 = IcebergContentFile.of(insertDataFiles(10, 0), 0);
+    IcebergContentFile dataFile2 = IcebergContentFile.of(insertDataFiles(8, 10), 1);
+
+    // 2 data files without delete files are stitched without decoding records
+    NodeTask nodeTask = constructNodeTask(
+        Lists.newArrayList(dataFile1, dataFile2),
+        Lists.newArrayList(),
+        Lists.newArrayList(),
+        Lists.newArrayList(),
+        OptimizeType.FullMajor);
+
+    String[] arg = new String[0];
+    OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+    optimizerConfig.setOptimizerId("UnitTest");
+    IcebergExecutor icebergExecutor = new IcebergExecutor(nodeTask, icebergTable,
+        System.currentTimeMillis(), optimizerConfig);
+    OptimizeTaskResult result = icebergExecutor.execute();
+    Assert.assertEquals(1, Iterables.size(result.getTargetFiles()));
+    DataFile resultFile = (DataFile) result.getTargetFiles().iterator().next();
+    Assert.assertEquals(18, resultFile.recordCount());
+    // row groups of input files are copied as they are
+    Assert.assertEquals(2, resultFile.splitOffsets().size());
+
+    Set<Integer> ids = Sets.newHashSet();
+    try (CloseableIterable<Record> records = Parquet.read(icebergTable.io().newInputFile(resultFile.path().toString()))
+        .project(icebergTable.schema())
+        .createReaderFunc(fileSchema -> GenericParquetReaders.buildReader(icebergTable.schema(), fileSchema))
+        .build()) {
+      records.forEach(record -> ids.add((Integer) record.getField("id")));
+    }
+    Assert.assertEquals(IntStream.range(0, 18).boxed().collect(Collectors.toSet()), ids);
+  }
+
+  @Test
+  public void testClusterDataFiles() throws Exception {
+    IcebergContentFile dataFile1 = IcebergContentFile.of(insertDataFiles(8, 10), 0);
+    IcebergContentFile dataFile2 = IcebergContentFile.of(insertDataFiles(10, 0), 1);
+    icebergTable.asUnkeyedTable().updateProperties()
+        .set(com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS, "id")
+        .commit();
+    try {
+      // clustered files are neither stitched nor split into groups
+      NodeTask nodeTask = constructNodeTask(
+          Lists.newArrayList(dataFile1, dataFile2),
+          Lists.newArrayList(),
+          Lists.newArrayList(),
+          Lists.newArrayList(),
+          OptimizeType.FullMajor);
+
+      String[] arg = new String[0];
+      OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+      optimizerConfig.setOptimizerId("UnitTest");
+      optimizerConfig.setTaskParallel(2);
+      IcebergExecutor icebergExecutor = new IcebergExecutor(nodeTask, icebergTable,
+          System.currentTimeMillis(), optimizerConfig);
+      OptimizeTaskResult result = icebergExecutor.execute();
+      Assert.assertEquals(1, Iterables.size(result.getTargetFiles()));
+      DataFile resultFile = (DataFile) result.getTargetFiles().iterator().next();
+
+      List<Integer> ids = Lists.newArrayList();
+      try (CloseableIterable<Record> records =
+               Parquet.read(icebergTable.io().newInputFile(resultFile.path().toString()))
+                   .project(icebergTable.schema())
+                   .createReaderFunc(fileSchema -> GenericParquetReaders.buildReader(icebergTable.schema(), fileSchema))
+                   .build()) {
+        records.forEach(record -> ids.add((Integer) record.getField("id")));
+      }
+      Assert.assertEquals(IntStream.range(0, 18).boxed().collect(Collectors.toList()), ids);
+    } finally {
+      icebergTable.asUnkeyedTable().updateProperties()
+          .remove(com.netease.arctic.table.TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS)
+          .commit();
+    }
+  }
 }
@@ -24,18 +24,52 @@ import com.netease.arctic.ams.api.OptimizeTaskId;
 import com.netease.arctic.ams.api.OptimizeType;
 import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.data.DataTreeNode;
+import com.netease.arctic.hive.io.writer.AdaptHiveGenericTaskWriterBuilder;
 import com.netease.arctic.optimizer.OptimizerConfig;
 import com.netease.arctic.optimizer.util.ContentFileUtil;
+import com.netease.arctic.optimizer.util.DataFileInfoUtils;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.BaseLocationKind;
 import com.netease.arctic.table.TableProperties;
 import com.netease.arctic.table.UnkeyedTable;
+import com.netease.arctic.utils.TableFileUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.AppendFiles;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.parquet.AdaptHiveGenericParquetReaders;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.TaskWriter;
+import org.apache.iceberg.parquet.AdaptHiveParquet;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Sets;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class TestMajorExecutor extends TestBaseOptimizeBase {
   @Test
@@ -51,9 +85,64 @@ public class TestMajorExecutor extends TestBaseOptimizeBase {
     result.getTargetFiles().forEach(dataFile -> {
       Assert.assertEquals(240, dataFile.recordCount());
       Assert.assertTrue(dataFile.path().toString().contains(new Path(testKeyedTable.baseLocation()).toString()));
+      // files with deletes are rewritten record by record instead of stitched
+      Assert.assertEquals(1, rowGroupCount(dataFile));
     });
   }
 
+  @Test
+  public void testKeyedTableMajorExecutorStitchFiles() throws Exception {
+    insertTableBaseDataFiles(testKeyedTable, 1L, baseDataFilesInfo);
+    Map<DataTreeNode, List<DataFileInfo>> nodeFilesInfo = baseDataFilesInfo.stream()
+        .collect(Collectors.groupingBy(fileInfo -> DataTreeNode.of(fileInfo.getMask(), fileInfo.getIndex())));
+    Assert.assertEquals(4, nodeFilesInfo.size());
+
+    NodeTask nodeTask = constructNodeTask(testKeyedTable, OptimizeType.Major);
+    String[] arg = new String[0];
+    OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+    optimizerConfig.setOptimizerId("UnitTest");
+    MajorExecutor majorExecutor = new MajorExecutor(nodeTask, testKeyedTable, System.currentTimeMillis(), optimizerConfig);
+    OptimizeTaskResult result = majorExecutor.execute();
+
+    // files of each node are stitched into one file of that node, keeping a row group per input file
+    Assert.assertEquals(4, Iterables.size(result.getTargetFiles()));
+    Set<DataTreeNode> targetNodes = new HashSet<>();
+    for (ContentFile<?> targetFile : result.getTargetFiles()) {
+      DataTreeNode node = TableFileUtils.parseFileNodeFromFileName(targetFile.path().toString());
+      Assert.assertTrue(targetNodes.add(node));
+      List<DataFileInfo> sourceFilesInfo = nodeFilesInfo.get(node);
+      Assert.assertNotNull(sourceFilesInfo);
+      Assert.assertEquals(sourceFilesInfo.stream().mapToLong(DataFileInfo::getRecordCount).sum(),
+          targetFile.recordCount());
+      Assert.assertEquals(sourceFilesInfo.size(), rowGroupCount(targetFile));
+      Assert.assertTrue(targetFile.path().toString().contains(new Path(testKeyedTable.baseLocation()).toString()));
+    }
+  }
+
+  @Test
+  public void testKeyedTableMajorExecutorNotStitchFilesOfOtherMask() throws Exception {
+    testKeyedTable.updateProperties().set(TableProperties.BASE_FILE_INDEX_HASH_BUCKET, "2").commit();
+    insertTableBaseDataFiles(testKeyedTable, 1L, baseDataFilesInfo);
+    testKeyedTable.updateProperties().set(TableProperties.BASE_FILE_INDEX_HASH_BUCKET, "4").commit();
+
+    NodeTask nodeTask = constructNodeTask(testKeyedTable, OptimizeType.Major);
+    String[] arg = new String[0];
+    OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+    optimizerConfig.setOptimizerId("UnitTest");
+    MajorExecutor majorExecutor = new MajorExecutor(nodeTask, testKeyedTable, System.currentTimeMillis(), optimizerConfig);
+    OptimizeTaskResult result = majorExecutor.execute();
+
+    // records of files in nodes of mask 1 are redistributed to nodes of mask 3 by the record writer
+    Assert.assertEquals(4, Iterables.size(result.getTargetFiles()));
+    long recordCount = 0;
+    for (ContentFile<?> targetFile : result.getTargetFiles()) {
+      Assert.assertEquals(3, TableFileUtils.parseFileNodeFromFileName(targetFile.path().toString()).mask());
+      Assert.assertEquals(1, rowGroupCount(targetFile));
+      recordCount += targetFile.recordCount();
+    }
+    Assert.assertEquals(1000, recordCount);
+  }
+
   @Test
   public void testFullMajorExecutor() throws Exception {
       insertBasePosDeleteFiles(testKeyedTable, 2L, baseDataFilesInfo, posDeleteFilesInfo);
@@ -102,6 +191,43 @@ public class TestMajorExecutor extends TestBaseOptimizeBase {
     });
   }
 
+  @Test
+  public void testUnKeyedTableFullMajorExecutorWithClustering() throws Exception {
+    testTable.updateProperties()
+        .set(TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_COLUMNS, "name, id")
+        .set(TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY,
+            TableProperties.SELF_OPTIMIZING_FULL_CLUSTER_STRATEGY_ZORDER)
+        .commit();
+    RecordClustering clustering = RecordClustering.of(testTable);
+    List<Record> inputRecords = insertShuffledBaseDataFiles(testTable);
+    Assert.assertFalse(isClustered(inputRecords, clustering));
+
+    NodeTask nodeTask = constructNodeTask(testTable, OptimizeType.FullMajor);
+    String[] arg = new String[0];
+    OptimizerConfig optimizerConfig = new OptimizerConfig(arg);
+    optimizerConfig.setOptimizerId("UnitTest");
+    // every buffered record takes more than 100 bytes, so sorted records are spilled to disk in several runs
+    optimizerConfig.setSortBufferSizeInBytes(16 * 1024);
+    MajorExecutor majorExecutor = new MajorExecutor(nodeTask, testTable, System.currentTimeMillis(), optimizerConfig);
+    OptimizeTaskResult result = majorExecutor.execute();
+    Assert.assertEquals(Iterables.size(result.getTargetFiles()), 1);
+    ContentFile<?> targetFile = Iterables.getOnlyElement(result.getTargetFiles());
+    Assert.assertEquals(1000, targetFile.recordCount());
+    Assert.assertTrue(targetFile.path().toString().contains(new Path(testTable.location()).toString()));
+
+    Schema schema = testTable.schema();
+    List<Record> outputRecords = Lists.newArrayList();
+    try (CloseableIterable<Record> records = AdaptHiveParquet.read(testTable.io().newInputFile(
+        targetFile.path().toString()))
+        .project(schema)
+        .createReaderFunc(fileSchema -> AdaptHiveGenericParquetReaders.buildReader(schema, fileSchema, new HashMap<>()))
+        .build()) {
+      records.forEach(record -> outputRecords.add(record.copy()));
+    }
+    Assert.assertEquals(Sets.newHashSet(inputRecords), Sets.newHashSet(outputRecords));
+    Assert.assertTrue(isClustered(outputRecords, clustering));
+  }
+
   @Test
   public void testNoPartitionTableMajorExecutor() throws Exception {
     insertBasePosDeleteFiles(testNoPartitionTable, 2L, baseDataFilesInfo, posDeleteFilesInfo);
@@ -134,6 +260,55 @@ public class TestMajorExecutor extends TestBaseOptimizeBase {
     });
   }
 
+  /**
+   * Write 1000 records of ids and names in random order to 10 files of the table.
+   */
+  private List<Record> insertShuffledBaseDataFiles(ArcticTable arcticTable) throws IOException {
+    List<Integer> ids = IntStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+    Collections.shuffle(ids, new Random(1000));
+    GenericRecord template = GenericRecord.create(arcticTable.schema());
+    List<Record> records = ids.stream()
+        .map(id -> template.copy(ImmutableMap.of("id", id, "name", "name-" + (id * 7 % 1000),
+            "op_time", LocalDateTime.of(2022, 1, 1, 12, 0, 0))))
+        .collect(Collectors.toList());
+
+    TaskWriter<Record> writer = AdaptHiveGenericTaskWriterBuilder.builderFor(arcticTable)
+        .buildWriter(BaseLocationKind.INSTANT);
+    List<DataFile> dataFiles = new ArrayList<>();
+    for (int i = 0; i < records.size(); i += 100) {
+      for (Record record : records.subList(i, i + 100)) {
+        writer.write(record);
+      }
+      dataFiles.addAll(Arrays.asList(writer.complete().dataFiles()));
+    }
+    AppendFiles append = arcticTable.asUnkeyedTable().newAppend();
+    dataFiles.forEach(append::appendFile);
+    append.commit();
+    Snapshot snapshot = arcticTable.asUnkeyedTable().currentSnapshot();
+    baseDataFilesInfo.addAll(dataFiles.stream()
+        .map(dataFile -> DataFileInfoUtils.convertToDatafileInfo(dataFile, snapshot, arcticTable))
+        .collect(Collectors.toList()));
+    return records;
+  }
+
+  private static int rowGroupCount(ContentFile<?> file) {
+    try (ParquetFileReader reader = ParquetFileReader.open(
+        HadoopInputFile.fromPath(new Path(file.path().toString()), new Configuration()))) {
+      return reader.getRowGroups().size();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean isClustered(List<Record> records, RecordClustering clustering) {
+    for (int i = 1; i < records.size(); i++) {
+      if (clustering.compareKeys(clustering.sortKey(records.get(i - 1)), clustering.sortKey(records.get(i))) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private NodeTask constructNodeTask(ArcticTable arcticTable, OptimizeType optimizeType) {
     NodeTask nodeTask = new NodeTask();
     nodeTask.setSourceNodes(baseDataFilesInfo.stream()
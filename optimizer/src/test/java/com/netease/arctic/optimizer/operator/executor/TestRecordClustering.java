@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.optimizer.operator.executor;
+
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableList;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestRecordClustering {
+  private static final Schema SCHEMA = new Schema(
+      Types.NestedField.required(1, "x", Types.IntegerType.get()),
+      Types.NestedField.required(2, "y", Types.IntegerType.get()),
+      Types.NestedField.optional(3, "point", Types.StructType.of(
+          Types.NestedField.optional(4, "z", Types.IntegerType.get()))),
+      Types.NestedField.optional(5, "tags", Types.ListType.ofOptional(6, Types.StringType.get())));
+
+  @Test
+  public void testInterleaveBits() {
+    byte[] high = new byte[] {(byte) 0x80, 0, 0, 0, 0, 0, 0, 0};
+    byte[] low = new byte[] {0, 0, 0, 0, 0, 0, 0, 1};
+    byte[] zero = new byte[8];
+
+    // the first bit of the first column is the first output bit, of the second column the second output bit
+    Assert.assertArrayEquals(bytes(16, 0, (byte) 0x80),
+        RecordClustering.interleaveBits(new byte[][] {high, zero}));
+    Assert.assertArrayEquals(bytes(16, 0, (byte) 0x40),
+        RecordClustering.interleaveBits(new byte[][] {zero, high}));
+    // the last bit of each column goes to the last bits of output
+    Assert.assertArrayEquals(bytes(16, 15, (byte) 0x02),
+        RecordClustering.interleaveBits(new byte[][] {low, zero}));
+    Assert.assertArrayEquals(bytes(16, 15, (byte) 0x01),
+        RecordClustering.interleaveBits(new byte[][] {zero, low}));
+    Assert.assertArrayEquals(bytes(24, 23, (byte) 0x07),
+        RecordClustering.interleaveBits(new byte[][] {low, low, low}));
+  }
+
+  @Test
+  public void testZOrderOfGrid() {
+    RecordClustering clustering = RecordClustering.of(SCHEMA, ImmutableList.of("x", "y"),
+        RecordClustering.Strategy.ZORDER);
+    List<Record> records = Lists.newArrayList();
+    for (int x = 0; x < 4; x++) {
+      for (int y = 0; y < 4; y++) {
+        records.add(record(x, y));
+      }
+    }
+    Collections.shuffle(records);
+    records.sort((left, right) -> clustering.compareKeys(clustering.sortKey(left), clustering.sortKey(right)));
+
+    List<String> expected = ImmutableList.of(
+        "0,0", "0,1", "1,0", "1,1", "0,2", "0,3", "1,2", "1,3",
+        "2,0", "2,1", "3,0", "3,1", "2,2", "2,3", "3,2", "3,3");
+    Assert.assertEquals(expected, records.stream()
+        .map(record -> record.getField("x") + "," + record.getField("y"))
+        .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testLinearOrder() {
+    RecordClustering clustering = RecordClustering.of(SCHEMA, ImmutableList.of("y", "x"),
+        RecordClustering.Strategy.LINEAR);
+    List<Record> records = Lists.newArrayList(record(2, 1), record(1, 2), record(1, 1), record(-1, 2));
+    records.sort((left, right) -> clustering.compareKeys(clustering.sortKey(left), clustering.sortKey(right)));
+    Assert.assertEquals(ImmutableList.of(record(1, 1), record(2, 1), record(-1, 2), record(1, 2)), records);
+  }
+
+  @Test
+  public void testOrderedBytesOfSignedValues() {
+    assertOrdered(Type.TypeID.INTEGER, null, Integer.MIN_VALUE, -5, 0, 3, Integer.MAX_VALUE);
+    assertOrdered(Type.TypeID.LONG, null, Long.MIN_VALUE + 1, -1L, 0L, 1L, Long.MAX_VALUE);
+    assertOrdered(Type.TypeID.DOUBLE, null, Double.NEGATIVE_INFINITY, -2.5D, -1D, 0D, 1.5D,
+        Double.POSITIVE_INFINITY);
+    assertOrdered(Type.TypeID.FLOAT, null, -2.5F, -1F, 0F, 1.5F);
+    assertOrdered(Type.TypeID.STRING, null, "a", "ab", "b");
+  }
+
+  @Test
+  public void testRejectUnsupportedColumns() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> RecordClustering.of(SCHEMA,
+        ImmutableList.of("x", "unknown"), RecordClustering.Strategy.ZORDER));
+    Assert.assertThrows(IllegalArgumentException.class, () -> RecordClustering.of(SCHEMA,
+        ImmutableList.of("point.z"), RecordClustering.Strategy.ZORDER));
+    Assert.assertThrows(IllegalArgumentException.class, () -> RecordClustering.of(SCHEMA,
+        ImmutableList.of("point"), RecordClustering.Strategy.LINEAR));
+    Assert.assertThrows(IllegalArgumentException.class, () -> RecordClustering.of(SCHEMA,
+        ImmutableList.of("tags"), RecordClustering.Strategy.ZORDER));
+  }
+
+  private static void assertOrdered(Type.TypeID typeId, Object... values) {
+    RecordClustering clustering = RecordClustering.of(SCHEMA, ImmutableList.of("x"),
+        RecordClustering.Strategy.ZORDER);
+    for (int i = 1; i < values.length; i++) {
+      byte[] left = RecordClustering.orderedBytes(typeId, values[i - 1]);
+      byte[] right = RecordClustering.orderedBytes(typeId, values[i]);
+      Assert.assertTrue(values[i - 1] + " should be ordered before " + values[i],
+          clustering.compareKeys(left, right) < 0);
+    }
+  }
+
+  private static Record record(int x, int y) {
+    Record record = GenericRecord.create(SCHEMA);
+    record.setField("x", x);
+    record.setField("y", y);
+    return record;
+  }
+
+  private static byte[] bytes(int length, int index, byte value) {
+    byte[] bytes = new byte[length];
+    bytes[index] = value;
+    return bytes;
+  }
+}
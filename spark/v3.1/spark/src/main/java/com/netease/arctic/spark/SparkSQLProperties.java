@@ -35,4 +35,9 @@ public class SparkSQLProperties {
   public static final String CHECK_DATA_DUPLICATES_ENABLE = "spark.sql.arctic.check-source-data-uniqueness.enabled";
 
   public static final String CHECK_DATA_DUPLICATES_ENABLE_DEFAULT = "false";
+
+  public static final String REPORT_NODE_PARTITIONING_ENABLE =
+      "spark.sql.arctic.keyed-table.report-node-partitioning.enabled";
+
+  public static final String REPORT_NODE_PARTITIONING_ENABLE_DEFAULT = "false";
 }
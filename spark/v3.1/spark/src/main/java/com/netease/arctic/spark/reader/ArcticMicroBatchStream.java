@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.spark.reader;
+
+import com.netease.arctic.IcebergFileEntry;
+import com.netease.arctic.data.DefaultKeyedFile;
+import com.netease.arctic.io.ArcticFileIO;
+import com.netease.arctic.scan.BaseArcticFileScanTask;
+import com.netease.arctic.scan.TableEntriesScan;
+import com.netease.arctic.table.ChangeTable;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.utils.ArcticDataFiles;
+import com.netease.arctic.utils.TablePropertyUtil;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.SnapshotSummary;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.collect.Lists;
+import org.apache.iceberg.relocated.com.google.common.collect.Maps;
+import org.apache.iceberg.relocated.com.google.common.io.CharStreams;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.SnapshotUtil;
+import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.TableScanUtil;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
+import org.apache.spark.sql.connector.read.streaming.MicroBatchStream;
+import org.apache.spark.sql.connector.read.streaming.Offset;
+import org.apache.spark.sql.connector.read.streaming.ReadAllAvailable;
+import org.apache.spark.sql.connector.read.streaming.ReadLimit;
+import org.apache.spark.sql.connector.read.streaming.ReadMaxFiles;
+import org.apache.spark.sql.connector.read.streaming.ReadMaxRows;
+import org.apache.spark.sql.connector.read.streaming.SupportsAdmissionControl;
+import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streaming reads of the change table. Each micro batch reads files added by the commits of the change table between
+ * two {@link ArcticStreamingOffset offsets}, a batch is made up of whole commits of the change table so that inserts
+ * and deletes of a transaction are never read by different batches.
+ */
+public class ArcticMicroBatchStream implements MicroBatchStream, SupportsAdmissionControl {
+  private static final Logger LOG = LoggerFactory.getLogger(ArcticMicroBatchStream.class);
+
+  /**
+   * Where to start reading from for a new stream, one of {@link #START_POSITION_EARLIEST},
+   * {@link #START_POSITION_LATEST} and {@link #START_POSITION_UNMERGED}.
+   */
+  public static final String START_POSITION = "start-position";
+
+  /**
+   * Read all files in the change table.
+   */
+  public static final String START_POSITION_EARLIEST = "earliest";
+
+  /**
+   * Read files committed after the stream starts.
+   */
+  public static final String START_POSITION_LATEST = "latest";
+
+  /**
+   * Read files not optimized into the base store yet, newer than the max transaction id of their partition in the
+   * base store.
+   */
+  public static final String START_POSITION_UNMERGED = "unmerged";
+
+  public static final String MAX_FILES_PER_TRIGGER = "max-files-per-trigger";
+
+  public static final String MAX_ROWS_PER_TRIGGER = "max-rows-per-trigger";
+
+  private static final String INITIAL_OFFSET_FILE = "initial-offset";
+
+  private final ChangeTable table;
+  private final KeyedTable keyedTable;
+  private final boolean caseSensitive;
+  private final Schema expectedSchema;
+  private final List<Expression> filterExpressions;
+  private final String startPosition;
+  private final Integer maxFilesPerTrigger;
+  private final Long maxRowsPerTrigger;
+  private final long splitSize;
+  private final int splitLookback;
+  private final long splitOpenFileCost;
+  private final String initialOffsetLocation;
+
+  /**
+   * @param keyedTable the keyed table of the change table, only required to start from
+   *                   {@link #START_POSITION_UNMERGED}
+   */
+  ArcticMicroBatchStream(
+      ChangeTable table, KeyedTable keyedTable, boolean caseSensitive, Schema expectedSchema,
+      List<Expression> filters, CaseInsensitiveStringMap options, String checkpointLocation) {
+    this.table = table;
+    this.keyedTable = keyedTable;
+    this.caseSensitive = caseSensitive;
+    this.expectedSchema = expectedSchema;
+    this.filterExpressions = filters == null ? Collections.emptyList() : filters;
+    this.startPosition = options.getOrDefault(START_POSITION, START_POSITION_EARLIEST).toLowerCase(Locale.ROOT);
+    Preconditions.checkArgument(
+        START_POSITION_EARLIEST.equals(startPosition) || START_POSITION_LATEST.equals(startPosition) ||
+            START_POSITION_UNMERGED.equals(startPosition),
+        "Unknown %s: %s", START_POSITION, startPosition);
+    Preconditions.checkArgument(!START_POSITION_UNMERGED.equals(startPosition) || keyedTable != null,
+        "Cannot start streaming reads of %s from unmerged files without the keyed table", table.id());
+    Long maxFiles = Spark3Util.propertyAsLong(options, MAX_FILES_PER_TRIGGER, null);
+    this.maxFilesPerTrigger = maxFiles == null ? null : Math.toIntExact(maxFiles);
+    this.maxRowsPerTrigger = Spark3Util.propertyAsLong(options, MAX_ROWS_PER_TRIGGER, null);
+    Preconditions.checkArgument(maxFilesPerTrigger == null || maxFilesPerTrigger > 0,
+        "%s must be positive: %s", MAX_FILES_PER_TRIGGER, maxFilesPerTrigger);
+    Preconditions.checkArgument(maxRowsPerTrigger == null || maxRowsPerTrigger > 0,
+        "%s must be positive: %s", MAX_ROWS_PER_TRIGGER, maxRowsPerTrigger);
+    this.splitSize = PropertyUtil.propertyAsLong(table.properties(),
+        TableProperties.SPLIT_SIZE, TableProperties.SPLIT_SIZE_DEFAULT);
+    this.splitLookback = PropertyUtil.propertyAsInt(table.properties(),
+        TableProperties.SPLIT_LOOKBACK, TableProperties.SPLIT_LOOKBACK_DEFAULT);
+    this.splitOpenFileCost = PropertyUtil.propertyAsLong(table.properties(),
+        TableProperties.SPLIT_OPEN_FILE_COST, TableProperties.SPLIT_OPEN_FILE_COST_DEFAULT);
+    this.initialOffsetLocation = checkpointLocation + "/" + INITIAL_OFFSET_FILE;
+  }
+
+  /**
+   * The initial offset is kept in the checkpoint location, so a restarted stream starts from the same offset even
+   * if it fails before the first batch is committed.
+   */
+  @Override
+  public Offset initialOffset() {
+    ArcticFileIO io = table.io();
+    if (io.exists(initialOffsetLocation)) {
+      InputFile file = io.newInputFile(initialOffsetLocation);
+      try (InputStream in = file.newStream()) {
+        return ArcticStreamingOffset.fromJson(CharStreams.toString(new InputStreamReader(in, StandardCharsets.UTF_8)));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read initial offset from " + initialOffsetLocation, e);
+      }
+    }
+
+    ArcticStreamingOffset offset = startOffset();
+    try (OutputStream out = io.newOutputFile(initialOffsetLocation).create()) {
+      out.write(offset.json().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write initial offset to " + initialOffsetLocation, e);
+    }
+    LOG.info("Start streaming reads of {} from {}", table.id(), offset);
+    return offset;
+  }
+
+  private ArcticStreamingOffset startOffset() {
+    table.refresh();
+    Snapshot current = table.currentSnapshot();
+    if (START_POSITION_LATEST.equals(startPosition) && current != null) {
+      return new ArcticStreamingOffset(current.snapshotId(), current.sequenceNumber(), Collections.emptyMap());
+    }
+    if (START_POSITION_UNMERGED.equals(startPosition)) {
+      keyedTable.baseTable().refresh();
+      StructLikeMap<Long> baseTransactionIds = TablePropertyUtil.getPartitionMaxTransactionId(keyedTable);
+      PartitionSpec spec = table.spec();
+      if (spec.isUnpartitioned()) {
+        long transactionId = baseTransactionIds.values().stream()
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT);
+        return new ArcticStreamingOffset(null, transactionId, Collections.emptyMap());
+      }
+      Map<String, Long> partitionTransactionIds = Maps.newHashMap();
+      baseTransactionIds.forEach((partition, transactionId) ->
+          partitionTransactionIds.put(spec.partitionToPath(partition), transactionId));
+      return new ArcticStreamingOffset(null, TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT,
+          partitionTransactionIds);
+    }
+    return new ArcticStreamingOffset(null, TableProperties.PARTITION_MAX_TRANSACTION_ID_DEFAULT,
+        Collections.emptyMap());
+  }
+
+  @Override
+  public Offset latestOffset() {
+    throw new UnsupportedOperationException(
+        "latestOffset(Offset, ReadLimit) should be called instead of latestOffset()");
+  }
+
+  @Override
+  public ReadLimit getDefaultReadLimit() {
+    if (maxFilesPerTrigger != null) {
+      return ReadLimit.maxFiles(maxFilesPerTrigger);
+    } else if (maxRowsPerTrigger != null) {
+      return ReadLimit.maxRows(maxRowsPerTrigger);
+    } else {
+      return ReadLimit.allAvailable();
+    }
+  }
+
+  /**
+   * Admit commits of the change table after the start offset in commit order, until the files or the rows added
+   * by them exceed the read limit. The first commit is always admitted so the stream makes progress.
+   */
+  @Override
+  public Offset latestOffset(Offset startOffset, ReadLimit limit) {
+    ArcticStreamingOffset start = (ArcticStreamingOffset) startOffset;
+    table.refresh();
+    Snapshot current = table.currentSnapshot();
+    if (current == null || current.sequenceNumber() <= start.transactionId()) {
+      return start;
+    }
+
+    List<Snapshot> snapshots = Lists.newArrayList();
+    for (Snapshot snapshot : SnapshotUtil.currentAncestors(table)) {
+      if (snapshot.sequenceNumber() <= start.transactionId()) {
+        break;
+      }
+      snapshots.add(snapshot);
+    }
+
+    long maxFiles = Long.MAX_VALUE;
+    long maxRows = Long.MAX_VALUE;
+    if (!(limit instanceof ReadAllAvailable)) {
+      maxFiles = maxFilesPerTrigger == null ? maxFiles : maxFilesPerTrigger;
+      maxRows = maxRowsPerTrigger == null ? maxRows : maxRowsPerTrigger;
+      if (limit instanceof ReadMaxFiles) {
+        maxFiles = ((ReadMaxFiles) limit).maxFiles();
+      } else if (limit instanceof ReadMaxRows) {
+        maxRows = ((ReadMaxRows) limit).maxRows();
+      }
+    }
+
+    Snapshot end = null;
+    long files = 0;
+    long rows = 0;
+    for (Snapshot snapshot : Lists.reverse(snapshots)) {
+      files += PropertyUtil.propertyAsLong(snapshot.summary(), SnapshotSummary.ADDED_FILES_PROP, 0);
+      rows += PropertyUtil.propertyAsLong(snapshot.summary(), SnapshotSummary.ADDED_RECORDS_PROP, 0);
+      if (end != null && (files > maxFiles || rows > maxRows)) {
+        break;
+      }
+      end = snapshot;
+    }
+
+    // partitions with a transaction id not greater than the end are read to the end
+    long endTransactionId = end.sequenceNumber();
+    Map<String, Long> partitionTransactionIds = Maps.newHashMap();
+    start.partitionTransactionIds().forEach((partition, transactionId) -> {
+      if (transactionId > endTransactionId) {
+        partitionTransactionIds.put(partition, transactionId);
+      }
+    });
+    return new ArcticStreamingOffset(end.snapshotId(), endTransactionId, partitionTransactionIds);
+  }
+
+  @Override
+  public InputPartition[] planInputPartitions(Offset startOffset, Offset endOffset) {
+    ArcticStreamingOffset start = (ArcticStreamingOffset) startOffset;
+    ArcticStreamingOffset end = (ArcticStreamingOffset) endOffset;
+    if (end.snapshotId() == null || end.transactionId() <= start.transactionId()) {
+      return new InputPartition[0];
+    }
+
+    // files are planned from the commits in the range instead of the files alive at the end, so files removed from
+    // the change table after they are committed in the range are still read
+    Preconditions.checkState(table.snapshot(end.snapshotId()) != null,
+        "Cannot read %s to snapshot %s, it is expired", table.id(), end.snapshotId());
+    List<CloseableIterable<IcebergFileEntry>> entries = Lists.newArrayList();
+    Snapshot oldest = null;
+    for (Snapshot snapshot : SnapshotUtil.ancestorsOf(end.snapshotId(), table::snapshot)) {
+      if (snapshot.sequenceNumber() <= start.transactionId()) {
+        break;
+      }
+      entries.add(addedEntries(snapshot));
+      oldest = snapshot;
+    }
+    if (oldest.parentId() != null && table.snapshot(oldest.parentId()) == null) {
+      // commits before the oldest snapshot are expired, only their files alive at the end can be read
+      long expiredSequenceNumber = oldest.sequenceNumber();
+      entries.add(CloseableIterable.filter(entriesBuilder(end.snapshotId()).build().entries(),
+          entry -> entry.getSequenceNumber() < expiredSequenceNumber));
+    }
+    StructLikeMap<Long> partitionTransactionIds = partitionTransactionIds(start);
+    CloseableIterable<IcebergFileEntry> newEntries = CloseableIterable.filter(
+        CloseableIterable.concat(Lists.reverse(entries)),
+        entry -> entry.getSequenceNumber() > fromTransactionId(entry, start, partitionTransactionIds));
+    // files planned from commits have no residual
+    CloseableIterable<FileScanTask> files = CloseableIterable.transform(newEntries,
+        entry -> new BaseArcticFileScanTask(new DefaultKeyedFile((DataFile) entry.getFile()), null, table.spec()));
+    List<CombinedScanTask> tasks;
+    try (CloseableIterable<CombinedScanTask> tasksIterable =
+             TableScanUtil.planTasks(files, splitSize, splitLookback, splitOpenFileCost)) {
+      tasks = Lists.newArrayList(tasksIterable);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close change table scan", e);
+    }
+    LOG.info("Planned {} tasks of {} from {} to {}", tasks.size(), table.id(), start, end);
+
+    InputPartition[] partitions = new InputPartition[tasks.size()];
+    for (int i = 0; i < tasks.size(); i++) {
+      partitions[i] = new UnkeyedSparkBatchScan.ArcticInputPartition(tasks.get(i), table, expectedSchema,
+          caseSensitive);
+    }
+    return partitions;
+  }
+
+  /**
+   * Entries of data files added by the snapshot, read from the manifests written by the snapshot.
+   */
+  private CloseableIterable<IcebergFileEntry> addedEntries(Snapshot snapshot) {
+    CloseableIterable<IcebergFileEntry> entries = entriesBuilder(snapshot.snapshotId())
+        .withManifestFilter(manifest -> Objects.equals(manifest.snapshotId(), snapshot.snapshotId()))
+        .build()
+        .entries();
+    return CloseableIterable.filter(entries, entry -> Objects.equals(entry.getSnapshotId(), snapshot.snapshotId()));
+  }
+
+  private TableEntriesScan.Builder entriesBuilder(long snapshotId) {
+    Expression dataFilter = Expressions.alwaysTrue();
+    for (Expression filter : filterExpressions) {
+      dataFilter = Expressions.and(dataFilter, filter);
+    }
+    return TableEntriesScan.builder(table)
+        .withAliveEntry(true)
+        .withDataFilter(dataFilter)
+        .includeFileContent(FileContent.DATA)
+        .useSnapshot(snapshotId);
+  }
+
+  private static long fromTransactionId(
+      IcebergFileEntry entry, ArcticStreamingOffset start, StructLikeMap<Long> partitionTransactionIds) {
+    Long partitionTransactionId = partitionTransactionIds.get(entry.getFile().partition());
+    return partitionTransactionId == null ? start.transactionId() : partitionTransactionId;
+  }
+
+  private StructLikeMap<Long> partitionTransactionIds(ArcticStreamingOffset start) {
+    StructLikeMap<Long> partitionTransactionIds = StructLikeMap.create(table.spec().partitionType());
+    start.partitionTransactionIds().forEach((path, transactionId) -> {
+      StructLike partition = ArcticDataFiles.data(table.spec(), path);
+      partitionTransactionIds.put(partition, Math.max(transactionId, start.transactionId()));
+    });
+    return partitionTransactionIds;
+  }
+
+  @Override
+  public PartitionReaderFactory createReaderFactory() {
+    return new UnkeyedSparkBatchScan.ReaderFactory();
+  }
+
+  @Override
+  public Offset deserializeOffset(String json) {
+    return ArcticStreamingOffset.fromJson(json);
+  }
+
+  @Override
+  public void commit(Offset end) {
+  }
+
+  @Override
+  public void stop() {
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ArcticMicroBatchStream(table=%s, startPosition=%s)", table.id(), startPosition);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.spark.reader;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.iceberg.relocated.com.google.common.base.Preconditions;
+import org.apache.iceberg.relocated.com.google.common.collect.ImmutableMap;
+import org.apache.spark.sql.connector.read.streaming.Offset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Offset of streaming reads of the change table. Files committed to the change table with a transaction id, the
+ * sequence number of the commit, not greater than {@link #transactionId()} or the transaction id of their
+ * partition in {@link #partitionTransactionIds()} have been read.
+ */
+public class ArcticStreamingOffset extends Offset {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int VERSION = 1;
+  private static final String VERSION_FIELD = "version";
+  private static final String SNAPSHOT_ID_FIELD = "snapshot_id";
+  private static final String TRANSACTION_ID_FIELD = "transaction_id";
+  private static final String PARTITION_TRANSACTION_IDS_FIELD = "partition_transaction_ids";
+
+  private final Long snapshotId;
+  private final long transactionId;
+  private final Map<String, Long> partitionTransactionIds;
+
+  /**
+   * @param snapshotId the change table snapshot committing {@code transactionId}, null if nothing is read
+   * @param transactionId files with a transaction id not greater than it have been read
+   * @param partitionTransactionIds files with a transaction id not greater than the one of their partition have
+   *                                been read, keyed by partition paths
+   */
+  ArcticStreamingOffset(Long snapshotId, long transactionId, Map<String, Long> partitionTransactionIds) {
+    this.snapshotId = snapshotId;
+    this.transactionId = transactionId;
+    this.partitionTransactionIds = ImmutableMap.copyOf(partitionTransactionIds);
+  }
+
+  public Long snapshotId() {
+    return snapshotId;
+  }
+
+  public long transactionId() {
+    return transactionId;
+  }
+
+  public Map<String, Long> partitionTransactionIds() {
+    return partitionTransactionIds;
+  }
+
+  static ArcticStreamingOffset fromJson(String json) {
+    try {
+      JsonNode node = MAPPER.readTree(json);
+      int version = node.get(VERSION_FIELD).asInt();
+      Preconditions.checkArgument(version == VERSION, "Cannot parse offset of version %s: %s", version, json);
+      JsonNode snapshotIdNode = node.get(SNAPSHOT_ID_FIELD);
+      Long snapshotId = snapshotIdNode == null || snapshotIdNode.isNull() ? null : snapshotIdNode.asLong();
+      ImmutableMap.Builder<String, Long> partitionTransactionIds = ImmutableMap.builder();
+      JsonNode partitionsNode = node.get(PARTITION_TRANSACTION_IDS_FIELD);
+      if (partitionsNode != null) {
+        Iterator<Map.Entry<String, JsonNode>> partitions = partitionsNode.fields();
+        while (partitions.hasNext()) {
+          Map.Entry<String, JsonNode> partition = partitions.next();
+          partitionTransactionIds.put(partition.getKey(), partition.getValue().asLong());
+        }
+      }
+      return new ArcticStreamingOffset(snapshotId, node.get(TRANSACTION_ID_FIELD).asLong(),
+          partitionTransactionIds.build());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to parse offset: " + json, e);
+    }
+  }
+
+  @Override
+  public String json() {
+    ObjectNode node = MAPPER.createObjectNode();
+    node.put(VERSION_FIELD, VERSION);
+    node.put(SNAPSHOT_ID_FIELD, snapshotId);
+    node.put(TRANSACTION_ID_FIELD, transactionId);
+    ObjectNode partitionsNode = node.putObject(PARTITION_TRANSACTION_IDS_FIELD);
+    partitionTransactionIds.forEach(partitionsNode::put);
+    try {
+      return MAPPER.writeValueAsString(node);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Failed to write offset json", e);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArcticStreamingOffset that = (ArcticStreamingOffset) o;
+    return transactionId == that.transactionId &&
+        Objects.equals(snapshotId, that.snapshotId) &&
+        partitionTransactionIds.equals(that.partitionTransactionIds);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(snapshotId, transactionId, partitionTransactionIds);
+  }
+
+  @Override
+  public String toString() {
+    return json();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.spark.reader;
+
+import com.netease.arctic.table.PrimaryKeySpec;
+import org.apache.spark.sql.connector.read.partitioning.ClusteredDistribution;
+import org.apache.spark.sql.connector.read.partitioning.Distribution;
+import org.apache.spark.sql.connector.read.partitioning.Partitioning;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Partitioning of a keyed table scan whose input partitions are grouped by
+ * {@link com.netease.arctic.data.DataTreeNode}. Rows are hashed into tree nodes by primary key,
+ * so every input partition contains all rows of the keys it owns.
+ */
+public class KeyedNodePartitioning implements Partitioning {
+
+  private final int numPartitions;
+  private final Set<String> primaryKeyColumns;
+  private final boolean caseSensitive;
+
+  public KeyedNodePartitioning(int numPartitions, PrimaryKeySpec primaryKeySpec, boolean caseSensitive) {
+    this.numPartitions = numPartitions;
+    this.caseSensitive = caseSensitive;
+    this.primaryKeyColumns = primaryKeySpec.fieldNames().stream()
+        .map(this::normalize)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public int numPartitions() {
+    return numPartitions;
+  }
+
+  /**
+   * Rows with the same values of clustered columns share the same primary key, if the clustered columns contain
+   * all primary key columns, so they are always read by the same input partition.
+   */
+  @Override
+  public boolean satisfy(Distribution distribution) {
+    if (!(distribution instanceof ClusteredDistribution)) {
+      return false;
+    }
+    Set<String> clusteredColumns = Arrays.stream(((ClusteredDistribution) distribution).clusteredColumns)
+        .map(this::normalize)
+        .collect(Collectors.toSet());
+    return !primaryKeyColumns.isEmpty() && clusteredColumns.containsAll(primaryKeyColumns);
+  }
+
+  private String normalize(String column) {
+    return caseSensitive ? column : column.toLowerCase(Locale.ROOT);
+  }
+}
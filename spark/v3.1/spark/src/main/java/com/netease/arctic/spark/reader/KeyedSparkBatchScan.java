@@ -18,10 +18,13 @@
 
 package com.netease.arctic.spark.reader;
 
+import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.io.ArcticFileIO;
+import com.netease.arctic.scan.BaseCombinedScanTask;
 import com.netease.arctic.scan.CombinedScanTask;
 import com.netease.arctic.scan.KeyedTableScan;
 import com.netease.arctic.scan.KeyedTableScanTask;
+import com.netease.arctic.scan.NodeFileScanTask;
 import com.netease.arctic.spark.util.Stats;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.PrimaryKeySpec;
@@ -40,7 +43,10 @@ import org.apache.spark.sql.connector.read.PartitionReader;
 import org.apache.spark.sql.connector.read.PartitionReaderFactory;
 import org.apache.spark.sql.connector.read.Scan;
 import org.apache.spark.sql.connector.read.Statistics;
+import org.apache.spark.sql.connector.read.SupportsReportPartitioning;
 import org.apache.spark.sql.connector.read.SupportsReportStatistics;
+import org.apache.spark.sql.connector.read.partitioning.Partitioning;
+import org.apache.spark.sql.connector.read.partitioning.UnknownPartitioning;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
 import org.slf4j.Logger;
@@ -51,10 +57,12 @@ import java.io.Serializable;
 import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
-public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistics {
+public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistics, SupportsReportPartitioning {
   private static final Logger LOG = LoggerFactory.getLogger(KeyedSparkBatchScan.class);
 
   private final KeyedTable table;
@@ -65,14 +73,18 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
   private final Long startSnapshotId;
   private final Long endSnapshotId;
   private final Long asOfTimestamp;
+  private final boolean reportNodePartitioning;
   private StructType readSchema = null;
   private List<CombinedScanTask> tasks = null;
+  private boolean groupedByNode = false;
 
   KeyedSparkBatchScan(
       KeyedTable table, boolean caseSensitive,
-      Schema expectedSchema, List<Expression> filters, CaseInsensitiveStringMap options) {
+      Schema expectedSchema, List<Expression> filters, CaseInsensitiveStringMap options,
+      boolean reportNodePartitioning) {
     this.table = table;
     this.caseSensitive = caseSensitive;
+    this.reportNodePartitioning = reportNodePartitioning;
     this.expectedSchema = expectedSchema;
     this.filterExpressions = filters;
     this.snapshotId = Spark3Util.propertyAsLong(options, "snapshot-id", null);
@@ -141,6 +153,15 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
     return new Stats(sizeInBytes, numRows);
   }
 
+  @Override
+  public Partitioning outputPartitioning() {
+    List<CombinedScanTask> scanTasks = tasks();
+    if (groupedByNode) {
+      return new KeyedNodePartitioning(scanTasks.size(), table.primaryKeySpec(), caseSensitive);
+    }
+    return new UnknownPartitioning(scanTasks.size());
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -158,20 +179,32 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
         Objects.equals(snapshotId, that.snapshotId) &&
         Objects.equals(startSnapshotId, that.startSnapshotId) &&
         Objects.equals(endSnapshotId, that.endSnapshotId) &&
-        Objects.equals(asOfTimestamp, that.asOfTimestamp);
+        Objects.equals(asOfTimestamp, that.asOfTimestamp) &&
+        reportNodePartitioning == that.reportNodePartitioning;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
         table.id(), readSchema(), filterExpressions.toString(), snapshotId, startSnapshotId, endSnapshotId,
-        asOfTimestamp);
+        asOfTimestamp, reportNodePartitioning);
   }
 
   private List<CombinedScanTask> tasks() {
     if (tasks == null) {
       KeyedTableScan scan = table
           .newScan();
+      // options are checked not to conflict when the scan is created, the table scan rejects conflicts again
+      if (snapshotId != null) {
+        scan = scan.useSnapshot(snapshotId);
+      }
+      if (asOfTimestamp != null) {
+        scan = scan.asOfTime(asOfTimestamp);
+      }
+      if (startSnapshotId != null) {
+        scan = endSnapshotId == null ? scan.appendsAfter(startSnapshotId) :
+            scan.appendsBetween(startSnapshotId, endSnapshotId);
+      }
 
       if (filterExpressions != null) {
         for (Expression filter : filterExpressions) {
@@ -187,10 +220,48 @@ public class KeyedSparkBatchScan implements Scan, Batch, SupportsReportStatistic
       } catch (IOException e) {
         throw new UncheckedIOException("Failed to close table scan: %s", e);
       }
+      if (reportNodePartitioning) {
+        List<CombinedScanTask> nodeTasks = groupTasksByNode(tasks);
+        if (nodeTasks != null) {
+          LOG.info("group tasks of table {} by tree node, tasks num {}", table.id(), nodeTasks.size());
+          this.tasks = nodeTasks;
+          this.groupedByNode = true;
+        }
+      }
     }
     return tasks;
   }
 
+  /**
+   * Regroup tasks so that each combined task contains all files of one tree node at the smallest mask of the table.
+   * Nodes with a bigger mask are merged into their ancestor node, which holds a superset of their keys.
+   *
+   * @return combined tasks grouped by tree node, or null if some task has no tree node
+   */
+  private static List<CombinedScanTask> groupTasksByNode(List<CombinedScanTask> combinedTasks) {
+    List<NodeFileScanTask> nodeTasks = Lists.newArrayList();
+    long minMask = Long.MAX_VALUE;
+    for (CombinedScanTask combinedTask : combinedTasks) {
+      for (KeyedTableScanTask task : combinedTask.tasks()) {
+        if (!(task instanceof NodeFileScanTask) || ((NodeFileScanTask) task).treeNode() == null) {
+          return null;
+        }
+        NodeFileScanTask nodeTask = (NodeFileScanTask) task;
+        minMask = Math.min(minMask, nodeTask.treeNode().mask());
+        nodeTasks.add(nodeTask);
+      }
+    }
+
+    Map<Long, List<NodeFileScanTask>> tasksByNode = new TreeMap<>();
+    for (NodeFileScanTask nodeTask : nodeTasks) {
+      DataTreeNode node = nodeTask.treeNode();
+      tasksByNode.computeIfAbsent(node.index() & minMask, index -> Lists.newArrayList()).add(nodeTask);
+    }
+    return tasksByNode.values().stream()
+        .map(BaseCombinedScanTask::new)
+        .collect(Collectors.toList());
+  }
+
   @Override
   public String description() {
     String filters = filterExpressions.stream().map(Spark3Util::describe).collect(Collectors.joining(", "));
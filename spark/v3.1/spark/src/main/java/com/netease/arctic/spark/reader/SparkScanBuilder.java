@@ -18,8 +18,10 @@
 
 package com.netease.arctic.spark.reader;
 
+import com.netease.arctic.spark.SparkSQLProperties;
 import com.netease.arctic.spark.table.SupportsExtendIdentColumns;
 import com.netease.arctic.table.ArcticTable;
+import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.UnkeyedTable;
 import org.apache.iceberg.MetadataColumns;
 import org.apache.iceberg.Schema;
@@ -54,16 +56,16 @@ public class SparkScanBuilder implements ScanBuilder, SupportsExtendIdentColumns
 
   private final List<String> metaColumns = Lists.newArrayList();
 
-  private Schema schema = null;
+  private Schema schema;
   private StructType requestedProjection;
   private final boolean caseSensitive;
+  private final boolean reportNodePartitioning;
   private List<Expression> filterExpressions = null;
   private Filter[] pushedFilters = NO_FILTERS;
+  private KeyedTable keyedTable = null;
 
   public SparkScanBuilder(SparkSession spark, ArcticTable table, CaseInsensitiveStringMap options) {
-    this.table = table;
-    this.options = options;
-    this.caseSensitive = Boolean.parseBoolean(spark.conf().get("spark.sql.caseSensitive"));
+    this(spark, table, options, null);
   }
 
   public SparkScanBuilder(SparkSession spark, ArcticTable table, CaseInsensitiveStringMap options, Schema schema) {
@@ -71,6 +73,18 @@ public class SparkScanBuilder implements ScanBuilder, SupportsExtendIdentColumns
     this.options = options;
     this.schema = schema;
     this.caseSensitive = Boolean.parseBoolean(spark.conf().get("spark.sql.caseSensitive"));
+    this.reportNodePartitioning = Boolean.parseBoolean(spark.conf().get(
+        SparkSQLProperties.REPORT_NODE_PARTITIONING_ENABLE,
+        SparkSQLProperties.REPORT_NODE_PARTITIONING_ENABLE_DEFAULT));
+  }
+
+  /**
+   * Set the keyed table of the change table to scan, streaming reads of the change table rely on it to start from
+   * files not optimized into the base store.
+   */
+  public SparkScanBuilder withKeyedTable(KeyedTable keyedTable) {
+    this.keyedTable = keyedTable;
+    return this;
   }
 
   private Schema lazySchemaWithRowIdent() {
@@ -155,10 +169,12 @@ public class SparkScanBuilder implements ScanBuilder, SupportsExtendIdentColumns
           caseSensitive,
           lazySchemaWithRowIdent(),
           filterExpressions,
-          options);
+          options,
+          reportNodePartitioning);
     } else if (table.isUnkeyedTable()) {
       return new UnkeyedSparkBatchScan(
           table.asUnkeyedTable(),
+          keyedTable,
           caseSensitive,
           lazySchemaWithRowIdent(),
           filterExpressions,
@@ -21,6 +21,8 @@ package com.netease.arctic.spark.reader;
 import com.netease.arctic.io.ArcticFileIO;
 import com.netease.arctic.scan.BaseArcticFileScanTask;
 import com.netease.arctic.spark.util.Stats;
+import com.netease.arctic.table.ChangeTable;
+import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.UnkeyedTable;
 import org.apache.iceberg.CombinedScanTask;
 import org.apache.iceberg.FileScanTask;
@@ -43,6 +45,7 @@ import org.apache.spark.sql.connector.read.PartitionReaderFactory;
 import org.apache.spark.sql.connector.read.Scan;
 import org.apache.spark.sql.connector.read.Statistics;
 import org.apache.spark.sql.connector.read.SupportsReportStatistics;
+import org.apache.spark.sql.connector.read.streaming.MicroBatchStream;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
 import org.slf4j.Logger;
@@ -71,13 +74,26 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
   private final Long startSnapshotId;
   private final Long endSnapshotId;
   private final Long asOfTimestamp;
+  private final CaseInsensitiveStringMap options;
+  private final KeyedTable keyedTable;
   private StructType readSchema = null;
   private List<CombinedScanTask> tasks = null;
 
   UnkeyedSparkBatchScan(
       UnkeyedTable table, boolean caseSensitive,
       Schema expectedSchema, List<Expression> filters, CaseInsensitiveStringMap options) {
+    this(table, null, caseSensitive, expectedSchema, filters, options);
+  }
+
+  /**
+   * @param keyedTable the keyed table of the change table to scan, null if it is not a change table
+   */
+  UnkeyedSparkBatchScan(
+      UnkeyedTable table, KeyedTable keyedTable, boolean caseSensitive,
+      Schema expectedSchema, List<Expression> filters, CaseInsensitiveStringMap options) {
     this.table = table;
+    this.keyedTable = keyedTable;
+    this.options = options;
     this.caseSensitive = caseSensitive;
     this.expectedSchema = expectedSchema;
     this.filterExpressions = filters;
@@ -118,6 +134,15 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     return new ReaderFactory();
   }
 
+  @Override
+  public MicroBatchStream toMicroBatchStream(String checkpointLocation) {
+    if (!(table instanceof ChangeTable)) {
+      throw new UnsupportedOperationException("Cannot read " + table.id() + " as a stream, only change tables can");
+    }
+    return new ArcticMicroBatchStream((ChangeTable) table, keyedTable, caseSensitive, expectedSchema,
+        filterExpressions, options, checkpointLocation);
+  }
+
   @Override
   public Statistics estimateStatistics() {
     if (table.currentSnapshot() == null) {
@@ -180,7 +205,7 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     return tasks;
   }
 
-  private static class ReaderFactory implements PartitionReaderFactory {
+  static class ReaderFactory implements PartitionReaderFactory {
     @Override
     public PartitionReader<InternalRow> createReader(InputPartition partition) {
       if (partition instanceof ArcticInputPartition) {
@@ -238,7 +263,7 @@ public class UnkeyedSparkBatchScan implements Scan, Batch, SupportsReportStatist
     }
   }
 
-  private static class ArcticInputPartition implements InputPartition, Serializable {
+  static class ArcticInputPartition implements InputPartition, Serializable {
     final CombinedScanTask combinedScanTask;
     final ArcticFileIO io;
     final boolean caseSensitive;
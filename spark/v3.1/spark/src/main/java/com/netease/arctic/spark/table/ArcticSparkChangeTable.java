@@ -20,6 +20,7 @@ package com.netease.arctic.spark.table;
 
 import com.netease.arctic.spark.reader.SparkScanBuilder;
 import com.netease.arctic.table.BaseUnkeyedTable;
+import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.MetadataColumns;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.relocated.com.google.common.collect.ImmutableSet;
@@ -40,15 +41,19 @@ public class ArcticSparkChangeTable extends SparkTable {
 
   private final BaseUnkeyedTable baseUnkeyedTable;
 
+  private final KeyedTable keyedTable;
+
   private SparkSession lazySpark = null;
 
   private static final Set<TableCapability> CAPABILITIES = ImmutableSet.of(
-      TableCapability.BATCH_READ
+      TableCapability.BATCH_READ,
+      TableCapability.MICRO_BATCH_READ
       );
 
-  public ArcticSparkChangeTable(BaseUnkeyedTable baseUnkeyedTable, boolean refreshEagerly) {
-    super(baseUnkeyedTable, refreshEagerly);
-    this.baseUnkeyedTable = baseUnkeyedTable;
+  public ArcticSparkChangeTable(KeyedTable keyedTable, boolean refreshEagerly) {
+    super((BaseUnkeyedTable) keyedTable.changeTable(), refreshEagerly);
+    this.baseUnkeyedTable = (BaseUnkeyedTable) keyedTable.changeTable();
+    this.keyedTable = keyedTable;
   }
 
   private SparkSession sparkSession() {
@@ -65,7 +70,8 @@ public class ArcticSparkChangeTable extends SparkTable {
 
   @Override
   public ScanBuilder newScanBuilder(CaseInsensitiveStringMap options) {
-    return new SparkScanBuilder(sparkSession(), baseUnkeyedTable, options, buildSchema(baseUnkeyedTable));
+    return new SparkScanBuilder(sparkSession(), baseUnkeyedTable, options, buildSchema(baseUnkeyedTable))
+        .withKeyedTable(keyedTable);
   }
 
   public Schema buildSchema(BaseUnkeyedTable table) {
@@ -18,11 +18,13 @@
 
 package com.netease.arctic.spark;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.netease.arctic.data.ChangeAction;
 import com.netease.arctic.data.DataTreeNode;
 import com.netease.arctic.io.writer.GenericTaskWriters;
 import com.netease.arctic.io.writer.SortedPosDeleteWriter;
+import com.netease.arctic.spark.reader.ArcticMicroBatchStream;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.TableIdentifier;
 import com.netease.arctic.utils.TableFileUtils;
@@ -32,13 +34,19 @@ import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.RowDelta;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.data.Record;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.StreamingQueryProgress;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -100,6 +108,72 @@ public class TestKeyedTableDML extends SparkTestBase {
     Assert.assertFalse(idSet.contains(1));
   }
 
+  @Test
+  public void testGroupByPrimaryKeyWithNodePartitioning() {
+    TableIdentifier identifier = TableIdentifier.of(catalogNameArctic, database, table);
+    writeBase(identifier, baseFiles);
+    writeChange(identifier, ChangeAction.INSERT, Lists.newArrayList(
+        newRecord(keyedTable, 4, "ddd", quickDateWithZone(4)),
+        newRecord(keyedTable, 5, "eee", quickDateWithZone(4))
+    ));
+
+    withSQLConf(ImmutableMap.of(SparkSQLProperties.REPORT_NODE_PARTITIONING_ENABLE, "true"), () -> {
+      String query = String.format("select id, count(*) from %s.%s group by id", database, table);
+      String plan = spark.sql(query).queryExecution().executedPlan().toString();
+      Assert.assertFalse("group by primary key should not shuffle", plan.contains("Exchange"));
+
+      rows = sql(query);
+      Assert.assertEquals(5, rows.size());
+      assertContainIdSet(rows, 0, 1, 2, 3, 4, 5);
+    });
+  }
+
+  @Test
+  public void testReadWithSnapshotOptions() {
+    TableIdentifier identifier = TableIdentifier.of(catalogNameArctic, database, table);
+    writeBase(identifier, baseFiles);
+    keyedTable.baseTable().refresh();
+    long baseSnapshotId = keyedTable.baseTable().currentSnapshot().snapshotId();
+    writeChange(identifier, ChangeAction.INSERT, Lists.newArrayList(
+        newRecord(keyedTable, 4, "ddd", quickDateWithZone(4))
+    ));
+    keyedTable.changeTable().refresh();
+    long changeCommitTime = keyedTable.changeTable().currentSnapshot().timestampMillis();
+    String tablePath = catalogNameArctic + "." + database + "." + table;
+
+    rows = rowsOf(spark.read().format("arctic")
+        .option("snapshot-id", baseSnapshotId).load(tablePath));
+    Assert.assertEquals(3, rows.size());
+    assertContainIdSet(rows, 0, 1, 2, 3);
+
+    rows = rowsOf(spark.read().format("arctic")
+        .option("as-of-timestamp", changeCommitTime).load(tablePath));
+    Assert.assertEquals(4, rows.size());
+    assertContainIdSet(rows, 0, 1, 2, 3, 4);
+
+    rows = rowsOf(spark.read().format("arctic")
+        .option("start-snapshot-id", baseSnapshotId).load(tablePath));
+    Assert.assertEquals(1, rows.size());
+    assertContainIdSet(rows, 0, 4);
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> spark.read().format("arctic")
+        .option("snapshot-id", baseSnapshotId)
+        .option("as-of-timestamp", changeCommitTime)
+        .load(tablePath).collectAsList());
+    Assert.assertThrows(IllegalArgumentException.class, () -> spark.read().format("arctic")
+        .option("as-of-timestamp", changeCommitTime)
+        .option("start-snapshot-id", baseSnapshotId)
+        .load(tablePath).collectAsList());
+    Assert.assertThrows(IllegalArgumentException.class, () -> spark.read().format("arctic")
+        .option("end-snapshot-id", baseSnapshotId)
+        .load(tablePath).collectAsList());
+  }
+
+  private static List<Object[]> rowsOf(Dataset<Row> df) {
+    return df.collectAsList().stream()
+        .map(row -> new Object[] {row.get(0)})
+        .collect(Collectors.toList());
+  }
 
   @Test
   public void testSelectChangeFiles() {
@@ -120,6 +194,48 @@ public class TestKeyedTableDML extends SparkTestBase {
   }
 
 
+  @Test
+  public void testStreamingReadChangeFiles() throws Exception {
+    TableIdentifier identifier = TableIdentifier.of(catalogNameArctic, database, table);
+    writeChange(identifier, ChangeAction.INSERT, Lists.newArrayList(
+        newRecord(keyedTable, 4, "ddd", quickDateWithZone(4)),
+        newRecord(keyedTable, 5, "eee", quickDateWithZone(5))
+    ));
+    writeChange(identifier, ChangeAction.INSERT, Lists.newArrayList(
+        newRecord(keyedTable, 6, "fff", quickDateWithZone(6))
+    ));
+    File checkpoint = new File(testBaseDir, "checkpoint_" + System.currentTimeMillis());
+    StreamingQuery query = spark.readStream()
+        .option(ArcticMicroBatchStream.MAX_FILES_PER_TRIGGER, "1")
+        .table(catalogNameArctic + "." + database + "." + table + ".change")
+        .writeStream()
+        .format("memory")
+        .queryName("change_stream")
+        .option("checkpointLocation", checkpoint.getAbsolutePath())
+        .start();
+    try {
+      query.processAllAvailable();
+      rows = sql("select * from change_stream");
+      Assert.assertEquals(3, rows.size());
+
+      writeChange(identifier, ChangeAction.DELETE, Lists.newArrayList(
+          newRecord(keyedTable, 1, "aaa", ofDateWithZone(2022, 1, 1, 0))
+      ));
+      query.processAllAvailable();
+      rows = sql("select * from change_stream");
+      Assert.assertEquals(4, rows.size());
+
+      // the first commit adds files of 2 partitions, it exceeds the file limit but is never split between batches
+      List<Long> batchRows = Arrays.stream(query.recentProgress())
+          .map(StreamingQueryProgress::numInputRows)
+          .filter(numRows -> numRows > 0)
+          .collect(Collectors.toList());
+      Assert.assertEquals(Lists.newArrayList(2L, 1L, 1L), batchRows);
+    } finally {
+      query.stop();
+    }
+  }
+
   @Test
   public void testSelectDeleteAll() throws IOException {
     List<DataFile> dataFiles = writeBase(TableIdentifier.of(catalogNameArctic, database, table), baseFiles);
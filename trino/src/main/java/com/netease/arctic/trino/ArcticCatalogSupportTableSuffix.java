@@ -30,6 +30,7 @@ import com.netease.arctic.table.BaseUnkeyedTable;
 import com.netease.arctic.table.ChangeTable;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.table.MetadataColumns;
+import com.netease.arctic.table.PartitionPropertyIndex;
 import com.netease.arctic.table.TableBuilder;
 import com.netease.arctic.table.TableIdentifier;
 import com.netease.arctic.table.TableMetaStore;
@@ -347,6 +348,11 @@ public class ArcticCatalogSupportTableSuffix implements ArcticCatalog {
       return table.partitionProperty();
     }
 
+    @Override
+    public PartitionPropertyIndex partitionPropertyIndex() {
+      return table.partitionPropertyIndex();
+    }
+
     @Override
     public UpdatePartitionProperties updatePartitionProperties(Transaction transaction) {
       return table.updatePartitionProperties(transaction);
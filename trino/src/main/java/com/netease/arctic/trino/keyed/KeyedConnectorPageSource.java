@@ -23,6 +23,7 @@ import com.netease.arctic.data.DataFileType;
 import com.netease.arctic.data.PrimaryKeyedFile;
 import com.netease.arctic.io.reader.ArcticDeleteFilter;
 import com.netease.arctic.scan.ArcticFileScanTask;
+import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.table.MetadataColumns;
 import com.netease.arctic.trino.unkeyed.IcebergPageSourceProvider;
 import com.netease.arctic.trino.unkeyed.IcebergSplit;
@@ -93,6 +94,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       ConnectorTransactionHandle transaction,
       ConnectorSession session,
       KeyedConnectorSplit split,
+      KeyedTableScanTask keyedTableScanTask,
       KeyedTableHandle table,
       DynamicFilter dynamicFilter,
       TypeManager typeManager,
@@ -123,7 +125,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
         .map(IcebergColumnHandle::getType)
         .toArray(Type[]::new);
 
-    this.dataTasksIt = split.getKeyedTableScanTask().dataTasks().iterator();
+    this.dataTasksIt = keyedTableScanTask.dataTasks().iterator();
   }
 
   @Override
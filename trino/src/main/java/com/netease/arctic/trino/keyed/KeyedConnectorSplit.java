@@ -21,45 +21,104 @@ package com.netease.arctic.trino.keyed;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.scan.NodeFileScanTask;
-import com.netease.arctic.trino.util.ObjectSerializerUtil;
+import io.trino.plugin.iceberg.PartitionData;
 import io.trino.spi.HostAddress;
 import io.trino.spi.connector.ConnectorSplit;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.PartitionSpecParser;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ConnectorSplit for Keyed Table
  */
 public class KeyedConnectorSplit implements ConnectorSplit {
 
-  private byte[] keyedTableScanTaskBytes;
+  private final List<KeyedSplitFile> baseFiles;
 
-  private KeyedTableScanTask keyedTableScanTask;
+  private final List<KeyedSplitFile> insertFiles;
+
+  private final List<KeyedSplitFile> equalityDeleteFiles;
 
   private final String partitionSpecJson;
 
   private final String partitionDataJson;
 
+  private KeyedTableScanTask keyedTableScanTask;
+
   @JsonCreator
   public KeyedConnectorSplit(
-      @JsonProperty("keyedTableScanTaskBytes") byte[] keyedTableScanTaskBytes,
+      @JsonProperty("baseFiles") List<KeyedSplitFile> baseFiles,
+      @JsonProperty("insertFiles") List<KeyedSplitFile> insertFiles,
+      @JsonProperty("equalityDeleteFiles") List<KeyedSplitFile> equalityDeleteFiles,
       @JsonProperty("partitionSpecJson") String partitionSpecJson,
       @JsonProperty("partitionDataJson") String partitionDataJson) {
-    this.keyedTableScanTaskBytes = keyedTableScanTaskBytes;
+    this.baseFiles = ImmutableList.copyOf(baseFiles);
+    this.insertFiles = ImmutableList.copyOf(insertFiles);
+    this.equalityDeleteFiles = ImmutableList.copyOf(equalityDeleteFiles);
     this.partitionSpecJson = partitionSpecJson;
     this.partitionDataJson = partitionDataJson;
   }
 
+  public static KeyedConnectorSplit of(KeyedTableScanTask keyedTableScanTask) {
+    ArcticFileScanTask arcticFileScanTask = keyedTableScanTask.dataTasks().get(0);
+    return new KeyedConnectorSplit(
+        toSplitFiles(keyedTableScanTask.baseTasks()),
+        toSplitFiles(keyedTableScanTask.insertTasks()),
+        toSplitFiles(keyedTableScanTask.arcticEquityDeletes()),
+        PartitionSpecParser.toJson(arcticFileScanTask.spec()),
+        PartitionData.toJson(arcticFileScanTask.file().partition()));
+  }
+
+  private static List<KeyedSplitFile> toSplitFiles(List<ArcticFileScanTask> tasks) {
+    return tasks.stream().map(KeyedSplitFile::of).collect(Collectors.toList());
+  }
+
+  @JsonProperty
+  public List<KeyedSplitFile> getBaseFiles() {
+    return baseFiles;
+  }
+
+  @JsonProperty
+  public List<KeyedSplitFile> getInsertFiles() {
+    return insertFiles;
+  }
+
   @JsonProperty
-  public byte[] getKeyedTableScanTaskBytes() {
-    return keyedTableScanTaskBytes;
+  public List<KeyedSplitFile> getEqualityDeleteFiles() {
+    return equalityDeleteFiles;
   }
 
-  public synchronized KeyedTableScanTask getKeyedTableScanTask() {
-    return ObjectSerializerUtil.read(keyedTableScanTaskBytes, NodeFileScanTask.class);
+  /**
+   * Rebuild the scan task of this split, it is built only once for a split.
+   *
+   * @param tableSchema schema of the table, used to parse the partition spec
+   */
+  public synchronized KeyedTableScanTask getKeyedTableScanTask(Schema tableSchema) {
+    if (keyedTableScanTask == null) {
+      PartitionSpec spec = PartitionSpecParser.fromJson(tableSchema, partitionSpecJson);
+      Type[] partitionColumnTypes = spec.partitionType().fields().stream()
+          .map(Types.NestedField::type)
+          .toArray(Type[]::new);
+      StructLike partition = PartitionData.fromJson(partitionDataJson, partitionColumnTypes);
+      List<ArcticFileScanTask> tasks = Stream.of(baseFiles, insertFiles, equalityDeleteFiles)
+          .flatMap(List::stream)
+          .map(file -> file.toScanTask(spec, partition))
+          .collect(Collectors.toList());
+      keyedTableScanTask = new NodeFileScanTask(tasks);
+    }
+    return keyedTableScanTask;
   }
 
   @JsonProperty
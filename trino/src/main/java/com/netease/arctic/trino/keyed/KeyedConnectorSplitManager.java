@@ -19,17 +19,10 @@
 
 package com.netease.arctic.trino.keyed;
 
-import com.netease.arctic.scan.ArcticFileScanTask;
-import com.netease.arctic.scan.CombinedScanTask;
 import com.netease.arctic.scan.KeyedTableScan;
-import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.table.KeyedTable;
 import com.netease.arctic.trino.ArcticTransactionManager;
-import com.netease.arctic.trino.util.MetricUtil;
-import com.netease.arctic.trino.util.ObjectSerializerUtil;
 import io.trino.plugin.iceberg.IcebergTableHandle;
-import io.trino.plugin.iceberg.PartitionData;
-import io.trino.spi.classloader.ThreadContextClassLoader;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorSplitManager;
 import io.trino.spi.connector.ConnectorSplitSource;
@@ -37,20 +30,20 @@ import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.Constraint;
 import io.trino.spi.connector.DynamicFilter;
-import io.trino.spi.connector.FixedSplitSource;
 import io.trino.spi.connector.SchemaTableName;
 import io.trino.spi.connector.TableNotFoundException;
-import org.apache.iceberg.PartitionSpecParser;
-import org.apache.iceberg.io.CloseableIterable;
+import io.trino.spi.type.TypeManager;
+import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.types.Types;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
+import static io.trino.plugin.iceberg.IcebergSessionProperties.getDynamicFilteringWaitTimeout;
 
 /**
  * ConnectorSplitManager for Keyed Table
@@ -63,9 +56,12 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
 
   private ArcticTransactionManager arcticTransactionManager;
 
+  private final TypeManager typeManager;
+
   @Inject
-  public KeyedConnectorSplitManager(ArcticTransactionManager arcticTransactionManager) {
+  public KeyedConnectorSplitManager(ArcticTransactionManager arcticTransactionManager, TypeManager typeManager) {
     this.arcticTransactionManager = arcticTransactionManager;
+    this.typeManager = typeManager;
   }
 
   @Override
@@ -92,33 +88,23 @@ public class KeyedConnectorSplitManager implements ConnectorSplitManager {
         .filter(toIcebergExpression(
             icebergTableHandle.getEnforcedPredicate().intersect(icebergTableHandle.getUnenforcedPredicate())));
 
-    ClassLoader pluginClassloader = arcticTable.getClass().getClassLoader();
-
-    try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(pluginClassloader)) {
-      //优化
-      CloseableIterable<CombinedScanTask> combinedScanTasks =
-          MetricUtil.duration(() -> tableScan.planTasks(), "plan tasks");
-
-      List<KeyedTableScanTask> fileScanTaskList = new ArrayList<>();
-      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
-        for (KeyedTableScanTask fileScanTask : combinedScanTask.tasks()) {
-          fileScanTaskList.add(fileScanTask);
-        }
-      }
+    Set<Integer> primaryKeyFieldIds = arcticTable.primaryKeySpec().primaryKeyStruct().fields().stream()
+        .map(Types.NestedField::fieldId)
+        .collect(Collectors.toSet());
+    Set<Integer> identityPartitionFieldIds = arcticTable.spec().fields().stream()
+        .filter(field -> field.transform().isIdentity())
+        .map(PartitionField::sourceId)
+        .collect(Collectors.toSet());
 
-      List<KeyedConnectorSplit> keyedConnectorSplits = fileScanTaskList.stream().map(
-          s -> {
-            ArcticFileScanTask arcticFileScanTask = s.dataTasks().get(0);
-            KeyedConnectorSplit keyedConnectorSplit = new KeyedConnectorSplit(
-                ObjectSerializerUtil.write(s),
-                PartitionSpecParser.toJson(arcticFileScanTask.spec()),
-                PartitionData.toJson(arcticFileScanTask.file().partition())
-            );
-            return keyedConnectorSplit;
-          }
-      ).collect(Collectors.toList());
-
-      return new FixedSplitSource(keyedConnectorSplits);
-    }
+    ClassLoader pluginClassloader = arcticTable.getClass().getClassLoader();
+    return new KeyedConnectorSplitSource(
+        tableScan,
+        pluginClassloader,
+        arcticTable.schema(),
+        primaryKeyFieldIds,
+        identityPartitionFieldIds,
+        dynamicFilter,
+        getDynamicFilteringWaitTimeout(session),
+        typeManager);
   }
 }
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+import com.netease.arctic.scan.ArcticFileScanTask;
+import com.netease.arctic.scan.CombinedScanTask;
+import com.netease.arctic.scan.KeyedTableScan;
+import com.netease.arctic.scan.KeyedTableScanTask;
+import com.netease.arctic.scan.NodeFileScanTask;
+import com.netease.arctic.trino.util.MetricUtil;
+import io.airlift.units.Duration;
+import io.trino.plugin.base.metrics.LongCount;
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.spi.classloader.ThreadContextClassLoader;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorPartitionHandle;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.connector.ConnectorSplitSource;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.metrics.Metrics;
+import io.trino.spi.predicate.NullableValue;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.TypeManager;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Suppliers.memoize;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.netease.arctic.trino.keyed.KeyedConnectorSplitManager.ARCTIC_DOMAIN_COMPACTION_THRESHOLD;
+import static com.netease.arctic.trino.util.DynamicFilterUtil.fileMatchesPredicate;
+import static com.netease.arctic.trino.util.DynamicFilterUtil.partitionMatchesPredicate;
+import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
+import static io.trino.plugin.iceberg.IcebergUtil.deserializePartitionValue;
+import static io.trino.plugin.iceberg.IcebergUtil.getColumnHandle;
+import static io.trino.plugin.iceberg.IcebergUtil.getPartitionKeys;
+import static io.trino.plugin.iceberg.IcebergUtil.primitiveFieldTypes;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * ConnectorSplitSource for Keyed Table, splits are created lazily in batches while iterating the planned tasks,
+ * so that workers can start before all splits of the table are created.
+ * <p>
+ * Dynamic filters are waited for a while before planning. Domains of primary key and identity partition columns
+ * are pushed down to the scan of base and change files, domains arriving later prune splits by partition values,
+ * data files by column bounds and equality delete files by primary key bounds.
+ */
+public class KeyedConnectorSplitSource implements ConnectorSplitSource {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KeyedConnectorSplitSource.class);
+  private static final ConnectorSplitBatch EMPTY_BATCH = new ConnectorSplitBatch(ImmutableList.of(), false);
+  private static final ConnectorSplitBatch NO_MORE_SPLITS_BATCH = new ConnectorSplitBatch(ImmutableList.of(), true);
+
+  private final KeyedTableScan tableScan;
+  private final ClassLoader pluginClassloader;
+  private final Schema tableSchema;
+  private final Set<Integer> primaryKeyFieldIds;
+  private final Set<Integer> identityPartitionFieldIds;
+  private final Map<Integer, Type.PrimitiveType> fieldIdToType;
+  private final DynamicFilter dynamicFilter;
+  private final long dynamicFilteringWaitTimeoutMillis;
+  private final Stopwatch dynamicFilterWaitStopwatch;
+  private final TypeManager typeManager;
+
+  private CloseableIterable<CombinedScanTask> combinedScanIterable;
+  private Iterator<KeyedTableScanTask> keyedTableScanTaskIterator;
+  private TupleDomain<IcebergColumnHandle> pushedDownDynamicFilterPredicate;
+
+  private boolean closed;
+  private long dynamicFilterWaitMillis;
+  private long splitCount;
+  private long prunedSplitCount;
+  private long prunedDataFileCount;
+  private long prunedEqualityDeleteFileCount;
+
+  public KeyedConnectorSplitSource(
+      KeyedTableScan tableScan,
+      ClassLoader pluginClassloader,
+      Schema tableSchema,
+      Set<Integer> primaryKeyFieldIds,
+      Set<Integer> identityPartitionFieldIds,
+      DynamicFilter dynamicFilter,
+      Duration dynamicFilteringWaitTimeout,
+      TypeManager typeManager) {
+    this.tableScan = requireNonNull(tableScan, "tableScan is null");
+    this.pluginClassloader = requireNonNull(pluginClassloader, "pluginClassloader is null");
+    this.tableSchema = requireNonNull(tableSchema, "tableSchema is null");
+    this.primaryKeyFieldIds = requireNonNull(primaryKeyFieldIds, "primaryKeyFieldIds is null");
+    this.identityPartitionFieldIds = requireNonNull(identityPartitionFieldIds, "identityPartitionFieldIds is null");
+    this.fieldIdToType = primitiveFieldTypes(tableSchema);
+    this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+    this.dynamicFilteringWaitTimeoutMillis =
+        requireNonNull(dynamicFilteringWaitTimeout, "dynamicFilteringWaitTimeout is null").toMillis();
+    this.dynamicFilterWaitStopwatch = Stopwatch.createStarted();
+    this.typeManager = requireNonNull(typeManager, "typeManager is null");
+  }
+
+  @Override
+  public CompletableFuture<ConnectorSplitBatch> getNextBatch(ConnectorPartitionHandle partitionHandle, int maxSize) {
+    long timeLeft = dynamicFilteringWaitTimeoutMillis - dynamicFilterWaitStopwatch.elapsed(MILLISECONDS);
+    if (combinedScanIterable == null && dynamicFilter.isAwaitable() && timeLeft > 0) {
+      return dynamicFilter.isBlocked()
+          .thenApply(ignored -> EMPTY_BATCH)
+          .completeOnTimeout(EMPTY_BATCH, timeLeft, MILLISECONDS);
+    }
+
+    try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(pluginClassloader)) {
+      if (combinedScanIterable == null) {
+        this.dynamicFilterWaitMillis = dynamicFilterWaitStopwatch.elapsed(MILLISECONDS);
+        TupleDomain<IcebergColumnHandle> currentPredicate =
+            dynamicFilter.getCurrentPredicate().transformKeys(IcebergColumnHandle.class::cast);
+        if (currentPredicate.isNone()) {
+          finish();
+          return completedFuture(NO_MORE_SPLITS_BATCH);
+        }
+        // rows of an equality delete file may not share values of other columns with the rows it deletes,
+        // so only domains of primary key and identity partition columns can prune files of both stores
+        TupleDomain<IcebergColumnHandle> scanPredicate = currentPredicate
+            .filter((column, domain) -> primaryKeyFieldIds.contains(column.getId()) ||
+                identityPartitionFieldIds.contains(column.getId()));
+        TupleDomain<IcebergColumnHandle> simplifiedPredicate =
+            scanPredicate.simplify(ARCTIC_DOMAIN_COMPACTION_THRESHOLD);
+        // domains not pushed down are evaluated against individual splits
+        this.pushedDownDynamicFilterPredicate =
+            simplifiedPredicate.equals(scanPredicate) ? scanPredicate : TupleDomain.all();
+        if (!simplifiedPredicate.isAll()) {
+          tableScan.filter(toIcebergExpression(simplifiedPredicate));
+        }
+        this.combinedScanIterable = MetricUtil.duration(tableScan::planTasks, "plan tasks");
+        this.keyedTableScanTaskIterator = Streams.stream(combinedScanIterable)
+            .map(CombinedScanTask::tasks)
+            .flatMap(Collection::stream)
+            .iterator();
+      }
+
+      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate = dynamicFilter.getCurrentPredicate()
+          .transformKeys(IcebergColumnHandle.class::cast);
+      if (dynamicFilterPredicate.isNone()) {
+        finish();
+        return completedFuture(NO_MORE_SPLITS_BATCH);
+      }
+
+      Iterator<KeyedTableScanTask> keyedTableScanTasks = Iterators.limit(keyedTableScanTaskIterator, maxSize);
+      ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+      while (keyedTableScanTasks.hasNext()) {
+        KeyedTableScanTask keyedTableScanTask = keyedTableScanTasks.next();
+        if (!dynamicFilterPredicate.isAll() && !dynamicFilterPredicate.equals(pushedDownDynamicFilterPredicate)) {
+          keyedTableScanTask = pruneTask(keyedTableScanTask, dynamicFilterPredicate);
+          if (keyedTableScanTask == null) {
+            prunedSplitCount++;
+            continue;
+          }
+        }
+        splitCount++;
+        splits.add(KeyedConnectorSplit.of(keyedTableScanTask));
+      }
+      return completedFuture(new ConnectorSplitBatch(splits.build(), isFinished()));
+    }
+  }
+
+  /**
+   * Prune files of the task can not match the dynamic filter, return null if no data file is left.
+   */
+  private KeyedTableScanTask pruneTask(
+      KeyedTableScanTask keyedTableScanTask,
+      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate) {
+    List<ArcticFileScanTask> dataTasks = keyedTableScanTask.dataTasks();
+    if (!partitionMatches(dataTasks.get(0), dynamicFilterPredicate)) {
+      prunedDataFileCount += dataTasks.size();
+      prunedEqualityDeleteFileCount += keyedTableScanTask.arcticEquityDeletes().size();
+      return null;
+    }
+
+    List<ArcticFileScanTask> tasks = new ArrayList<>();
+    for (ArcticFileScanTask dataTask : dataTasks) {
+      if (fileMatches(dataTask.file(), dynamicFilterPredicate)) {
+        tasks.add(dataTask);
+      } else {
+        prunedDataFileCount++;
+      }
+    }
+    List<ArcticFileScanTask> deleteTasks = keyedTableScanTask.arcticEquityDeletes();
+    if (tasks.isEmpty()) {
+      prunedEqualityDeleteFileCount += deleteTasks.size();
+      return null;
+    }
+
+    TupleDomain<IcebergColumnHandle> primaryKeyPredicate = dynamicFilterPredicate
+        .filter((column, domain) -> primaryKeyFieldIds.contains(column.getId()));
+    for (ArcticFileScanTask deleteTask : deleteTasks) {
+      if (primaryKeyPredicate.isAll() || fileMatches(deleteTask.file(), primaryKeyPredicate)) {
+        tasks.add(deleteTask);
+      } else {
+        prunedEqualityDeleteFileCount++;
+      }
+    }
+    if (tasks.size() == dataTasks.size() + deleteTasks.size()) {
+      return keyedTableScanTask;
+    }
+    return new NodeFileScanTask(tasks);
+  }
+
+  private boolean fileMatches(DataFile file, TupleDomain<IcebergColumnHandle> predicate) {
+    return fileMatchesPredicate(
+        fieldIdToType,
+        predicate,
+        file.lowerBounds(),
+        file.upperBounds(),
+        file.nullValueCounts());
+  }
+
+  private boolean partitionMatches(ArcticFileScanTask task, TupleDomain<IcebergColumnHandle> predicate) {
+    Map<Integer, Optional<String>> partitionKeys = getPartitionKeys(task);
+    Set<IcebergColumnHandle> identityPartitionColumns = partitionKeys.keySet().stream()
+        .map(fieldId -> getColumnHandle(tableSchema.findField(fieldId), typeManager))
+        .collect(toImmutableSet());
+    Supplier<Map<ColumnHandle, NullableValue>> partitionValues = memoize(() -> {
+      Map<ColumnHandle, NullableValue> bindings = new HashMap<>();
+      for (IcebergColumnHandle partitionColumn : identityPartitionColumns) {
+        Object partitionValue = deserializePartitionValue(
+            partitionColumn.getType(),
+            partitionKeys.get(partitionColumn.getId()).orElse(null),
+            partitionColumn.getName());
+        bindings.put(partitionColumn, new NullableValue(partitionColumn.getType(), partitionValue));
+      }
+      return bindings;
+    });
+    return partitionMatchesPredicate(identityPartitionColumns, partitionValues, predicate);
+  }
+
+  /**
+   * Statistics of dynamic filter pruning of this split source.
+   */
+  @Override
+  public Metrics getMetrics() {
+    return new Metrics(ImmutableMap.of(
+        "dynamicFilterWaitMillis", new LongCount(dynamicFilterWaitMillis),
+        "splits", new LongCount(splitCount),
+        "prunedSplits", new LongCount(prunedSplitCount),
+        "prunedDataFiles", new LongCount(prunedDataFileCount),
+        "prunedEqualityDeleteFiles", new LongCount(prunedEqualityDeleteFileCount)));
+  }
+
+  private void finish() {
+    close();
+    this.combinedScanIterable = CloseableIterable.empty();
+    this.keyedTableScanTaskIterator = ImmutableList.<KeyedTableScanTask>of().iterator();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return keyedTableScanTaskIterator != null && !keyedTableScanTaskIterator.hasNext();
+  }
+
+  @Override
+  public void close() {
+    if (combinedScanIterable != null && !closed) {
+      closed = true;
+      LOG.info("dynamic filter waited {}ms, created {} splits, pruned {} splits, {} data files and " +
+              "{} equality delete files", dynamicFilterWaitMillis, splitCount, prunedSplitCount,
+          prunedDataFileCount, prunedEqualityDeleteFileCount);
+      try {
+        combinedScanIterable.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
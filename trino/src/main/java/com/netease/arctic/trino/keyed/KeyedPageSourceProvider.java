@@ -20,9 +20,7 @@ package com.netease.arctic.trino.keyed;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
-import com.netease.arctic.data.PrimaryKeyedFile;
 import com.netease.arctic.io.reader.ArcticDeleteFilter;
-import com.netease.arctic.scan.ArcticFileScanTask;
 import com.netease.arctic.scan.KeyedTableScanTask;
 import com.netease.arctic.trino.unkeyed.IcebergPageSourceProvider;
 import io.trino.plugin.hive.HdfsEnvironment;
@@ -76,10 +74,8 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
     KeyedTableHandle keyedTableHandle = (KeyedTableHandle) table;
     List<IcebergColumnHandle> icebergColumnHandles = columns.stream().map(IcebergColumnHandle.class::cast)
         .collect(Collectors.toList());
-    KeyedTableScanTask keyedTableScanTask = keyedConnectorSplit.getKeyedTableScanTask();
-    List<PrimaryKeyedFile> equDeleteFiles = keyedTableScanTask.arcticEquityDeletes().stream()
-        .map(ArcticFileScanTask::file).collect(Collectors.toList());
     Schema tableSchema = SchemaParser.fromJson(keyedTableHandle.getIcebergTableHandle().getTableSchemaJson());
+    KeyedTableScanTask keyedTableScanTask = keyedConnectorSplit.getKeyedTableScanTask(tableSchema);
     List<IcebergColumnHandle> deleteFilterRequiredSchema = IcebergUtil.getColumns(new KeyedDeleteFilter(
         keyedTableScanTask,
         tableSchema,
@@ -108,6 +104,7 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
         transaction,
         session,
         keyedConnectorSplit,
+        keyedTableScanTask,
         keyedTableHandle,
         dynamicFilter,
         typeManager,
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.netease.arctic.data.DefaultKeyedFile;
+import com.netease.arctic.scan.ArcticFileScanTask;
+import com.netease.arctic.scan.BaseArcticFileScanTask;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileMetadata;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.StructLike;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact description of a file in {@link KeyedConnectorSplit}, keeps only what readers need,
+ * node, type and transaction id of keyed files are parsed from the path again.
+ */
+public class KeyedSplitFile {
+
+  private final String path;
+  private final FileFormat format;
+  private final long fileSizeInBytes;
+  private final long recordCount;
+  private final List<KeyedSplitFile> deletes;
+
+  @JsonCreator
+  public KeyedSplitFile(
+      @JsonProperty("path") String path,
+      @JsonProperty("format") FileFormat format,
+      @JsonProperty("fileSizeInBytes") long fileSizeInBytes,
+      @JsonProperty("recordCount") long recordCount,
+      @JsonProperty("deletes") List<KeyedSplitFile> deletes) {
+    this.path = requireNonNull(path, "path is null");
+    this.format = requireNonNull(format, "format is null");
+    this.fileSizeInBytes = fileSizeInBytes;
+    this.recordCount = recordCount;
+    this.deletes = deletes == null ? ImmutableList.of() : ImmutableList.copyOf(deletes);
+  }
+
+  public static KeyedSplitFile of(ArcticFileScanTask task) {
+    return new KeyedSplitFile(
+        task.file().path().toString(),
+        task.file().format(),
+        task.file().fileSizeInBytes(),
+        task.file().recordCount(),
+        task.deletes().stream().map(KeyedSplitFile::of).collect(Collectors.toList()));
+  }
+
+  private static KeyedSplitFile of(ContentFile<?> file) {
+    return new KeyedSplitFile(
+        file.path().toString(),
+        file.format(),
+        file.fileSizeInBytes(),
+        file.recordCount(),
+        ImmutableList.of());
+  }
+
+  @JsonProperty
+  public String getPath() {
+    return path;
+  }
+
+  @JsonProperty
+  public FileFormat getFormat() {
+    return format;
+  }
+
+  @JsonProperty
+  public long getFileSizeInBytes() {
+    return fileSizeInBytes;
+  }
+
+  @JsonProperty
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  @JsonProperty
+  public List<KeyedSplitFile> getDeletes() {
+    return deletes;
+  }
+
+  /**
+   * Rebuild the scan task of this file, position delete files are rebuilt as its deletes.
+   */
+  public ArcticFileScanTask toScanTask(PartitionSpec spec, StructLike partition) {
+    DataFiles.Builder builder = DataFiles.builder(spec)
+        .withPath(path)
+        .withFormat(format)
+        .withFileSizeInBytes(fileSizeInBytes)
+        .withRecordCount(recordCount);
+    if (spec.isPartitioned()) {
+      builder.withPartition(partition);
+    }
+    DataFile dataFile = builder.build();
+    List<DeleteFile> deleteFiles = deletes.stream()
+        .map(delete -> delete.toPositionDeleteFile(spec, partition))
+        .collect(Collectors.toList());
+    return new BaseArcticFileScanTask(new DefaultKeyedFile(dataFile), deleteFiles, spec);
+  }
+
+  private DeleteFile toPositionDeleteFile(PartitionSpec spec, StructLike partition) {
+    FileMetadata.Builder builder = FileMetadata.deleteFileBuilder(spec)
+        .ofPositionDeletes()
+        .withPath(path)
+        .withFormat(format)
+        .withFileSizeInBytes(fileSizeInBytes)
+        .withRecordCount(recordCount);
+    if (spec.isPartitioned()) {
+      builder.withPartition(partition);
+    }
+    return builder.build();
+  }
+}
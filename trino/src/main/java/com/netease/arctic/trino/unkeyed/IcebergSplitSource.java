@@ -19,7 +19,6 @@
 
 package com.netease.arctic.trino.unkeyed;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -42,11 +41,8 @@ import io.trino.spi.connector.ConnectorSplit;
 import io.trino.spi.connector.ConnectorSplitSource;
 import io.trino.spi.connector.Constraint;
 import io.trino.spi.connector.DynamicFilter;
-import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.NullableValue;
-import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
-import io.trino.spi.predicate.ValueSet;
 import io.trino.spi.type.TypeManager;
 import org.apache.hadoop.fs.Path;
 import org.apache.iceberg.CombinedScanTask;
@@ -59,12 +55,10 @@ import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.types.Type;
 
-import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -82,20 +76,19 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Sets.intersection;
+import static com.netease.arctic.trino.util.DynamicFilterUtil.fileMatchesPredicate;
+import static com.netease.arctic.trino.util.DynamicFilterUtil.partitionMatchesPredicate;
 import static io.trino.plugin.iceberg.ExpressionConverter.toIcebergExpression;
 import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_INVALID_METADATA;
 import static io.trino.plugin.iceberg.IcebergSplitManager.ICEBERG_DOMAIN_COMPACTION_THRESHOLD;
-import static io.trino.plugin.iceberg.IcebergTypes.convertIcebergValueToTrino;
 import static io.trino.plugin.iceberg.IcebergUtil.deserializePartitionValue;
 import static io.trino.plugin.iceberg.IcebergUtil.getColumnHandle;
 import static io.trino.plugin.iceberg.IcebergUtil.getPartitionKeys;
 import static io.trino.plugin.iceberg.IcebergUtil.primitiveFieldTypes;
-import static io.trino.plugin.iceberg.TypeConverter.toIcebergType;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
-import static org.apache.iceberg.types.Conversions.fromByteBuffer;
 
 /**
  * Iceberg original IcebergSplitSource has some problems for arctic, such as iceberg version, table type.
@@ -287,69 +280,6 @@ public class IcebergSplitSource
     }
   }
 
-  @VisibleForTesting
-  static boolean fileMatchesPredicate(
-      Map<Integer, Type.PrimitiveType> primitiveTypeForFieldId,
-      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate,
-      @Nullable Map<Integer, ByteBuffer> lowerBounds,
-      @Nullable Map<Integer, ByteBuffer> upperBounds,
-      @Nullable Map<Integer, Long> nullValueCounts) {
-    if (dynamicFilterPredicate.isNone()) {
-      return false;
-    }
-    Map<IcebergColumnHandle, Domain> domains = dynamicFilterPredicate.getDomains().orElseThrow();
-
-    for (Map.Entry<IcebergColumnHandle, Domain> domainEntry : domains.entrySet()) {
-      IcebergColumnHandle column = domainEntry.getKey();
-      Domain domain = domainEntry.getValue();
-
-      int fieldId = column.getId();
-      boolean mayContainNulls;
-      if (nullValueCounts == null) {
-        mayContainNulls = true;
-      } else {
-        Long nullValueCount = nullValueCounts.get(fieldId);
-        mayContainNulls = nullValueCount == null || nullValueCount > 0;
-      }
-      Type type = primitiveTypeForFieldId.get(fieldId);
-      Domain statisticsDomain = domainForStatistics(
-          column.getType(),
-          lowerBounds == null ? null : fromByteBuffer(type, lowerBounds.get(fieldId)),
-          upperBounds == null ? null : fromByteBuffer(type, upperBounds.get(fieldId)),
-          mayContainNulls);
-      if (!domain.overlaps(statisticsDomain)) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  private static Domain domainForStatistics(
-      io.trino.spi.type.Type type,
-      @Nullable Object lowerBound,
-      @Nullable Object upperBound,
-      boolean mayContainNulls) {
-    Type icebergType = toIcebergType(type);
-    if (lowerBound == null && upperBound == null) {
-      return Domain.create(ValueSet.all(type), mayContainNulls);
-    }
-
-    Range statisticsRange;
-    if (lowerBound != null && upperBound != null) {
-      statisticsRange = Range.range(
-          type,
-          convertIcebergValueToTrino(icebergType, lowerBound),
-          true,
-          convertIcebergValueToTrino(icebergType, upperBound),
-          true);
-    } else if (upperBound != null) {
-      statisticsRange = Range.lessThanOrEqual(type, convertIcebergValueToTrino(icebergType, upperBound));
-    } else {
-      statisticsRange = Range.greaterThanOrEqual(type, convertIcebergValueToTrino(icebergType, lowerBound));
-    }
-    return Domain.create(ValueSet.ofRanges(statisticsRange), mayContainNulls);
-  }
-
   static boolean partitionMatchesConstraint(
       Set<IcebergColumnHandle> identityPartitionColumns,
       Supplier<Map<ColumnHandle, NullableValue>> partitionValues,
@@ -364,27 +294,6 @@ public class IcebergSplitSource
     return constraint.predicate().get().test(partitionValues.get());
   }
 
-  @VisibleForTesting
-  static boolean partitionMatchesPredicate(
-      Set<IcebergColumnHandle> identityPartitionColumns,
-      Supplier<Map<ColumnHandle, NullableValue>> partitionValues,
-      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate) {
-    if (dynamicFilterPredicate.isNone()) {
-      return false;
-    }
-    Map<IcebergColumnHandle, Domain> domains = dynamicFilterPredicate.getDomains().orElseThrow();
-
-    for (IcebergColumnHandle partitionColumn : identityPartitionColumns) {
-      Domain allowedDomain = domains.get(partitionColumn);
-      if (allowedDomain != null) {
-        if (!allowedDomain.includesNullableValue(partitionValues.get().get(partitionColumn).getValue())) {
-          return false;
-        }
-      }
-    }
-    return true;
-  }
-
   private IcebergSplit toIcebergSplit(FileScanTask task) {
     Long transactionId = null;
     DataFileType dataFileType = null;
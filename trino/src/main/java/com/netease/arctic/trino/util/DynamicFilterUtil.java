@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.util;
+
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.NullableValue;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import org.apache.iceberg.types.Type;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static io.trino.plugin.iceberg.IcebergTypes.convertIcebergValueToTrino;
+import static io.trino.plugin.iceberg.TypeConverter.toIcebergType;
+import static org.apache.iceberg.types.Conversions.fromByteBuffer;
+
+/**
+ * Checks whether files and partitions may match a dynamic filter predicate, shared by the split sources of
+ * keyed and unkeyed tables.
+ */
+public class DynamicFilterUtil {
+
+  private DynamicFilterUtil() {
+  }
+
+  public static boolean fileMatchesPredicate(
+      Map<Integer, Type.PrimitiveType> primitiveTypeForFieldId,
+      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate,
+      @Nullable Map<Integer, ByteBuffer> lowerBounds,
+      @Nullable Map<Integer, ByteBuffer> upperBounds,
+      @Nullable Map<Integer, Long> nullValueCounts) {
+    if (dynamicFilterPredicate.isNone()) {
+      return false;
+    }
+    Map<IcebergColumnHandle, Domain> domains = dynamicFilterPredicate.getDomains().orElseThrow();
+
+    for (Map.Entry<IcebergColumnHandle, Domain> domainEntry : domains.entrySet()) {
+      IcebergColumnHandle column = domainEntry.getKey();
+      Domain domain = domainEntry.getValue();
+
+      int fieldId = column.getId();
+      boolean mayContainNulls;
+      if (nullValueCounts == null) {
+        mayContainNulls = true;
+      } else {
+        Long nullValueCount = nullValueCounts.get(fieldId);
+        mayContainNulls = nullValueCount == null || nullValueCount > 0;
+      }
+      Type type = primitiveTypeForFieldId.get(fieldId);
+      Domain statisticsDomain = domainForStatistics(
+          column.getType(),
+          lowerBounds == null ? null : fromByteBuffer(type, lowerBounds.get(fieldId)),
+          upperBounds == null ? null : fromByteBuffer(type, upperBounds.get(fieldId)),
+          mayContainNulls);
+      if (!domain.overlaps(statisticsDomain)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Domain domainForStatistics(
+      io.trino.spi.type.Type type,
+      @Nullable Object lowerBound,
+      @Nullable Object upperBound,
+      boolean mayContainNulls) {
+    Type icebergType = toIcebergType(type);
+    if (lowerBound == null && upperBound == null) {
+      return Domain.create(ValueSet.all(type), mayContainNulls);
+    }
+
+    Range statisticsRange;
+    if (lowerBound != null && upperBound != null) {
+      statisticsRange = Range.range(
+          type,
+          convertIcebergValueToTrino(icebergType, lowerBound),
+          true,
+          convertIcebergValueToTrino(icebergType, upperBound),
+          true);
+    } else if (upperBound != null) {
+      statisticsRange = Range.lessThanOrEqual(type, convertIcebergValueToTrino(icebergType, upperBound));
+    } else {
+      statisticsRange = Range.greaterThanOrEqual(type, convertIcebergValueToTrino(icebergType, lowerBound));
+    }
+    return Domain.create(ValueSet.ofRanges(statisticsRange), mayContainNulls);
+  }
+
+  public static boolean partitionMatchesPredicate(
+      Set<IcebergColumnHandle> identityPartitionColumns,
+      Supplier<Map<ColumnHandle, NullableValue>> partitionValues,
+      TupleDomain<IcebergColumnHandle> dynamicFilterPredicate) {
+    if (dynamicFilterPredicate.isNone()) {
+      return false;
+    }
+    Map<IcebergColumnHandle, Domain> domains = dynamicFilterPredicate.getDomains().orElseThrow();
+
+    for (IcebergColumnHandle partitionColumn : identityPartitionColumns) {
+      Domain allowedDomain = domains.get(partitionColumn);
+      if (allowedDomain != null) {
+        if (!allowedDomain.includesNullableValue(partitionValues.get().get(partitionColumn).getValue())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
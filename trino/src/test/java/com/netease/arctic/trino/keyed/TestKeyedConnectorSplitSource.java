@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netease.arctic.trino.keyed;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.netease.arctic.data.ChangeAction;
+import com.netease.arctic.scan.ArcticFileScanTask;
+import com.netease.arctic.scan.CombinedScanTask;
+import com.netease.arctic.scan.KeyedTableScanTask;
+import com.netease.arctic.table.KeyedTable;
+import com.netease.arctic.table.PrimaryKeySpec;
+import com.netease.arctic.table.TableIdentifier;
+import com.netease.arctic.table.TableProperties;
+import com.netease.arctic.trino.arctic.ArcticQueryRunner;
+import com.netease.arctic.trino.arctic.TableTestBaseForTrino;
+import io.airlift.json.JsonCodec;
+import io.airlift.units.Duration;
+import io.trino.plugin.base.metrics.LongCount;
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.connector.ConnectorSplitSource.ConnectorSplitBatch;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.testing.QueryRunner;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Types;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.netease.arctic.ams.api.MockArcticMetastoreServer.TEST_CATALOG_NAME;
+import static com.netease.arctic.ams.api.MockArcticMetastoreServer.TEST_DB_NAME;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.plugin.iceberg.IcebergUtil.getColumnHandle;
+import static io.trino.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.type.InternalTypeManager.TESTING_TYPE_MANAGER;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class TestKeyedConnectorSplitSource extends TableTestBaseForTrino {
+
+  private static final TableIdentifier SPLIT_TABLE_ID =
+      TableIdentifier.of(TEST_CATALOG_NAME, TEST_DB_NAME, "test_split_source_table");
+  private static final Schema SPLIT_TABLE_SCHEMA = new Schema(
+      Types.NestedField.required(1, "id", Types.IntegerType.get()),
+      Types.NestedField.required(2, "pt", Types.StringType.get()));
+  private static final PartitionSpec IDENTITY_SPEC = PartitionSpec.builderFor(SPLIT_TABLE_SCHEMA)
+      .identity("pt").build();
+  private static final JsonCodec<KeyedConnectorSplit> SPLIT_CODEC = JsonCodec.jsonCodec(KeyedConnectorSplit.class);
+
+  private KeyedTable splitTable;
+
+  @Override
+  protected QueryRunner createQueryRunner() throws Exception {
+    tmp.create();
+    setupTables();
+    // one tree node for each partition, so each partition is planned as one split
+    splitTable = testCatalog.newTableBuilder(SPLIT_TABLE_ID, SPLIT_TABLE_SCHEMA)
+        .withProperty(TableProperties.LOCATION, tmp.newFolder().getPath() + "/split_table")
+        .withProperty(TableProperties.BASE_FILE_INDEX_HASH_BUCKET, "1")
+        .withProperty(TableProperties.CHANGE_FILE_INDEX_HASH_BUCKET, "1")
+        .withPartitionSpec(IDENTITY_SPEC)
+        .withPrimaryKeySpec(PrimaryKeySpec.builderFor(SPLIT_TABLE_SCHEMA).addColumn("id").build())
+        .create().asKeyedTable();
+    writeBase(SPLIT_TABLE_ID, records("a", 1, 2));
+    writeBase(SPLIT_TABLE_ID, records("b", 3, 4));
+    writeBase(SPLIT_TABLE_ID, records("c", 5, 6));
+    writeChange(SPLIT_TABLE_ID, ChangeAction.DELETE, records("a", 1));
+    splitTable = testCatalog.loadTable(SPLIT_TABLE_ID).asKeyedTable();
+    return ArcticQueryRunner.builder()
+        .setIcebergProperties(ImmutableMap.of("arctic.url",
+            String.format("thrift://localhost:%s/%s", AMS.port(), TEST_CATALOG_NAME)))
+        .build();
+  }
+
+  @Test
+  public void testCreateSplitsInBatches() throws Exception {
+    TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+    KeyedConnectorSplitSource splitSource = splitSource(dynamicFilter);
+    Assert.assertFalse(splitSource.isFinished());
+
+    List<ConnectorSplit> splits = new ArrayList<>();
+    ConnectorSplitBatch batch;
+    do {
+      batch = splitSource.getNextBatch(NOT_PARTITIONED, 1).get();
+      Assert.assertTrue(batch.getSplits().size() <= 1);
+      Assert.assertEquals(batch.isNoMoreSplits(), splitSource.isFinished());
+      splits.addAll(batch.getSplits());
+    } while (!batch.isNoMoreSplits());
+    splitSource.close();
+
+    Assert.assertEquals(splits.size(), 3);
+    Assert.assertEquals(partitions(splits), ImmutableSet.of("pt=a", "pt=b", "pt=c"));
+  }
+
+  @Test
+  public void testSplitEncodingRoundTrip() throws Exception {
+    int splitCount = 0;
+    try (CloseableIterable<CombinedScanTask> combinedScanTasks = splitTable.newScan().planTasks()) {
+      for (CombinedScanTask combinedScanTask : combinedScanTasks) {
+        for (KeyedTableScanTask task : combinedScanTask.tasks()) {
+          KeyedConnectorSplit decoded = SPLIT_CODEC.fromJson(SPLIT_CODEC.toJson(KeyedConnectorSplit.of(task)));
+          KeyedTableScanTask rebuilt = decoded.getKeyedTableScanTask(splitTable.schema());
+          assertSameFiles(rebuilt.baseTasks(), task.baseTasks());
+          assertSameFiles(rebuilt.insertTasks(), task.insertTasks());
+          assertSameFiles(rebuilt.arcticEquityDeletes(), task.arcticEquityDeletes());
+          splitCount++;
+        }
+      }
+    }
+    Assert.assertEquals(splitCount, 3);
+  }
+
+  @Test
+  public void testPushDownDynamicFilter() throws Exception {
+    // partition c is pruned by the partition domain, partition a by the bounds of id in its files
+    TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+    dynamicFilter.setPredicate(ImmutableMap.of(
+        column("pt"), Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("a"), utf8Slice("b"))),
+        column("id"), Domain.singleValue(INTEGER, 3L)));
+    KeyedConnectorSplitSource splitSource = splitSource(dynamicFilter);
+
+    List<ConnectorSplit> splits = allSplits(splitSource);
+    Assert.assertEquals(partitions(splits), ImmutableSet.of("pt=b"));
+    Assert.assertEquals(((KeyedConnectorSplit) splits.get(0)).getEqualityDeleteFiles().size(), 0);
+  }
+
+  @Test
+  public void testPruneSplitsByLateDynamicFilter() throws Exception {
+    TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+    KeyedConnectorSplitSource splitSource = splitSource(dynamicFilter);
+    // plan the tasks before the dynamic filter arrives
+    ConnectorSplitBatch batch = splitSource.getNextBatch(NOT_PARTITIONED, 0).get();
+    Assert.assertTrue(batch.getSplits().isEmpty());
+    Assert.assertFalse(batch.isNoMoreSplits());
+
+    dynamicFilter.setPredicate(ImmutableMap.of(
+        column("pt"), Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("a"), utf8Slice("b")))));
+    List<ConnectorSplit> splits = allSplits(splitSource);
+    Assert.assertEquals(partitions(splits), ImmutableSet.of("pt=a", "pt=b"));
+    Assert.assertEquals(splitSource.getMetrics().getMetrics().get("prunedSplits"), new LongCount(1));
+  }
+
+  @AfterClass
+  public void clear() {
+    testCatalog.dropTable(SPLIT_TABLE_ID, true);
+    AMS.handler().getTableCommitMetas().remove(SPLIT_TABLE_ID.buildTableIdentifier());
+    clearTable();
+  }
+
+  private KeyedConnectorSplitSource splitSource(DynamicFilter dynamicFilter) {
+    return new KeyedConnectorSplitSource(
+        splitTable.newScan(),
+        getClass().getClassLoader(),
+        splitTable.schema(),
+        ImmutableSet.of(1),
+        ImmutableSet.of(2),
+        dynamicFilter,
+        new Duration(0, MILLISECONDS),
+        TESTING_TYPE_MANAGER);
+  }
+
+  private static List<ConnectorSplit> allSplits(KeyedConnectorSplitSource splitSource) throws Exception {
+    List<ConnectorSplit> splits = new ArrayList<>();
+    ConnectorSplitBatch batch;
+    do {
+      batch = splitSource.getNextBatch(NOT_PARTITIONED, 100).get();
+      splits.addAll(batch.getSplits());
+    } while (!batch.isNoMoreSplits());
+    splitSource.close();
+    return splits;
+  }
+
+  private Set<String> partitions(List<ConnectorSplit> splits) {
+    return splits.stream()
+        .map(split -> ((KeyedConnectorSplit) split).getKeyedTableScanTask(splitTable.schema()).dataTasks().get(0))
+        .map(task -> task.spec().partitionToPath(task.file().partition()))
+        .collect(Collectors.toSet());
+  }
+
+  private static IcebergColumnHandle column(String name) {
+    return getColumnHandle(SPLIT_TABLE_SCHEMA.findField(name), TESTING_TYPE_MANAGER);
+  }
+
+  private static void assertSameFiles(List<ArcticFileScanTask> actual, List<ArcticFileScanTask> expected) {
+    Assert.assertEquals(actual.size(), expected.size());
+    Map<String, ArcticFileScanTask> expectedByPath = new HashMap<>();
+    expected.forEach(task -> expectedByPath.put(task.file().path().toString(), task));
+    for (ArcticFileScanTask task : actual) {
+      ArcticFileScanTask expectedTask = expectedByPath.get(task.file().path().toString());
+      Assert.assertNotNull(expectedTask, "unexpected file " + task.file().path());
+      Assert.assertEquals(task.file().type(), expectedTask.file().type());
+      Assert.assertEquals(task.file().node(), expectedTask.file().node());
+      Assert.assertEquals(task.file().transactionId(), expectedTask.file().transactionId());
+      Assert.assertEquals(task.file().recordCount(), expectedTask.file().recordCount());
+      Assert.assertEquals(task.file().fileSizeInBytes(), expectedTask.file().fileSizeInBytes());
+      Assert.assertEquals(task.spec().partitionToPath(task.file().partition()),
+          expectedTask.spec().partitionToPath(expectedTask.file().partition()));
+      Assert.assertEquals(task.deletes().size(), expectedTask.deletes().size());
+    }
+  }
+
+  private static List<Record> records(String partition, int... ids) {
+    GenericRecord record = GenericRecord.create(SPLIT_TABLE_SCHEMA);
+    ImmutableList.Builder<Record> builder = ImmutableList.builder();
+    for (int id : ids) {
+      builder.add(record.copy(ImmutableMap.of("id", id, "pt", partition)));
+    }
+    return builder.build();
+  }
+
+  private static class TestingDynamicFilter implements DynamicFilter {
+    private volatile TupleDomain<ColumnHandle> predicate = TupleDomain.all();
+
+    void setPredicate(Map<IcebergColumnHandle, Domain> domains) {
+      this.predicate = TupleDomain.withColumnDomains(ImmutableMap.<ColumnHandle, Domain>copyOf(domains));
+    }
+
+    @Override
+    public Set<ColumnHandle> getColumnsCovered() {
+      return predicate.getDomains().map(Map::keySet).orElse(ImmutableSet.of());
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked() {
+      return NOT_BLOCKED;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+
+    @Override
+    public boolean isAwaitable() {
+      return false;
+    }
+
+    @Override
+    public TupleDomain<ColumnHandle> getCurrentPredicate() {
+      return predicate;
+    }
+  }
+}